@@ -0,0 +1,61 @@
+#!/bin/bash
+# Writes the index attributes (`idxV`, plus `endMillis`/`members` on trips and `searchTokens` on people)
+# onto rows saved before the app wrote them, so the trip-index and people-search rebuilds can scan just
+# those attributes instead of reading and parsing every row whole. See docs/migrations/index-attributes.md.
+#
+# Runs org.paulsens.trip.dynamo.IndexAttributeBackfill: the search tokens must match the app's tokenizer
+# exactly, so this cannot be done in shell. Requires a built app (mvn install) so the classpath under
+# target/ROOT exists. Each row is written back only if its `content` is unchanged since the scan; a row
+# saved meanwhile already has fresh attributes. Idempotent -- safe to re-run.
+#
+# DRY RUN by default; writes only with --apply.
+#
+# No cache-invalidation hook on purpose: nothing cached changes. The attributes only make the NEXT index
+# rebuild cheaper, and rows without them keep being read whole until they are backfilled or re-saved.
+#
+# Usage: backfill-index-attributes.sh [--apply] [--region <r>] [--profile <p>] [--parallel <n>]
+#                                     [--app-root <dir>]
+set -euo pipefail
+
+REGION="us-west-2"
+PROFILE=""
+PARALLEL=8          # rows written at a time
+APP_ROOT=""         # exploded WAR root (default: this repo's target/ROOT)
+APPLY=0
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+
+usage() { sed -n '2,17p' "${BASH_SOURCE[0]}" | sed 's/^# \{0,1\}//'; exit "${1:-0}"; }
+
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --region)                 REGION="$2"; shift 2 ;;
+        --profile)                PROFILE="$2"; shift 2 ;;
+        --parallel|--concurrency) PARALLEL="$2"; shift 2 ;;
+        --app-root)               APP_ROOT="$2"; shift 2 ;;
+        --apply)                  APPLY=1; shift ;;
+        -h|--help)                usage 0 ;;
+        *) echo "Unknown arg: $1" >&2; usage 1 >&2 ;;
+    esac
+done
+
+export TRIP_DYNAMO_REGION="$REGION"
+[[ -n "$PROFILE" ]] && export AWS_PROFILE="$PROFILE"
+
+command -v java >/dev/null || { echo "java is required" >&2; exit 1; }
+[[ -z "$APP_ROOT" ]] && APP_ROOT="$SCRIPT_DIR/../trip/target/ROOT"
+CLASSES="$APP_ROOT/WEB-INF/classes"
+if [[ ! -d "$CLASSES" ]]; then
+    echo "Built classes not found at '$CLASSES'." >&2
+    echo "Build first (cd trip && mvn install) or pass --app-root <exploded-WAR-root>." >&2
+    exit 1
+fi
+CP="$CLASSES:$APP_ROOT/WEB-INF/lib/*"
+JAVA_ARGS=(--parallel "$PARALLEL")
+if [[ "$APPLY" -eq 1 ]]; then
+    echo "Backfilling index attributes on 'trips' and 'people' (region '$REGION', ${PARALLEL} at a time)..."
+    JAVA_ARGS+=(--apply)
+else
+    echo "DRY RUN (pass --apply to write). Region '$REGION'."
+fi
+exec java --enable-preview -cp "$CP" org.paulsens.trip.dynamo.IndexAttributeBackfill "${JAVA_ARGS[@]}"
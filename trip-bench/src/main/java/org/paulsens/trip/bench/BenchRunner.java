@@ -0,0 +1,58 @@
+package org.paulsens.trip.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * {@code benchmarks.jar}'s entry point: JMH's own command line, except that results are written as JSON by
+ * default, to {@code bench-results/<version>-<timestamp>.json}, so every run leaves a file that can be diffed
+ * against the previous release's. An explicit {@code -rf}/{@code -rff} still wins.
+ *
+ * <pre>
+ *   java --enable-preview -jar trip-bench/target/benchmarks.jar                      # everything, in memory
+ *   java --enable-preview -jar trip-bench/target/benchmarks.jar PointCache -p backend=cluster
+ * </pre>
+ */
+public final class BenchRunner {
+
+    static final String RESULTS_DIR = "bench-results";
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchRunner() {
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException,
+            IOException {
+        final CommandLineOptions cli = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+            if (!cli.getResult().hasValue()) {
+                Files.createDirectories(Path.of(RESULTS_DIR));
+                options.result(Path.of(RESULTS_DIR, version() + '-' + LocalDateTime.now().format(STAMP) + ".json")
+                        .toString());
+            }
+        }
+        new Runner(options.build()).run();
+    }
+
+    /** The version the numbers belong to: {@code -Dtrip.bench.label}, else the uber-jar manifest's version. */
+    private static String version() {
+        final String label = System.getProperty("trip.bench.label");
+        if (label != null && !label.isBlank()) {
+            return label;
+        }
+        final String version = BenchRunner.class.getPackage().getImplementationVersion();
+        return version == null ? "dev" : version;
+    }
+}
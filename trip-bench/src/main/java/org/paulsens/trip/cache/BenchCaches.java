@@ -0,0 +1,84 @@
+package org.paulsens.trip.cache;
+
+import java.io.IOException;
+import java.util.function.UnaryOperator;
+
+/**
+ * The cache a benchmark runs against, chosen by its {@code backend} parameter:
+ * <ul>
+ *   <li>{@code memory} -- {@link InMemoryCacheClient}; measures this code and nothing else. The default.</li>
+ *   <li>{@code cluster} -- a {@link LocalRedisCluster} started for the trial and stopped after it; needs
+ *       {@code valkey-server}/{@code valkey-cli} (or the redis ones) on the PATH.</li>
+ *   <li>{@code valkey} -- whatever {@code trip.valkey.uri} / {@code TRIP_VALKEY_URI} names, exactly as the
+ *       application resolves it ({@link CacheConfig#resolve()}).</li>
+ * </ul>
+ *
+ * <p>In the same package as the harness because {@link LocalRedisCluster} is package-private, like the tests
+ * that use it.
+ */
+public final class BenchCaches {
+
+    public static final String MEMORY = "memory";
+    public static final String CLUSTER = "cluster";
+    public static final String VALKEY = "valkey";
+
+    private BenchCaches() {
+    }
+
+    /** An open cache and whatever must be stopped with it. */
+    public static final class Opened implements AutoCloseable {
+        private final LocalRedisCluster cluster;
+        private CacheClient client;
+
+        private Opened(final CacheClient client, final LocalRedisCluster cluster) {
+            this.client = client;
+            this.cluster = cluster;
+        }
+
+        public CacheClient client() {
+            return client;
+        }
+
+        /** Wraps the client (a near-cache, say); {@link #close} then closes the wrapper, which owns the rest. */
+        public CacheClient decorate(final UnaryOperator<CacheClient> wrapper) {
+            client = wrapper.apply(client);
+            return client;
+        }
+
+        @Override
+        public void close() {
+            client.close();
+            if (cluster != null) {
+                cluster.stop();
+            }
+        }
+    }
+
+    public static Opened open(final String backend) throws IOException, InterruptedException {
+        return switch (backend) {
+            case MEMORY -> new Opened(new InMemoryCacheClient(), null);
+            case VALKEY -> new Opened(valkey(), null);
+            case CLUSTER -> {
+                final LocalRedisCluster cluster = LocalRedisCluster.start();
+                System.setProperty("trip.valkey.uri", cluster.seedUri());
+                System.setProperty("trip.valkey.protocol", "cluster");
+                try {
+                    yield new Opened(valkey(), cluster);
+                } catch (final RuntimeException ex) {
+                    cluster.stop();
+                    throw ex;
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown backend '" + backend + "'; expected "
+                    + MEMORY + ", " + CLUSTER + " or " + VALKEY + '.');
+        };
+    }
+
+    private static ValkeyCacheClient valkey() {
+        final CacheConfig config = CacheConfig.resolve();
+        if (config.getMode() != CacheConfig.Mode.VALKEY) {
+            throw new IllegalStateException("backend=valkey needs trip.valkey.uri / TRIP_VALKEY_URI.");
+        }
+        return new ValkeyCacheClient(config);
+    }
+}
@@ -0,0 +1,46 @@
+package org.paulsens.trip.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * The entity the typed-cache benchmarks store: an id, an owner and a free-text body padded to a chosen size, so
+ * one parameter moves a value across {@link CacheValueCodec}'s compression threshold. Serialized with a prebuilt
+ * reader and writer, as the DAOs' codecs are, so the numbers are the cache's and not Jackson's setup.
+ */
+record BenchRow(String id, String owner, String body) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(BenchRow.class);
+    private static final ObjectWriter WRITER = MAPPER.writerFor(BenchRow.class);
+    private static final String FILLER = "Day 3: depart the hotel at 8:00, lunch in the old town, evening free. ";
+
+    /** A row whose body is {@code bodyChars} of itinerary-like text: as repetitive as real trip notes. */
+    static BenchRow of(final String id, final int bodyChars) {
+        final StringBuilder body = new StringBuilder(bodyChars + FILLER.length());
+        while (body.length() < bodyChars) {
+            body.append(FILLER);
+        }
+        body.setLength(bodyChars);
+        return new BenchRow(id, "owner-" + id, body.toString());
+    }
+
+    static String toJson(final BenchRow row) {
+        try {
+            return WRITER.writeValueAsString(row);
+        } catch (final JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    static BenchRow fromJson(final String json) {
+        try {
+            return READER.readValue(json);
+        } catch (final JsonProcessingException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.paulsens.trip.cache;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link LocalSearchIndex#searchIds} on a warmed index of people-like entries (first name, last name, email), the
+ * same shape {@link SearchIndexBenchmark} uses. A first keystroke hits the candidate cap; a narrowed prefix and a
+ * two-word query are the common case; a typo takes the fuzzy pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LocalSearchIndexBenchmark {
+
+    private static final String[] FIRST = {"anna", "ben", "carla", "david", "elena", "frank", "grace", "henry",
+        "isabel", "james", "karen", "luke", "maria", "nathan", "olivia", "peter", "rachel", "samuel", "teresa"};
+    private static final String[] LAST = {"anderson", "baker", "castillo", "dubois", "evans", "fischer", "garcia",
+        "hughes", "ivanova", "jensen", "kowalski", "lopez", "martin", "nguyen", "okafor", "paulsen", "rossi"};
+
+    @Param({"50000"})
+    private int people;
+
+    private LocalSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Random random = new Random(42);
+        final Map<String, Set<String>> tokens = new HashMap<>();
+        for (int i = 0; i < people; i++) {
+            final String first = FIRST[random.nextInt(FIRST.length)];
+            final String last = LAST[random.nextInt(LAST.length)];
+            tokens.put("p" + i, Set.of(first, last, first + '.' + last + i + "@example.com"));
+        }
+        index = LocalSearchIndex.builder()
+                .loader(() -> tokens)
+                .name("bench")
+                .build();
+        index.warm();
+    }
+
+    @Benchmark
+    public List<String> firstKeystroke() {
+        return index.searchIds(List.of("m"), 20).orElseThrow();
+    }
+
+    @Benchmark
+    public List<String> narrowed() {
+        return index.searchIds(List.of("pau"), 20).orElseThrow();
+    }
+
+    @Benchmark
+    public List<String> twoWords() {
+        return index.searchIds(List.of("maria", "pau"), 20).orElseThrow();
+    }
+
+    @Benchmark
+    public List<String> typo() {
+        return index.searchIds(List.of("paulsne"), 20).orElseThrow();
+    }
+}
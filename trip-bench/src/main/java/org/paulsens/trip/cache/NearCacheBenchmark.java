@@ -0,0 +1,119 @@
+package org.paulsens.trip.cache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link NearCacheClient}'s hit paths, each read bound to {@link Cached#YES} the way the DAO facade binds it:
+ * a point value, a sixteen-key multi-get, a whole partition hash (which is copied out on every hit), and a
+ * field subset. {@code bypass} is the same point read bound to {@link Cached#NO}, i.e. straight to the shared
+ * cache, for scale.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NearCacheBenchmark {
+
+    private static final String PREFIX = CacheKeys.FORMAT_VERSION + "bench:near:";
+    private static final int KEYS = 256;
+    private static final int MULTI = 16;
+
+    @Param({BenchCaches.MEMORY})
+    private String backend;
+
+    /** Fields in the partition hash. */
+    @Param({"200"})
+    private int hashFields;
+
+    private BenchCaches.Opened opened;
+    private CacheClient near;
+    private final List<List<String>> multiKeys = new ArrayList<>();
+    private List<String> someFields;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        opened = BenchCaches.open(backend);
+        near = opened.decorate(delegate -> new NearCacheClient(delegate, () -> null));
+        final String value = BenchRow.toJson(BenchRow.of("v", 1_024));
+        for (int i = 0; i < KEYS; i++) {
+            near.putValue(PREFIX + i, value, Duration.ofMinutes(30));
+        }
+        for (int i = 0; i < KEYS; i += MULTI) {
+            final List<String> keys = new ArrayList<>(MULTI);
+            for (int k = i; k < i + MULTI; k++) {
+                keys.add(PREFIX + k);
+            }
+            multiKeys.add(keys);
+        }
+        final Map<String, String> hash = new HashMap<>();
+        for (int i = 0; i < hashFields; i++) {
+            hash.put("f" + i, value);
+        }
+        near.putHashFields(PREFIX + "hash", hash);
+        someFields = List.of(CacheKeys.LOADED_SENTINEL, CacheKeys.LOADED_AT, "f1");
+        // Load everything into the heap once; every measured read below is then a near-cache hit.
+        for (int i = 0; i < KEYS; i++) {
+            valueHit();
+        }
+        multiGetHit();
+        hashHit();
+        hashFieldsHit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        near.clearNamespace(PREFIX);
+        opened.close();
+    }
+
+    @Benchmark
+    public Optional<String> valueHit() {
+        final String key = PREFIX + (next++ & (KEYS - 1));
+        return NearCacheContext.call(Cached.YES, () -> near.getValue(key));
+    }
+
+    @Benchmark
+    public Map<String, String> multiGetHit() {
+        final List<String> keys = multiKeys.get(next++ & (multiKeys.size() - 1));
+        return NearCacheContext.call(Cached.YES, () -> near.getValues(keys));
+    }
+
+    @Benchmark
+    public Map<String, String> hashHit() {
+        return NearCacheContext.call(Cached.YES, () -> near.getHash(PREFIX + "hash"));
+    }
+
+    @Benchmark
+    public Map<String, String> hashFieldsHit() {
+        return NearCacheContext.call(Cached.YES, () -> near.getHashFields(PREFIX + "hash", someFields));
+    }
+
+    @Benchmark
+    public Optional<String> bypass() {
+        final String key = PREFIX + (next++ & (KEYS - 1));
+        return NearCacheContext.call(Cached.NO, () -> near.getValue(key));
+    }
+}
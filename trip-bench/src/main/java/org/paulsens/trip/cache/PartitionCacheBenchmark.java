@@ -0,0 +1,87 @@
+package org.paulsens.trip.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PartitionCache#getAll} on a loaded partition: one HGETALL, then a decode, parse and sort of every
+ * member -- the path behind a large trip's registration or transaction list. {@code coldLoad} invalidates first,
+ * so it measures the loader plus the write-back of the whole hash.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PartitionCacheBenchmark {
+
+    private static final String PREFIX = CacheKeys.FORMAT_VERSION + "bench:partition:";
+
+    @Param({BenchCaches.MEMORY})
+    private String backend;
+
+    @Param({"100", "1000", "5000"})
+    private int partitionSize;
+
+    @Param({"400"})
+    private int bodyChars;
+
+    private BenchCaches.Opened opened;
+    private PartitionCache<String, BenchRow> cache;
+    private Supplier<List<BenchRow>> loader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        opened = BenchCaches.open(backend);
+        cache = PartitionCache.<String, BenchRow>builder()
+                .cache(opened.client())
+                .keyPrefix(PREFIX)
+                .idGetter(BenchRow::id)
+                .idFormatter(id -> id)
+                .serializer(BenchRow::toJson)
+                .deserializer(BenchRow::fromJson)
+                .order(Comparator.comparing(BenchRow::id))
+                .build();
+        final List<BenchRow> rows = new ArrayList<>(partitionSize);
+        for (int i = 0; i < partitionSize; i++) {
+            rows.add(BenchRow.of("r" + i, bodyChars));
+        }
+        loader = () -> rows;
+        cache.getAll("large", loader);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        opened.client().clearNamespace(PREFIX);
+        opened.close();
+    }
+
+    @Benchmark
+    public List<BenchRow> loadedHit() {
+        return cache.getAll("large", loader);
+    }
+
+    @Benchmark
+    public List<BenchRow> coldLoad() {
+        cache.invalidate("cold");
+        return cache.getAll("cold", loader);
+    }
+}
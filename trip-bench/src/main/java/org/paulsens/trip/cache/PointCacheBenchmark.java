@@ -0,0 +1,88 @@
+package org.paulsens.trip.cache;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PointCache#get}: a fresh hit (one GET, envelope decode, codec decode, parse), a not-found miss (one GET
+ * and the loader), and a miss that loads and writes through. The last one also deletes the key it wrote, so
+ * that every call stays a miss; against Valkey that is one extra round trip in its figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PointCacheBenchmark {
+
+    private static final String PREFIX = CacheKeys.FORMAT_VERSION + "bench:point:";
+    private static final int HOT_IDS = 1_024;
+
+    @Param({BenchCaches.MEMORY})
+    private String backend;
+
+    /** Body size; the default straddles {@link CacheValueCodec#DEFAULT_COMPRESS_ABOVE}. */
+    @Param({"512", "8192"})
+    private int bodyChars;
+
+    private BenchCaches.Opened opened;
+    private PointCache<BenchRow> cache;
+    private Function<String, BenchRow> loader;
+    private BenchRow loaded;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        opened = BenchCaches.open(backend);
+        cache = PointCache.<BenchRow>builder()
+                .cache(opened.client())
+                .keyPrefix(PREFIX)
+                .serializer(BenchRow::toJson)
+                .deserializer(BenchRow::fromJson)
+                .build();
+        loaded = BenchRow.of("loaded", bodyChars);
+        loader = id -> loaded;
+        for (int i = 0; i < HOT_IDS; i++) {
+            cache.put("hot" + i, BenchRow.of("hot" + i, bodyChars));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        opened.client().clearNamespace(PREFIX);
+        opened.close();
+    }
+
+    @Benchmark
+    public Optional<BenchRow> hit() {
+        return cache.get("hot" + (next++ & (HOT_IDS - 1)), loader);
+    }
+
+    @Benchmark
+    public Optional<BenchRow> missNotFound() {
+        return cache.get("absent", id -> null);
+    }
+
+    @Benchmark
+    public Optional<BenchRow> missLoadAndWrite() {
+        final Optional<BenchRow> value = cache.get("cold", loader);
+        opened.client().removeKey(PREFIX + "cold");
+        return value;
+    }
+}
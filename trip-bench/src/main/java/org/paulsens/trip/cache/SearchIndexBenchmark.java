@@ -0,0 +1,85 @@
+package org.paulsens.trip.cache;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SearchIndex#searchIds} on a built index of people-like entries (first name, last name, email). A
+ * one-letter prefix is the type-ahead's first keystroke and matches a large slice of the index; a three-letter
+ * one is the typical narrowed query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchIndexBenchmark {
+
+    private static final String KEY = CacheKeys.FORMAT_VERSION + "bench:search";
+    private static final String[] FIRST = {"anna", "ben", "carla", "david", "elena", "frank", "grace", "henry",
+        "isabel", "james", "karen", "luke", "maria", "nathan", "olivia", "peter", "rachel", "samuel", "teresa"};
+    private static final String[] LAST = {"anderson", "baker", "castillo", "dubois", "evans", "fischer", "garcia",
+        "hughes", "ivanova", "jensen", "kowalski", "lopez", "martin", "nguyen", "okafor", "paulsen", "rossi"};
+
+    @Param({BenchCaches.MEMORY})
+    private String backend;
+
+    @Param({"5000"})
+    private int people;
+
+    private BenchCaches.Opened opened;
+    private SearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        opened = BenchCaches.open(backend);
+        final Random random = new Random(42);
+        final Map<String, Set<String>> tokens = new HashMap<>();
+        for (int i = 0; i < people; i++) {
+            final String first = FIRST[random.nextInt(FIRST.length)];
+            final String last = LAST[random.nextInt(LAST.length)];
+            tokens.put("p" + i, Set.of(first, last, first + '.' + last + i + "@example.com"));
+        }
+        index = SearchIndex.builder()
+                .cache(opened.client())
+                .key(KEY)
+                .loader(() -> tokens)
+                .build();
+        index.searchIds("a", 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.invalidate();
+        opened.close();
+    }
+
+    @Benchmark
+    public List<String> firstKeystroke() {
+        return index.searchIds("m", 20);
+    }
+
+    @Benchmark
+    public List<String> narrowed() {
+        return index.searchIds("pau", 20);
+    }
+}
@@ -0,0 +1,82 @@
+package org.paulsens.trip.content;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paulsens.trip.model.ContentInstance;
+import org.paulsens.trip.model.ContentTemplate;
+import org.paulsens.trip.model.Placeholder;
+
+/**
+ * {@link ContentRenderer#render} of one instance, with the placeholder types cycling through text, rich text,
+ * URL, image and video so every escaping and normalizing branch is in the mix. Pure CPU; no backend.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ContentRendererBenchmark {
+
+    private static final Placeholder.Type[] TYPES = {Placeholder.Type.TEXT, Placeholder.Type.RICH_TEXT,
+        Placeholder.Type.URL, Placeholder.Type.IMAGE_URL, Placeholder.Type.VIDEO_URL};
+
+    /** Placeholders in the template; each appears twice in the body. */
+    @Param({"4", "32"})
+    private int placeholders;
+
+    private ContentTemplate template;
+    private ContentInstance instance;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<Placeholder> declared = new ArrayList<>(placeholders);
+        final Map<String, String> values = new HashMap<>();
+        final StringBuilder body = new StringBuilder("<section class=\"event\">");
+        for (int i = 0; i < placeholders; i++) {
+            final Placeholder.Type type = TYPES[i % TYPES.length];
+            final String name = "field" + i;
+            declared.add(new Placeholder(name, type, name, null, false));
+            values.put(name, sampleValue(type, i));
+            body.append("<div class=\"row\"><span>{{").append(name).append("}}</span><a data-v=\"{{ ")
+                    .append(name).append(" }}\">more</a></div>\n");
+        }
+        body.append("</section>");
+        template = new ContentTemplate("bench", 1, "Bench", "", body.toString(), declared,
+                LocalDateTime.now(), "bench");
+        instance = new ContentInstance("i1", "home.events", "Bench", "bench", 1, values, null, 0, 1,
+                LocalDateTime.now(), "bench");
+    }
+
+    @Benchmark
+    public String render() {
+        return ContentRenderer.render(template, instance);
+    }
+
+    private static String sampleValue(final Placeholder.Type type, final int i) {
+        return switch (type) {
+            case TEXT -> "Dinner at 7 & dessert <after> the \"show\" #" + i;
+            case RICH_TEXT -> "<p>Bring a <b>jacket</b>; evenings are cool.</p>";
+            case URL -> "https://example.com/itinerary?day=" + i + "&lang=en";
+            case IMAGE_URL -> "https://cdn.example.com/photos/" + i + ".jpg";
+            case VIDEO_URL -> "https://www.youtube.com/watch?v=dQw4w9WgXcQ";
+            case CHOICE -> "yes";
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package org.paulsens.trip.dynamo;
+
+/**
+ * The {@link Persistence} a benchmark runs against, chosen by its {@code store} parameter: {@code memory}
+ * ({@link InMemoryPersistence}, the default) or {@code dynamo} ({@link DynamoLocal}, the in-process DynamoDB
+ * Local engine the integration tests use, started on first use and stopped at JVM exit).
+ *
+ * <p>DynamoDB Local is a functional stand-in, not a performance one: numbers against it say how many round
+ * trips a path makes, not what they would cost against the real service.
+ */
+public final class BenchStores {
+
+    public static final String MEMORY = "memory";
+    public static final String DYNAMO = "dynamo";
+
+    private BenchStores() {
+    }
+
+    public static Persistence open(final String store) {
+        return switch (store) {
+            case MEMORY -> new InMemoryPersistence();
+            case DYNAMO -> DynamoLocal.persistence();
+            default -> throw new IllegalArgumentException("Unknown store '" + store + "'; expected "
+                    + MEMORY + " or " + DYNAMO + '.');
+        };
+    }
+}
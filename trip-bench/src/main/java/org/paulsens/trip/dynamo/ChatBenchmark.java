@@ -0,0 +1,127 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.paulsens.trip.cache.BenchCaches;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.chat.ChatChannel;
+import org.paulsens.trip.model.chat.ChatMessage;
+import org.paulsens.trip.model.chat.ChatPage;
+import org.paulsens.trip.model.chat.ChatSettings;
+
+/**
+ * {@link ChatDAO}'s two hot paths. Reads run against a channel holding {@link #HISTORY} messages: a poll that is
+ * a few messages behind (what every open chat does between wakes) and a first load of the newest page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChatBenchmark {
+
+    static final int HISTORY = 300;
+    private static final int BEHIND = 5;
+
+    @Param({BenchCaches.MEMORY})
+    private String backend;
+
+    @Param({BenchStores.MEMORY})
+    private String store;
+
+    private BenchCaches.Opened opened;
+    private ChatDAO dao;
+    private ChatChannel channel;
+    private ChatMessage.Id pollCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        opened = BenchCaches.open(backend);
+        dao = new ChatDAO(new ObjectMapper().registerModule(new JavaTimeModule()), BenchStores.open(store),
+                opened.client());
+        channel = channel("bench-read-" + System.nanoTime());
+        final List<ChatMessage> saved = new ArrayList<>(HISTORY);
+        for (int i = 0; i < HISTORY; i++) {
+            saved.add(dao.saveMessage(draft(channel, "message " + i), channel, null).orElseThrow());
+        }
+        pollCursor = saved.get(HISTORY - 1 - BEHIND).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        opened.close();
+    }
+
+    @Benchmark
+    public ChatPage pollBehind() {
+        return dao.getMessagesSince(channel.getId(), pollCursor, 50, null, channel, null, Instant.now());
+    }
+
+    @Benchmark
+    public ChatPage initialLoad() {
+        return dao.getMessagesSince(channel.getId(), null, 50, null, channel, null, Instant.now());
+    }
+
+    /**
+     * {@link ChatDAO#saveMessage}, timed per batch of {@link Writes#BATCH}. Not a throughput loop: ids are
+     * minted one millisecond apart and the allocator refuses to run more than five seconds ahead of the clock,
+     * so an unthrottled loop measures that refusal. Each batch starts on a new channel with the allocator reset.
+     */
+    @State(Scope.Thread)
+    public static class Writes {
+        static final int BATCH = 1_000;
+        ChatChannel channel;
+
+        @Setup(Level.Iteration)
+        public void newChannel(final ChatBenchmark bench) {
+            channel = bench.channel("bench-write-" + System.nanoTime());
+            bench.dao.forceAllocator(0L);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = Writes.BATCH)
+    @Measurement(iterations = 10, batchSize = Writes.BATCH)
+    public Optional<ChatMessage> saveMessage(final Writes writes) {
+        return dao.saveMessage(draft(writes.channel, "hello"), writes.channel, null);
+    }
+
+    private ChatChannel channel(final String tripId) {
+        final ChatChannel created = new ChatChannel(
+                ChatChannel.Id.forTrip(tripId), tripId, ChatChannel.Kind.TRIP, "Bench",
+                null, null, ChatSettings.defaults(), Instant.now(), "admin", null, null);
+        if (!dao.saveChannel(created)) {
+            throw new IllegalStateException("Unable to save bench channel " + tripId);
+        }
+        return created;
+    }
+
+    private static ChatMessage draft(final ChatChannel channel, final String body) {
+        return new ChatMessage(
+                null, channel.getId(), Person.Id.from("p1"), null,
+                ChatMessage.MessageKind.TEXT, body, null, null, null,
+                null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,54 @@
+package org.paulsens.trip.media;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PhotoProcessor#process} on the upload shapes that re-encode: a camera-sized JPEG, the same with an
+ * EXIF rotation to apply, and an alpha PNG. Images come from the tests' {@link PhotoFixtures}. HEIC is left
+ * out: it needs libheif on the host, and its figure would be libheif's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class PhotoProcessorBenchmark {
+
+    @Param({"jpeg", "rotatedJpeg", "png"})
+    private String shape;
+
+    @Param({"3000"})
+    private int width;
+
+    private final PhotoProcessor processor = new PhotoProcessor();
+    private byte[] upload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final int height = width * 3 / 4;
+        upload = switch (shape) {
+            case "jpeg" -> PhotoFixtures.jpeg(width, height);
+            case "rotatedJpeg" -> PhotoFixtures.jpegWithOrientation(width, height, 6);
+            case "png" -> PhotoFixtures.png(width, height, true);
+            default -> throw new IllegalArgumentException("Unknown shape '" + shape + "'.");
+        };
+    }
+
+    @Benchmark
+    public ProcessedPhoto process() {
+        return processor.process(upload);
+    }
+}
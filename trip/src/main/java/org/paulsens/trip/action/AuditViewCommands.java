@@ -2,13 +2,20 @@ package org.paulsens.trip.action;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Named;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.audit.Audit;
+import org.paulsens.trip.audit.DynamoAuditSink;
 import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.model.AuditAction;
 import org.paulsens.trip.model.AuditEvent;
@@ -85,6 +92,11 @@ public class AuditViewCommands {
         return List.of(AuditOutcome.values());
     }
 
+    /** The index writer's queue and counters; empty when this process writes no index. */
+    public Optional<DynamoAuditSink.Stats> getIndexStats() {
+        return Audit.indexStats();
+    }
+
     /** A record's timestamp as a UTC wall-clock value, for the server-rendered (no-JS) form of the cell. */
     public LocalDateTime utcTime(final AuditEvent event) {
         return (event == null) ? null : LocalDateTime.ofInstant(event.getTimestamp(), ZoneOffset.UTC);
@@ -98,42 +110,106 @@ public class AuditViewCommands {
         return (event == null) ? 0L : event.getTimestamp().toEpochMilli();
     }
 
+    /** The longest range one export covers; a longer one stops there and says where to resume. */
+    public static final int EXPORT_MAX_DAYS = 366;
+    /** An export with no {@code since}: the days a page walks (the DAO's day budget). */
+    static final int DEFAULT_EXPORT_DAYS = 60;
+
+    public static final String CSV_HEADER =
+            "timestamp,action,outcome,actorEmail,actorId,targetType,targetEmail,targetId,message\n";
+
     /**
-     * A CSV of the current filter's window.
+     * How an export ended.
      *
-     * <p>Bounded by the same day budget as a page, so an export cannot turn into an unbounded table walk. The
-     * header says so, because a truncated export that looks complete is worse than no export.
+     * @param written    events handed to the caller
+     * @param resumeFrom null when the range was covered; otherwise the {@code since} that continues it
+     * @param failed     true when it stopped because the trail could not be read, not at the range cap
      */
-    public String toCsv(final Instant before, final String actor, final String action, final String outcome,
-            final String text) {
-        final AuditQuery query = AuditQuery.builder()
+    public record ExportEnd(long written, Instant resumeFrom, boolean failed) {
+        public boolean isComplete() {
+            return resumeFrom == null;
+        }
+    }
+
+    /**
+     * An export's query. {@code since} defaults to the first day a page would have searched, so an export with
+     * no range is the window the admin was looking at.
+     */
+    public AuditQuery exportQuery(final Instant since, final Instant before, final String actor,
+            final String action, final String outcome, final String text) {
+        final LocalDate lastDay = LocalDate.ofInstant(before == null ? Instant.now() : before, ZoneOffset.UTC);
+        return AuditQuery.builder()
+                .since(since != null ? since : lastDay.minusDays(DEFAULT_EXPORT_DAYS - 1L)
+                        .atStartOfDay(ZoneOffset.UTC).toInstant())
                 .before(before)
                 .actor(blankToNull(actor))
                 .action(parseAction(action))
                 .outcome(parseOutcome(outcome))
                 .text(blankToNull(text))
                 .build();
-        final List<AuditEvent> events;
+    }
+
+    /**
+     * Streams a query's events to {@code each}, oldest first, one DynamoDB slice in memory at a time.
+     *
+     * <p>Never more than {@value #EXPORT_MAX_DAYS} days per call: the rest is a resumable {@link ExportEnd}, as
+     * is a read failure part-way. Either way the rows already handed over are good, and {@code since =
+     * resumeFrom} carries on exactly after them -- sort keys are unique to the millisecond. What {@code each}
+     * throws (a client that went away) is not a read failure and is rethrown.
+     */
+    public ExportEnd export(final AuditQuery query, final Consumer<AuditEvent> each) {
+        final Instant since = query.getSince() == null
+                ? AuditQuery.EARLIEST.atStartOfDay(ZoneOffset.UTC).toInstant() : query.getSince();
+        final Instant cap = since.plus(Duration.ofDays(EXPORT_MAX_DAYS));
+        final Instant before = query.getBefore() == null ? Instant.now() : query.getBefore();
+        final boolean capped = before.isAfter(cap);
+        final AuditQuery range = query.toBuilder().since(since).before(capped ? cap : before).build();
+        final AtomicLong written = new AtomicLong();
+        final AtomicReference<Instant> last = new AtomicReference<>();
+        final AtomicReference<RuntimeException> delivery = new AtomicReference<>();
         try {
-            events = DAO.getInstance().exportAuditEvents(query, Cached.NO);
+            DAO.getInstance().streamAuditEvents(range, event -> {
+                try {
+                    each.accept(event);
+                } catch (final RuntimeException ex) {
+                    delivery.set(ex);
+                    throw ex;
+                }
+                written.incrementAndGet();
+                last.set(event.getTimestamp());
+            });
         } catch (final RuntimeException ex) {
-            log.error("Unable to export the audit trail", ex);
-            return "error\nCould not read the audit trail; see the application log.\n";
-        }
-        final StringBuilder csv = new StringBuilder(events.size() * 120)
-                .append("timestamp,action,outcome,actorEmail,actorId,targetType,targetEmail,targetId,message\n");
-        for (final AuditEvent event : events) {
-            csv.append(event.getTimestamp()).append(',')
-                    .append(event.getAction()).append(',')
-                    .append(event.getOutcome()).append(',')
-                    .append(escape(event.getActorEmail())).append(',')
-                    .append(escape(event.getActorId())).append(',')
-                    .append(escape(event.getTargetType())).append(',')
-                    .append(escape(event.getTargetEmail())).append(',')
-                    .append(escape(event.getTargetId())).append(',')
-                    .append(escape(event.getMessage())).append('\n');
+            if (delivery.get() == ex) {
+                throw ex;
+            }
+            log.error("Audit export stopped after {} events", written.get(), ex);
+            return new ExportEnd(written.get(), last.get() == null ? since : last.get().plusMillis(1), true);
         }
-        return csv.toString();
+        return new ExportEnd(written.get(), capped ? cap : null, false);
+    }
+
+    /** One event as a CSV line, newline included. */
+    public static String csvRow(final AuditEvent event) {
+        return new StringBuilder(160)
+                .append(event.getTimestamp()).append(',')
+                .append(event.getAction()).append(',')
+                .append(event.getOutcome()).append(',')
+                .append(escape(event.getActorEmail())).append(',')
+                .append(escape(event.getActorId())).append(',')
+                .append(escape(event.getTargetType())).append(',')
+                .append(escape(event.getTargetEmail())).append(',')
+                .append(escape(event.getTargetId())).append(',')
+                .append(escape(event.getMessage())).append('\n')
+                .toString();
+    }
+
+    /**
+     * The closing row of an export that did not reach the end of its range. A row rather than a comment because
+     * CSV has no comments: a spreadsheet shows it last, where the reader of a truncated file will look.
+     */
+    public static String csvIncomplete(final ExportEnd end) {
+        return "INCOMPLETE,,,,,,,," + escape((end.failed() ? "The trail could not be read past here" : "Range limit")
+                + "; continue with since=" + end.resumeFrom()) + "\n";
     }
 
     /**
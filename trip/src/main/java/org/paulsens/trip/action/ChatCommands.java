@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.LinkedHashSet;
@@ -26,7 +28,6 @@ import org.paulsens.trip.audit.Audit;
 import org.paulsens.trip.audit.AuditActor;
 import org.paulsens.trip.config.KnownSettings;
 import org.paulsens.trip.audit.AuditEventBuilder;
-import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.chat.ChatNotifications;
 import org.paulsens.trip.chat.ChatRateLimiter;
 import org.paulsens.trip.dynamo.DAO;
@@ -74,6 +75,8 @@ public class ChatCommands {
 
     /** How often a non-administrator may have an @all actually emailed to the trip. */
     private static final java.time.Duration EVERYONE_WINDOW = java.time.Duration.ofHours(24);
+    /** Request-map key prefix of {@link #isUnreadForCurrentUser}'s per-render answers, per person. */
+    private static final String UNREAD_MEMO = "chat.unread.";
 
     /**
      * The instance used off the JSF request path (the REST edge, and any future socket). Held statically because
@@ -1437,28 +1440,75 @@ public class ChatCommands {
     }
 
     public boolean hasUnread(final String tripId, final Person.Id me) {
-        final ChatChannel channel = getChannel(tripId);
-        if (channel == null || me == null || !canRead(channel, me)) {
-            return false;
+        return (tripId != null) && unreadTripIds(List.of(tripId), me).contains(tripId);
+    }
+
+    /**
+     * Which of these trips' chats hold something this person has not read, in one answer for a whole page: an
+     * HMGET of just those channels' last activity and an MGET of this person's cursors in them. The cost follows
+     * the number of trips asked about, not the number of channels in the system. Chats they may not read are
+     * never unread.
+     */
+    public Set<String> unreadTripIds(final Collection<String> tripIds, final Person.Id me) {
+        if (me == null || tripIds == null || tripIds.isEmpty()) {
+            return Set.of();
         }
-        return unreadAgainst(channel, me, dao().getChatLastActivity(Cached.NO));
+        final Map<ChatChannel.Id, String> readable = new LinkedHashMap<>();
+        for (final String tripId : new LinkedHashSet<>(tripIds)) {
+            final ChatChannel channel = (tripId == null) ? null : getChannel(tripId);
+            if (channel != null && canRead(channel, me)) {
+                readable.put(channel.getId(), tripId);
+            }
+        }
+        final Map<String, String> lastActivity = dao().getChatLastActivity(readable.keySet(), Cached.NO);
+        final Set<String> unread = new LinkedHashSet<>();
+        for (final ChatChannel.Id channelId : unreadAmong(readable.keySet(), me, lastActivity)) {
+            unread.add(readable.get(channelId));
+        }
+        return unread;
     }
 
-    private boolean unreadAgainst(
-            final ChatChannel channel, final Person.Id me, final Map<String, String> lastActivity) {
-        final long activity = parseLong(lastActivity.get(channel.getId().getValue()), 0L);
-        if (activity <= 0L) {
-            return false;
+    /** The channels, of these readable ones, with activity past this person's cursor; one MGET for the cursors. */
+    private Set<ChatChannel.Id> unreadAmong(final Collection<ChatChannel.Id> channelIds, final Person.Id me,
+            final Map<String, String> lastActivity) {
+        final List<ChatChannel.Id> active = channelIds.stream()
+                .filter(id -> parseLong(lastActivity.get(id.getValue()), 0L) > 0L)
+                .toList();
+        if (active.isEmpty()) {
+            return Set.of();
+        }
+        final Map<ChatChannel.Id, ChatMessage.Id> cursors = dao().getChatCursors(active, me, Cached.NO);
+        final Set<ChatChannel.Id> unread = new LinkedHashSet<>();
+        for (final ChatChannel.Id channelId : active) {
+            final ChatMessage.Id cursor = cursors.get(channelId);
+            // No cursor means they have never opened this chat. Anything at all is unread -- which is the
+            // correct first-time signal, and it is also why an absent cursor must not be read as "caught up".
+            if (cursor == null || cursor.getEpochMilli() < parseLong(lastActivity.get(channelId.getValue()), 0L)) {
+                unread.add(channelId);
+            }
         }
-        final ChatMessage.Id cursor = dao().getChatCursor(channel.getId(), me, Cached.NO).orElse(null);
-        // No cursor means they have never opened this chat. Anything at all is unread -- which is the correct
-        // first-time signal, and it is also why an absent cursor must not be read as "caught up".
-        return cursor == null || cursor.getEpochMilli() < activity;
+        return unread;
     }
 
-    /** Unread state for the trip tab, addressed by trip id so the XHTML needs no person id. */
+    /**
+     * Unread state for the trip tab, addressed by trip id so the XHTML needs no person id. The menu asks once per
+     * trip, and EL may ask again on the same render, so the first call answers for all of this user's trips in
+     * one batch and keeps the answers for the rest of the request; a trip outside that batch is asked on its own
+     * and remembered the same way.
+     */
     public boolean isUnreadForCurrentUser(final String tripId) {
-        return hasUnread(tripId, currentUserId());
+        final Person.Id me = currentUserId();
+        if (tripId == null || me == null) {
+            return false;
+        }
+        final Map<String, Boolean> answers = ScopeUtil.getInstance().requestMemo(UNREAD_MEMO + me.getValue(), () -> {
+            final List<String> myTrips = dao().getTripsForUser(me, Cached.YES).stream().map(Trip::getId).toList();
+            final Set<String> unread = unreadTripIds(myTrips, me);
+            final Map<String, Boolean> known = new HashMap<>();
+            myTrips.forEach(id -> known.put(id, unread.contains(id)));
+            return known;
+        });
+        return answers.computeIfAbsent(tripId, id -> hasUnread(id, me));
     }
 
     // --- reactions ---
@@ -2449,21 +2499,21 @@ public class ChatCommands {
             }
         }
         final List<Trip> trips = new ArrayList<>(byId.values());
-        final Map<String, String> lastAct = dao().getCacheClient().getHash(CacheKeys.CHAT_LAST_ACTIVITY);
-        final List<ChatSummary> out = new ArrayList<>();
+        final Map<ChatChannel, String> readable = new LinkedHashMap<>();
         for (final Trip trip : trips) {
             final ChatChannel.Id cid = ChatChannel.Id.forTrip(trip.getId());
             final ChatChannel channel = dao().getChatChannel(cid, Cached.NO).orElse(null);
-            if (channel == null) {
-                continue;
+            if (channel != null && canRead(channel, personId)) {
+                readable.put(channel, trip.getTitle());
             }
-            if (!canRead(channel, personId)) {
-                continue;
-            }
-            final long activity = parseLong(lastAct.get(cid.getValue()), 0L);
-            out.add(new ChatSummary(channel, trip.getTitle(), activity,
-                    unreadAgainst(channel, personId, lastAct)));
         }
+        // Only these channels' activity and cursors: the page costs the same however many chats exist elsewhere.
+        final List<ChatChannel.Id> ids = readable.keySet().stream().map(ChatChannel::getId).toList();
+        final Map<String, String> lastAct = dao().getChatLastActivity(ids, Cached.NO);
+        final Set<ChatChannel.Id> unread = unreadAmong(ids, personId, lastAct);
+        final List<ChatSummary> out = new ArrayList<>();
+        readable.forEach((channel, title) -> out.add(new ChatSummary(channel, title,
+                parseLong(lastAct.get(channel.getId().getValue()), 0L), unread.contains(channel.getId()))));
         out.sort(Comparator.comparingLong(ChatSummary::lastActivityMillis).reversed());
         return out;
     }
@@ -13,21 +13,29 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.audit.Audit;
 import org.paulsens.trip.audit.AuditActor;
 import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.dynamo.FakeData;
+import org.paulsens.trip.mail.MailJob;
+import org.paulsens.trip.mail.MailSpool;
+import org.paulsens.trip.mail.MergeTemplate;
+import org.paulsens.trip.mail.SendRateLimiter;
 import org.paulsens.trip.model.AuditAction;
 import org.paulsens.trip.model.AuditOutcome;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.util.EmailAddresses;
+import org.paulsens.trip.util.TripThreads;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkServiceException;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.Body;
 import software.amazon.awssdk.services.ses.model.Content;
 import software.amazon.awssdk.services.ses.model.Destination;
+import software.amazon.awssdk.services.ses.model.GetSendQuotaResponse;
 import software.amazon.awssdk.services.ses.model.Message;
 import software.amazon.awssdk.services.ses.model.SendEmailRequest;
 import software.amazon.awssdk.services.ses.model.SendEmailResponse;
@@ -48,8 +56,13 @@ public class MailCommands {
     /** Client-level timeouts replace the per-call orTimeout the CF era needed; a hung send fails, not hangs. */
     private static final Duration ATTEMPT_TIMEOUT = Duration.ofSeconds(10);
     private static final Duration CALL_TIMEOUT = Duration.ofSeconds(30);
+    /** Tries {@link #send} gives a throttled send, each after the limiter's back-off, before reporting failure. */
+    private static final int INLINE_ATTEMPTS = 3;
+    /** Sends a merge keeps in flight. The limiter sets the pace; this only bounds the threads waiting on it. */
+    private static final int MERGE_IN_FLIGHT = 8;
 
     final SesClient client;
+    final SendRateLimiter limiter;
 
     public MailCommands() {
         this(SesClient.builder()
@@ -57,12 +70,33 @@ public class MailCommands {
                 // Default chain: finds the ECS task role / instance role in AWS, and ~/.aws [default] on a laptop.
                 .credentialsProvider(DefaultCredentialsProvider.builder().build())
                 .overrideConfiguration(o -> o.apiCallAttemptTimeout(ATTEMPT_TIMEOUT).apiCallTimeout(CALL_TIMEOUT))
-                .build());
+                .build(), SendRateLimiter.ses());
     }
 
-    /** Test seam: the SES path (request shape, audit attribution, error mapping) is untestable without it. */
+    /**
+     * Test seam: the SES path (request shape, audit attribution, error mapping) is untestable without it. Unpaced,
+     * so a test is about what is sent rather than waiting on the JVM-wide bucket.
+     */
     MailCommands(final SesClient client) {
+        this(client, SendRateLimiter.unlimited());
+    }
+
+    MailCommands(final SesClient client, final SendRateLimiter limiter) {
         this.client = client;
+        this.limiter = limiter;
+    }
+
+    /**
+     * One SES call's result.
+     *
+     * @param response  SES's answer; null when the send failed or was throttled.
+     * @param throttled SES refused it for rate. Worth retrying later, and NOT yet audited -- a throttle is only a
+     *                  failure once whoever is retrying gives up, and reports it through {@link #recordGaveUp}.
+     */
+    public record Attempt(SendEmailResponse response, boolean throttled) {
+        public boolean sent() {
+            return response != null;
+        }
     }
 
     /**
@@ -79,6 +113,10 @@ public class MailCommands {
      * <p>The caller always knows who is asking. When nobody is -- the daily digest, a scheduled job -- the
      * answer is {@link AuditActor#system()}, which says so, rather than an empty actor, which does not.
      *
+     * <p>Paced by the JVM-wide {@link SendRateLimiter}, and a throttled send is tried again -- up to
+     * {@value #INLINE_ATTEMPTS} times, each after the limiter's back-off -- before it comes back null. Callers
+     * that wait on the result (the digest, a login code) therefore see a throttle only when SES keeps refusing.
+     *
      * <p>NOTE: see {@code sendTemplate}; that method is generally more useful.
      */
     public SendEmailResponse send(
@@ -89,6 +127,35 @@ public class MailCommands {
             final String subjectStr,
             final String bodyStr,
             final AuditActor who) {
+        // Resolved once, here, so every retry below is attributed to the same caller.
+        final AuditActor actor = (who == null) ? AuditActor.current() : who;
+        for (int tries = 1; ; tries++) {
+            final Attempt attempt = attempt(from, to, bcc, replyTo, subjectStr, bodyStr, actor);
+            // No sleep between tries: the throttle paused the limiter, and attempt() waits it out on the way in.
+            if (!attempt.throttled() || tries == INLINE_ATTEMPTS) {
+                return attempt.throttled()
+                        ? recordGaveUp(actor, to, "throttled by SES " + tries + " times")
+                        : attempt.response();
+            }
+        }
+    }
+
+    /**
+     * One paced SES call, with a throttle told apart from every other failure.
+     *
+     * <p>This is {@link #send} without the retry: the mail spool schedules its own, minutes apart rather than
+     * blocking a thread through them. Waits for the {@link SendRateLimiter} first -- every send in the JVM
+     * draws from the same bucket, which is what keeps a merge, a digest and a login code from adding up to more
+     * than SES allows.
+     */
+    public Attempt attempt(
+            final String from,
+            final String to,
+            final String bcc,
+            final String replyTo,
+            final String subjectStr,
+            final String bodyStr,
+            final AuditActor who) {
         final Content subject = Content.builder()
                 .data(subjectStr)
                 .build();
@@ -110,14 +177,14 @@ public class MailCommands {
         // INFO with the recipients so local runs can still show what would have gone out.
         if (FakeData.isLocal()) {
             log.info("LOCAL MODE: not sending '{}' to '{}' (bcc '{}')", subjectStr, to, bcc);
-            return SendEmailResponse.builder().build();
+            return new Attempt(SendEmailResponse.builder().build(), false);
         }
         final Collection<String> toAddresses = splitEmail(to);
         if (toAddresses.isEmpty()) {
             // Every recipient was unusable. Calling SES with an empty destination is an error, and there is
             // nothing to retry -- a missing address is a data problem, not a transient failure.
             log.warn("Not sending '{}': no usable recipient address in '{}'", subjectStr, to);
-            return SendEmailResponse.builder().build();
+            return new Attempt(SendEmailResponse.builder().build(), false);
         }
         final Destination dest = Destination.builder()
                 .toAddresses(toAddresses)
@@ -136,14 +203,60 @@ public class MailCommands {
         // EMAIL record) no longer has a boundary to get wrong.
         final AuditActor actor = (who == null) ? AuditActor.current() : who;
         try {
+            paceForSes();
             final SendEmailResponse response = client.sendEmail(req);
-            return logAndReturn(actor, response, to, "Email '" + subjectStr + "' sent. Response: "
-                    + response.sdkHttpResponse().statusCode());
+            limiter.sent();
+            return new Attempt(logAndReturn(actor, response, to, "Email '" + subjectStr + "' sent. Response: "
+                    + response.sdkHttpResponse().statusCode()), false);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new Attempt(logException(actor, to, ex), false);
         } catch (final RuntimeException ex) {
+            if (isThrottle(ex)) {
+                log.info("SES throttled a send to '{}'; pausing sends for {}", to, limiter.throttled());
+                return new Attempt(null, true);
+            }
             // Mapped to null, never rethrown: one refused recipient must not cost the rest of a merge theirs.
             // The digest sender relies on the null to know a send is retry-worthy.
-            return logException(actor, to, ex);
+            return new Attempt(logException(actor, to, ex), false);
+        }
+    }
+
+    /**
+     * Waits for a token, first adopting the account's real {@code MaxSendRate} when the last reading is old. The
+     * bucket starts at the sandbox rate, so a failed quota read leaves mail slow rather than throttled.
+     */
+    private void paceForSes() throws InterruptedException {
+        if (limiter.claimQuotaRefresh()) {
+            try {
+                final GetSendQuotaResponse quota = client.getSendQuota();
+                limiter.applyQuota(quota == null ? null : quota.maxSendRate());
+                log.debug("SES send rate is {}/s", limiter.rate());
+            } catch (final RuntimeException ex) {
+                log.warn("Unable to read the SES send quota; keeping {}/s", limiter.rate(), ex);
+            }
         }
+        limiter.acquire();
+    }
+
+    /**
+     * SES reports its rate limit as error code {@code Throttling} ("Maximum sending rate exceeded"), which the SDK
+     * classifies as a throttling exception. The message check covers a send that surfaced it some other way.
+     */
+    static boolean isThrottle(final RuntimeException ex) {
+        if (ex instanceof SdkServiceException service && service.isThrottlingException()) {
+            return true;
+        }
+        return ex.getMessage() != null && ex.getMessage().contains("Maximum sending rate exceeded");
+    }
+
+    /**
+     * Audits a send that was throttled until somebody stopped retrying. Always null, like every other failure.
+     *
+     * @param actor as for {@link #logAndReturn} -- passed explicitly, never re-resolved here.
+     */
+    public SendEmailResponse recordGaveUp(final AuditActor actor, final String to, final String why) {
+        return logException(actor, to, new IllegalStateException(why));
     }
 
     /**
@@ -204,10 +317,16 @@ public class MailCommands {
      * is bound -- an XHTML page on its request thread, or any {@code RequestContext}-scoped virtual thread. A
      * merge started from an unbound spawn or a scheduler must say who asked for it through this parameter.
      *
-     * <p>Rendering and sending are split on purpose. The EL evaluation mutates {@code requestScope.to} -- one
-     * shared slot -- so each recipient's subject and body are rendered sequentially on the calling thread; only
-     * the SES calls fan out, one {@code StructuredTaskScope} fork per recipient, which is the same concurrency
-     * the async-client era had. Forks inherit the caller's ScopedValues, so the actor also flows into each send.
+     * <p>Rendering and sending are split on purpose. A template made only of recipient properties -- nearly all
+     * of them -- is compiled once ({@link MergeTemplate}) and rendered per recipient without EL, in parallel for a
+     * large merge. Anything else still goes through EL, which mutates {@code requestScope.to} -- one shared slot --
+     * so those render sequentially on the calling thread. Only the SES calls fan out, across a few
+     * {@code StructuredTaskScope} forks that each take the next recipient. It used to be one fork per recipient,
+     * which put a whole merge in front of SES at once and had most of it throttled; now the
+     * {@link SendRateLimiter} sets the pace and the forks only overlap SES round trips. Forks inherit the caller's
+     * ScopedValues, so the actor also flows into each send.
+     *
+     * <p>This blocks until the last send, at the account's send rate.
      */
     public List<SendEmailResponse> sendTemplate(
             final String from,
@@ -217,26 +336,90 @@ public class MailCommands {
             final String subjectStr,
             final String template,
             final AuditActor actor) {
-        final List<Prepared> prepared = new ArrayList<>();
+        return fanOutSends(from, bcc, replyTo, actor, prepare(to, subjectStr, template));
+    }
+
+    /** One rendered, ready-to-send email. */
+    private record Prepared(String to, String subject, String body) {
+    }
+
+    /** A recipient with a usable address, and that address in the form it is sent to. */
+    private record Addressed(Person person, String to) {
+    }
+
+    /** Recipients rendered per fork; a merge this size or smaller renders on the calling thread. */
+    private static final int RENDER_CHUNK = 250;
+
+    /** Compiled when both parts compile, through EL otherwise; recipients without a usable address are skipped. */
+    private List<Prepared> prepare(final Collection<Person> to, final String subjectStr, final String template) {
+        final List<Addressed> recipients = new ArrayList<>();
         for (final Person person : to) {
             final String toEmail = formatEmail(person);
             if (toEmail == null) {
                 log.warn("Invalid email address: '" + person.getEmail() + "'");
                 continue;
             }
-            elUtil.setELValue("#{requestScope.to}", person);
+            recipients.add(new Addressed(person, toEmail));
+        }
+        final MergeTemplate subject = MergeTemplate.compile(subjectStr);
+        final MergeTemplate body = MergeTemplate.compileHtml(template);
+        return (subject == null || body == null)
+                ? renderWithEl(recipients, subjectStr, template)
+                : renderCompiled(recipients, subject, body);
+    }
+
+    private List<Prepared> renderWithEl(
+            final List<Addressed> recipients, final String subjectStr, final String template) {
+        final List<Prepared> prepared = new ArrayList<>();
+        for (final Addressed recipient : recipients) {
+            elUtil.setELValue("#{requestScope.to}", recipient.person());
             final Object subject = elUtil.eval(subjectStr);
             final Object body = elUtil.eval(template);
             if (!(body instanceof String) || !(subject instanceof String)) {
                 throw new IllegalStateException("Body and subject must be a String!");
             }
-            prepared.add(new Prepared(toEmail, String.valueOf(subject), String.valueOf(body)));
+            prepared.add(new Prepared(recipient.to(), String.valueOf(subject), String.valueOf(body)));
         }
-        return fanOutSends(from, bcc, replyTo, actor, prepared);
+        return prepared;
     }
 
-    /** One rendered, ready-to-send email. */
-    private record Prepared(String to, String subject, String body) {
+    private static List<Prepared> renderCompiled(
+            final List<Addressed> recipients, final MergeTemplate subject, final MergeTemplate body) {
+        final Prepared[] out = new Prepared[recipients.size()];
+        if (recipients.size() <= RENDER_CHUNK) {
+            renderRange(recipients, 0, recipients.size(), subject, body, out);
+            return List.of(out);
+        }
+        try (var scope = StructuredTaskScope.open()) {
+            for (int start = 0; start < recipients.size(); start += RENDER_CHUNK) {
+                final int from = start;
+                final int end = Math.min(start + RENDER_CHUNK, recipients.size());
+                scope.fork(() -> {
+                    renderRange(recipients, from, end, subject, body, out);
+                    return null;
+                });
+            }
+            scope.join();
+            return List.of(out);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering a mail merge", ex);
+        }
+    }
+
+    /** Renders {@code [from, end)} into {@code out}, reusing one buffer for every subject and body in the range. */
+    private static void renderRange(final List<Addressed> recipients, final int from, final int end,
+            final MergeTemplate subject, final MergeTemplate body, final Prepared[] out) {
+        final StringBuilder buffer = new StringBuilder(1024);
+        for (int n = from; n < end; n++) {
+            final Addressed recipient = recipients.get(n);
+            buffer.setLength(0);
+            subject.renderInto(recipient.person(), buffer);
+            final String renderedSubject = buffer.toString();
+            buffer.setLength(0);
+            body.renderInto(recipient.person(), buffer);
+            out[n] = new Prepared(recipient.to(), renderedSubject, buffer.toString());
+        }
     }
 
     private List<SendEmailResponse> fanOutSends(
@@ -245,19 +428,21 @@ public class MailCommands {
             final String replyTo,
             final AuditActor actor,
             final List<Prepared> prepared) {
+        final SendEmailResponse[] responses = new SendEmailResponse[prepared.size()];
+        final AtomicInteger next = new AtomicInteger();
         try (var scope = StructuredTaskScope.open()) {
-            final List<StructuredTaskScope.Subtask<SendEmailResponse>> sends = new ArrayList<>();
-            for (final Prepared mail : prepared) {
-                sends.add(scope.fork(() -> sendPrepared(from, bcc, replyTo, actor, mail)));
+            for (int i = 0; i < Math.min(MERGE_IN_FLIGHT, prepared.size()); i++) {
+                scope.fork(() -> {
+                    for (int n = next.getAndIncrement(); n < prepared.size(); n = next.getAndIncrement()) {
+                        responses[n] = sendPrepared(from, bcc, replyTo, actor, prepared.get(n));
+                    }
+                    return null;
+                });
             }
             scope.join();
-            // send() maps its own failures to null, so subtasks never fail and get() is always answerable.
+            // send() maps its own failures to null, so subtasks never fail and every slot is written.
             // The nulls are KEPT: the list stays in recipient order and a null marks whose send failed.
-            final List<SendEmailResponse> responses = new ArrayList<>();
-            for (final StructuredTaskScope.Subtask<SendEmailResponse> sent : sends) {
-                responses.add(sent.get());
-            }
-            return responses;
+            return new ArrayList<>(Arrays.asList(responses));
         } catch (final InterruptedException ex) {
             Thread.currentThread().interrupt();
             throw new IllegalStateException("Interrupted while sending a mail merge", ex);
@@ -273,6 +458,39 @@ public class MailCommands {
         return send(from, mail.to(), bcc, replyTo, mail.subject(), mail.body(), actor);
     }
 
+    /**
+     * Queues one message to many recipients on the mail spool and returns at once.
+     *
+     * <p>The spool sends at the account's rate from whichever instance is draining it, retries throttles minutes
+     * apart instead of dropping them, and keeps per-job progress for {@link #spoolStatus}. Each recipient still
+     * gets their own mail, so nobody sees anyone else's address.
+     *
+     * @return the job id, or null when the spool could not take the job -- the cache is down -- in which case the
+     *         mail goes out anyway, paced, from a background thread of this instance, with no progress to ask about.
+     */
+    public String spool(
+            final String from,
+            final List<String> to,
+            final String bcc,
+            final String replyTo,
+            final String subjectStr,
+            final String bodyStr,
+            final AuditActor actor) {
+        final String jobId = MailSpool.shared().enqueue(
+                new MailSpool.Envelope(from, bcc, replyTo, subjectStr, bodyStr, actor), to);
+        if (jobId == null) {
+            log.warn("Mail spool unavailable; sending '{}' to {} recipients directly", subjectStr, to.size());
+            TripThreads.startAs(actor, () -> to.forEach(
+                    recipient -> send(from, recipient, bcc, replyTo, subjectStr, bodyStr, actor)));
+        }
+        return jobId;
+    }
+
+    /** A spooled job's progress, or null for an id the spool does not know (never issued, or expired). */
+    public MailJob spoolStatus(final String jobId) {
+        return MailSpool.shared().status(jobId);
+    }
+
     public String previewTemplate(final Person to, final String template) {
         final ELUtil elUtil = ELUtil.getInstance();
         elUtil.setELValue("#{requestScope.to}", to);
@@ -141,9 +141,10 @@ public class OrgCommands {
         if (org == null || org.getId() == null) {
             return result;
         }
-        for (final OrgMember member : DAO.getInstance().getOrgMembers(org.getId(), Cached.YES)) {
-            DAO.getInstance().getPerson(member.getPersonId(), Cached.YES).ifPresent(result::add);
-        }
+        final List<Person.Id> ids = DAO.getInstance().getOrgMembers(org.getId(), Cached.YES).stream()
+                .map(OrgMember::getPersonId)
+                .toList();
+        result.addAll(DAO.getInstance().getPeople(ids, Cached.YES));
         return result;
     }
 
@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -28,6 +29,7 @@ import org.paulsens.trip.util.EmailAddresses;
 import org.paulsens.trip.util.ScopeUtil;
 import org.paulsens.trip.web.Sessions;
 import org.paulsens.trip.cache.Cached;
+import org.paulsens.trip.cache.Stamped;
 
 @Slf4j
 @Named("people")
@@ -334,6 +336,20 @@ public class PersonCommands {
         return getPersonInternal(id, Person::new);
     }
 
+    /**
+     * {@link #getPerson} with its cache stamp, for conditional GETs. The person is not parsed when
+     * {@code unchanged} accepts the stamp. Null when there is nothing to stamp -- no such person, or the read
+     * failed -- in which case the caller falls back to {@link #getPerson}.
+     */
+    public Stamped<Person> getPersonStamped(final Person.Id id, final Predicate<String> unchanged) {
+        try {
+            return DAO.getInstance().getPersonStamped(id, unchanged, Cached.YES).orElse(null);
+        } catch (final RuntimeException ex) {
+            log.error("Failed to get stamped person '" + id + "'!", ex);
+            return null;
+        }
+    }
+
     /**
      * The person an EDIT form seeds its working copy from, always read fresh: the form's copy becomes the
      * save payload wholesale, so seeding it from the near-cache would let a stale copy overwrite fields
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -21,6 +22,7 @@ import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.PersonDataValue;
 import org.paulsens.trip.model.Registration;
 import org.paulsens.trip.cache.Cached;
+import org.paulsens.trip.cache.Stamped;
 
 @Slf4j
 @Named("reg")
@@ -440,6 +442,21 @@ public class RegistrationCommands {
         }
     }
 
+    /**
+     * {@link #getRegistrations} with the partition's cache stamp, for conditional GETs; nothing is parsed when
+     * {@code unchanged} accepts it. Null when the read failed, and the caller falls back to
+     * {@link #getRegistrations}.
+     */
+    public Stamped<List<Registration>> getRegistrationsStamped(
+            final String tripId, final Predicate<String> unchanged) {
+        try {
+            return DAO.getInstance().getRegistrationsStamped(tripId, unchanged, Cached.NO);
+        } catch (final RuntimeException ex) {
+            log.error("Failed to get stamped registrations for trip '" + tripId + "'!", ex);
+            return null;
+        }
+    }
+
     /**
      * The scalar row model the admin trip-registrations table keeps in the VIEW. PrimeFaces sorts the
      * value list IN PLACE and row buttons decode by row position against that same list, so the list
@@ -12,13 +12,16 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.dynamo.BalanceLedger;
 import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.model.BindingType;
 import org.paulsens.trip.model.Person;
@@ -26,6 +29,7 @@ import org.paulsens.trip.model.Transaction;
 import org.paulsens.trip.model.Transaction.Type;
 import org.paulsens.trip.model.Trip;
 import org.paulsens.trip.cache.Cached;
+import org.paulsens.trip.cache.Stamped;
 
 @Slf4j
 @Named("txCmds")
@@ -80,6 +84,24 @@ public class TransactionsCommands {
         }
     }
 
+    /**
+     * {@link #getTransactions} with the partition's cache stamp, for conditional GETs; nothing is parsed when
+     * {@code unchanged} accepts it. Null when the read failed, and the caller falls back to
+     * {@link #getTransactions}.
+     */
+    public Stamped<List<Transaction>> getTransactionsStamped(
+            final Person.Id userId, final Predicate<String> unchanged) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return DAO.getInstance().getTransactionsStamped(userId, unchanged, Cached.NO);
+        } catch (final RuntimeException ex) {
+            log.error("Error querying stamped transactions for user {}: ", userId.getValue(), ex);
+            return null;
+        }
+    }
+
     public List<Transaction> getTripTransactions(final String tripId) {
         try {
             return DAO.getInstance().getTrip(tripId, Cached.NO)
@@ -289,43 +311,80 @@ public class TransactionsCommands {
     }
 
     /**
-     * This returns the portion of the transaction the user is responsible for. Normally it is all of the amount,
-     * however, shared transactions are split between people, so it may not be all for this user.
+     * This returns the portion of the transaction its user is responsible for. Normally it is all of the amount,
+     * however, shared transactions are split between people, so it may not be all for this user. The split is the
+     * balance ledger's ({@link BalanceLedger#shareCents}): whole cents, with the spare ones going by member position,
+     * so a person's rows add up to {@link #getBalance} exactly.
      * @return The amount the user is responsible for.
      */
     public Float getUserAmount(final Transaction tx) {
         if (tx == null || tx.getAmount() == null) {
             return null;
         }
-        return tx.isShared() ? tx.getAmount() / Math.max(1, getUserIdsForGroup(tx).size()) : tx.getAmount();
+        return (float) toDollars(BalanceLedger.shareCents(tx.getUserId(), tx));
     }
 
     /**
      * This person's balance: the sum of their per-user amounts (a shared row contributes this person's SHARE).
-     * Negative means they owe. The transactions page's running column folds the same numbers in render order;
-     * this exists because a SECOND total (the family line) cannot ride a render-order fold, and totals belong
-     * in testable Java either way.
+     * Negative means they owe. The transactions page's running column folds the same numbers in render order
+     * ({@link #getUserAmount} splits a shared row the way the ledger does); this exists because a SECOND total
+     * (the family line) cannot ride a render-order fold, and totals belong in testable Java either way. Read from
+     * the balance ledger in exact cents, so a shared row's odd cent lands on one member instead of being lost to
+     * {@code Float} division.
      */
     public double getBalance(final Person.Id userId) {
-        double total = 0d;
-        for (final Transaction tx : getTransactions(userId)) {
-            final Float amount = getUserAmount(tx);
-            if (amount != null) {
-                total += amount;
-            }
-        }
-        return total;
+        return (userId == null) ? 0d : toDollars(getBalancesCents(List.of(userId)).getOrDefault(userId, 0L));
     }
 
     /** The whole family's balance: each member's own rows, so a shared row counts once per member's share. */
     public double getFamilyBalance(final Collection<Person.Id> ids) {
-        double total = 0d;
-        if (ids != null) {
-            for (final Person.Id id : ids) {
-                total += getBalance(id);
-            }
+        return toDollars(getBalancesCents(ids).values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    /**
+     * Every trip member's balance in cents, in the trip's member order -- one ledger read for the finance page
+     * rather than every member's transactions. The trip's total is their sum.
+     */
+    public Map<Person.Id, Long> getTripBalances(final String tripId) {
+        try {
+            return getBalancesCents(DAO.getInstance().getTrip(tripId, Cached.NO)
+                    .map(Trip::getPeople)
+                    .orElse(List.of()));
+        } catch (final RuntimeException ex) {
+            log.error("Error reading balances for trip {}: ", tripId, ex);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Recomputes the trip members' balances from the database and repairs any the ledger got wrong. Null when
+     * the reconcile itself failed.
+     */
+    public BalanceLedger.Reconciliation reconcileTripBalances(final String tripId) {
+        try {
+            return DAO.getInstance().reconcileBalances(DAO.getInstance().getTrip(tripId, Cached.NO)
+                    .map(Trip::getPeople)
+                    .orElse(List.of()));
+        } catch (final RuntimeException ex) {
+            log.error("Error reconciling balances for trip {}: ", tripId, ex);
+            return null;
+        }
+    }
+
+    private Map<Person.Id, Long> getBalancesCents(final Collection<Person.Id> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
         }
-        return total;
+        try {
+            return DAO.getInstance().getBalances(ids, Cached.NO);
+        } catch (final RuntimeException ex) {
+            log.error("Error reading balances for {}: ", ids, ex);
+            return Map.of();
+        }
+    }
+
+    private static double toDollars(final long cents) {
+        return cents / 100d;
     }
 
     /** Merged, date-sorted rows across the family for the "Entire family" transactions view. */
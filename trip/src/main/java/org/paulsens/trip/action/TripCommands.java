@@ -19,6 +19,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.dynamo.DAO;
@@ -32,6 +33,7 @@ import org.paulsens.trip.model.TripEvent;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 import org.paulsens.trip.cache.Cached;
+import org.paulsens.trip.cache.Stamped;
 
 @Slf4j
 @Named("trip")
@@ -213,10 +215,7 @@ public class TripCommands {
     }
 
     public Trip sortTripPeople(final Trip trip) {
-        final List<Person.Id> sortedIdList = trip.getPeople().stream()
-                        .map(id -> DAO.getInstance().getPerson(id, Cached.NO))
-                        .map(opt -> opt.orElse(null))
-                        .filter(Objects::nonNull)
+        final List<Person.Id> sortedIdList = DAO.getInstance().getPeople(trip.getPeople(), Cached.NO).stream()
                         .sorted()
                         .map(Person::getId)
                         .toList();
@@ -393,6 +392,35 @@ public class TripCommands {
         }
     }
 
+    /**
+     * {@link #getTrip} with its cache stamp, for conditional GETs. The trip is not parsed when {@code unchanged}
+     * accepts the stamp. Null when there is nothing to stamp -- no such trip, or the read failed -- in which case
+     * the caller falls back to {@link #getTrip} and its usual miss handling.
+     */
+    public Stamped<Trip> getTripStamped(final String id, final Predicate<String> unchanged) {
+        try {
+            return DAO.getInstance().getTripStamped(id, unchanged, Cached.YES).orElse(null);
+        } catch (final RuntimeException ex) {
+            log.error("Failed to get stamped trip '" + id + "'!", ex);
+            return null;
+        }
+    }
+
+    /**
+     * A stamp of the trip's events as the cache stores them, for conditional GETs of views that render them: notes,
+     * participation and event edits are saved to the events and leave the trip's own stamp unchanged. Nothing is
+     * resolved or serialized for it. Null when the events cannot be stamped (one is not cached yet); the caller
+     * then does not tag.
+     */
+    public String getTripEventsStamp(final Trip trip) {
+        try {
+            return DAO.getInstance().getTripEventsStamp(trip.getTripEventIds(), Cached.YES);
+        } catch (final RuntimeException ex) {
+            log.error("Failed to stamp the events of trip '" + trip.getId() + "'!", ex);
+            return null;
+        }
+    }
+
     /**
      * The trip an EDIT page seeds its working draft from ({@code TripEditDrafts}), always read fresh: the
      * draft becomes the save payload wholesale, so seeding it from the near-cache would let a stale copy
@@ -36,6 +36,9 @@ public final class ApiMediaTypes {
     public static final String DEPLOY_V1 = "application/vnd.trip.deploy.v1+json";
     public static final String CACHE_V1 = "application/vnd.trip.cache.v1+json";
 
+    /** Newline-delimited JSON, for the streamed exports. A file format rather than an API shape: unversioned. */
+    public static final String NDJSON = "application/x-ndjson";
+
     private static final String PREFIX = "application/";
     private static final String SUFFIX = "+json";
 
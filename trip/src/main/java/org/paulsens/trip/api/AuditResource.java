@@ -1,5 +1,7 @@
 package org.paulsens.trip.api;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -7,17 +9,24 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.action.AuditViewCommands;
 import org.paulsens.trip.api.mapper.AuditMapper;
+import org.paulsens.trip.audit.DynamoAuditSink;
+import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.model.AuditAction;
 import org.paulsens.trip.model.AuditOutcome;
 import org.paulsens.trip.model.AuditPage;
+import org.paulsens.trip.model.AuditQuery;
 
 /**
  * Reading the audit trail.
@@ -85,16 +94,23 @@ public class AuditResource extends BaseResource {
     }
 
     /**
-     * The current filter as CSV.
+     * The current filter as CSV, oldest first, streamed.
      *
      * <p>Served as {@code text/csv} rather than wrapped in JSON: this is a file a human opens in a spreadsheet,
      * and base64-in-JSON would make every client decode it before it could be saved.
+     *
+     * <p>{@code since} and {@code before} bound the range; with no {@code since} it is the window a page would
+     * search. Rows are written as they are read (see {@code AuditViewCommands#export}), so a year for a
+     * compliance request costs one slice of memory, not a year of it. At most a year per request: a longer
+     * range, or a read failure part-way, ends with an {@code INCOMPLETE} row naming the {@code since} that
+     * continues it.
      */
     @GET
     @Path("export.csv")
     @Produces("text/csv")
     public Response export(
             @QueryParam("before") final String before,
+            @QueryParam("since") final String since,
             @QueryParam("actor") final String actor,
             @QueryParam("action") final String action,
             @QueryParam("outcome") final String outcome,
@@ -102,18 +118,78 @@ public class AuditResource extends BaseResource {
         if (!privileges().has(ApiPrivileges.AUDIT_ADMIN)) {
             return error(403, ApiErrors.FORBIDDEN, "Audit access required.");
         }
-        final Instant cursor;
+        final AuditViewCommands view = Beans.get(AuditViewCommands.class);
+        final AuditQuery query;
         try {
-            cursor = parseCursor(before);
+            query = view.exportQuery(parseCursor(since), parseCursor(before), actor, action, outcome, text);
         } catch (final DateTimeParseException ex) {
-            return error(400, ApiErrors.BAD_REQUEST, "before must be an ISO-8601 instant.");
+            return error(400, ApiErrors.BAD_REQUEST, "before and since must be ISO-8601 instants.");
+        }
+        return download("text/csv", "audit.csv", out -> {
+            out.write(AuditViewCommands.CSV_HEADER);
+            final AuditViewCommands.ExportEnd end =
+                    view.export(query, event -> write(out, AuditViewCommands.csvRow(event)));
+            if (!end.isComplete()) {
+                out.write(AuditViewCommands.csvIncomplete(end));
+            }
+        });
+    }
+
+    /**
+     * The same export as newline-delimited JSON: one event per line in the shape the page endpoints use, then a
+     * closing {@code {"complete": ..., "count": ..., "resumeSince": ...}} line, so a program can tell a finished
+     * export from a cut-off one and continue it.
+     */
+    @GET
+    @Path("export.ndjson")
+    @Produces(ApiMediaTypes.NDJSON)
+    public Response exportJson(
+            @QueryParam("before") final String before,
+            @QueryParam("since") final String since,
+            @QueryParam("actor") final String actor,
+            @QueryParam("action") final String action,
+            @QueryParam("outcome") final String outcome,
+            @QueryParam("text") final String text) {
+        if (!privileges().has(ApiPrivileges.AUDIT_ADMIN)) {
+            return error(403, ApiErrors.FORBIDDEN, "Audit access required.");
+        }
+        final AuditViewCommands view = Beans.get(AuditViewCommands.class);
+        final AuditQuery query;
+        try {
+            query = view.exportQuery(parseCursor(since), parseCursor(before), actor, action, outcome, text);
+        } catch (final DateTimeParseException ex) {
+            return error(400, ApiErrors.BAD_REQUEST, "before and since must be ISO-8601 instants.");
+        }
+        final ObjectMapper mapper = DAO.getInstance().getMapper();
+        return download(ApiMediaTypes.NDJSON, "audit.ndjson", out -> {
+            final AuditViewCommands.ExportEnd end = view.export(query,
+                    event -> write(out, json(mapper, AuditMapper.INSTANCE.toDto(event)) + "\n"));
+            final Map<String, Object> trailer = new LinkedHashMap<>();
+            trailer.put("complete", end.isComplete());
+            trailer.put("count", end.written());
+            if (!end.isComplete()) {
+                trailer.put("resumeSince", end.resumeFrom().toString());
+                trailer.put("failed", end.failed());
+            }
+            out.write(json(mapper, trailer) + "\n");
+        });
+    }
+
+    /** For the export callbacks, which cannot throw a checked exception: a client gone away ends the export. */
+    private static void write(final Writer out, final String text) {
+        try {
+            out.write(text);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String json(final ObjectMapper mapper, final Object value) {
+        try {
+            return mapper.writeValueAsString(value);
+        } catch (final JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to write an export line", ex);
         }
-        final String csv = Beans.get(AuditViewCommands.class).toCsv(cursor, actor, action, outcome, text);
-        return Response.ok(csv)
-                .type("text/csv")
-                .header("Vary", "Accept")
-                .header("Content-Disposition", "attachment; filename=\"audit.csv\"")
-                .build();
     }
 
     /** The filter vocabularies, so a client builds its dropdowns from the server's enums rather than guessing. */
@@ -130,6 +206,32 @@ public class AuditResource extends BaseResource {
         return ok(result);
     }
 
+    /**
+     * Whether the DynamoDB index is keeping up: queue depth against capacity, and how many records were written,
+     * printed instead ({@code notIndexed}), or turned away by a full queue. {@code enabled} is false when this
+     * task writes no index at all.
+     */
+    @GET
+    @Path("index-stats")
+    @Produces({V1, MediaType.APPLICATION_JSON})
+    public Response indexStats() {
+        if (!privileges().has(ApiPrivileges.AUDIT_ADMIN)) {
+            return error(403, ApiErrors.FORBIDDEN, "Audit access required.");
+        }
+        final Map<String, Object> result = new LinkedHashMap<>();
+        final Optional<DynamoAuditSink.Stats> stats = Beans.get(AuditViewCommands.class).getIndexStats();
+        result.put("enabled", stats.isPresent());
+        stats.ifPresent(s -> {
+            result.put("depth", s.depth());
+            result.put("capacity", s.capacity());
+            result.put("highWater", s.highWater());
+            result.put("written", s.written());
+            result.put("notIndexed", s.notIndexed());
+            result.put("dropped", s.dropped());
+        });
+        return ok(result);
+    }
+
     /**
      * The wire form of a page.
      *
@@ -6,10 +6,22 @@ import jakarta.servlet.http.HttpSession;
 import jakarta.ws.rs.NotAuthorizedException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
 import org.paulsens.trip.action.Caller;
 import org.paulsens.trip.action.PersonCommands;
 import org.paulsens.trip.action.TripCommands;
@@ -38,6 +50,8 @@ public abstract class BaseResource {
      */
     public static final String CSRF_HEADER = "X-Trip-Api";
 
+    private static final int DOWNLOAD_BUFFER = 16 * 1024;
+
     @Context
     protected HttpServletRequest request;
 
@@ -86,6 +100,78 @@ public abstract class BaseResource {
                 .build();
     }
 
+    /**
+     * {@link #ok(Object)} carrying an entity tag (see {@link EntityTags}); a null tag sends none. The tag is what
+     * lets the next request for the same view be answered by {@link #notModified}.
+     */
+    protected Response ok(final Object entity, final EntityTag tag) {
+        return Response.ok(entity)
+                .type(negotiatedType())
+                .header("Vary", "Accept")
+                .tag(tag)
+                .build();
+    }
+
+    /** 304 for a view the caller already holds. Keeps {@code Vary: Accept}: the tag is per media type too. */
+    protected Response notModified(final EntityTag tag) {
+        return Response.notModified(tag)
+                .header("Vary", "Accept")
+                .build();
+    }
+
+    /** Whether this request's {@code If-None-Match}, parsed by {@link ConditionalGetFilter}, names this tag. */
+    protected boolean holds(final EntityTag tag) {
+        return ConditionalGetFilter.matches(
+                request == null ? null : request.getAttribute(ConditionalGetFilter.KNOWN_TAGS_PROP), tag);
+    }
+
+    /**
+     * The "caller already has it" predicate a stamped read takes: the stamp is turned into this view's tag and
+     * checked against {@code If-None-Match}. Always false when the client sent no tags, so nothing is hashed twice
+     * on an ordinary GET.
+     */
+    protected Predicate<String> heldAs(final Function<String, EntityTag> tagOf) {
+        final Object known = request == null ? null : request.getAttribute(ConditionalGetFilter.KNOWN_TAGS_PROP);
+        if (!(known instanceof Set<?>)) {
+            return stamp -> false;
+        }
+        return stamp -> ConditionalGetFilter.matches(known, tagOf.apply(stamp));
+    }
+
+    /** Writes a download's content; called on the request thread once the response is committed. */
+    @FunctionalInterface
+    protected interface DownloadBody {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    /**
+     * A file written straight to the response as {@code body} produces it, rather than built first and sent
+     * after. Memory is whatever {@code body} holds at once, and a slow client slows the writing down rather than
+     * letting it pile up. Gzipped when the request accepts it -- exports are text and shrink tenfold.
+     *
+     * <p>Once streaming, the status is already sent: a failure part-way can only be reported in the content,
+     * which is why the exports end with a line saying whether they are complete.
+     */
+    protected Response download(final String type, final String filename, final DownloadBody body) {
+        final String acceptEncoding = request == null ? null : request.getHeader("Accept-Encoding");
+        final boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        final StreamingOutput output = stream -> {
+            final GZIPOutputStream zipped = gzip ? new GZIPOutputStream(stream, DOWNLOAD_BUFFER) : null;
+            final Writer out = new BufferedWriter(
+                    new OutputStreamWriter(zipped != null ? zipped : stream, StandardCharsets.UTF_8), DOWNLOAD_BUFFER);
+            body.writeTo(out);
+            out.flush();
+            if (zipped != null) {
+                zipped.finish();
+            }
+        };
+        final Response.ResponseBuilder response = Response.ok(output)
+                .type(type)
+                .header("Vary", "Accept, Accept-Encoding")
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"");
+        return gzip ? response.header("Content-Encoding", "gzip").build() : response.build();
+    }
+
     protected Response error(final int status, final String code, final String message) {
         final Map<String, Object> body = new LinkedHashMap<>();
         body.put("error", code);
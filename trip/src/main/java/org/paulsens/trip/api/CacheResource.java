@@ -1,6 +1,7 @@
 package org.paulsens.trip.api;
 
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
@@ -8,13 +9,17 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.audit.Audit;
 import org.paulsens.trip.audit.AuditEventBuilder;
+import org.paulsens.trip.cache.NearCacheClient;
+import org.paulsens.trip.cache.ValkeyCacheClient;
 import org.paulsens.trip.dynamo.DAO;
+import org.paulsens.trip.dynamo.JsonCodec;
 import org.paulsens.trip.model.AuditAction;
 import org.paulsens.trip.model.AuditOutcome;
 
@@ -27,6 +32,11 @@ import org.paulsens.trip.model.AuditOutcome;
  * email index and search index travel with {@code person}) out of shell scripts. Safe but briefly
  * expensive, so it is gated like the Settings page's own clear button: {@code configAdmin}. No
  * deploy-style confirmation token -- unlike a deploy, a redundant clear costs only cache warmth.</p>
+ *
+ * <p>{@code GET stats} reports the near-cache's counters, for sizing {@code cache.near.maxMegabytes}, and under
+ * {@code valkey} the shared cache's connections (outstanding commands per connection) and per-command latency
+ * histograms by lane, for sizing {@code trip.valkey.fgPoolSize}. Under {@code json} it reports, per entity type,
+ * how often and how slowly the DAOs parse and write it ({@code JsonCodec}).</p>
  */
 @Slf4j
 @Path("cache")
@@ -64,6 +74,31 @@ public class CacheResource extends BaseResource {
         return ok(Map.of("scope", scope.name(), "invalidated", cleared));
     }
 
+    /**
+     * This instance's near-cache counters since startup. Per JVM -- a second task has its own heap and its own
+     * numbers. Reports {@code enabled: false} when the near-cache is not wrapped (local and off modes).
+     */
+    @GET
+    @Path("stats")
+    @Produces({V1, MediaType.APPLICATION_JSON})
+    public Response stats() {
+        if (!privileges().has(ApiPrivileges.CONFIG_ADMIN)) {
+            return error(403, ApiErrors.FORBIDDEN, "Config admin access required.");
+        }
+        final Map<String, Object> body = new LinkedHashMap<>();
+        if (DAO.getInstance().getCacheClient() instanceof NearCacheClient near) {
+            body.put("enabled", true);
+            body.put("near", near.stats());
+            if (near.delegate() instanceof ValkeyCacheClient valkey) {
+                body.put("valkey", valkey.stats());
+            }
+        } else {
+            body.put("enabled", false);
+        }
+        body.put("json", JsonCodec.stats());
+        return ok(body);
+    }
+
     /** The scope to clear; the name is matched case-insensitively ({@code "person"}, {@code "all"}, ...). */
     public record InvalidateRequest(String scope) {
     }
@@ -1,5 +1,6 @@
 package org.paulsens.trip.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
@@ -12,6 +13,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.NotAuthorizedException;
 import jakarta.ws.rs.core.Response;
@@ -22,10 +24,13 @@ import java.util.concurrent.TimeUnit;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 import org.paulsens.trip.action.ChatCommands;
 import org.paulsens.trip.action.ChatPhotos;
 import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.audit.AuditActor;
 import org.paulsens.trip.chat.ChatNudgeRegistry;
+import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.chat.ChatChannel;
 import org.paulsens.trip.model.chat.ChatMessage;
@@ -44,6 +49,10 @@ public class ChatResource extends BaseResource {
     private static final String V1 = ApiMediaTypes.CHAT_V1;
     /** Caps the hold well inside the ALB's 60s idle timeout, whatever a client asks for. */
     private static final int MAX_WAIT_SECONDS = 25;
+    /** Messages read per history call while streaming an export. */
+    private static final int EXPORT_PAGE = 200;
+    /** A message id as {@code ChatMessage.Id.of} writes it: 13-digit zero-padded epoch millis. */
+    private static final Pattern MESSAGE_ID = Pattern.compile("\\d{13}");
 
     @Override
     protected String versionedType() {
@@ -567,6 +576,15 @@ public class ChatResource extends BaseResource {
         if (denial != null) {
             return error(403, denial, denialMessage(denial));
         }
+        // The version is read BEFORE the window, so a reaction landing in between yields a newer body under an
+        // older tag -- one extra refetch, never a 304 over a change. Weak: reactor display names are resolved
+        // here and can change without the version moving. Zero is a cold counter and tags nothing.
+        final long version = chat.reactionsVersion(tripId);
+        final EntityTag tag = version <= 0 ? null
+                : EntityTags.weak(String.valueOf(version), negotiatedType(), "reactions", from, to, me.getValue());
+        if (holds(tag)) {
+            return notModified(tag);
+        }
         final Map<ChatMessage.Id, ChatReactionSummary> summaries = chat.reactionWindow(
                 tripId, me, ChatMessage.Id.from(from), ChatMessage.Id.from(to));
         // Names come with the summaries: a reactor is often not an author on the client's current page, so without
@@ -574,7 +592,7 @@ public class ChatResource extends BaseResource {
         return ok(Map.of(
                 "reactions", summaries,
                 "displayNames", chat.reactorNames(summaries),
-                "reactionsVersion", chat.reactionsVersion(tripId)));
+                "reactionsVersion", version), tag);
     }
 
     /** The reaction palette, so the client renders exactly the set the server will accept. */
@@ -643,6 +661,82 @@ public class ChatResource extends BaseResource {
         return ok(page);
     }
 
+    /**
+     * The whole channel as newline-delimited JSON, streamed: {@code {"message": ..., "authorName": ...}} per line,
+     * newest first, read a page of {@value #EXPORT_PAGE} at a time so memory stays one page whatever the channel's
+     * length, then a closing {@code {"complete": ..., "count": ..., "resumeBefore": ...}} line. An export cut off
+     * by a read failure resumes with {@code before=resumeBefore}; one cut off by the client resumes from the id
+     * of the last message it received. Gzipped when accepted. Audited once, at the end, with the count actually
+     * sent -- the disclosure is what left, not what was asked for.
+     */
+    @GET
+    @Path("export.ndjson")
+    @Produces(ApiMediaTypes.NDJSON)
+    public Response exportStream(
+            @PathParam("channelId") final String channelId,
+            @QueryParam("before") final String before) {
+        final Person.Id me = personId();
+        final String tripId = tripIdOf(channelId);
+        if (tripId == null) {
+            return error(400, ChatErrors.BAD_CHANNEL, "Invalid channel id.");
+        }
+        final ChatCommands chat = ChatCommands.getChatCommands();
+        if (!chat.canAdminister(tripId, caller())) {
+            return error(403, ChatErrors.FORBIDDEN, "Chat manager required.");
+        }
+        // Checked before the download starts: once it streams, the 200 is sent and a bad cursor could only be
+        // reported as an empty export.
+        final String start = before == null ? "" : before.strip();
+        if (!start.isEmpty() && !MESSAGE_ID.matcher(start).matches()) {
+            return error(400, ChatErrors.BAD_CHANNEL, "before must be a message id.");
+        }
+        final AuditActor actor = actor();
+        final ObjectMapper mapper = DAO.getInstance().getMapper();
+        return download(ApiMediaTypes.NDJSON, "chat-" + tripId + ".ndjson", out -> {
+            ChatMessage.Id cursor = start.isEmpty() ? null : ChatMessage.Id.from(start);
+            int count = 0;
+            boolean complete = false;
+            try {
+                while (true) {
+                    final ChatPage page;
+                    try {
+                        page = chat.history(tripId, me, cursor, EXPORT_PAGE);
+                    } catch (final RuntimeException ex) {
+                        log.error("Chat export of {} stopped after {} messages", tripId, count, ex);
+                        break;
+                    }
+                    for (final ChatMessage message : page.getMessages()) {
+                        final Map<String, Object> line = new LinkedHashMap<>();
+                        line.put("message", message);
+                        line.put("authorName", message.getAuthorId() == null
+                                ? null : page.getDisplayNames().get(message.getAuthorId().getValue()));
+                        out.write(mapper.writeValueAsString(line));
+                        out.write('\n');
+                        count++;
+                    }
+                    if (page.getCursor() != null) {
+                        cursor = page.getCursor();
+                    }
+                    if (!page.isHasMore() || page.getCursor() == null) {
+                        complete = true;
+                        break;
+                    }
+                }
+                final Map<String, Object> trailer = new LinkedHashMap<>();
+                trailer.put("complete", complete);
+                trailer.put("count", count);
+                if (!complete && cursor != null) {
+                    trailer.put("resumeBefore", cursor.getValue());
+                }
+                out.write(mapper.writeValueAsString(trailer));
+                out.write('\n');
+            } finally {
+                // An export is a bulk disclosure -- see export() -- audited with what actually left.
+                chat.auditExport(tripId, count, actor);
+            }
+        });
+    }
+
     // --- roster, preferences and moderation ---
     //
     // These live here, on the channel path, rather than in a second resource rooted at "chat". A resource at
@@ -0,0 +1,94 @@
+package org.paulsens.trip.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code id:} of every event on {@link ChatStreamResource}, and so the {@code Last-Event-ID} a reconnecting
+ * browser sends back: where the stream was in EVERY channel it multiplexes, not just the one the event was about.
+ *
+ * <p>One token for all channels because the browser keeps only the last id it saw. A per-channel id would resume
+ * the channel of the final event and silently restart every other one at "now", dropping whatever arrived in them
+ * while the connection was down.
+ *
+ * <p>The wire form is base64url of one line per channel, {@code tripId TAB cursor TAB rver TAB mver}. It is opaque
+ * to the client and read <b>totally</b>: a token from an older build, a truncated header or plain garbage decodes
+ * to "no position", which restarts the stream at now rather than failing the request.
+ */
+final class ChatStreamCursor {
+
+    /** A header this long did not come from us; not worth decoding. */
+    static final int MAX_TOKEN_LENGTH = 16_384;
+
+    private static final char FIELD = '\t';
+    private static final char LINE = '\n';
+
+    /**
+     * Where one channel stands.
+     *
+     * @param since            the last message id delivered, or {@code null} for "from the channel's start"
+     * @param reactionsVersion the last reactions counter reported, or -1 when none has been read yet
+     * @param mutationsVersion the same for edits and tombstones
+     */
+    record Position(String since, long reactionsVersion, long mutationsVersion) {
+
+        /** A channel that has not been read yet on this stream. */
+        static Position unread(final String since) {
+            return new Position(since, -1L, -1L);
+        }
+    }
+
+    private ChatStreamCursor() {
+    }
+
+    /** The token for these positions, keyed by trip id, in iteration order. */
+    static String encode(final Map<String, Position> positions) {
+        final StringBuilder out = new StringBuilder();
+        for (final Map.Entry<String, Position> e : positions.entrySet()) {
+            final Position p = e.getValue();
+            out.append(e.getKey()).append(FIELD)
+                    .append(p.since() == null ? "" : p.since()).append(FIELD)
+                    .append(p.reactionsVersion()).append(FIELD)
+                    .append(p.mutationsVersion()).append(LINE);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(out.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The positions in a token, or an empty map for anything that is not one of ours. Never throws. */
+    static Map<String, Position> decode(final String token) {
+        final Map<String, Position> positions = new LinkedHashMap<>();
+        if (token == null || token.isBlank() || token.length() > MAX_TOKEN_LENGTH) {
+            return positions;
+        }
+        final String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException ex) {
+            return positions;
+        }
+        for (final String line : text.split(String.valueOf(LINE))) {
+            final String[] fields = line.split(String.valueOf(FIELD), -1);
+            if (fields.length != 4 || fields[0].isEmpty()) {
+                return new LinkedHashMap<>(); // one bad line means the whole token is suspect
+            }
+            final Long rver = parse(fields[2]);
+            final Long mver = parse(fields[3]);
+            if (rver == null || mver == null) {
+                return new LinkedHashMap<>();
+            }
+            positions.put(fields[0], new Position(fields[1].isEmpty() ? null : fields[1], rver, mver));
+        }
+        return positions;
+    }
+
+    private static Long parse(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (final NumberFormatException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.paulsens.trip.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.action.ChatCommands;
+import org.paulsens.trip.chat.ChatNudgeRegistry;
+import org.paulsens.trip.dynamo.DAO;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.chat.ChatChannel;
+import org.paulsens.trip.model.chat.ChatMessage;
+import org.paulsens.trip.model.chat.ChatPage;
+
+/**
+ * One Server-Sent Events stream carrying every chat this person can read, in place of one long-poll loop per
+ * channel. A traveller on five trips held five parked requests and re-issued each after every wake; this holds
+ * one connection, parks on all five channels at once, and pushes only what changed.
+ *
+ * <p>It is the long-poll's machinery, multiplexed, and keeps its rules. A {@code ChatNudge} only marks a channel
+ * dirty; what is sent is always the ordinary cursor read ({@code ChatCommands.feed}), so a lost nudge costs
+ * latency and never a message. Channels are parked BEFORE the first read for the same reason the long-poll
+ * re-reads after parking: a message landing between the two would otherwise publish its nudge to nobody.
+ *
+ * <p>Events, each carrying an {@code id:} that is a {@link ChatStreamCursor} over ALL channels:
+ * <ul>
+ *   <li>{@code ready} -- once, first: the channel ids this stream covers;</li>
+ *   <li>{@code message} -- {@code {channelId, page}}, the same {@code ChatPage} the feed returns;</li>
+ *   <li>{@code reactions} / {@code mutations} -- {@code {channelId, version}} when a counter moved with no message
+ *       to carry it, telling the client to refetch summaries or the messages it is showing.</li>
+ * </ul>
+ * A comment line goes out every {@link #HEARTBEAT} so the ALB's 60s idle timeout never fires on a quiet stream.
+ *
+ * <p>The channel set is fixed at connect and the stream ends after {@link #LIFETIME}. The browser's
+ * {@code EventSource} reconnects by itself, sending {@code Last-Event-ID}, so a bounded stream costs one request
+ * every few minutes and is what picks up a trip joined, or a chat left, since. A client that cannot set that
+ * header on its first connect passes the same token as {@code ?lastEventId=}.
+ *
+ * <p>Photo threads are not multiplexed separately: their reactions and comments already roll up into the trip
+ * channel's counters, which this stream reports.
+ */
+@Slf4j
+@Path("chat/stream")
+@TripApi
+public class ChatStreamResource extends BaseResource {
+
+    static final String EVENT_STREAM = "text/event-stream";
+    static final Duration HEARTBEAT = Duration.ofSeconds(20);
+    static final Duration LIFETIME = Duration.ofMinutes(10);
+    /** How long the browser waits before reconnecting a stream that ended, in the SSE {@code retry:} field. */
+    private static final int RETRY_MILLIS = 3_000;
+    /** Per channel per pass; a channel with more stays dirty and is read again before the stream waits. */
+    private static final int PAGE_LIMIT = 200;
+
+    private final Duration lifetime;
+    private final Duration heartbeat;
+
+    public ChatStreamResource() {
+        this(LIFETIME, HEARTBEAT);
+    }
+
+    /** Tests shorten both, so a stream ends in milliseconds rather than minutes. */
+    ChatStreamResource(final Duration lifetime, final Duration heartbeat) {
+        this.lifetime = lifetime;
+        this.heartbeat = heartbeat;
+    }
+
+    @Override
+    protected String versionedType() {
+        return ApiMediaTypes.CHAT_V1;
+    }
+
+    @GET
+    @Produces({EVENT_STREAM, MediaType.APPLICATION_JSON})
+    public Response stream(
+            @HeaderParam("Last-Event-ID") final String lastEventId,
+            @QueryParam("lastEventId") final String lastEventIdParam) {
+        final Person.Id me;
+        try {
+            me = personId();
+        } catch (final NotAuthorizedException ex) {
+            return error(401, ChatErrors.NOT_AUTHENTICATED, "Sign in required.");
+        }
+        final String token = lastEventId == null || lastEventId.isBlank() ? lastEventIdParam : lastEventId;
+        final ChatCommands chat = ChatCommands.getChatCommands();
+        final List<String> tripIds = chat.myChats(me).stream()
+                .map(summary -> summary.channel().getTripId())
+                .toList();
+        final StreamingOutput body = out -> new Session(chat, me, tripIds, ChatStreamCursor.decode(token)).run(out);
+        return Response.ok(body)
+                .type(EVENT_STREAM)
+                .header("Vary", "Accept")
+                .header("Cache-Control", "no-cache")
+                // Stops a buffering proxy (nginx in front of a dev box) from holding events back until it fills.
+                .header("X-Accel-Buffering", "no")
+                .build();
+    }
+
+    /** One connection's state. Lives on the request's virtual thread for the life of the response. */
+    private final class Session {
+        private final ChatCommands chat;
+        private final Person.Id me;
+        private final List<String> tripIds;
+        private final Map<String, ChatStreamCursor.Position> positions = new LinkedHashMap<>();
+        /** Trip ids whose channel was nudged since it was last read. Written from pub/sub threads. */
+        private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+        private final Semaphore signal = new Semaphore(0);
+        private final ObjectMapper mapper = DAO.getInstance().getMapper();
+
+        private Session(final ChatCommands chat, final Person.Id me, final List<String> tripIds,
+                final Map<String, ChatStreamCursor.Position> resumed) {
+            this.chat = chat;
+            this.me = me;
+            this.tripIds = tripIds;
+            for (final String tripId : tripIds) {
+                final ChatStreamCursor.Position from = resumed.get(tripId);
+                positions.put(tripId, from != null ? from : ChatStreamCursor.Position.unread(newestId(tripId)));
+            }
+        }
+
+        private void run(final OutputStream raw) {
+            final List<AutoCloseable> parked = new ArrayList<>(tripIds.size());
+            try {
+                for (final String tripId : tripIds) {
+                    parked.add(ChatNudgeRegistry.getInstance().park(
+                            ChatChannel.Id.forTrip(tripId).getValue(), upTo -> markDirty(tripId)));
+                }
+                dirty.addAll(tripIds); // the read-after-park: catch up every channel once before waiting
+                final Writer out = new BufferedWriter(new OutputStreamWriter(raw, StandardCharsets.UTF_8));
+                out.write("retry: " + RETRY_MILLIS + "\n");
+                send(out, "ready", Map.of("channels", tripIds.stream()
+                        .map(id -> ChatChannel.Id.forTrip(id).getValue()).toList()));
+                pump(out);
+            } catch (final IOException ex) {
+                log.debug("Chat stream for {} ended: client gone", me);
+            } catch (final InterruptedException ex) {
+                // The container's client-gone signal; re-assert it for the container's own cleanup.
+                Thread.currentThread().interrupt();
+            } finally {
+                parked.forEach(ChatStreamResource::unpark);
+            }
+        }
+
+        private void pump(final Writer out) throws IOException, InterruptedException {
+            final Instant deadline = Instant.now().plus(lifetime);
+            while (Instant.now().isBefore(deadline)) {
+                for (final String tripId : List.copyOf(dirty)) {
+                    dirty.remove(tripId);
+                    catchUp(out, tripId);
+                }
+                if (!dirty.isEmpty()) {
+                    continue;
+                }
+                final long waitMillis = Math.min(heartbeat.toMillis(),
+                        Math.max(1L, Duration.between(Instant.now(), deadline).toMillis()));
+                if (!signal.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                    out.write(": heartbeat\n\n");
+                    out.flush();
+                }
+                signal.drainPermits();
+            }
+        }
+
+        /**
+         * Reads one channel from its cursor and sends whatever moved. The counters follow the long-poll's
+         * {@code staleVersions} rules: a server zero is "not reported" and never a change, and inequality rather
+         * than increase counts, because a cache rebuild restarts them.
+         */
+        private void catchUp(final Writer out, final String tripId) throws IOException {
+            final ChatStreamCursor.Position at = positions.get(tripId);
+            final ChatPage page = chat.feed(tripId, me, at.since() == null ? null : ChatMessage.Id.from(at.since()),
+                    PAGE_LIMIT);
+            final String since = page.getCursor() == null ? at.since() : page.getCursor().getValue();
+            final long rver = nextVersion(at.reactionsVersion(), page.getReactionsVersion());
+            final long mver = nextVersion(at.mutationsVersion(), page.getMutationsVersion());
+            positions.put(tripId, new ChatStreamCursor.Position(since, rver, mver));
+            final String channelId = ChatChannel.Id.forTrip(tripId).getValue();
+            if (!page.isEmpty()) {
+                send(out, "message", delta(channelId, "page", page));
+                if (page.isHasMore()) {
+                    dirty.add(tripId);
+                }
+            }
+            if (moved(at.reactionsVersion(), rver)) {
+                send(out, "reactions", delta(channelId, "version", rver));
+            }
+            if (moved(at.mutationsVersion(), mver)) {
+                send(out, "mutations", delta(channelId, "version", mver));
+            }
+        }
+
+        private void send(final Writer out, final String event, final Object data) throws IOException {
+            out.write("id: " + ChatStreamCursor.encode(positions) + "\n");
+            out.write("event: " + event + "\n");
+            out.write("data: " + mapper.writeValueAsString(data) + "\n\n");
+            out.flush();
+        }
+
+        private void markDirty(final String tripId) {
+            dirty.add(tripId);
+            signal.release();
+        }
+
+        /**
+         * Where a channel new to this stream starts: its newest message, so connecting does not replay history
+         * the client loads through the feed's {@code order=newest}. {@code null} for an empty channel, which is
+         * "from the start" -- correct, since everything in it will be new.
+         */
+        private String newestId(final String tripId) {
+            final ChatPage latest = chat.history(tripId, me, null, 1);
+            if (latest == null) {
+                return null;
+            }
+            if (!latest.getMessages().isEmpty()) {
+                return latest.getMessages().getFirst().getId().getValue();
+            }
+            return latest.getCursor() == null ? null : latest.getCursor().getValue();
+        }
+    }
+
+    /** The counter to remember: the first one read is adopted as-is; after that a server zero changes nothing. */
+    static long nextVersion(final long known, final long reported) {
+        if (known < 0) {
+            return reported;
+        }
+        return reported > 0 ? reported : known;
+    }
+
+    /** Whether a remembered counter moved. Nothing is announced for the read that adopted the first value. */
+    static boolean moved(final long known, final long next) {
+        return known >= 0 && next != known;
+    }
+
+    /** An event body with {@code channelId} first, so a client can dispatch before parsing the rest. */
+    private static Map<String, Object> delta(final String channelId, final String name, final Object value) {
+        final Map<String, Object> body = new LinkedHashMap<>();
+        body.put("channelId", channelId);
+        body.put(name, value);
+        return body;
+    }
+
+    private static void unpark(final AutoCloseable parked) {
+        try {
+            parked.close();
+        } catch (final Exception ex) {
+            log.warn("Unable to unpark a chat stream waiter", ex);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.paulsens.trip.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.ext.Provider;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Conditional GET for the whole API. The request half parses {@code If-None-Match} once and leaves the tags the
+ * client holds where {@link BaseResource#holds} can see them; a resource that can name its representation from
+ * cache stamps alone ({@link EntityTags}) answers 304 itself, before any entity is parsed or mapped. The response
+ * half is the backstop for the rest: any tagged 200 whose tag the client already holds goes out as a body-less
+ * 304, and every tagged response carries {@code Cache-Control: private, no-cache} -- private because these are
+ * per-user representations, no-cache so the browser revalidates instead of trusting a copy across a sign-out.
+ *
+ * <p>Tags are compared weakly, as RFC 9110 requires for {@code If-None-Match}: {@code W/"x"} matches {@code "x"}.
+ * Runs after {@link TripAuthFilter} (default user priority), so an anonymous request is refused before its tags
+ * are even read.</p>
+ */
+@Provider
+@TripApi
+public class ConditionalGetFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String KNOWN_TAGS_PROP = "trip.knownTags";
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    @Context
+    private HttpServletRequest request;
+
+    @Override
+    public void filter(final ContainerRequestContext ctx) {
+        if (!HttpMethod.GET.equals(ctx.getMethod())) {
+            return;
+        }
+        final Set<String> known = parse(ctx.getHeaderString(HttpHeaders.IF_NONE_MATCH));
+        if (!known.isEmpty()) {
+            ctx.setProperty(KNOWN_TAGS_PROP, known);
+            // Also on the servlet request, as TripAuthFilter does, so the resource need not inject the context.
+            request.setAttribute(KNOWN_TAGS_PROP, known);
+        }
+    }
+
+    @Override
+    public void filter(final ContainerRequestContext req, final ContainerResponseContext res) {
+        final EntityTag tag = res.getEntityTag();
+        if (tag == null) {
+            return;
+        }
+        res.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (res.getStatus() == 200 && matches(req.getProperty(KNOWN_TAGS_PROP), tag)) {
+            res.setStatus(304);
+            res.setEntity(null);
+        }
+    }
+
+    /** True when the parsed {@code If-None-Match} set (or {@code *}) covers this tag. */
+    static boolean matches(final Object known, final EntityTag tag) {
+        return tag != null && known instanceof Set<?> tags && (tags.contains("*") || tags.contains(tag.getValue()));
+    }
+
+    /** The opaque values of an {@code If-None-Match} header, weakness and quotes stripped. */
+    static Set<String> parse(final String header) {
+        final Set<String> tags = new LinkedHashSet<>();
+        if (header == null) {
+            return tags;
+        }
+        for (final String part : header.split(",")) {
+            String tag = part.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+}
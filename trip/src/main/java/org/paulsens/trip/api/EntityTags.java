@@ -0,0 +1,43 @@
+package org.paulsens.trip.api;
+
+import jakarta.ws.rs.core.EntityTag;
+import org.paulsens.trip.cache.Stamped;
+
+/**
+ * Entity tags named from cache stamps ({@link Stamped}) rather than from a rendered body, so a request the client
+ * is already current on can be answered 304 before anything is parsed, mapped or serialized.
+ *
+ * <p>A tag must cover every input the representation depends on, not just the stored entity: an input left out
+ * is a 304 served over a body that did change. So the parts are the stamp(s), the negotiated media type, the
+ * route, and whatever makes the view caller-relative (viewer id, access level, staff flag). {@link #FORMAT}
+ * covers the one input no stamp sees -- the DTOs and mappers themselves.</p>
+ */
+final class EntityTags {
+
+    /** Bump when a DTO or mapper changes what an unchanged entity renders as: every tag issued before goes stale. */
+    static final String FORMAT = "1";
+
+    private EntityTags() {
+    }
+
+    /** A strong tag over the stamp and the view's other inputs; null (untagged) when there is no stamp. */
+    static EntityTag strong(final String stamp, final Object... parts) {
+        return stamp == null ? null : new EntityTag(digest(stamp, parts));
+    }
+
+    /**
+     * A weak tag: for a view that is semantically, not byte-for-byte, fixed by its stamp -- e.g. display names
+     * resolved at render time that may change without the stamp moving.
+     */
+    static EntityTag weak(final String stamp, final Object... parts) {
+        return stamp == null ? null : new EntityTag(digest(stamp, parts), true);
+    }
+
+    private static String digest(final String stamp, final Object... parts) {
+        final StringBuilder in = new StringBuilder(FORMAT).append('\0').append(stamp);
+        for (final Object part : parts) {
+            in.append('\0').append(part);
+        }
+        return Stamped.of(in.toString());
+    }
+}
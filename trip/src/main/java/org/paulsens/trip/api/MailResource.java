@@ -1,20 +1,23 @@
 package org.paulsens.trip.api;
 
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.action.MailCommands;
 import org.paulsens.trip.audit.AuditActor;
+import org.paulsens.trip.mail.MailJob;
 import org.paulsens.trip.model.Person;
-import org.paulsens.trip.util.TripThreads;
 
 /**
  * Sending email.
@@ -35,9 +38,9 @@ public class MailResource extends BaseResource {
     /**
      * A ceiling on one call's recipients.
      *
-     * <p>Not a throughput limit -- SES has its own. This is a blast-radius limit: the difference between a
-     * mistake that reaches a handful of people and one that reaches the entire database is a single bad
-     * recipient list, and the API should make the second one impossible to do by accident.
+     * <p>Not a throughput limit -- the mail spool paces sends to SES's rate. This is a blast-radius limit: the
+     * difference between a mistake that reaches a handful of people and one that reaches the entire database is a
+     * single bad recipient list, and the API should make the second one impossible to do by accident.
      */
     private static final int MAX_RECIPIENTS = 200;
 
@@ -80,11 +83,11 @@ public class MailResource extends BaseResource {
     }
 
     /**
-     * Sends one message to an explicit recipient list.
+     * Sends one message to an explicit recipient list, by queueing it on the mail spool.
      *
-     * <p>The actor is captured here, on the request thread, and passed in. The sends outlive this request on
-     * their own virtual threads, where {@code AuditActor.current()} finds nothing -- every EMAIL record went
-     * out unattributed for a period because attribution was left to the sending thread.
+     * <p>The actor is captured here, on the request thread, and stored with the job. The sends happen later on
+     * whichever instance drains the spool, where {@code AuditActor.current()} finds nothing -- every EMAIL record
+     * went out unattributed for a period because attribution was left to the sending thread.
      */
     @POST
     @Consumes({V1, MediaType.APPLICATION_JSON})
@@ -109,19 +112,42 @@ public class MailResource extends BaseResource {
         if (accepted.isEmpty()) {
             return error(422, ApiErrors.VALIDATION_FAILED, "No usable recipient addresses.");
         }
-        for (final String recipient : accepted) {
-            // startAs, not a bare spawn: send() is blocking now, and a plain spawn would not inherit the
-            // ScopedValue-bound identity -- the actor must ride along explicitly for the EMAIL audit record.
-            TripThreads.startAs(actor, () -> sendOne(mail, body, recipient, actor));
+        final String jobId = mail.spool(
+                body.from(), accepted, body.bcc(), body.replyTo(), body.subject(), body.body(), actor);
+        // Reports what was ACCEPTED, not what was delivered. The spool sends at SES's pace after this returns,
+        // and SES decides delivery later; claiming success here would be claiming something this call cannot
+        // know. The job id is how to find out -- absent when the spool was unavailable and the mail went out
+        // directly, with no progress to report.
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("accepted", accepted);
+        result.put("rejected", body.to().size() - accepted.size());
+        if (jobId != null) {
+            result.put("job", jobId);
         }
-        // Reports what was ACCEPTED, not what was delivered. The sends run on their own virtual threads and
-        // SES decides delivery later; claiming success here would be claiming something this call cannot know.
-        return ok(Map.of("accepted", accepted, "rejected", body.to().size() - accepted.size()));
+        return ok(result);
     }
 
-    private static void sendOne(final MailCommands mail, final SendRequest body, final String recipient,
-            final AuditActor actor) {
-        mail.send(body.from(), recipient, body.bcc(), body.replyTo(), body.subject(), body.body(), actor);
+    /** A spooled send's progress: {@code total}, {@code sent}, {@code failed}, {@code pending}, {@code done}. */
+    @GET
+    @Path("jobs/{id}")
+    @Produces({V1, MediaType.APPLICATION_JSON})
+    public Response job(@PathParam("id") final String id) {
+        if (!privileges().has(ApiPrivileges.EMAIL_ADMIN)) {
+            return error(403, ApiErrors.FORBIDDEN, "Email administration required.");
+        }
+        final MailJob job = Beans.get(MailCommands.class).spoolStatus(id);
+        if (job == null) {
+            return error(404, ApiErrors.NOT_FOUND, "No such mail job (they are kept for a week).");
+        }
+        final Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", job.id());
+        result.put("total", job.total());
+        result.put("sent", job.sent());
+        result.put("failed", job.failed());
+        result.put("pending", job.pending());
+        result.put("done", job.done());
+        result.put("createdAt", job.createdAt());
+        return ok(result);
     }
 
     private Response validate(final SendRequest body) {
@@ -10,12 +10,14 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.action.AuditCommands;
 import org.paulsens.trip.action.PersonCommands;
@@ -25,6 +27,7 @@ import org.paulsens.trip.api.dto.PersonDataValueDto;
 import org.paulsens.trip.api.dto.PersonDto;
 import org.paulsens.trip.api.dto.PrivacyDto;
 import org.paulsens.trip.api.mapper.PersonMapper;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.DataId;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.PersonDataValue;
@@ -88,11 +91,23 @@ public class PeopleResource extends BaseResource {
     @Produces({V1, MediaType.APPLICATION_JSON})
     public Response get(@PathParam("id") final String id, @QueryParam("trip") final String tripId) {
         final Person.Id personId = Person.Id.from(id);
+        // The level depends on the caller and the trip, never on the subject's record, so it is settled before
+        // the read and goes into the tag: the same person redacts differently for a peer and a trip admin.
+        final AccessLevel level = levelFor(personId, tripId);
+        final Function<String, EntityTag> tagOf =
+                stamp -> EntityTags.strong(stamp, negotiatedType(), "person", personId().getValue(), level);
+        final Stamped<Person> stamped =
+                Beans.get(PersonCommands.class).getPersonStamped(personId, heldAs(tagOf));
+        if (stamped != null) {
+            return stamped.unchanged()
+                    ? notModified(tagOf.apply(stamped.stamp()))
+                    : ok(dto(stamped.value(), level), tagOf.apply(stamped.stamp()));
+        }
         final Person person = findPerson(personId);
         if (person == null) {
             return error(404, ApiErrors.NOT_FOUND, "No such person.");
         }
-        return ok(dto(person, levelFor(personId, tripId)));
+        return ok(dto(person, level));
     }
 
     @POST
@@ -7,17 +7,21 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.action.AuditCommands;
 import org.paulsens.trip.action.RegistrationCommands;
 import org.paulsens.trip.action.PersonCommands;
 import org.paulsens.trip.api.dto.RegistrationDto;
 import org.paulsens.trip.api.mapper.RegistrationMapper;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.PersonDataValue;
 import org.paulsens.trip.model.Registration;
@@ -54,9 +58,18 @@ public class RegistrationsResource extends BaseResource {
         if (!isTripStaff(tripId)) {
             return error(403, ApiErrors.FORBIDDEN, "Trip staff required.");
         }
-        return ok(Beans.get(RegistrationCommands.class).getRegistrations(tripId).stream()
+        final RegistrationCommands regs = Beans.get(RegistrationCommands.class);
+        // Staff all see the same list, so the tag needs no viewer: the partition's stamp and the media type.
+        final Function<String, EntityTag> tagOf =
+                stamp -> EntityTags.strong(stamp, negotiatedType(), "registrations", tripId);
+        final Stamped<List<Registration>> stamped = regs.getRegistrationsStamped(tripId, heldAs(tagOf));
+        if (stamped != null && stamped.unchanged()) {
+            return notModified(tagOf.apply(stamped.stamp()));
+        }
+        final List<Registration> found = stamped == null ? regs.getRegistrations(tripId) : stamped.value();
+        return ok(found.stream()
                 .map(reg -> RegistrationMapper.INSTANCE.toDto(reg).withoutOptions())
-                .toList());
+                .toList(), stamped == null ? null : tagOf.apply(stamped.stamp()));
     }
 
     /** How many registrations are awaiting approval. Trip staff only. */
@@ -9,17 +9,22 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.action.AuditCommands;
 import org.paulsens.trip.action.TransactionsCommands;
 import org.paulsens.trip.api.dto.TransactionDto;
 import org.paulsens.trip.api.mapper.TransactionMapper;
+import org.paulsens.trip.dynamo.BalanceLedger;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Transaction;
 
@@ -54,9 +59,18 @@ public class TransactionsResource extends BaseResource {
             return error(403, ApiErrors.FORBIDDEN, "Not permitted to read these finances.");
         }
         final boolean staff = isFinanceStaff(tripId);
-        return ok(Beans.get(TransactionsCommands.class).getTransactions(subject).stream()
+        final TransactionsCommands txs = Beans.get(TransactionsCommands.class);
+        // The staff flag changes what each entry shows, so it is part of the tag alongside the ledger's stamp.
+        final Function<String, EntityTag> tagOf =
+                stamp -> EntityTags.strong(stamp, negotiatedType(), "ledger", subject.getValue(), staff);
+        final Stamped<List<Transaction>> stamped = txs.getTransactionsStamped(subject, heldAs(tagOf));
+        if (stamped != null && stamped.unchanged()) {
+            return notModified(tagOf.apply(stamped.stamp()));
+        }
+        final List<Transaction> found = stamped == null ? txs.getTransactions(subject) : stamped.value();
+        return ok(found.stream()
                 .map(tx -> dto(tx, staff))
-                .toList());
+                .toList(), stamped == null ? null : tagOf.apply(stamped.stamp()));
     }
 
     @GET
@@ -90,6 +104,56 @@ public class TransactionsResource extends BaseResource {
                 .toList());
     }
 
+    /**
+     * The trip's balances in cents from the balance ledger: one read however many members, where the books above
+     * load every member's transactions. Same audience as the books.
+     */
+    @GET
+    @Path("trips/{tripId}/balances")
+    @Produces({V1, MediaType.APPLICATION_JSON})
+    public Response tripBalances(@PathParam("tripId") final String tripId) {
+        if (!isFinanceStaff(tripId)) {
+            return error(403, ApiErrors.FORBIDDEN, "Trip finance access required.");
+        }
+        final Map<Person.Id, Long> balances = Beans.get(TransactionsCommands.class).getTripBalances(tripId);
+        final Map<String, Long> people = new LinkedHashMap<>();
+        balances.forEach((id, cents) -> people.put(id.getValue(), cents));
+        return ok(Map.of(
+                "tripId", tripId,
+                "totalCents", balances.values().stream().mapToLong(Long::longValue).sum(),
+                "balanceCents", people));
+    }
+
+    /**
+     * Recomputes the trip's balances from the database and repairs the ledger wherever it drifted, answering
+     * with what it found. A write, so finance administrators only.
+     */
+    @POST
+    @Path("trips/{tripId}/balances/reconcile")
+    @Produces({V1, MediaType.APPLICATION_JSON})
+    public Response reconcileBalances(
+            @PathParam("tripId") final String tripId, @HeaderParam(CSRF_HEADER) final String csrf) {
+        if (csrfMissing(csrf)) {
+            return error(403, ApiErrors.CSRF, "Missing " + CSRF_HEADER + " header.");
+        }
+        if (!isFinanceAdmin(tripId)) {
+            return error(403, ApiErrors.FORBIDDEN, "Trip finance administrator required.");
+        }
+        final BalanceLedger.Reconciliation found =
+                Beans.get(TransactionsCommands.class).reconcileTripBalances(tripId);
+        if (found == null) {
+            return error(500, ApiErrors.STORE_FAILED, "Could not reconcile the trip's balances.");
+        }
+        return ok(Map.of(
+                "checked", found.checked(),
+                "drifted", found.drifted().stream()
+                        .map(drift -> Map.of(
+                                "personId", drift.personId().getValue(),
+                                "ledgerCents", drift.ledgerCents(),
+                                "sourceCents", drift.sourceCents()))
+                        .toList()));
+    }
+
     /** Who shares a group transaction. */
     @GET
     @Path("groups/{groupId}/people/{personId}")
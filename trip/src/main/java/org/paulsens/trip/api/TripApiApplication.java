@@ -25,6 +25,7 @@ public class TripApiApplication extends Application {
                 PasskeyResource.class,
                 ChatAdminResource.class,
                 ChatResource.class,
+                ChatStreamResource.class,
                 ConfigResource.class,
                 DeployResource.class,
                 MailResource.class,
@@ -37,6 +38,7 @@ public class TripApiApplication extends Application {
                 TransactionsResource.class,
                 TripsResource.class,
                 TripAuthFilter.class,
+                ConditionalGetFilter.class,
                 JsonExceptionMapper.class,
                 // Must accompany JacksonFeature: without it Jackson uses a default mapper with no JavaTimeModule
                 // and every Instant goes out as a bare epoch decimal. See ObjectMapperProvider.
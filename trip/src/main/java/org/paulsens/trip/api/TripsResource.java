@@ -10,6 +10,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import java.util.ArrayList;
@@ -17,11 +18,14 @@ import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.action.TripCommands;
 import org.paulsens.trip.api.dto.TripDto;
 import org.paulsens.trip.api.dto.TripEventDto;
 import org.paulsens.trip.api.mapper.TripMapper;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Trip;
 import org.paulsens.trip.model.TripEvent;
@@ -85,6 +89,10 @@ public class TripsResource extends BaseResource {
     @Path("{tripId}")
     @Produces({V1, MediaType.APPLICATION_JSON})
     public Response get(@PathParam("tripId") final String tripId) {
+        final Response conditional = conditionalView(tripId, "trip", this::withViewerEvents);
+        if (conditional != null) {
+            return conditional;
+        }
         final Trip trip = findTrip(tripId);
         if (trip == null) {
             return error(404, ApiErrors.NOT_FOUND, "No such trip.");
@@ -101,6 +109,10 @@ public class TripsResource extends BaseResource {
     @Path("{tripId}/events")
     @Produces({V1, MediaType.APPLICATION_JSON})
     public Response events(@PathParam("tripId") final String tripId) {
+        final Response conditional = conditionalView(tripId, "events", TripsResource::eventDtos);
+        if (conditional != null) {
+            return conditional;
+        }
         final Trip trip = findTrip(tripId);
         if (trip == null) {
             return error(404, ApiErrors.NOT_FOUND, "No such trip.");
@@ -298,9 +310,48 @@ public class TripsResource extends BaseResource {
 
     /** Membership is enough to read; a trip role or site admin also is. */
     private boolean canRead(final Trip trip, final Person.Id me) {
-        return trip.getPeople().contains(me)
-                || privileges().has(ApiPrivileges.TRIP_VIEW, trip.getId())
-                || privileges().has(ApiPrivileges.TRIP_MGR, trip.getId());
+        return trip.getPeople().contains(me) || canReadAsStaff(trip.getId());
+    }
+
+    private boolean canReadAsStaff(final String tripId) {
+        return privileges().has(ApiPrivileges.TRIP_VIEW, tripId) || privileges().has(ApiPrivileges.TRIP_MGR, tripId);
+    }
+
+    /**
+     * A viewer-relative trip view as a conditional GET, or null when the trip cannot be stamped (the caller then
+     * takes its plain path, which also owns the 404).
+     *
+     * <p>Both views render the trip's events, and the notes, participation and event edits in them are saved
+     * through the events ({@code TripEventDAO}) without touching the trip's JSON. So the tag covers the trip's
+     * stamp AND a stamp of its events' stored forms, taken from the cache's own strings in one MGET before
+     * anything is rendered: no event is resolved, serialized or parsed to tag it, and a current client skips the
+     * mapping and the body. The trip itself is always parsed here, for its members and event ids. The tag also
+     * names the authorization basis ({@code member} or {@code staff}) and is only issued or honoured after the
+     * read itself was authorized.</p>
+     */
+    private Response conditionalView(
+            final String tripId, final String view, final BiFunction<Trip, Person.Id, Object> render) {
+        final Person.Id me = personId();
+        final TripCommands commands = Beans.get(TripCommands.class);
+        final Stamped<Trip> stamped = commands.getTripStamped(tripId, stamp -> false);
+        if (stamped == null) {
+            return null;
+        }
+        final Trip trip = stamped.value();
+        if (!canRead(trip, me)) {
+            return error(403, ApiErrors.FORBIDDEN, "Not a member of this trip.");
+        }
+        final String basis = trip.getPeople().contains(me) ? "member" : "staff";
+        final Function<String, EntityTag> tagOf = eventsStamp ->
+                EntityTags.strong(stamped.stamp(), eventsStamp, negotiatedType(), view, me.getValue(), basis);
+        final String eventsStamp = commands.getTripEventsStamp(trip);
+        if (eventsStamp == null) {
+            return ok(render.apply(trip, me), null);
+        }
+        if (heldAs(tagOf).test(eventsStamp)) {
+            return notModified(tagOf.apply(eventsStamp));
+        }
+        return ok(render.apply(trip, me), tagOf.apply(eventsStamp));
     }
 
     /**
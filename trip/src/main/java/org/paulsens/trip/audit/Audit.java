@@ -6,6 +6,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.paulsens.trip.model.AuditAction;
 import org.paulsens.trip.model.AuditEvent;
 import org.paulsens.trip.model.AuditOutcome;
@@ -129,6 +130,16 @@ public class Audit {
         INSTANCE.sink.write(event);
     }
 
+    /** How the DynamoDB index is keeping up, or empty when this process does not write one. */
+    public static Optional<DynamoAuditSink.Stats> indexStats() {
+        final List<AuditSink> sinks = (INSTANCE.sink instanceof CompositeAuditSink composite)
+                ? composite.getSinks() : List.of(INSTANCE.sink);
+        return sinks.stream()
+                .filter(DynamoAuditSink.class::isInstance)
+                .map(sink -> ((DynamoAuditSink) sink).stats())
+                .findFirst();
+    }
+
     /**
      * Records an event from its parts, for Java callers that have an action constant in hand.
      *
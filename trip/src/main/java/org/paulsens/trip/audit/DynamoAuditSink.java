@@ -1,8 +1,12 @@
 package org.paulsens.trip.audit;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.model.AuditEvent;
 
@@ -17,6 +21,12 @@ import org.paulsens.trip.model.AuditEvent;
  * <p>Delivery is asynchronous for the same reason as the CloudWatch sink: callers are request threads in the
  * middle of a login or a save, and a DynamoDB round trip -- with a conditional-write retry behind it -- has no
  * business sitting in that path.
+ *
+ * <p><b>Batched.</b> Each writer takes what has queued up, up to a batch, and stores it in one conditional batch
+ * write ({@code DAO#saveAuditEvents}), so a burst -- a mail-out, a bulk edit -- costs a round trip per
+ * {@value #BATCH} records rather than one each. {@value #WRITERS} writers share the queue; the keys they write are
+ * settled in-process first, so they do not collide with each other. {@link #stats()} shows whether the index is
+ * keeping up.
  */
 public final class DynamoAuditSink implements AuditSink {
 
@@ -24,16 +34,43 @@ public final class DynamoAuditSink implements AuditSink {
     private static final int QUEUE_CAPACITY = 10_000;
     private static final long POLL_INTERVAL_MS = 500L;
     private static final long DRAIN_TIMEOUT_SECONDS = 5L;
+    /** Records per write: DynamoDB's limit for one conditional batch. */
+    static final int BATCH = 25;
+    static final int WRITERS = 2;
 
     private final BlockingQueue<AuditEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
     private final ConsoleAuditSink fallback = new ConsoleAuditSink();
-    private final Thread writer;
+    private final List<Thread> writers = new ArrayList<>(WRITERS);
+    private final LongAdder written = new LongAdder();
+    private final LongAdder notIndexed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger highWater = new AtomicInteger();
     private volatile boolean running = true;
 
     public DynamoAuditSink() {
-        this.writer = new Thread(this::writeLoop, "trip-audit-dynamo");
-        this.writer.setDaemon(true);
-        this.writer.start();
+        for (int i = 0; i < WRITERS; i++) {
+            final Thread writer = new Thread(this::writeLoop, "trip-audit-dynamo-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    /**
+     * How the index is keeping up, since startup.
+     *
+     * @param depth      records waiting now
+     * @param written    records stored in the table
+     * @param notIndexed records the table refused or never got, printed as {@code AUDIT-NOT-INDEXED}
+     * @param dropped    records turned away by a full queue, printed as {@code AUDIT-DYNAMO-QUEUE-FULL}
+     * @param highWater  the deepest the queue has been
+     */
+    public record Stats(int depth, int capacity, long written, long notIndexed, long dropped, int highWater) {
+    }
+
+    public Stats stats() {
+        return new Stats(queue.size(), QUEUE_CAPACITY, written.sum(), notIndexed.sum(), dropped.sum(),
+                highWater.get());
     }
 
     @Override
@@ -41,16 +78,25 @@ public final class DynamoAuditSink implements AuditSink {
         // offer(), never put(): a full queue means the table is unreachable or far behind, and blocking here
         // would stall a user's request on a logging backend.
         if (!queue.offer(event)) {
+            dropped.increment();
             fallback.writeLine("AUDIT-DYNAMO-QUEUE-FULL " + AuditSink.format(event));
+            return;
+        }
+        final int depth = queue.size();
+        if (depth > highWater.get()) {
+            highWater.accumulateAndGet(depth, Math::max);
         }
     }
 
     @Override
     public void close() {
         running = false;
-        writer.interrupt();
+        writers.forEach(Thread::interrupt);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
         try {
-            writer.join(TimeUnit.SECONDS.toMillis(DRAIN_TIMEOUT_SECONDS));
+            for (final Thread writer : writers) {
+                writer.join(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            }
         } catch (final InterruptedException ex) {
             Thread.currentThread().interrupt();
         }
@@ -58,11 +104,14 @@ public final class DynamoAuditSink implements AuditSink {
     }
 
     private void writeLoop() {
+        final List<AuditEvent> batch = new ArrayList<>(BATCH);
         while (running) {
             try {
-                final AuditEvent event = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
-                if (event != null) {
-                    store(event);
+                final AuditEvent first = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH - 1);
+                    store(batch);
                 }
             } catch (final InterruptedException ex) {
                 Thread.currentThread().interrupt();
@@ -70,27 +119,37 @@ public final class DynamoAuditSink implements AuditSink {
             } catch (final RuntimeException ex) {
                 // Never let this thread die: that would silently end indexing for the life of the task.
                 fallback.writeLine("AUDIT-DYNAMO-WRITER-ERROR " + ex);
+                unstored(batch, "AUDIT-NOT-INDEXED ");
+            } finally {
+                batch.clear();
             }
         }
     }
 
     private void drain() {
-        AuditEvent event;
-        while ((event = queue.poll()) != null) {
+        final List<AuditEvent> batch = new ArrayList<>(BATCH);
+        while (queue.drainTo(batch, BATCH) > 0) {
             try {
-                store(event);
+                store(batch);
             } catch (final RuntimeException ex) {
-                fallback.writeLine("AUDIT-DYNAMO-DRAIN-FAILED " + AuditSink.format(event));
+                unstored(batch, "AUDIT-DYNAMO-DRAIN-FAILED ");
             }
+            batch.clear();
         }
     }
 
-    private void store(final AuditEvent event) {
-        final boolean stored = DAO.getInstance().saveAuditEvent(event);
-        if (!stored) {
-            // Print it so the record still reaches the application log group; the ledger already has it, but a
-            // record missing from the index is a record the admin page will never show.
-            fallback.writeLine("AUDIT-NOT-INDEXED " + AuditSink.format(event));
+    private void store(final List<AuditEvent> batch) {
+        final List<AuditEvent> unstored = DAO.getInstance().saveAuditEvents(batch);
+        written.add(batch.size() - unstored.size());
+        // Print them so the records still reach the application log group; the ledger already has them, but a
+        // record missing from the index is a record the admin page will never show.
+        unstored(unstored, "AUDIT-NOT-INDEXED ");
+    }
+
+    private void unstored(final List<AuditEvent> events, final String prefix) {
+        notIndexed.add(events.size());
+        for (final AuditEvent event : events) {
+            fallback.writeLine(prefix + AuditSink.format(event));
         }
     }
 }
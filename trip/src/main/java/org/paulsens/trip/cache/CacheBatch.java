@@ -0,0 +1,208 @@
+package org.paulsens.trip.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A queue of shared-cache writes flushed together by {@link CacheClient#executeBatch}: the write-through paths
+ * that used to pay one blocking round trip per command (a chat send was eight) queue their commands here and
+ * wait once. {@link ValkeyCacheClient} dispatches the whole queue back-to-back on one connection before
+ * awaiting any of it -- Lettuce pipelines by construction -- so the batch costs one round trip of latency and
+ * one foreground-queue occupancy window instead of N.
+ *
+ * <p><b>Per-command fail-open</b>, exactly like the single-command methods: {@link #execute()} answers one
+ * boolean per queued command, in queue order, and a failed command is {@code false} in its slot -- it never
+ * fails its neighbours and never throws. A client that answers fewer results than commands (a mocked client,
+ * say) is padded with {@code false}, so callers can always index by position.
+ *
+ * <p><b>Ordering</b>: commands leave in queue order. On a single-node Valkey (one connection) they also
+ * execute in that order; on a cluster, commands for keys on different shards ride different node connections
+ * and may interleave. A write that must be visible BEFORE another one (the chat nudge, which must wake
+ * readers only once the message is readable) therefore stays out of the batch and runs after it.
+ *
+ * <p>Only writes are batched. Reads keep their own typed methods -- a read's caller wants a value, not a
+ * slot in a list of booleans.
+ */
+public final class CacheBatch {
+    private final CacheClient client;
+    private final List<Command> commands = new ArrayList<>();
+
+    private CacheBatch(final CacheClient client) {
+        this.client = client;
+    }
+
+    /** Starts an empty batch against {@code client}. Nothing is sent until {@link #execute()}. */
+    public static CacheBatch of(final CacheClient client) {
+        return new CacheBatch(client);
+    }
+
+    public CacheBatch putValue(final String key, final String value, final Duration ttl) {
+        return add(new PutValue(key, value, ttl));
+    }
+
+    public CacheBatch removeKey(final String key) {
+        return add(new RemoveKey(key));
+    }
+
+    public CacheBatch putHashField(final String key, final String field, final String value) {
+        return add(new PutHashField(key, field, value));
+    }
+
+    public CacheBatch putHashFields(final String key, final Map<String, String> fields) {
+        return add(new PutHashFields(key, Map.copyOf(fields)));
+    }
+
+    public CacheBatch removeHashField(final String key, final String field) {
+        return add(new RemoveHashField(key, field));
+    }
+
+    public CacheBatch addSortedSetEntries(final String key, final Collection<String> entries) {
+        return add(new AddSortedSetEntries(key, List.copyOf(entries)));
+    }
+
+    public CacheBatch removeSortedSetEntries(final String key, final Collection<String> entries) {
+        return add(new RemoveSortedSetEntries(key, List.copyOf(entries)));
+    }
+
+    public CacheBatch addScoredEntries(final String key, final Map<String, Double> memberScores) {
+        return add(new AddScoredEntries(key, Map.copyOf(memberScores)));
+    }
+
+    public CacheBatch trimSortedSet(final String key, final int maxSize) {
+        return add(new TrimSortedSet(key, maxSize));
+    }
+
+    public CacheBatch expire(final String key, final Duration ttl) {
+        return add(new Expire(key, ttl));
+    }
+
+    /**
+     * INCRBY without the single-command method's create-time TTL: that TTL needs the result to decide, which
+     * a pipeline does not have yet. Queue an {@link #expire} behind it when the counter needs hygiene.
+     */
+    public CacheBatch increment(final String key, final long delta) {
+        return add(new Increment(key, delta));
+    }
+
+    /** Queued commands so far. */
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * Flushes every queued command in one pipeline and answers one result per command, in queue order. An
+     * empty batch sends nothing. The batch is spent afterwards -- start a new one for further writes.
+     */
+    public List<Boolean> execute() {
+        if (commands.isEmpty()) {
+            return List.of();
+        }
+        final List<Command> queued = List.copyOf(commands);
+        commands.clear();
+        final List<Boolean> results = client.executeBatch(queued);
+        final List<Boolean> padded = new ArrayList<>(queued.size());
+        for (int i = 0; i < queued.size(); i++) {
+            final Boolean result = (results != null && i < results.size()) ? results.get(i) : null;
+            padded.add(Boolean.TRUE.equals(result));
+        }
+        return padded;
+    }
+
+    private CacheBatch add(final Command command) {
+        commands.add(command);
+        return this;
+    }
+
+    /**
+     * One queued write. {@link #applyTo} is the unpipelined path: clients without a wire protocol (in-memory,
+     * no-op) execute a batch by applying each command through their ordinary method.
+     */
+    public sealed interface Command permits PutValue, RemoveKey, PutHashField, PutHashFields, RemoveHashField,
+            AddSortedSetEntries, RemoveSortedSetEntries, AddScoredEntries, TrimSortedSet, Expire, Increment {
+
+        /** The cache key this command writes (what a near-cache must forget afterwards). */
+        String key();
+
+        boolean applyTo(CacheClient client);
+    }
+
+    public record PutValue(String key, String value, Duration ttl) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.putValue(key, value, ttl);
+        }
+    }
+
+    public record RemoveKey(String key) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.removeKey(key);
+        }
+    }
+
+    public record PutHashField(String key, String field, String value) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.putHashField(key, field, value);
+        }
+    }
+
+    public record PutHashFields(String key, Map<String, String> fields) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.putHashFields(key, fields);
+        }
+    }
+
+    public record RemoveHashField(String key, String field) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.removeHashField(key, field);
+        }
+    }
+
+    public record AddSortedSetEntries(String key, List<String> entries) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.addSortedSetEntries(key, entries);
+        }
+    }
+
+    public record RemoveSortedSetEntries(String key, List<String> entries) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.removeSortedSetEntries(key, entries);
+        }
+    }
+
+    public record AddScoredEntries(String key, Map<String, Double> memberScores) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.addScoredEntries(key, memberScores);
+        }
+    }
+
+    public record TrimSortedSet(String key, int maxSize) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.trimSortedSet(key, maxSize);
+        }
+    }
+
+    public record Expire(String key, Duration ttl) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.expire(key, ttl);
+        }
+    }
+
+    public record Increment(String key, long delta) implements Command {
+        @Override
+        public boolean applyTo(final CacheClient client) {
+            return client.increment(key, delta, null).isPresent();
+        }
+    }
+}
@@ -19,6 +19,12 @@ public interface CacheClient {
     /** Gets a single string value (point entries), empty on miss or cache error. */
     Optional<String> getValue(String key);
 
+    /**
+     * Gets many string values in one round trip (MGET). Keys that miss are simply absent from the result; a
+     * cache error reads as an all-miss (empty map). Keys may span cluster slots -- the client splits them.
+     */
+    Map<String, String> getValues(Collection<String> keys);
+
     /**
      * Sets a single string value. When {@code ttl} is non-null and positive, the key expires after that duration;
      * when {@code ttl} is null, the key has no hard expiry.
@@ -55,6 +61,13 @@ public interface CacheClient {
     /** Removes entries from a lexicographic sorted set (ZREM). Missing entries are ignored. */
     boolean removeSortedSetEntries(String key, Collection<String> entries);
 
+    /**
+     * Removes members from a sorted set (ZREM) and answers how many were there to remove; 0 on a miss or cache
+     * error. The count is what makes a removal a <b>claim</b>: of callers racing to remove one member, exactly one
+     * sees 1. {@link #removeSortedSetEntries} answers true either way.
+     */
+    long removeScoredEntries(String key, Collection<String> members);
+
     /**
      * Returns up to {@code limit} entries of the sorted set at {@code key} that start with {@code prefix}
      * (ZRANGEBYLEX), in lexicographic order. Empty list on miss or cache error.
@@ -116,12 +129,46 @@ public interface CacheClient {
      */
     boolean releaseLock(String key);
 
+    /**
+     * An OWNED lock ({@code SET key owner NX PX ttl}), for work where two holders are not harmless: {@code owner}
+     * is a token the caller generated (a random UUID), and only a call carrying it can {@link #extendLock extend}
+     * or {@link #releaseLock(String, String) release} the lock. So a holder that outlived its TTL can neither
+     * unlock nor prolong the lock of whoever took it next. False on cache errors, like {@link #tryAcquireLock}.
+     */
+    boolean tryAcquireLock(String key, String owner, Duration ttl);
+
+    /**
+     * Resets an owned lock's TTL if {@code owner} still holds it (compare-and-expire, one atomic step). False when
+     * the lock lapsed or is someone else's -- the caller has lost it and must stop the work it guarded.
+     */
+    boolean extendLock(String key, String owner, Duration ttl);
+
+    /** Releases an owned lock if {@code owner} still holds it (compare-and-delete); false when it did not. */
+    boolean releaseLock(String key, String owner);
+
     /**
      * Removes every key starting with {@code prefix}. Used by the admin "clear all caches" action and by tests;
      * never called on the hot path.
      */
     boolean clearNamespace(String prefix);
 
+    /**
+     * Executes queued writes together -- callers build them with {@link CacheBatch}, which is the only caller
+     * of this method. Answers one result per command in queue order, each with its single-command method's
+     * fail-open meaning; a failed command never fails the rest. Implementations with a wire protocol send the
+     * whole list before awaiting any of it, so the batch costs one round trip rather than one per command.
+     */
+    List<Boolean> executeBatch(List<CacheBatch.Command> commands);
+
+    /**
+     * Runs a server-side script ({@code EVALSHA}, falling back to {@code EVAL} the first time a node lacks it) and
+     * answers its raw reply: Lua integers as {@code Long}, strings as {@code String}, tables as nested
+     * {@code List}, nil/false as {@code null}. EMPTY means "no answer" -- scripting unsupported (local and off
+     * modes), disabled, or the call failed -- and the caller must then take its multi-command path. All
+     * {@code keys} must share one hash tag. See {@link CacheScript}.
+     */
+    Optional<List<Object>> runScript(CacheScript script, List<String> keys, List<String> args);
+
     /**
      * Publishes a payload to a channel. Errors never propagate: returns {@code false}.
      *
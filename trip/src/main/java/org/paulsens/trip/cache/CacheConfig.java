@@ -16,6 +16,9 @@ import lombok.extern.slf4j.Slf4j;
  *     <li>{@code trip.valkey.protocol} / {@code TRIP_VALKEY_PROTOCOL}: {@code cluster} or {@code standalone}.
  *         Defaults to {@code cluster} for {@code rediss://} URIs (ElastiCache Serverless speaks the cluster
  *         protocol behind its TLS endpoint) and {@code standalone} otherwise (local single-node Valkey).</li>
+ *     <li>{@code trip.valkey.fgPoolSize} / {@code TRIP_VALKEY_FG_POOL_SIZE}: how many foreground command
+ *         connections to open, 1 to {@value #MAX_FOREGROUND_POOL_SIZE}. Defaults to 1 -- one multiplexed
+ *         connection, as before the pool existed.</li>
  * </ul>
  */
 @Slf4j
@@ -23,14 +26,19 @@ import lombok.extern.slf4j.Slf4j;
 public final class CacheConfig {
     public enum Mode { VALKEY, MEMORY, OFF }
 
+    static final int MAX_FOREGROUND_POOL_SIZE = 8;
+
     private final Mode mode;
     private final String valkeyUri;
     private final boolean cluster;
+    private final int foregroundPoolSize;
 
-    private CacheConfig(final Mode mode, final String valkeyUri, final boolean cluster) {
+    private CacheConfig(final Mode mode, final String valkeyUri, final boolean cluster,
+            final int foregroundPoolSize) {
         this.mode = mode;
         this.valkeyUri = valkeyUri;
         this.cluster = cluster;
+        this.foregroundPoolSize = foregroundPoolSize;
     }
 
     public static CacheConfig resolve() {
@@ -40,9 +48,9 @@ public final class CacheConfig {
         if (mode == Mode.VALKEY && (uri == null)) {
             log.error("Cache mode is 'valkey' but no trip.valkey.uri / TRIP_VALKEY_URI is set! "
                     + "Falling back to per-JVM in-memory caching (single-instance semantics).");
-            return new CacheConfig(Mode.MEMORY, null, false);
+            return new CacheConfig(Mode.MEMORY, null, false, 1);
         }
-        return new CacheConfig(mode, uri, isCluster(uri));
+        return new CacheConfig(mode, uri, isCluster(uri), parsePoolSize());
     }
 
     private static Mode parseMode(final String rawMode, final String uri) {
@@ -65,7 +73,20 @@ public final class CacheConfig {
         return uri != null && uri.startsWith("rediss://");
     }
 
-    private static String prop(final String sysProp, final String envVar) {
+    private static int parsePoolSize() {
+        final String raw = prop("trip.valkey.fgPoolSize", "TRIP_VALKEY_FG_POOL_SIZE");
+        if (raw == null) {
+            return 1;
+        }
+        try {
+            return Math.clamp(Integer.parseInt(raw), 1, MAX_FOREGROUND_POOL_SIZE);
+        } catch (final NumberFormatException ex) {
+            log.error("Unparseable trip.valkey.fgPoolSize '{}'; using one foreground connection.", raw);
+            return 1;
+        }
+    }
+
+    static String prop(final String sysProp, final String envVar) {
         String value = System.getProperty(sysProp);
         if (value == null || value.isBlank()) {
             value = System.getenv(envVar);
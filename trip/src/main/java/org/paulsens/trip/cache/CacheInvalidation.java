@@ -3,9 +3,11 @@ package org.paulsens.trip.cache;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -17,6 +19,15 @@ import lombok.extern.slf4j.Slf4j;
  * <p>The {@code origin} id makes the split unambiguous: each JVM stamps its own broadcasts and ignores
  * them on receipt. A lost or garbled event costs only freshness until the polling soft-TTL backstop heals
  * it, so decoding failures are logged and dropped, never thrown.</p>
+ *
+ * <p>Beside the prefix broadcast runs a per-key one on {@link CacheKeys#CACHE_KEY_INVAL_CHANNEL}: ordinary
+ * write-through, batched by {@link KeyInvalidationBatcher}, so another JVM's heap copy of a key written here
+ * drops within milliseconds instead of waiting for its health check. Same origin rule, same drop-only
+ * semantics -- the writer already updated Valkey.</p>
+ *
+ * <p>State kept on the heap OUTSIDE the near-cache (a process-local search index) listens to the same two
+ * channels through {@link #onRemoteWrites}, so a write on one instance reaches the others' derived state as
+ * fast as it reaches their heap copies.</p>
  */
 @Slf4j
 public final class CacheInvalidation {
@@ -39,9 +50,60 @@ public final class CacheInvalidation {
         }
     }
 
-    /** The subscribe() handler, bound to the client whose heap it maintains. */
+    /** Publishes a per-key invalidation. Best-effort like {@link #broadcast}; callers batch through the batcher. */
+    static void broadcastKeys(final CacheClient client, final Collection<String> keys) {
+        try {
+            client.publish(CacheKeys.CACHE_KEY_INVAL_CHANNEL,
+                    MAPPER.writeValueAsString(new KeyEvent(ORIGIN, List.copyOf(keys))));
+        } catch (final JsonProcessingException | RuntimeException ex) {
+            log.warn("Unable to broadcast {} key invalidations; other instances heal via their health check",
+                    keys.size(), ex);
+        }
+    }
+
+    /** The subscribe() handler for both channels, bound to the client whose heap it maintains. */
     public static BiConsumer<String, String> handlerFor(final CacheClient client) {
-        return (channel, payload) -> handle(client, payload);
+        return (channel, payload) -> {
+            if (CacheKeys.CACHE_KEY_INVAL_CHANNEL.equals(channel)) {
+                handleKeys(client, payload);
+            } else {
+                handle(client, payload);
+            }
+        };
+    }
+
+    /**
+     * Subscribes {@code onKey} to the keys under {@code prefix} that OTHER instances write, and {@code onClear} to
+     * their clears of any namespace overlapping it. Both run on the subscription's delivery thread, which is not
+     * bound by {@link NearCacheContext}, so a read made there goes past the near-cache to the shared cache the
+     * writer already updated. A failing listener is logged and dropped like a garbled event.
+     */
+    public static AutoCloseable onRemoteWrites(final CacheClient client, final String prefix,
+            final Consumer<String> onKey, final Runnable onClear) {
+        final List<String> channels = List.of(CacheKeys.CACHE_INVAL_CHANNEL, CacheKeys.CACHE_KEY_INVAL_CHANNEL);
+        return client.subscribe(channels, (channel, payload) -> {
+            try {
+                if (CacheKeys.CACHE_KEY_INVAL_CHANNEL.equals(channel)) {
+                    remoteKeys(payload).stream().filter(key -> key.startsWith(prefix)).forEach(onKey);
+                } else if (remotePrefixes(payload).stream()
+                        .anyMatch(cleared -> cleared.startsWith(prefix) || prefix.startsWith(cleared))) {
+                    onClear.run();
+                }
+            } catch (final RuntimeException ex) {
+                log.warn("Remote-write listener for {} failed; it heals on its own refresh", prefix, ex);
+            }
+        });
+    }
+
+    private static List<String> remoteKeys(final String payload) {
+        final KeyEvent event = decode(payload, KeyEvent.class);
+        return (event == null || event.keys() == null || ORIGIN.equals(event.origin())) ? List.of() : event.keys();
+    }
+
+    private static List<String> remotePrefixes(final String payload) {
+        final Event event = decode(payload);
+        return (event == null || event.prefixes() == null || ORIGIN.equals(event.origin()))
+                ? List.of() : event.prefixes();
     }
 
     static void handle(final CacheClient client, final String payload) {
@@ -54,9 +116,23 @@ public final class CacheInvalidation {
         }
     }
 
+    static void handleKeys(final CacheClient client, final String payload) {
+        final KeyEvent event = decode(payload, KeyEvent.class);
+        if (event == null || event.keys() == null || ORIGIN.equals(event.origin())) {
+            return; // own broadcast: the write already dropped this JVM's entry
+        }
+        if (client instanceof NearCacheClient near) {
+            near.dropLocalKeys(event.keys());
+        }
+    }
+
     private static Event decode(final String payload) {
+        return decode(payload, Event.class);
+    }
+
+    private static <T> T decode(final String payload, final Class<T> type) {
         try {
-            return MAPPER.readValue(payload, Event.class);
+            return MAPPER.readValue(payload, type);
         } catch (final JsonProcessingException ex) {
             log.warn("Dropping unparseable cache-invalidation payload: {}", payload);
             return null;
@@ -66,6 +142,9 @@ public final class CacheInvalidation {
     record Event(String origin, List<String> prefixes) {
     }
 
+    record KeyEvent(String origin, List<String> keys) {
+    }
+
     private CacheInvalidation() {
     }
 }
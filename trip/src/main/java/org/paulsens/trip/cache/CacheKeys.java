@@ -79,6 +79,16 @@ public final class CacheKeys {
     public static final String TODO_PREFIX = FORMAT_VERSION + "todo:";
     public static final String PDV_PREFIX = FORMAT_VERSION + "pdv:";
 
+    // Balance ledger: ONE hash (LEDGER_BALANCES), field = personId, value = "<version>:<cents>", plus a counter
+    // per person (balanceVersionKey) bumped on every transaction write. A balance is current only while its
+    // version matches the counter. See BalanceLedger.
+    public static final String LEDGER_PREFIX = FORMAT_VERSION + "ledger:";
+    public static final String LEDGER_BALANCES = LEDGER_PREFIX + "balances";
+
+    public static String balanceVersionKey(final String personId) {
+        return LEDGER_PREFIX + "ver:" + personId;
+    }
+
     // Point entries (append the entity id). The value is a PointCache envelope ("<epochMillis>|<json>"), so
     // the loaded-at stamp travels with the data and staleness never costs a second cache read.
     public static final String TRIP_EVENT_PREFIX = FORMAT_VERSION + "trip_event:";
@@ -138,12 +148,22 @@ public final class CacheKeys {
     /** Chat key format lever (independent of entity {@link #FORMAT_VERSION}). */
     public static final String CHAT_FORMAT_VERSION = CHAT_CHANNEL_PREFIX + "v1:";
 
+    /**
+     * A channel id as a cluster hash tag. The keys the chat poll script reads in one call -- the log, the bodies
+     * and both version counters -- all carry it, so they hash to one slot; a cluster refuses a script whose keys
+     * span slots. Only those four: a tag concentrates a channel's keys on one shard, so nothing else opts in
+     * without the same reason. (The rate limiter's keys have that reason and carry {@link #chatPersonTag}.)
+     */
+    public static String chatChannelTag(final String channelId) {
+        return "{" + channelId + "}";
+    }
+
     public static String chatLogKey(final String channelId) {
-        return CHAT_FORMAT_VERSION + "log:" + channelId;
+        return CHAT_FORMAT_VERSION + "log:" + chatChannelTag(channelId);
     }
 
     public static String chatBodyKey(final String channelId) {
-        return CHAT_FORMAT_VERSION + "body:" + channelId;
+        return CHAT_FORMAT_VERSION + "body:" + chatChannelTag(channelId);
     }
 
     /** Point-cache prefix for channel metadata (append channelId). */
@@ -161,6 +181,15 @@ public final class CacheKeys {
         return CHAT_FORMAT_VERSION + "cur:" + channelId + ":" + personId;
     }
 
+    /**
+     * A person id as a cluster hash tag, carried by every key {@code ChatRateLimiter} touches -- slow mode, the
+     * three limit windows, the auto-mute counters and the alarm gate -- so its one-call script can reach them
+     * all. The tag is the person and not the channel because the global tier spans every channel they are in.
+     */
+    public static String chatPersonTag(final String personId) {
+        return "{" + personId + "}";
+    }
+
     /**
      * Rate-limit counter. Window length is part of the key so an admin changing the window cannot collide with
      * a live counter written under the previous length.
@@ -170,14 +199,26 @@ public final class CacheKeys {
             final long epochSec) {
         final long winIndex = windowSeconds <= 0 ? 0L : epochSec / windowSeconds;
         if (channelId == null) {
-            return CHAT_FORMAT_VERSION + "rl:" + personId + ":" + tier + ":" + windowSeconds + ":" + winIndex;
+            return CHAT_FORMAT_VERSION + "rl:" + chatPersonTag(personId) + ":" + tier + ":" + windowSeconds + ":"
+                    + winIndex;
         }
-        return CHAT_FORMAT_VERSION + "rl:" + channelId + ":" + personId + ":" + tier + ":" + windowSeconds + ":"
-                + winIndex;
+        return CHAT_FORMAT_VERSION + "rl:" + channelId + ":" + chatPersonTag(personId) + ":" + tier + ":"
+                + windowSeconds + ":" + winIndex;
+    }
+
+    /**
+     * Smoothed (GCRA) rate-limit state: the theoretical arrival time of the next send, in epoch millis. One key
+     * per tier rather than per window -- the state slides instead of resetting at a boundary -- but the window
+     * is still in the key, for the same reason as {@link #chatRateLimitKey}.
+     */
+    public static String chatRateLimitTatKey(
+            final String channelId, final String personId, final String tier, final int windowSeconds) {
+        final String scope = channelId == null ? "" : channelId + ":";
+        return CHAT_FORMAT_VERSION + "rlg:" + scope + chatPersonTag(personId) + ":" + tier + ":" + windowSeconds;
     }
 
     public static String chatSlowModeKey(final String channelId, final String personId) {
-        return CHAT_FORMAT_VERSION + "slow:" + channelId + ":" + personId;
+        return CHAT_FORMAT_VERSION + "slow:" + channelId + ":" + chatPersonTag(personId);
     }
 
     public static String chatReactionSummaryKey(final String channelId) {
@@ -208,7 +249,7 @@ public final class CacheKeys {
     }
 
     public static String chatReactionsVersionKey(final String channelId) {
-        return CHAT_FORMAT_VERSION + "rver:" + channelId;
+        return CHAT_FORMAT_VERSION + "rver:" + chatChannelTag(channelId);
     }
 
     /**
@@ -223,7 +264,7 @@ public final class CacheKeys {
      * only reached a client that happened to reload.
      */
     public static String chatMutationsVersionKey(final String channelId) {
-        return CHAT_FORMAT_VERSION + "mver:" + channelId;
+        return CHAT_FORMAT_VERSION + "mver:" + chatChannelTag(channelId);
     }
 
     /**
@@ -321,7 +362,8 @@ public final class CacheKeys {
     public static String chatAutoMuteHitsKey(
             final String channelId, final String personId, final int windowSeconds, final long epochSec) {
         final long winIndex = windowSeconds <= 0 ? 0L : epochSec / windowSeconds;
-        return CHAT_FORMAT_VERSION + "amhits:" + channelId + ":" + personId + ":" + windowSeconds + ":" + winIndex;
+        return CHAT_FORMAT_VERSION + "amhits:" + channelId + ":" + chatPersonTag(personId) + ":" + windowSeconds
+                + ":" + winIndex;
     }
 
     /**
@@ -331,7 +373,7 @@ public final class CacheKeys {
      * decision; only the counter that chose its length is ephemeral.
      */
     public static String chatAutoMuteTierKey(final String channelId, final String personId) {
-        return CHAT_FORMAT_VERSION + "amtier:" + channelId + ":" + personId;
+        return CHAT_FORMAT_VERSION + "amtier:" + channelId + ":" + chatPersonTag(personId);
     }
 
     /**
@@ -347,9 +389,39 @@ public final class CacheKeys {
     public static String chatAlarmLockKey(
             final String channelId, final String personId, final long epochSec, final int windowSeconds) {
         final long winIndex = windowSeconds <= 0 ? 0L : epochSec / windowSeconds;
-        return CHAT_FORMAT_VERSION + "alarm:" + channelId + ":" + personId + ":" + windowSeconds + ":" + winIndex;
+        return CHAT_FORMAT_VERSION + "alarm:" + channelId + ":" + chatPersonTag(personId) + ":" + windowSeconds
+                + ":" + winIndex;
     }
 
+    /**
+     * Outbound mail spool namespace — like chat, deliberately <em>not</em> under {@link #FORMAT_VERSION}: the spool
+     * is queued work, not a copy of anything in Dynamo, so {@code DAO.clearAllCaches()} clearing {@code t1:} would
+     * silently drop mail somebody was promised. See {@code MailSpool}.
+     */
+    public static final String MAIL_FORMAT_VERSION = "mail:v1:";
+
+    /** Scored set of sends waiting to go out: member {@code jobId#n}, score = when it is due (epoch millis). */
+    public static final String MAIL_QUEUE = MAIL_FORMAT_VERSION + "queue";
+
+    /** Held by the one instance draining {@link #MAIL_QUEUE}, so the spool's pace is the cluster's pace. */
+    public static final String MAIL_DRAIN_LOCK = MAIL_FORMAT_VERSION + "drain";
+
+    /** One job's envelope, messages and retry counts, as hash fields. */
+    public static String mailJobKey(final String jobId) {
+        return MAIL_FORMAT_VERSION + "job:" + jobId;
+    }
+
+    /**
+     * A job's progress counter for one outcome ({@code sent} / {@code failed}). Separate keys rather than hash
+     * fields because progress must be an atomic INCR, and the cache has no HINCRBY.
+     */
+    public static String mailJobCountKey(final String jobId, final String outcome) {
+        return MAIL_FORMAT_VERSION + "job:" + jobId + ":" + outcome;
+    }
+
+    /** How long a job's messages and progress are kept, so its status stays answerable after it finishes. */
+    public static final Duration MAIL_JOB_TTL = Duration.ofDays(7);
+
     /**
      * Authentication namespace — like chat, deliberately <em>not</em> under {@link #FORMAT_VERSION}:
      * {@code DAO.clearAllCaches()} clears {@code t1:} and must never invalidate a login code someone is about
@@ -420,6 +492,12 @@ public final class CacheKeys {
      */
     public static final String CACHE_INVAL_CHANNEL = "sys:v1:cache_inval";
 
+    /**
+     * Per-key invalidation broadcast: batches of {@code t1:} keys written through some instance's near-cache,
+     * so the others drop their heap copies. Static for the same PSUBSCRIBE reason as {@link #CACHE_INVAL_CHANNEL}.
+     */
+    public static final String CACHE_KEY_INVAL_CHANNEL = "sys:v1:cache_key_inval";
+
     /**
      * Idle hygiene TTL applied after full loads (and refreshed on write-through activity). Bounds abandoned key
      * growth and GB-hours; not used as the primary delete-heal mechanism (that is soft revalidate + reconcile).
@@ -440,6 +518,16 @@ public final class CacheKeys {
         return REFRESH_LOCK_PREFIX + dataKey;
     }
 
+    /**
+     * Held by the one instance loading a missed key from Dynamo, when its cache coalesces misses across instances;
+     * the others poll the data key briefly instead of loading it too. See SingleFlight.
+     */
+    public static final String LOAD_LOCK_PREFIX = FORMAT_VERSION + "loading:";
+
+    public static String loadLockKey(final String dataKey) {
+        return LOAD_LOCK_PREFIX + dataKey;
+    }
+
     private CacheKeys() {
     }
 }
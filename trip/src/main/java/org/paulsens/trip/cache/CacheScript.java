@@ -0,0 +1,36 @@
+package org.paulsens.trip.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A server-side Lua script for {@link CacheClient#runScript}: its source plus the SHA-1 the server caches it
+ * under, computed once here so every call can go out as {@code EVALSHA} and only the first on each node pays
+ * for sending the source.
+ *
+ * <p>Scripts are the exception, not a second data API: use one only where a read-decide-read sequence is
+ * hot enough that its round trips dominate (the chat poll), and always keep the plain multi-command path as
+ * the fallback -- {@code runScript} answers empty wherever scripting is unavailable, local mode included.
+ * Every key a script touches must be passed in {@code KEYS} and share a hash tag, or a cluster rejects it.
+ *
+ * @param name   short label for logs ({@code "chat-poll"}); never sent to the server
+ * @param source the Lua source
+ * @param sha    lowercase hex SHA-1 of {@code source}
+ */
+public record CacheScript(String name, String source, String sha) {
+
+    public static CacheScript of(final String name, final String source) {
+        return new CacheScript(name, source, sha1(source));
+    }
+
+    private static String sha1(final String source) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-1 is a required JDK algorithm", ex);
+        }
+    }
+}
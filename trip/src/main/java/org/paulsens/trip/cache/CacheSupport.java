@@ -14,4 +14,12 @@ public final class CacheSupport {
     public static boolean softRevalidateEnabled(final CacheClient cacheClient) {
         return !(cacheClient instanceof InMemoryCacheClient);
     }
+
+    /**
+     * Cross-instance coordination (a load lock other instances wait behind) only means something on a cache the
+     * instances share; the local {@link InMemoryCacheClient} serves one JVM.
+     */
+    public static boolean sharedAcrossInstances(final CacheClient cacheClient) {
+        return !(cacheClient instanceof InMemoryCacheClient);
+    }
 }
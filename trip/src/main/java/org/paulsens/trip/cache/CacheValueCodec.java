@@ -0,0 +1,144 @@
+package org.paulsens.trip.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The stored form of an entity in {@link PointCache}, {@link PartitionCache} and {@link PartitionScanCache}:
+ * the serializer's JSON as-is when it is small, deflated when it is large. A large {@code Trip} or
+ * {@code ChatChannel} is several kilobytes of repetitive JSON; deflated it is a fraction of that in Valkey memory,
+ * on the wire, and in every instance's near-cache.
+ *
+ * <p>The first character is the format version. Plain JSON has none -- entity JSON starts with <code>'{'</code> --
+ * so every value written before this codec existed is simply version 0 and decodes unchanged, and a large one is
+ * rewritten compressed by the next refresh that re-serializes it, like the legacy-envelope path in
+ * {@link PointCache}. {@link #DEFLATED} is {@code U+0001}, which JSON can never start with. {@link #decode}
+ * understands every version whatever this instance's threshold, so instances configured differently share keys.
+ *
+ * <p>Base64 because the cache is strings end to end: {@link CacheClient}, the Lettuce codec and the near-cache all
+ * carry {@code String}, and raw bytes through a UTF-8 string codec would be mangled. JSON deflates well enough that
+ * the third base64 adds back still leaves the value well under half its size.
+ *
+ * <p>{@code trip.cache.compressAbove} / {@code TRIP_CACHE_COMPRESS_ABOVE} sets the threshold in characters of JSON
+ * (default {@value #DEFAULT_COMPRESS_ABOVE}); {@code 0} stops writing compressed values without affecting reads.
+ * An older build reading a compressed value fails to parse it, which every template already treats as a miss.
+ */
+@Slf4j
+public final class CacheValueCodec {
+
+    /** Version 1: base64 of zlib-deflated UTF-8 JSON. */
+    static final char DEFLATED = '\u0001';
+    static final int DEFAULT_COMPRESS_ABOVE = 2_048;
+    /** Far beyond any entity; a value inflating past this is corrupt, not large. */
+    private static final int MAX_INFLATED_BYTES = 16 * 1024 * 1024;
+
+    /** Never compresses; still decodes everything. */
+    public static final CacheValueCodec PLAIN = new CacheValueCodec(0);
+
+    private static volatile CacheValueCodec standard;
+
+    private final int compressAbove;
+
+    private CacheValueCodec(final int compressAbove) {
+        this.compressAbove = compressAbove;
+    }
+
+    /** Compresses JSON longer than {@code compressAbove} characters; {@code 0} or less never compresses. */
+    public static CacheValueCodec compressingAbove(final int compressAbove) {
+        return compressAbove <= 0 ? PLAIN : new CacheValueCodec(compressAbove);
+    }
+
+    /** The configured codec, resolved once; the templates' default. */
+    public static CacheValueCodec standard() {
+        CacheValueCodec codec = standard;
+        if (codec == null) {
+            codec = compressingAbove(configuredThreshold());
+            standard = codec;
+        }
+        return codec;
+    }
+
+    private static int configuredThreshold() {
+        final String raw = CacheConfig.prop("trip.cache.compressAbove", "TRIP_CACHE_COMPRESS_ABOVE");
+        if (raw == null) {
+            return DEFAULT_COMPRESS_ABOVE;
+        }
+        try {
+            return Integer.parseInt(raw);
+        } catch (final NumberFormatException ex) {
+            log.error("Unparseable trip.cache.compressAbove '{}'; using {}.", raw, DEFAULT_COMPRESS_ABOVE);
+            return DEFAULT_COMPRESS_ABOVE;
+        }
+    }
+
+    /** The stored form of a serializer's output. Null (a failed serialize) stays null. */
+    public String encode(final String json) {
+        if (json == null || compressAbove <= 0 || json.length() <= compressAbove) {
+            return json;
+        }
+        final byte[] compressed = deflate(json.getBytes(StandardCharsets.UTF_8));
+        final String encoded = DEFLATED + Base64.getEncoder().encodeToString(compressed);
+        // Already-dense JSON (embedded base64 images, say) can come out larger; store whichever is smaller.
+        return encoded.length() < json.length() ? encoded : json;
+    }
+
+    /**
+     * The JSON inside a stored value, or {@code null} when it cannot be read -- a version this build does not know,
+     * or a corrupt body -- which callers treat exactly like a value their deserializer rejected.
+     */
+    public String decode(final String stored) {
+        if (stored == null || stored.isEmpty() || stored.charAt(0) != DEFLATED) {
+            return stored;
+        }
+        try {
+            return new String(inflate(Base64.getDecoder().decode(stored.substring(1))), StandardCharsets.UTF_8);
+        } catch (final IllegalArgumentException | DataFormatException ex) {
+            log.warn("Undecodable compressed cache value ({} chars): {}", stored.length(), ex.toString());
+            return null;
+        }
+    }
+
+    private static byte[] deflate(final byte[] input) {
+        // BEST_SPEED: the write path pays this on every save, and JSON's redundancy is mostly caught at level 1.
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+            final byte[] chunk = new byte[4_096];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(final byte[] input) throws DataFormatException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 4);
+            final byte[] chunk = new byte[8_192];
+            while (!inflater.finished()) {
+                final int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated deflate stream");
+                }
+                out.write(chunk, 0, n);
+                if (out.size() > MAX_INFLATED_BYTES) {
+                    throw new DataFormatException("inflates past " + MAX_INFLATED_BYTES + " bytes");
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.paulsens.trip.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-command latency histograms for {@link ValkeyCacheClient}, keyed by command type ({@code GET},
+ * {@code HMGET}, {@code EVALSHA}, {@code BATCH}, ...) and lane ({@code fg} or {@code bg}), so a slow p99 can be
+ * pinned on one command and one lane rather than on "the cache".
+ *
+ * <p>Fixed log-spaced buckets and {@link LongAdder}s: recording is a bucket search over sixteen longs and two
+ * adds, with no lock and no allocation once the (command, lane) pair has been seen. Percentiles are read back as
+ * the upper bound of the bucket holding the rank, which is coarse by design -- it answers "is HGETALL on the
+ * foreground lane in the 1ms or the 25ms bucket", which is the question the dashboards ask.
+ */
+public final class CommandLatencies {
+
+    /** Bucket upper bounds in microseconds; the last bucket is open-ended. */
+    private static final long[] BOUNDS_MICROS = {
+        100, 250, 500, 1_000, 2_000, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 500_000, 1_000_000,
+        3_000_000, 5_000_000, Long.MAX_VALUE};
+
+    /**
+     * One (command, lane) histogram as reported by {@code GET /api/cache/stats}. Millisecond figures are bucket
+     * upper bounds except {@code maxMillis}, which is exact.
+     */
+    public record Summary(String command, String lane, long count, double meanMillis, double p50Millis,
+            double p99Millis, double maxMillis, Map<String, Long> buckets) {
+    }
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    void record(final String command, final String lane, final long nanos) {
+        histograms.computeIfAbsent(command + ' ' + lane, key -> new Histogram(command, lane)).record(nanos);
+    }
+
+    /** Every histogram seen so far, busiest first. */
+    List<Summary> snapshot() {
+        final List<Summary> out = new ArrayList<>(histograms.size());
+        for (final Histogram histogram : histograms.values()) {
+            out.add(histogram.summary());
+        }
+        out.sort(Comparator.comparingLong(Summary::count).reversed());
+        return out;
+    }
+
+    private static final class Histogram {
+        private final String command;
+        private final String lane;
+        private final LongAdder[] buckets = new LongAdder[BOUNDS_MICROS.length];
+        private final LongAdder totalMicros = new LongAdder();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        private Histogram(final String command, final String lane) {
+            this.command = command;
+            this.lane = lane;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(final long nanos) {
+            final long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos));
+            int i = 0;
+            while (micros > BOUNDS_MICROS[i]) {
+                i++;
+            }
+            buckets[i].increment();
+            totalMicros.add(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+
+        private Summary summary() {
+            final long[] counts = new long[buckets.length];
+            long count = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                count += counts[i];
+            }
+            final Map<String, Long> byBound = new LinkedHashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    byBound.put(label(i), counts[i]);
+                }
+            }
+            final long max = maxMicros.get();
+            return new Summary(command, lane, count, count == 0 ? 0 : millis(totalMicros.sum() / count),
+                    percentile(counts, count, 0.50, max), percentile(counts, count, 0.99, max), millis(max),
+                    byBound);
+        }
+
+        /** The upper bound of the bucket holding the rank, capped at the exact maximum. */
+        private static double percentile(final long[] counts, final long count, final double quantile,
+                final long maxMicros) {
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return millis(Math.min(BOUNDS_MICROS[i], maxMicros));
+                }
+            }
+            return millis(maxMicros);
+        }
+
+        private static String label(final int bucket) {
+            return BOUNDS_MICROS[bucket] == Long.MAX_VALUE ? "+Inf" : "le" + millis(BOUNDS_MICROS[bucket]) + "ms";
+        }
+
+        private static double millis(final long micros) {
+            return micros / 1_000.0d;
+        }
+    }
+}
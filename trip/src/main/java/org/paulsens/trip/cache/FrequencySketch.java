@@ -0,0 +1,83 @@
+package org.paulsens.trip.cache;
+
+/**
+ * TinyLFU's popularity estimate for {@link NearCacheClient}'s eviction policy: a count-min sketch of how often
+ * each key has been touched recently. Four rows of small saturating counters; a key's estimate is the minimum of
+ * its four counters, so collisions can only over-count, never under-count.
+ *
+ * <p>"Recently" is the aging rule: after {@code 10 x width} increments every counter is halved, so a key that
+ * was hot last week has to keep earning its place against one that is hot now.
+ *
+ * <p>Deliberately NOT synchronized on the increment path -- it runs on every near-cache read. A racing
+ * increment can be lost, which costs a little accuracy in an estimate that is already approximate; the halving
+ * is the only step that takes the monitor.
+ */
+final class FrequencySketch {
+    /** Counters saturate here: beyond "very hot" more precision buys the admission duel nothing. */
+    private static final int MAX_COUNT = 15;
+    private static final int ROWS = 4;
+    private static final int[] SEEDS = {0x97cb3127, 0x2f6e2b1b, 0x5bd1e995, 0x85ebca6b};
+
+    private final int[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /** @param width counters per row; rounded up to a power of two. */
+    FrequencySketch(final int width) {
+        int size = 16;
+        while (size < width) {
+            size <<= 1;
+        }
+        this.table = new int[ROWS][size];
+        this.mask = size - 1;
+        this.sampleSize = 10 * size;
+    }
+
+    /** Records one access to {@code key}. */
+    void increment(final String key) {
+        final int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < ROWS; row++) {
+            final int index = indexOf(hash, row);
+            if (table[row][index] < MAX_COUNT) {
+                table[row][index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    /** The estimated recent access count for {@code key}, 0 to {@value #MAX_COUNT}. */
+    int frequency(final String key) {
+        final int hash = spread(key.hashCode());
+        int min = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            min = Math.min(min, table[row][indexOf(hash, row)]);
+        }
+        return min;
+    }
+
+    private synchronized void age() {
+        if (additions < sampleSize) {
+            return;
+        }
+        for (final int[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        additions = 0;
+    }
+
+    private int indexOf(final int hash, final int row) {
+        return spread(hash ^ SEEDS[row]) & mask;
+    }
+
+    private static int spread(final int hash) {
+        final int h = (hash ^ (hash >>> 16)) * 0x45d9f3b;
+        return h ^ (h >>> 16);
+    }
+}
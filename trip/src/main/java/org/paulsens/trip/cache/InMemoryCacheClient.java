@@ -23,7 +23,7 @@ public final class InMemoryCacheClient implements CacheClient {
 
     // Values are String (point), ConcurrentMap<String, String> (hash), or Set<String> (set).
     private final ConcurrentMap<String, Object> store = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, Long> locks = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Held> locks = new ConcurrentHashMap<>();
     /** Channel to listeners. Process-local by design -- see {@link #publish}. */
     private final ConcurrentMap<String, List<BiConsumer<String, String>>> subscribers = new ConcurrentHashMap<>();
 
@@ -33,6 +33,15 @@ public final class InMemoryCacheClient implements CacheClient {
         return (value instanceof String str) ? Optional.of(str) : Optional.empty();
     }
 
+    @Override
+    public Map<String, String> getValues(final Collection<String> keys) {
+        final Map<String, String> result = new HashMap<>();
+        for (final String key : keys) {
+            getValue(key).ifPresent(value -> result.put(key, value));
+        }
+        return result;
+    }
+
     @Override
     public boolean putValue(final String key, final String value, final Duration ttl) {
         store.put(key, value);
@@ -104,6 +113,12 @@ public final class InMemoryCacheClient implements CacheClient {
         return true;
     }
 
+    @Override
+    public long removeScoredEntries(final String key, final Collection<String> members) {
+        final ConcurrentMap<String, Double> zset = sortedSet(key);
+        return members.stream().distinct().filter(member -> zset.remove(member) != null).count();
+    }
+
     @Override
     public List<String> getSortedSetByPrefix(final String key, final String prefix, final int limit) {
         final List<String> result = sortedSet(key).keySet().stream()
@@ -187,6 +202,19 @@ public final class InMemoryCacheClient implements CacheClient {
         return true;
     }
 
+    /** No wire to save round trips on: each command applies in queue order through its ordinary method. */
+    @Override
+    public List<Boolean> executeBatch(final List<CacheBatch.Command> commands) {
+        return commands.stream().map(command -> command.applyTo(this)).toList();
+    }
+
+    /** No scripting engine: every caller takes its multi-command path, which is exactly what local mode tests. */
+    @Override
+    public Optional<List<Object>> runScript(final CacheScript script, final List<String> keys,
+            final List<String> args) {
+        return Optional.empty();
+    }
+
     /**
      * Process-local pub/sub: a subscriber in THIS JVM sees a publish from THIS JVM, and nothing else.
      *
@@ -228,16 +256,7 @@ public final class InMemoryCacheClient implements CacheClient {
 
     @Override
     public boolean tryAcquireLock(final String key, final Duration ttl) {
-        final long now = System.currentTimeMillis();
-        final long expireAt = now + Math.max(1L, ttl == null ? 5_000L : ttl.toMillis());
-        if (locks.putIfAbsent(key, expireAt) == null) {
-            return true;
-        }
-        final Long existing = locks.get(key);
-        if (existing != null && existing <= now && locks.replace(key, existing, expireAt)) {
-            return true;
-        }
-        return false;
+        return tryAcquireLock(key, "1", ttl);
     }
 
     @Override
@@ -246,6 +265,39 @@ public final class InMemoryCacheClient implements CacheClient {
         return true;
     }
 
+    @Override
+    public boolean tryAcquireLock(final String key, final String owner, final Duration ttl) {
+        final long now = System.currentTimeMillis();
+        final Held held = new Held(owner, expireAt(now, ttl));
+        if (locks.putIfAbsent(key, held) == null) {
+            return true;
+        }
+        final Held existing = locks.get(key);
+        return existing != null && existing.expireAt() <= now && locks.replace(key, existing, held);
+    }
+
+    @Override
+    public boolean extendLock(final String key, final String owner, final Duration ttl) {
+        final long now = System.currentTimeMillis();
+        final Held existing = locks.get(key);
+        return existing != null && existing.owner().equals(owner) && existing.expireAt() > now
+                && locks.replace(key, existing, new Held(owner, expireAt(now, ttl)));
+    }
+
+    @Override
+    public boolean releaseLock(final String key, final String owner) {
+        final Held existing = locks.get(key);
+        return existing != null && existing.owner().equals(owner) && locks.remove(key, existing);
+    }
+
+    private static long expireAt(final long now, final Duration ttl) {
+        return now + Math.max(1L, ttl == null ? 5_000L : ttl.toMillis());
+    }
+
+    /** A lock's holder and when it lapses; the legacy unowned locks all hold as {@code "1"}, as in Valkey. */
+    private record Held(String owner, long expireAt) {
+    }
+
     @Override
     public boolean clearNamespace(final String prefix) {
         store.keySet().removeIf(key -> key.startsWith(prefix));
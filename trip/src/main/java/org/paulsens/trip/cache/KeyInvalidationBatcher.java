@@ -0,0 +1,97 @@
+package org.paulsens.trip.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.util.CacheLane;
+
+/**
+ * {@link NearCacheClient}'s outbound half of the per-key broadcast: every {@code t1:} key this JVM writes is
+ * queued here, and the queue goes out on {@link CacheKeys#CACHE_KEY_INVAL_CHANNEL} as a few small events
+ * rather than one PUBLISH per write.
+ *
+ * <p><b>Coalesced</b>: the queue is a set, so a key written ten times inside one window is announced once.
+ * <b>Debounced</b>: the first key into an empty queue schedules a flush {@value #DEBOUNCE_MILLIS}ms out; every
+ * key arriving before it rides along. A flush splits into events of at most {@value #MAX_KEYS_PER_EVENT} keys
+ * so a bulk save never produces one huge payload. Publishing happens on the scheduler thread in the background
+ * lane -- a write never waits on it.
+ *
+ * <p>Best-effort like {@link CacheInvalidation#broadcast}: a failed publish or an overflowing queue costs the
+ * other instances only freshness until their health check, so both are logged and dropped.</p>
+ */
+@Slf4j
+final class KeyInvalidationBatcher {
+    static final long DEBOUNCE_MILLIS = 5L;
+    static final int MAX_KEYS_PER_EVENT = 200;
+    /** Past this many distinct unsent keys (the cache is down, publishes are timing out) new keys are dropped. */
+    static final int MAX_PENDING = 50_000;
+
+    private final CacheClient target;
+    /** Null under the test seam: the test calls {@link #flush()} itself. */
+    private final ScheduledExecutorService scheduler;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** @param target the client to PUBLISH through -- the delegate, never the near-cache wrapping it. */
+    KeyInvalidationBatcher(final CacheClient target, final ScheduledExecutorService scheduler) {
+        this.target = target;
+        this.scheduler = scheduler;
+    }
+
+    void enqueue(final String key) {
+        if (pending.size() >= MAX_PENDING) {
+            log.debug("Key-invalidation queue full; {} reaches other instances via their health check", key);
+            return;
+        }
+        pending.add(key);
+        // Only the write that finds no flush pending schedules one; the rest are carried by it.
+        if (scheduler != null && flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.schedule(this::flushInBackground, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (final RejectedExecutionException ex) {
+                flushScheduled.set(false); // shutting down: close() sends what is left
+            }
+        }
+    }
+
+    /**
+     * Publishes everything queued. Reset the flag BEFORE draining: a key added after the drain started then
+     * schedules its own flush instead of waiting for a write that may never come.
+     */
+    void flush() {
+        flushScheduled.set(false);
+        final List<String> batch = new ArrayList<>();
+        final Iterator<String> keys = pending.iterator();
+        while (keys.hasNext()) {
+            batch.add(keys.next());
+            keys.remove();
+            if (batch.size() == MAX_KEYS_PER_EVENT) {
+                CacheInvalidation.broadcastKeys(target, List.copyOf(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            CacheInvalidation.broadcastKeys(target, batch);
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    /** The scheduled task: background lane, and logs its own failures -- nobody reads this task's Future. */
+    private void flushInBackground() {
+        try {
+            CacheLane.runBackground(this::flush);
+        } catch (final RuntimeException ex) {
+            log.warn("Key-invalidation flush failed; other instances converge via their health check", ex);
+        }
+    }
+}
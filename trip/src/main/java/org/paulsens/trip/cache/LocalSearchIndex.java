@@ -0,0 +1,516 @@
+package org.paulsens.trip.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.util.TripThreads;
+
+/**
+ * In-JVM ranked search over the same tokens {@link SearchIndex} holds: a trigram inverted index with primitive
+ * {@code int} postings, answering multi-word queries ranked by match quality and tolerating typos.
+ *
+ * <p>{@link SearchIndex} can only answer "tokens starting with this exact prefix": one ZRANGEBYLEX capped at a few
+ * hundred raw entries, a network round trip per keystroke, no way to rank, and a misspelling finds nobody. This
+ * keeps the whole index on the heap -- tens of thousands of people is a few megabytes -- so a typeahead query is
+ * some posting-list walks and string compares, well under a millisecond.
+ *
+ * <p><b>Matching.</b> Every query word must match some token of an entity, scored
+ * {@value #EXACT} (the whole token), {@value #PREFIX} (a token prefix), {@value #PART} (a prefix of a part inside
+ * the token -- the {@code smith} in {@code pat.smith@example.com}), or, for words of {@value #FUZZY_MIN_LENGTH}
+ * characters and more, a prefix within one edit ({@link #maxEdits two from eight characters}) scoring
+ * {@value #FUZZY} less ten per edit. A typo is never in the first letter: that is rare in practice, and it keeps
+ * a short misspelled word from matching half the index. An entity's score is the sum over the words; 0 means
+ * "not a match". Matches in the middle of a part are deliberately not matches: {@code name} must not find
+ * {@code renamed}.
+ *
+ * <p><b>Candidates.</b> Each token is indexed as the trigrams of {@code "\1\1" + token}, plus the two leading
+ * padded grams of every part, so a word's padded grams all hit exactly when it prefixes a token or a part. A
+ * word within {@code k} edits still shares all but {@code 3k} of them, which bounds the fuzzy candidate set.
+ * Typos are only looked for when the documents holding every gram do not fill the page, and either pass scores
+ * at most {@value #MAX_VERIFY} candidates. A query broad enough to have more (a first keystroke) scores the
+ * NEWEST {@value #MAX_VERIFY}: a cut made before ranking must not fall on the rows just created or edited, which
+ * are the ones a typeahead is most often looking for.
+ *
+ * <p><b>Freshness.</b> Writers pass the same {@code update(id, oldTokens, newTokens)} they give
+ * {@link SearchIndex}; an update retires the entity's old document and appends a new one, so postings stay
+ * sorted append-only arrays, and the retired documents are compacted away in memory once they are a quarter of
+ * the index. The full build (the loader's table scan) never runs on a searching thread: a cold index answers
+ * {@link Optional#empty()} -- callers fall back to {@link SearchIndex} -- while a background virtual thread
+ * builds it, replaying the writes that arrived during the scan before it is swapped in. Write-through from this
+ * process is immediate, and the owner feeds other instances' writes in the same way off the per-key invalidation
+ * broadcast ({@link CacheInvalidation#onRemoteWrites}), so they arrive within milliseconds too. After
+ * {@code refreshAfter} the same background build runs again: the backstop for writes nothing announced (a
+ * script, a direct table edit, a lost broadcast), in step with the near-cache's own day-long hard TTL.
+ *
+ * <p>Same caller contract as {@link SearchIndex}: resolve the ids and drop any that no longer {@link #score}.
+ */
+@Slf4j
+@Builder
+public final class LocalSearchIndex {
+    static final int EXACT = 100;
+    static final int PREFIX = 80;
+    static final int PART = 60;
+    static final int FUZZY = 40;
+    static final int FUZZY_MIN_LENGTH = 4;
+    /** Most candidates scored per pass, newest first, and most matches ranked, per query. */
+    static final int MAX_VERIFY = 4096;
+    /** Most typo candidates scored; each costs an edit-distance table per token. */
+    private static final int MAX_FUZZY = 1024;
+    /** Query words are cut to this many characters for candidate lookup (the whole word is still compared). */
+    private static final int MAX_GRAM_WORD = 64;
+    /** Retired documents below this count are never worth a compaction. */
+    private static final int COMPACT_MIN = 1024;
+    /** After a failed build, searches fall back this long before another scan is tried. */
+    private static final long RETRY_MILLIS = 30_000L;
+    private static final char PAD = '\u0001';
+
+    /** Full build: every live entity id mapped to its (already normalized) search tokens. */
+    private final Supplier<Map<String, Set<String>>> loader;
+    /** For logs only. */
+    @Builder.Default
+    private final String name = "search";
+    @Builder.Default
+    private final Duration refreshAfter = CacheKeys.INDEX_SOFT_TTL;
+    @Builder.Default
+    private final Supplier<Long> clock = System::currentTimeMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicReference<Index> current = new AtomicReference<>();
+    /** Writes that arrived while a build was scanning; replayed onto the new index. Guarded by the write lock. */
+    private final AtomicReference<List<Update>> pending = new AtomicReference<>();
+    private final AtomicBoolean building = new AtomicBoolean();
+    private final AtomicLong builtAt = new AtomicLong();
+    private final AtomicLong retryAt = new AtomicLong();
+
+    /**
+     * Ids of the best matches for {@code words} (already normalized, see {@link SearchIndex#normalizeToken}), best
+     * first, or empty while the index is not built yet -- in which case a background build has been started.
+     */
+    public Optional<List<String>> searchIds(final List<String> words, final int limit) {
+        final Index index = current.get();
+        if (index == null) {
+            if (clock.get() >= retryAt.get()) {
+                scheduleBuild();
+            }
+            return Optional.empty();
+        }
+        if (clock.get() - builtAt.get() >= refreshAfter.toMillis()) {
+            scheduleBuild();
+        }
+        if (words.isEmpty() || limit <= 0) {
+            return Optional.of(List.of());
+        }
+        lock.readLock().lock();
+        try {
+            // Read again under the lock: an invalidate() since the check above has dropped the index.
+            final Index held = current.get();
+            return (held == null) ? Optional.empty() : Optional.of(held.search(words, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Write-through: the entity's tokens are now {@code newTokens}; empty removes it. */
+    public void update(final String id, final Set<String> oldTokens, final Set<String> newTokens) {
+        lock.writeLock().lock();
+        try {
+            final List<Update> during = pending.get();
+            if (during != null) {
+                during.add(new Update(id, Set.copyOf(newTokens)));
+            }
+            final Index index = current.get();
+            if (index != null && !index.hasTokens(id, newTokens)) {
+                index.put(id, newTokens);
+                if (index.needsCompaction()) {
+                    current.set(index.compacted());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops the index; the next search starts a background rebuild. */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            current.set(null);
+            retryAt.set(0L);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** True once a build has completed and searches are answered here. */
+    public boolean isReady() {
+        return current.get() != null;
+    }
+
+    /**
+     * Builds on the calling thread (a no-op when a build is already running). For startup warming and tests;
+     * searches only ever start builds in the background.
+     */
+    public void warm() {
+        if (building.compareAndSet(false, true)) {
+            build();
+        }
+    }
+
+    /**
+     * An entity's score for {@code words}: the sum of each word's best token score, or 0 when any word matches
+     * none of the tokens.
+     */
+    public static int score(final List<String> words, final Set<String> tokens) {
+        return score(words, tokens.toArray(String[]::new));
+    }
+
+    private static int score(final List<String> words, final String[] tokens) {
+        int total = 0;
+        for (final String word : words) {
+            int best = 0;
+            for (final String token : tokens) {
+                best = Math.max(best, score(word, token));
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    static int score(final String word, final String token) {
+        if (token.startsWith(word)) {
+            return token.length() == word.length() ? EXACT : PREFIX;
+        }
+        for (int at = token.indexOf(word, 1); at > 0; at = token.indexOf(word, at + 1)) {
+            if (!Character.isLetterOrDigit(token.charAt(at - 1))) {
+                return PART;
+            }
+        }
+        final int allowed = maxEdits(word.length());
+        if (allowed > 0 && token.charAt(0) == word.charAt(0)) {
+            final int edits = prefixDistance(word, token, allowed);
+            if (edits <= allowed) {
+                return FUZZY - 10 * edits;
+            }
+        }
+        return 0;
+    }
+
+    /** Typos tolerated in a word: none below {@value #FUZZY_MIN_LENGTH} characters, one, then two from eight. */
+    static int maxEdits(final int length) {
+        return length < FUZZY_MIN_LENGTH ? 0 : length < 8 ? 1 : 2;
+    }
+
+    /**
+     * Edit distance from {@code word} to the closest prefix of {@code token}, or {@code max + 1} once it must
+     * exceed {@code max}. Prefix rather than whole-token distance because a typeahead word is usually unfinished.
+     */
+    static int prefixDistance(final String word, final String token, final int max) {
+        final int columns = Math.min(token.length(), word.length() + max);
+        int[] previous = new int[columns + 1];
+        int[] row = new int[columns + 1];
+        for (int j = 0; j <= columns; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= word.length(); i++) {
+            row[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= columns; j++) {
+                final int cost = word.charAt(i - 1) == token.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(previous[j] + 1, row[j - 1] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            final int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        int best = max + 1;
+        for (final int distance : previous) {
+            best = Math.min(best, distance);
+        }
+        return best;
+    }
+
+    private void scheduleBuild() {
+        if (building.compareAndSet(false, true)) {
+            TripThreads.start(this::build);
+        }
+    }
+
+    /** Scans without any lock held; only the replay and the swap take the write lock. Clears {@link #building}. */
+    private void build() {
+        try {
+            lock.writeLock().lock();
+            try {
+                pending.set(new ArrayList<>());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            final long started = clock.get();
+            final Index fresh = new Index();
+            loader.get().forEach(fresh::put);
+            lock.writeLock().lock();
+            try {
+                for (final Update update : pending.getAndSet(null)) {
+                    fresh.put(update.id(), update.tokens());
+                }
+                current.set(fresh.needsCompaction() ? fresh.compacted() : fresh);
+                builtAt.set(started);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Local {} index built: {} entries in {}ms", name, fresh.live.cardinality(),
+                    clock.get() - started);
+        } catch (final RuntimeException ex) {
+            log.error("Local {} index build failed; searches fall back until a retry", name, ex);
+            pending.set(null);
+            retryAt.set(clock.get() + RETRY_MILLIS);
+            // A stale index stays in service, and is not rescanned on every search either.
+            builtAt.set(clock.get() - refreshAfter.toMillis() + RETRY_MILLIS);
+        } finally {
+            building.set(false);
+        }
+    }
+
+    private record Update(String id, Set<String> tokens) {
+    }
+
+
+    /** Growable sorted posting list; documents are appended in increasing order. */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(final int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    /** Mutable; guarded by the owning index's lock. */
+    private static final class Index {
+        private final Map<Long, Postings> grams = new HashMap<>();
+        private final Map<String, Integer> docOf = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private String[] ids = new String[1024];
+        private String[][] tokens = new String[1024][];
+        private int size;
+        private int retired;
+
+        boolean hasTokens(final String id, final Set<String> wanted) {
+            final Integer doc = docOf.get(id);
+            if (doc == null) {
+                return wanted.isEmpty();
+            }
+            return wanted.equals(Set.of(tokens[doc]));
+        }
+
+        void put(final String id, final Set<String> newTokens) {
+            final Integer old = docOf.remove(id);
+            if (old != null) {
+                live.clear(old);
+                tokens[old] = null;
+                retired++;
+            }
+            final String[] kept = newTokens.stream().filter(token -> !token.isEmpty()).toArray(String[]::new);
+            if (kept.length == 0) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                tokens = Arrays.copyOf(tokens, size * 2);
+            }
+            final int doc = size++;
+            ids[doc] = id;
+            tokens[doc] = kept;
+            live.set(doc);
+            docOf.put(id, doc);
+            for (final String token : kept) {
+                indexToken(token, doc);
+            }
+        }
+
+        private void indexToken(final String token, final int doc) {
+            final String padded = "" + PAD + PAD + token;
+            for (int i = 0; i + 2 < padded.length(); i++) {
+                post(gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)), doc);
+            }
+            for (int i = 1; i < token.length(); i++) {
+                if (!Character.isLetterOrDigit(token.charAt(i - 1)) && Character.isLetterOrDigit(token.charAt(i))) {
+                    post(gram(PAD, PAD, token.charAt(i)), doc);
+                    if (i + 1 < token.length()) {
+                        post(gram(PAD, token.charAt(i), token.charAt(i + 1)), doc);
+                    }
+                }
+            }
+        }
+
+        private void post(final long gram, final int doc) {
+            grams.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+
+        boolean needsCompaction() {
+            return retired > COMPACT_MIN && retired > size / 4;
+        }
+
+        /** The same entries without the retired documents; in memory, no scan. */
+        Index compacted() {
+            final Index compact = new Index();
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                compact.put(ids[doc], Set.of(tokens[doc]));
+            }
+            return compact;
+        }
+
+        List<String> search(final List<String> words, final int limit) {
+            // The longest word is the most selective, so it alone picks the candidates; every word then scores.
+            final String driver = words.stream().reduce((a, b) -> b.length() > a.length() ? b : a).get();
+            final long[] wordGrams = gramsOf(driver);
+            final int[] exact = sharingAll(wordGrams);
+            final long[] scored = new long[MAX_VERIFY];
+            int matches = scoreInto(exact, words, scored, 0);
+            final int edits = maxEdits(driver.length());
+            if (matches < limit && edits > 0) {
+                matches = scoreInto(sharingMost(wordGrams, edits), words, scored, matches);
+            }
+            Arrays.sort(scored, 0, matches);
+            final List<String> found = new ArrayList<>(Math.min(matches, limit));
+            for (int i = 0; i < matches && found.size() < limit; i++) {
+                found.add(ids[(int) scored[i]]);
+            }
+            return found;
+        }
+
+        private int scoreInto(final int[] candidates, final List<String> words, final long[] scored, final int from) {
+            int matches = from;
+            for (int i = 0; i < candidates.length && matches < scored.length; i++) {
+                final int doc = candidates[i];
+                final int score = score(words, tokens[doc]);
+                if (score > 0) {
+                    // Highest score first, then oldest document: one sort over packed longs.
+                    scored[matches++] = ((long) (Integer.MAX_VALUE - score) << 32) | doc;
+                }
+            }
+            return matches;
+        }
+
+        /** The distinct padded grams of a query word, cut to {@value #MAX_GRAM_WORD} characters. */
+        private static long[] gramsOf(final String word) {
+            final String padded = "" + PAD + PAD + (word.length() > MAX_GRAM_WORD
+                    ? word.substring(0, MAX_GRAM_WORD) : word);
+            final Set<Long> grams = new LinkedHashSet<>();
+            for (int i = 0; i + 2 < padded.length(); i++) {
+                grams.add(gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+            }
+            return grams.stream().mapToLong(Long::longValue).toArray();
+        }
+
+        /**
+         * Live documents holding every one of the grams -- a prefix of a token or a part, or a coincidence the
+         * scoring drops. An intersection walked from the shortest posting list, so a common first letter costs
+         * nothing when the rest of the word is rare. At most {@value #MAX_VERIFY}, newest first: the walk runs
+         * from the end of the postings, and each other list's search window shrinks from the top as it goes.
+         */
+        private int[] sharingAll(final long[] wordGrams) {
+            final Postings[] lists = new Postings[wordGrams.length];
+            for (int g = 0; g < wordGrams.length; g++) {
+                lists[g] = grams.get(wordGrams[g]);
+                if (lists[g] == null) {
+                    return new int[0];
+                }
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            final int[] found = new int[Math.min(lists[0].size, MAX_VERIFY)];
+            int count = 0;
+            final int[] ends = new int[lists.length];
+            for (int g = 1; g < lists.length; g++) {
+                ends[g] = lists[g].size;
+            }
+            outer:
+            for (int i = lists[0].size - 1; i >= 0 && count < found.length; i--) {
+                final int doc = lists[0].docs[i];
+                if (!live.get(doc)) {
+                    continue;
+                }
+                for (int g = 1; g < lists.length; g++) {
+                    final int at = Arrays.binarySearch(lists[g].docs, 0, ends[g], doc);
+                    if (at < 0) {
+                        ends[g] = -at - 1;
+                        continue outer;
+                    }
+                    ends[g] = at;
+                }
+                found[count++] = doc;
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        /**
+         * Live documents with the word's first letter starting a token, missing some of its other grams but no more
+         * than {@code 3 * edits} -- the only ones that can be within {@code edits} typos. Most shared first, at most
+         * {@value #MAX_FUZZY}; the documents {@link #sharingAll} already found are left out.
+         */
+        private int[] sharingMost(final long[] wordGrams, final int edits) {
+            final Postings first = grams.get(wordGrams[0]);
+            if (first == null) {
+                return new int[0];
+            }
+            final int needed = Math.max(1, wordGrams.length - 3 * edits);
+            final byte[] hits = new byte[size];
+            int[] touched = new int[first.size];
+            int touchedCount = 0;
+            for (int i = 0; i < first.size; i++) {
+                if (live.get(first.docs[i])) {
+                    hits[first.docs[i]] = 1;
+                    touched[touchedCount++] = first.docs[i];
+                }
+            }
+            for (int g = 1; g < wordGrams.length; g++) {
+                final Postings postings = grams.get(wordGrams[g]);
+                for (int i = 0; postings != null && i < postings.size; i++) {
+                    if (hits[postings.docs[i]] > 0) {
+                        hits[postings.docs[i]]++;
+                    }
+                }
+            }
+            final int[] found = new int[Math.min(touchedCount, MAX_FUZZY)];
+            int count = 0;
+            for (int want = wordGrams.length - 1; want >= needed && count < found.length; want--) {
+                for (int i = 0; i < touchedCount && count < found.length; i++) {
+                    if (hits[touched[i]] == want) {
+                        found[count++] = touched[i];
+                    }
+                }
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        private static long gram(final char a, final char b, final char c) {
+            return ((long) a << 32) | ((long) b << 16) | c;
+        }
+    }
+}
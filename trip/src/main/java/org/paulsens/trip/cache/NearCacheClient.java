@@ -1,14 +1,23 @@
 package org.paulsens.trip.cache;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
@@ -27,8 +36,11 @@ import org.paulsens.trip.util.TripThreads;
  * virtual thread ({@link TripThreads}, capped by {@link RefreshPermits}) and replaces the entry. The
  * foreground read never waits. Same-JVM writes are exact, not eventual: every mutating operation drops the
  * entry for its key after forwarding, so read-your-writes holds for everything written through this
- * process. What remains eventual is only data written behind this JVM's back (scripts, console edits, a
- * future second host), bounded by the health check once traffic touches the entry and by the hard TTL
+ * process. Other instances hear of the write too: each written {@code t1:} key is queued on a
+ * {@link KeyInvalidationBatcher} and broadcast within milliseconds, coalesced and batched, on
+ * {@link CacheKeys#CACHE_KEY_INVAL_CHANNEL}. What remains eventual is data written behind every near-cache's
+ * back (console edits, a writer without the cache configured) and broadcasts lost in flight -- bounded by the
+ * health check (hours, now that it is only that backstop) once traffic touches the entry, and by the hard TTL
  * always.
  *
  * <p><b>What is stored</b>: the delegate's own strings/maps -- deliberately NOT deserialized objects. The
@@ -36,9 +48,15 @@ import org.paulsens.trip.util.TripThreads;
  * of shared parsed objects would silently break that contract (callers do mutate DAO results). Hash reads
  * are answered with defensive copies for the same reason.
  *
- * <p><b>Memory</b>: deliberately unbounded (accepted trade -- entries are the same JSON the shared cache
- * holds, a few MB). No sweeper threads: expiry is lazy-on-read, and the whole map drops on
- * {@link #clearNamespace} or when tuning disables the cache.
+ * <p><b>Memory</b>: bounded by an estimated byte weight ({@code cache.near.maxMegabytes}), with W-TinyLFU-style
+ * eviction. A new key lands in a small admission window (1% of the budget); when the window overflows, its
+ * oldest entry must out-score a victim sampled from the main region -- the least popular of a few entries under
+ * a clock hand -- by {@link FrequencySketch} estimate, or it is the one evicted. So a burst of one-off reads (an
+ * admin paging through every trip) cannot flush the hot render keys. Eviction runs inline on whichever read
+ * charged the overflow, under a {@code tryLock}: contended readers skip it rather than wait. Expired entries
+ * are reclaimed by a background sweeper every {@value #SWEEP_PERIOD_SECONDS}s, so the read path only ever
+ * checks an entry's age, never walks the map. Weights are estimates (UTF-16 chars plus object headers), good
+ * for budgeting, not a heap measurement.
  *
  * <p><b>Tuning</b> comes from the admin settings ({@code cache.near.ttlSeconds} /
  * {@code cache.near.checkSeconds}) -- but settings reads flow through ConfigDAO, which sits ON TOP of this
@@ -48,23 +66,39 @@ import org.paulsens.trip.util.TripThreads;
  * (piggybacked on reads, {@value #TUNING_SYNC_MILLIS}ms apart) catches script-side edits. The sysprops
  * {@value #TTL_SYSPROP} / {@value #CHECK_SYSPROP} PIN a value against both -- the emergency lever that
  * works even when the settings table is unreachable ({@code -Dtrip.cache.near.ttlSeconds=0} disables the
- * near-cache outright).
+ * near-cache outright). {@value #MAX_MB_SYSPROP} pins the byte cap the same way.
  */
 @Slf4j
 public final class NearCacheClient implements CacheClient {
 
     public static final String TTL_SYSPROP = "trip.cache.near.ttlSeconds";
     public static final String CHECK_SYSPROP = "trip.cache.near.checkSeconds";
+    public static final String MAX_MB_SYSPROP = "trip.cache.near.maxMegabytes";
 
     /**
-     * Since event-driven invalidation became the primary freshness mechanism, the health check is only
-     * the convergence path for ordinary writes from OTHER JVMs (CLI tools, a future second task -- plain
-     * write-through does not broadcast) and for missed broadcasts; the TTL is the absolute backstop
-     * should both paths fail. Hence hours/minutes, not minutes/seconds.
+     * The broadcast is the primary invalidation path: every write through any near-cache, point or namespace,
+     * reaches the other instances within milliseconds. The health check is only the backstop for what it cannot
+     * carry -- writes behind every near-cache's back (console edits, a tool without the cache configured) and
+     * events lost in flight -- and the TTL the last resort should both fail. Two hours bounds that residue to
+     * a morning's edits while re-reading a hot key about a dozen times a day rather than every few minutes;
+     * anything that must be fresh sooner is read with {@link Cached#NO} or cleared through the broadcast.
      */
     static final long DEFAULT_TTL_SECONDS = 24L * 60 * 60;
-    static final long DEFAULT_CHECK_SECONDS = 300L;
+    static final long DEFAULT_CHECK_SECONDS = 7_200L;
     private static final long TUNING_SYNC_MILLIS = 60_000L;
+    /** Default heap budget; non-positive means unbounded (the pre-cap behavior, kept as an escape hatch). */
+    static final long DEFAULT_MAX_MEGABYTES = 64L;
+    private static final long SWEEP_PERIOD_SECONDS = 60L;
+    /** The admission window's share of the byte budget (W-TinyLFU's "W"). */
+    private static final int WINDOW_PERCENT = 1;
+    /** Main-region entries compared per victim pick; the least popular of them is the victim. */
+    private static final int EVICTION_SAMPLE = 8;
+    /** Sizes the frequency sketch: about one counter per entry of this size that fits the budget. */
+    private static final long TYPICAL_ENTRY_BYTES = 2_048L;
+    private static final int MAX_SKETCH_WIDTH = 1 << 20;
+    /** Rough per-object costs for the weigher: a map node plus its key/value headers. */
+    private static final long ENTRY_OVERHEAD_BYTES = 96L;
+    private static final long OBJECT_OVERHEAD_BYTES = 48L;
 
     /** Only keys in the shared data namespace are ever near-cached (never sessions, chat, login codes). */
     private static final String CACHEABLE_PREFIX = CacheKeys.FORMAT_VERSION;
@@ -88,18 +122,48 @@ public final class NearCacheClient implements CacheClient {
 
     private final boolean ttlPinned = System.getProperty(TTL_SYSPROP) != null;
     private final boolean checkPinned = System.getProperty(CHECK_SYSPROP) != null;
+    private final boolean maxPinned = System.getProperty(MAX_MB_SYSPROP) != null;
     private volatile long ttlMillis = sysprop(TTL_SYSPROP, DEFAULT_TTL_SECONDS) * 1000L;
     private volatile long checkMillis = sysprop(CHECK_SYSPROP, DEFAULT_CHECK_SECONDS) * 1000L;
+    private volatile long maxBytes = megabytes(sysprop(MAX_MB_SYSPROP, DEFAULT_MAX_MEGABYTES));
+
+    // Size accounting and eviction state. Byte totals change only inside a KeyEntry's monitor (charge, promote,
+    // retire), so an entry can never be refunded twice or charged after it left the map.
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong windowBytes = new AtomicLong();
+    /** Admission-window entries, oldest first. Retired entries are skipped on poll and purged by the sweeper. */
+    private final ConcurrentLinkedQueue<KeyEntry> window = new ConcurrentLinkedQueue<>();
+    private final FrequencySketch sketch = new FrequencySketch(sketchWidth(maxBytes));
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    /** The clock hand victims are sampled under; guarded by {@link #evictionLock}. */
+    private Iterator<KeyEntry> hand;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    /**
+     * Runs the expiry sweep and the invalidation flushes. Null under the test seam: tests call
+     * {@link #sweepExpired()} and {@link #flushInvalidations()} directly instead of waiting on a timer.
+     */
+    private final ScheduledExecutorService housekeeping;
+    private final KeyInvalidationBatcher invalidations;
 
     public NearCacheClient(final CacheClient delegate, final Supplier<long[]> tuningReader) {
-        this(delegate, tuningReader, System::currentTimeMillis);
+        this(delegate, tuningReader, System::currentTimeMillis, true);
     }
 
     /** Test seam: injectable clock, same pattern as the typed caches. */
     NearCacheClient(final CacheClient delegate, final Supplier<long[]> tuningReader, final Supplier<Long> clock) {
+        this(delegate, tuningReader, clock, false);
+    }
+
+    private NearCacheClient(final CacheClient delegate, final Supplier<long[]> tuningReader,
+            final Supplier<Long> clock, final boolean scheduled) {
         this.delegate = delegate;
         this.tuningReader = tuningReader;
         this.clock = clock;
+        this.housekeeping = scheduled ? startHousekeeping() : null;
+        this.invalidations = new KeyInvalidationBatcher(delegate, housekeeping);
     }
 
     // ------------------------------------------------------------------------------- cacheable reads
@@ -112,6 +176,45 @@ public final class NearCacheClient implements CacheClient {
         return unwrapValue(cachedResult(key, OP_VALUE, () -> wrapValue(delegate.getValue(key))));
     }
 
+    /**
+     * One heap pass, then ONE delegate MGET for whatever the heap could not answer; the fetched values seed the
+     * heap exactly as single {@link #getValue} loads would. Each cacheable key's entry is claimed BEFORE the MGET
+     * and seeded only if it is still live afterwards: a write that lands while the MGET is in flight discards the
+     * claimed entry, so its possibly-stale answer is returned to this caller but never cached. Keys outside the
+     * cacheable set ride the same MGET.
+     */
+    @Override
+    public Map<String, String> getValues(final Collection<String> keys) {
+        final Map<String, String> result = new HashMap<>();
+        final Map<String, KeyEntry> remote = new LinkedHashMap<>();
+        for (final String key : keys) {
+            final boolean cacheable = cacheable(key);
+            final Object held = cacheable ? heldValue(key) : null;
+            if (held == null && cacheable) {
+                misses.increment();
+                remote.put(key, claim(key, clock.get()));
+            } else if (held == null) {
+                remote.put(key, null);
+            } else if (held != MISS) {
+                result.put(key, (String) held);
+            }
+        }
+        if (remote.isEmpty()) {
+            return result;
+        }
+        final Map<String, String> fetched = delegate.getValues(remote.keySet());
+        remote.forEach((key, claimed) -> {
+            final Object loaded = wrapValue(Optional.ofNullable(fetched.get(key)));
+            final Object value = claimed == null || claimed.isRetired()
+                    ? loaded : claimed.results.computeIfAbsent(OP_VALUE, op -> load(claimed, op, () -> loaded));
+            unwrapValue(value).ifPresent(found -> result.put(key, found));
+        });
+        if (needsMaintenance()) {
+            maintain();
+        }
+        return result;
+    }
+
     @Override
     public Map<String, String> getHash(final String key) {
         if (!cacheable(key)) {
@@ -170,6 +273,13 @@ public final class NearCacheClient implements CacheClient {
         return invalidateAfter(key, delegate.removeSortedSetEntries(key, entries));
     }
 
+    @Override
+    public long removeScoredEntries(final String key, final Collection<String> members) {
+        final long removed = delegate.removeScoredEntries(key, members);
+        invalidateAfter(key, true);
+        return removed;
+    }
+
     @Override
     public boolean addScoredEntries(final String key, final Map<String, Double> memberScores) {
         return invalidateAfter(key, delegate.addScoredEntries(key, memberScores));
@@ -188,7 +298,8 @@ public final class NearCacheClient implements CacheClient {
     @Override
     public Optional<Long> increment(final String key, final long delta, final Duration ttl) {
         final Optional<Long> result = delegate.increment(key, delta, ttl);
-        entries.remove(key);
+        discard(key);
+        announce(key);
         return result;
     }
 
@@ -197,6 +308,17 @@ public final class NearCacheClient implements CacheClient {
         return invalidateAfter(key, delegate.trimSortedSet(key, maxSize));
     }
 
+    /** The whole batch forwards as one pipeline; every key it wrote is dropped afterwards, as for single writes. */
+    @Override
+    public List<Boolean> executeBatch(final List<CacheBatch.Command> commands) {
+        final List<Boolean> results = delegate.executeBatch(commands);
+        commands.forEach(command -> {
+            discard(command.key());
+            announce(command.key());
+        });
+        return results;
+    }
+
     @Override
     public boolean clearNamespace(final String prefix) {
         final boolean result = delegate.clearNamespace(prefix);
@@ -211,7 +333,19 @@ public final class NearCacheClient implements CacheClient {
      * Valkey here would SCAN it once per instance and could race a concurrent write-through).
      */
     public void dropLocalNamespace(final String prefix) {
-        entries.keySet().removeIf(key -> key.startsWith(prefix));
+        entries.forEach((key, entry) -> {
+            if (key.startsWith(prefix)) {
+                discard(key, entry);
+            }
+        });
+    }
+
+    /**
+     * Drops the heap entries for exactly {@code keys} WITHOUT touching the delegate -- the receiving end of
+     * the per-key broadcast. The writing instance already updated the shared cache.
+     */
+    public void dropLocalKeys(final Collection<String> keys) {
+        keys.forEach(this::discard);
     }
 
     // ------------------------------------------------------------------- forwarded (never cached)
@@ -242,6 +376,31 @@ public final class NearCacheClient implements CacheClient {
         return delegate.releaseLock(key);
     }
 
+    @Override
+    public boolean tryAcquireLock(final String key, final String owner, final Duration ttl) {
+        return delegate.tryAcquireLock(key, owner, ttl);
+    }
+
+    @Override
+    public boolean extendLock(final String key, final String owner, final Duration ttl) {
+        return delegate.extendLock(key, owner, ttl);
+    }
+
+    @Override
+    public boolean releaseLock(final String key, final String owner) {
+        return delegate.releaseLock(key, owner);
+    }
+
+    /**
+     * Forwarded, never cached: a script's reply is a decision, not a key's value. Scripts only run against
+     * {@code chat:} keys today; one that ever writes {@code t1:} keys must drop and announce them here.
+     */
+    @Override
+    public Optional<List<Object>> runScript(final CacheScript script, final List<String> keys,
+            final List<String> args) {
+        return delegate.runScript(script, keys, args);
+    }
+
     @Override
     public boolean publish(final String channel, final String payload) {
         return delegate.publish(channel, payload);
@@ -254,14 +413,19 @@ public final class NearCacheClient implements CacheClient {
 
     @Override
     public void close() {
-        entries.clear();
+        if (housekeeping != null) {
+            housekeeping.shutdownNow();
+        }
+        // Send what is still queued: a CLI tool exits right after its last write, well inside the debounce.
+        invalidations.flush();
+        discardAll();
         delegate.close();
     }
 
     // ----------------------------------------------------------------------------------- tuning
 
     /**
-     * Re-reads the two tuning settings through the DAL and applies them (sysprop-pinned values excluded).
+     * Re-reads the tuning settings through the DAL and applies them (sysprop-pinned values excluded).
      * Called synchronously by the admin Settings save, and by the lazy background re-sync. Never called
      * from the cache read path itself -- that is the recursion the volatile fields exist to prevent.
      */
@@ -277,10 +441,14 @@ public final class NearCacheClient implements CacheClient {
                     ttlMillis, checkMillis, ex);
             return;
         }
-        if (tuning == null || tuning.length != 2) {
+        // {ttlSeconds, checkSeconds} or {ttlSeconds, checkSeconds, maxMegabytes}; anything else is malformed.
+        if (tuning == null || tuning.length < 2 || tuning.length > 3) {
             return;
         }
         applyTuning(tuning[0], tuning[1]);
+        if (tuning.length == 3 && !maxPinned) {
+            applyMaxMegabytes(tuning[2]);
+        }
     }
 
     private void applyTuning(final long ttlSeconds, final long checkSeconds) {
@@ -295,7 +463,17 @@ public final class NearCacheClient implements CacheClient {
         ttlMillis = newTtlMillis;
         if (disabling) {
             // Nothing may keep serving from a cache the administrator just turned off.
-            entries.clear();
+            discardAll();
+        }
+    }
+
+    private void applyMaxMegabytes(final long maxMegabytes) {
+        final long newMax = megabytes(maxMegabytes);
+        final boolean shrinking = newMax > 0 && (maxBytes <= 0 || newMax < maxBytes);
+        maxBytes = newMax;
+        if (shrinking) {
+            // Off the read path already (admin save or the background re-sync): evict down to the new cap now.
+            maintain();
         }
     }
 
@@ -308,6 +486,30 @@ public final class NearCacheClient implements CacheClient {
         return checkMillis;
     }
 
+    long effectiveMaxBytes() {
+        return maxBytes;
+    }
+
+    // ----------------------------------------------------------------------------------- stats
+
+    /**
+     * Point-in-time counters for sizing the heap per task. Hits and misses count cacheable reads only (a
+     * {@link Cached#NO} or non-{@code t1:} read is neither); evictions are size-driven, expirations TTL-driven.
+     */
+    public record Stats(long hits, long misses, long evictions, long expirations, long weightBytes,
+            long maxWeightBytes, int entries) {
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), totalBytes.get(),
+                maxBytes, entries.size());
+    }
+
+    /** The shared cache this one fronts, for reporting its own stats alongside these. */
+    public CacheClient delegate() {
+        return delegate;
+    }
+
     // ------------------------------------------------------------------------------- internals
 
     private boolean cacheable(final String key) {
@@ -321,14 +523,64 @@ public final class NearCacheClient implements CacheClient {
      */
     private Object cachedResult(final String key, final String opKey, final Supplier<Object> loader) {
         final long now = clock.get();
-        final KeyEntry current = entries.get(key);
-        if (current != null && now - current.loadedAt >= ttlMillis) {
-            entries.remove(key, current);
-        }
-        final KeyEntry entry = entries.computeIfAbsent(key, k -> new KeyEntry(now));
+        final KeyEntry entry = claim(key, now);
         maybeHealthCheck(key, entry, now);
         maybeSyncTuning(now);
-        return entry.results.computeIfAbsent(opKey, op -> loader.get());
+        final Object held = entry.results.get(opKey);
+        if (held != null) {
+            hits.increment();
+            return held;
+        }
+        misses.increment();
+        final Object result = entry.results.computeIfAbsent(opKey, op -> load(entry, op, loader));
+        if (needsMaintenance()) {
+            maintain();
+        }
+        return result;
+    }
+
+    /** The live entry for {@code key}, expiring an aged one and admitting a fresh one as needed; counts the access. */
+    private KeyEntry claim(final String key, final long now) {
+        sketch.increment(key);
+        final KeyEntry current = entries.get(key);
+        if (current != null && now - current.loadedAt >= ttlMillis && discard(key, current)) {
+            expirations.increment();
+        }
+        return entries.computeIfAbsent(key, k -> admit(k, now));
+    }
+
+    /** A new key: charged its own weight and queued in the admission window. Runs inside computeIfAbsent. */
+    private KeyEntry admit(final String key, final long now) {
+        final KeyEntry entry = new KeyEntry(key, now, true);
+        entry.charge(keyWeight(key));
+        window.add(entry);
+        return entry;
+    }
+
+    private Object load(final KeyEntry entry, final String opKey, final Supplier<Object> loader) {
+        final Object result = loader.get();
+        entry.charge(resultWeight(opKey, result));
+        return result;
+    }
+
+    /**
+     * A live heap answer for {@code key}'s point value, or null when the heap holds none (absent, expired, or
+     * only hash results). A hit runs the same health-check and tuning hooks as {@link #cachedResult}.
+     */
+    private Object heldValue(final String key) {
+        final long now = clock.get();
+        final KeyEntry entry = entries.get(key);
+        if (entry == null || now - entry.loadedAt >= ttlMillis) {
+            return null;
+        }
+        final Object held = entry.results.get(OP_VALUE);
+        if (held != null) {
+            sketch.increment(key);
+            hits.increment();
+            maybeHealthCheck(key, entry, now);
+            maybeSyncTuning(now);
+        }
+        return held;
     }
 
     /**
@@ -356,11 +608,18 @@ public final class NearCacheClient implements CacheClient {
      */
     private void refreshEntry(final String key, final KeyEntry entry) {
         try {
-            final KeyEntry rebuilt = new KeyEntry(clock.get());
+            // A refreshed key has proven itself across a whole check interval: it is born in the main region.
+            final KeyEntry rebuilt = new KeyEntry(key, clock.get(), false);
+            long rebuiltBytes = keyWeight(key);
             for (final String opKey : entry.results.keySet()) {
-                rebuilt.results.put(opKey, replay(key, opKey));
+                final Object result = replay(key, opKey);
+                rebuilt.results.put(opKey, result);
+                rebuiltBytes += resultWeight(opKey, result);
+            }
+            if (entries.replace(key, entry, rebuilt)) {
+                rebuilt.charge(rebuiltBytes);
+                entry.retire();
             }
-            entries.replace(key, entry, rebuilt);
         } catch (final RuntimeException ex) {
             log.warn("Near-cache health check failed for '{}'; serving the cached entry until the TTL", key, ex);
         } finally {
@@ -412,10 +671,198 @@ public final class NearCacheClient implements CacheClient {
     private boolean invalidateAfter(final String key, final boolean result) {
         // Remove AFTER the delegate write: a read racing the write may briefly re-cache the old value,
         // but removing first would let it re-cache the old value AFTER our removal -- strictly worse.
-        entries.remove(key);
+        discard(key);
+        announce(key);
         return result;
     }
 
+    /**
+     * Queues {@code key} for the per-key broadcast. Every {@code t1:} write is announced whether or not this
+     * JVM held the key, and regardless of this JVM's own TTL -- the listeners are the OTHER instances' heaps.
+     */
+    private void announce(final String key) {
+        if (key.startsWith(CACHEABLE_PREFIX)) {
+            invalidations.enqueue(key);
+        }
+    }
+
+    /** Test seam: sends the queued key invalidations now rather than after the debounce. */
+    void flushInvalidations() {
+        invalidations.flush();
+    }
+
+    // ------------------------------------------------------------------------------- eviction
+
+    private void discard(final String key) {
+        final KeyEntry removed = entries.remove(key);
+        if (removed != null) {
+            removed.retire();
+        }
+    }
+
+    /** Removes {@code entry} only if it is still the one mapped, refunding its bytes; true when it was. */
+    private boolean discard(final String key, final KeyEntry entry) {
+        if (entries.remove(key, entry)) {
+            entry.retire();
+            return true;
+        }
+        return false;
+    }
+
+    private void discardAll() {
+        entries.forEach(this::discard);
+        window.clear();
+    }
+
+    private boolean needsMaintenance() {
+        final long max = maxBytes;
+        return windowBytes.get() > windowBudget(max) || (max > 0 && totalBytes.get() > max);
+    }
+
+    /**
+     * W-TinyLFU's two steps. First the window drains to its budget, oldest first: each leaving entry joins the
+     * main region, and while the cache is over its cap it must win an admission duel to stay. Then, should the
+     * cap still be exceeded, main-region victims go least-popular-first. Skipped, not awaited, when another
+     * thread already holds the lock -- that thread is doing the same work.
+     */
+    private void maintain() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            final long max = maxBytes;
+            while (windowBytes.get() > windowBudget(max)) {
+                final KeyEntry candidate = window.poll();
+                if (candidate == null) {
+                    break;
+                }
+                if (candidate.promote() && max > 0 && totalBytes.get() > max) {
+                    admitOrEvict(candidate);
+                }
+            }
+            while (max > 0 && totalBytes.get() > max) {
+                final KeyEntry victim = sampleVictim(null);
+                if (victim == null) {
+                    break;
+                }
+                evict(victim);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** The admission duel: the window's candidate stays only if it is MORE popular than the sampled victim. */
+    private void admitOrEvict(final KeyEntry candidate) {
+        final KeyEntry victim = sampleVictim(candidate);
+        if (victim == null) {
+            return;
+        }
+        evict(sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate);
+    }
+
+    /**
+     * The least popular of up to {@value #EVICTION_SAMPLE} main-region entries under the clock hand, or null when
+     * the main region is empty. The hand persists across calls, so successive picks walk the whole map rather
+     * than re-sampling the same hash-order prefix.
+     */
+    private KeyEntry sampleVictim(final KeyEntry exclude) {
+        KeyEntry victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        int sampled = 0;
+        for (int budget = entries.size() + EVICTION_SAMPLE; sampled < EVICTION_SAMPLE && budget > 0; budget--) {
+            if (hand == null || !hand.hasNext()) {
+                hand = entries.values().iterator();
+                if (!hand.hasNext()) {
+                    break;
+                }
+            }
+            final KeyEntry next = hand.next();
+            if (next == exclude || !next.inMainRegion()) {
+                continue;
+            }
+            sampled++;
+            final int frequency = sketch.frequency(next.key);
+            if (frequency < victimFrequency) {
+                victim = next;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    private void evict(final KeyEntry entry) {
+        if (discard(entry.key, entry)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * The sweeper's pass: drops every entry past the hard TTL and purges retired entries from the window queue.
+     * Package-private so tests can run a pass without waiting on the timer. Never throws -- it is the top of a
+     * scheduled task, and a thrown exception would cancel every later run.
+     */
+    void sweepExpired() {
+        try {
+            final long now = clock.get();
+            final long ttl = ttlMillis;
+            entries.forEach((key, entry) -> {
+                if (now - entry.loadedAt >= ttl && discard(key, entry)) {
+                    expirations.increment();
+                }
+            });
+            window.removeIf(KeyEntry::isRetired);
+        } catch (final RuntimeException ex) {
+            log.warn("Near-cache expiry sweep failed; the next pass retries", ex);
+        }
+    }
+
+    private ScheduledExecutorService startHousekeeping() {
+        final ScheduledExecutorService executor =
+                Executors.newSingleThreadScheduledExecutor(NearCacheClient::housekeepingThread);
+        executor.scheduleWithFixedDelay(this::sweepExpired, SWEEP_PERIOD_SECONDS, SWEEP_PERIOD_SECONDS,
+                TimeUnit.SECONDS);
+        return executor;
+    }
+
+    private static Thread housekeepingThread(final Runnable task) {
+        final Thread thread = new Thread(task, "near-cache-housekeeping");
+        // Daemon: a container shutting down must not wait on a sleeping sweeper.
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static long windowBudget(final long max) {
+        return max > 0 ? Math.max(1L, max * WINDOW_PERCENT / 100) : 0L;
+    }
+
+    private static long keyWeight(final String key) {
+        return ENTRY_OVERHEAD_BYTES + OBJECT_OVERHEAD_BYTES + 2L * key.length();
+    }
+
+    /** Estimated retained bytes of one cached operation result: its op key plus the strings it holds. */
+    private static long resultWeight(final String opKey, final Object result) {
+        long bytes = ENTRY_OVERHEAD_BYTES + OBJECT_OVERHEAD_BYTES + 2L * opKey.length();
+        if (result instanceof String value) {
+            bytes += OBJECT_OVERHEAD_BYTES + 2L * value.length();
+        } else if (result instanceof Map<?, ?> hash) {
+            for (final Map.Entry<?, ?> field : hash.entrySet()) {
+                bytes += ENTRY_OVERHEAD_BYTES + 2 * OBJECT_OVERHEAD_BYTES
+                        + 2L * (String.valueOf(field.getKey()).length() + String.valueOf(field.getValue()).length());
+            }
+        }
+        return bytes;
+    }
+
+    private static long megabytes(final long megabytes) {
+        return megabytes <= 0 ? 0L : megabytes * 1024L * 1024L;
+    }
+
+    private static int sketchWidth(final long maxBytes) {
+        final long width = maxBytes > 0 ? maxBytes / TYPICAL_ENTRY_BYTES : MAX_SKETCH_WIDTH / 64;
+        return (int) Math.min(MAX_SKETCH_WIDTH, Math.max(1024L, width));
+    }
+
     private static long sysprop(final String name, final long fallback) {
         final String raw = System.getProperty(name);
         if (raw == null || raw.isBlank()) {
@@ -429,15 +876,66 @@ public final class NearCacheClient implements CacheClient {
         }
     }
 
-    /** One cached key: every operation result answered for it, its birth time, and its check clock. */
-    private static final class KeyEntry {
+    /**
+     * One cached key: every operation result answered for it, its birth time, its check clock, and its share
+     * of the byte budget. Inner (not static) so its monitor-guarded transitions can move the shared totals.
+     */
+    private final class KeyEntry {
+        private final String key;
         private final ConcurrentHashMap<String, Object> results = new ConcurrentHashMap<>(4);
         private final long loadedAt;
         private final AtomicLong lastChecked;
+        private long bytes;
+        private boolean inWindow;
+        private boolean retired;
 
-        private KeyEntry(final long now) {
+        private KeyEntry(final String key, final long now, final boolean inWindow) {
+            this.key = key;
             this.loadedAt = now;
             this.lastChecked = new AtomicLong(now);
+            this.inWindow = inWindow;
+        }
+
+        /** Adds {@code delta} bytes to this entry and the totals -- unless it already left the map. */
+        private synchronized void charge(final long delta) {
+            if (retired) {
+                return;
+            }
+            bytes += delta;
+            totalBytes.addAndGet(delta);
+            if (inWindow) {
+                windowBytes.addAndGet(delta);
+            }
+        }
+
+        /** Moves a live window entry into the main region; false when there was nothing to move. */
+        private synchronized boolean promote() {
+            if (retired || !inWindow) {
+                return false;
+            }
+            inWindow = false;
+            windowBytes.addAndGet(-bytes);
+            return true;
+        }
+
+        /** Refunds this entry's bytes once it has left the map. Idempotent. */
+        private synchronized void retire() {
+            if (retired) {
+                return;
+            }
+            retired = true;
+            totalBytes.addAndGet(-bytes);
+            if (inWindow) {
+                windowBytes.addAndGet(-bytes);
+            }
+        }
+
+        private synchronized boolean isRetired() {
+            return retired;
+        }
+
+        private synchronized boolean inMainRegion() {
+            return !retired && !inWindow;
         }
     }
 }
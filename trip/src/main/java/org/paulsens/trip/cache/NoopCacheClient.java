@@ -20,6 +20,11 @@ public final class NoopCacheClient implements CacheClient {
         return Optional.empty();
     }
 
+    @Override
+    public Map<String, String> getValues(final Collection<String> keys) {
+        return Map.of();
+    }
+
     @Override
     public boolean putValue(final String key, final String value, final Duration ttl) {
         return true;
@@ -75,6 +80,12 @@ public final class NoopCacheClient implements CacheClient {
         return true;
     }
 
+    @Override
+    public long removeScoredEntries(final String key, final Collection<String> members) {
+        // Nothing was ever stored, so nothing is claimed.
+        return 0L;
+    }
+
     @Override
     public List<String> getSortedSetByPrefix(final String key, final String prefix, final int limit) {
         return List.of();
@@ -112,6 +123,19 @@ public final class NoopCacheClient implements CacheClient {
         return true;
     }
 
+    @Override
+    public List<Boolean> executeBatch(final List<CacheBatch.Command> commands) {
+        // Same answers the single-command methods give, without dispatching: every discarded write "succeeds",
+        // and a batched increment reports the cache-down miss its single-command form does.
+        return commands.stream().map(command -> !(command instanceof CacheBatch.Increment)).toList();
+    }
+
+    @Override
+    public Optional<List<Object>> runScript(final CacheScript script, final List<String> keys,
+            final List<String> args) {
+        return Optional.empty();
+    }
+
     @Override
     public boolean publish(final String channel, final String payload) {
         // Nothing is cached and nothing is listening; a lost nudge costs latency, never a message.
@@ -134,6 +158,21 @@ public final class NoopCacheClient implements CacheClient {
         return true;
     }
 
+    @Override
+    public boolean tryAcquireLock(final String key, final String owner, final Duration ttl) {
+        return true;
+    }
+
+    @Override
+    public boolean extendLock(final String key, final String owner, final Duration ttl) {
+        return true;
+    }
+
+    @Override
+    public boolean releaseLock(final String key, final String owner) {
+        return true;
+    }
+
     @Override
     public boolean clearNamespace(final String prefix) {
         return true;
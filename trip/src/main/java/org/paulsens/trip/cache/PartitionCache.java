@@ -10,6 +10,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
@@ -35,6 +36,8 @@ import lombok.extern.slf4j.Slf4j;
  *     (local {@code InMemoryCacheClient} + empty FakeData loaders).</li>
  *     <li>{@link CacheKeys#GC_TTL} hard expire is hygiene for abandoned keys only.</li>
  *     <li>Duplicate background refreshes are safe by design (overlay + snapshot reconcile; {@code LOADED_AT} LWW).</li>
+ *     <li>Concurrent misses of one partition run one query ({@link SingleFlight}); the rest read its result from
+ *     the hash. Background reloads are deduplicated by {@link Revalidator} instead.</li>
  *     <li>Cache failures never fail the operation: DynamoDB is the source of truth.</li>
  * </ul>
  *
@@ -67,6 +70,9 @@ public class PartitionCache<K, V> {
     private final Function<V, String> serializer;
     /** Parses cache JSON back to an entity; must return null (never throw) on failure. */
     private final Function<String, V> deserializer;
+    /** The stored form of the serializer's JSON in each field; see {@link CacheValueCodec}. */
+    @Builder.Default
+    private final CacheValueCodec codec = CacheValueCodec.standard();
     /** Caller-visible ordering of {@link #getAll}. */
     private final Comparator<V> order;
     /** Injectable clock for tests (epoch millis). */
@@ -76,8 +82,17 @@ public class PartitionCache<K, V> {
     @Builder.Default
     private final Supplier<Double> ttlJitter = Revalidator::randomJitter;
 
+    /** How long a concurrent miss waits for the first one's load before loading itself; see {@link SingleFlight}. */
+    @Builder.Default
+    private final Duration missWait = SingleFlight.MAX_WAIT;
+    /** Also coalesce misses across instances, behind a short Valkey lock; only worth it for big, hot partitions. */
+    @Builder.Default
+    private final boolean coalesceAcrossInstances = false;
+
     /** In-process single-flight for background refresh (complements distributed locks). */
     private final ConcurrentHashMap<String, Boolean> refreshing = new ConcurrentHashMap<>();
+    /** In-process single-flight for foreground misses. */
+    private final SingleFlight flights = new SingleFlight();
 
     /**
      * Returns every entity in the partition, loading (and caching) from the database on a cache miss.
@@ -89,12 +104,30 @@ public class PartitionCache<K, V> {
         final String key = keyPrefix + partition;
         final Map<String, String> hash = cache.getHash(key);
         if (!hash.containsKey(CacheKeys.LOADED_SENTINEL)) {
-            return loadAndMerge(key, loader);
+            return loadMiss(key, loader);
         }
         maybeScheduleRefresh(key, hash.get(CacheKeys.LOADED_AT), loader);
         return toValues(hash);
     }
 
+    /**
+     * {@link #getAll} with the {@link Stamped stamp} of the loaded hash's entity fields. {@link CacheKeys#LOADED_AT}
+     * is left out of the stamp (a reload of the same rows must not change it) and cannot stand in for it either:
+     * write-through and {@link #remove} change the hash without touching it. When {@code unchanged} accepts the
+     * stamp nothing is parsed. A partition answered by a cold load is unstamped (null): the next read is a hit.
+     */
+    public Stamped<List<V>> getAllStamped(
+            final String partition, final Supplier<List<V>> loader, final Predicate<String> unchanged) {
+        final String key = keyPrefix + partition;
+        final Map<String, String> hash = cache.getHash(key);
+        if (!hash.containsKey(CacheKeys.LOADED_SENTINEL)) {
+            return new Stamped<>(null, loadMiss(key, loader));
+        }
+        maybeScheduleRefresh(key, hash.get(CacheKeys.LOADED_AT), loader);
+        final String stamp = Stamped.ofFields(hash, CacheKeys.LOADED_AT);
+        return new Stamped<>(stamp, unchanged.test(stamp) ? null : toValues(hash));
+    }
+
     /**
      * Returns one entity by id. A loaded hash answers both hits and authoritative "not found" without blocking on
      * the database; an unloaded hash can still answer a hit from a write-through entry.
@@ -108,9 +141,9 @@ public class PartitionCache<K, V> {
         if (loaded) {
             maybeScheduleRefresh(key, found.get(CacheKeys.LOADED_AT), loader);
         }
-        final String json = found.get(field);
-        if (json != null) {
-            final V value = deserializer.apply(json);
+        final String stored = found.get(field);
+        if (stored != null) {
+            final V value = read(stored);
             if (value != null) {
                 return Optional.of(value);
             }
@@ -128,19 +161,25 @@ public class PartitionCache<K, V> {
     /** Writes one entity through to the cache (call only after the database write succeeded). */
     public boolean put(final String partition, final V value) {
         final String key = keyPrefix + partition;
-        final String json = serializer.apply(value);
+        final String json = codec.encode(serializer.apply(value));
         if (json == null) {
             return invalidate(partition);
         }
         final String field = idFormatter.apply(idGetter.apply(value));
-        afterWriteThrough(key, cache.putHashField(key, field, json));
+        afterWriteThrough(key, CacheBatch.of(cache)
+                .putHashField(key, field, json)
+                .expire(key, gcTtl)
+                .execute());
         return true;
     }
 
     /** Removes one entity from the cache (soft-deletes that callers filter out). */
     public boolean remove(final String partition, final K id) {
         final String key = keyPrefix + partition;
-        return afterWriteThrough(key, cache.removeHashField(key, idFormatter.apply(id)));
+        return afterWriteThrough(key, CacheBatch.of(cache)
+                .removeHashField(key, idFormatter.apply(id))
+                .expire(key, gcTtl)
+                .execute());
     }
 
     /** Drops the partition's hash entirely (next read reloads from the database). */
@@ -148,12 +187,15 @@ public class PartitionCache<K, V> {
         return cache.removeKey(keyPrefix + partition);
     }
 
-    private boolean afterWriteThrough(final String key, final boolean ok) {
-        if (!ok) {
+    /**
+     * Judges a write-through pipeline of (entity write, expire). The expire slides the GC idle clock only --
+     * it does not update LOADED_AT (soft revalidate age) -- and rides the same round trip as the write; only
+     * the write's own result decides whether the partition must be dropped.
+     */
+    private boolean afterWriteThrough(final String key, final List<Boolean> results) {
+        if (!results.get(0)) {
             return recover(key);
         }
-        // Slide GC idle clock only — does not update LOADED_AT (soft revalidate age).
-        cache.expire(key, gcTtl);
         return true;
     }
 
@@ -166,6 +208,20 @@ public class PartitionCache<K, V> {
         revalidator.schedule(refreshing, key, key, "partition", () -> loadAndMerge(key, loader));
     }
 
+    /**
+     * A cold partition through {@link SingleFlight}: one caller per key runs the query, and a caller that waited
+     * on it reads the hash that load left behind instead of querying again.
+     */
+    private List<V> loadMiss(final String key, final Supplier<List<V>> loader) {
+        final Supplier<List<V>> load = () -> loadAndMerge(key, loader);
+        final Supplier<List<V>> reread = () -> {
+            final Map<String, String> hash = cache.getHash(key);
+            return hash.containsKey(CacheKeys.LOADED_SENTINEL) ? toValues(hash) : null;
+        };
+        return flights.load(key, coalesceAcrossInstances
+                ? () -> SingleFlight.acrossInstances(cache, key, load, reread) : load, reread, missWait);
+    }
+
     private List<V> loadAndMerge(final String key, final Supplier<List<V>> loader) {
         // Snapshot before Dynamo so concurrent write-through of new fields is not reconcile-deleted.
         // Reconcile-delete only when the hash was already fully loaded (sentinel present); a first load over
@@ -197,7 +253,7 @@ public class PartitionCache<K, V> {
         fields.put(CacheKeys.LOADED_AT, String.valueOf(clock.get()));
         final Map<String, String> loaderFields = new HashMap<>();
         for (final V value : list) {
-            final String json = serializer.apply(value);
+            final String json = codec.encode(serializer.apply(value));
             if (json != null) {
                 final String field = idFormatter.apply(idGetter.apply(value));
                 fields.put(field, json);
@@ -265,16 +321,21 @@ public class PartitionCache<K, V> {
         return result;
     }
 
-    private void appendEntityField(final String field, final String json, final List<V> result) {
+    private void appendEntityField(final String field, final String stored, final List<V> result) {
         if (isMetaField(field)) {
             return;
         }
-        final V value = deserializer.apply(json);
+        final V value = read(stored);
         if (value != null) {
             result.add(value);
         }
     }
 
+    private V read(final String stored) {
+        final String json = codec.decode(stored);
+        return json == null ? null : deserializer.apply(json);
+    }
+
     private List<V> sorted(final List<V> list) {
         final List<V> result = new ArrayList<>(list);
         result.sort(order);
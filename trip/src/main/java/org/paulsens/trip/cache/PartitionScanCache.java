@@ -52,6 +52,9 @@ public final class PartitionScanCache<V> {
     private final Function<V, String> fielder;
     private final Function<V, String> serializer;
     private final Function<String, V> deserializer;
+    /** The stored form of the serializer's JSON in each field; see {@link CacheValueCodec}. */
+    @Builder.Default
+    private final CacheValueCodec codec = CacheValueCodec.standard();
     @Builder.Default
     private final Supplier<Long> clock = System::currentTimeMillis;
     /** Injectable jitter source in [0,1) for tests; production uses {@link Revalidator#randomJitter()}. */
@@ -75,10 +78,10 @@ public final class PartitionScanCache<V> {
      */
     public Optional<V> getOne(
             final String partition, final String field, final Supplier<Optional<V>> pointLoader) {
-        final String json = cache.getHashFields(keyPrefix + partition, List.of(field)).get(field);
-        if (json != null) {
+        final String stored = cache.getHashFields(keyPrefix + partition, List.of(field)).get(field);
+        if (stored != null) {
             maybeRevalidateOnHit();
-            return Optional.ofNullable(deserializer.apply(json));
+            return Optional.ofNullable(read(stored));
         }
         if (cache.getValue(loadedKey).isPresent()) {
             return Optional.empty();
@@ -91,7 +94,7 @@ public final class PartitionScanCache<V> {
     /** Write-through of a single entity into its partition hash. */
     public boolean put(final V value) {
         final String key = keyPrefix + partitioner.apply(value);
-        final String json = serializer.apply(value);
+        final String json = codec.encode(serializer.apply(value));
         if (json == null) {
             // Serializer regression (the DAO serializers answer null on failure, like the other cache
             // templates' contracts). Drop the possibly-stale cached entry surgically rather than NPE after
@@ -137,8 +140,8 @@ public final class PartitionScanCache<V> {
 
     private List<V> deserializeValues(final Map<String, String> hash) {
         final List<V> result = new ArrayList<>(hash.size());
-        for (final String json : hash.values()) {
-            final V value = deserializer.apply(json);
+        for (final String stored : hash.values()) {
+            final V value = read(stored);
             if (value != null) {
                 result.add(value);
             }
@@ -146,6 +149,11 @@ public final class PartitionScanCache<V> {
         return result;
     }
 
+    private V read(final String stored) {
+        final String json = codec.decode(stored);
+        return json == null ? null : deserializer.apply(json);
+    }
+
     private List<V> ensureAndQuery(
             final Function<List<V>, List<V>> inMemoryAnswer, final Supplier<List<V>> cacheAnswer) {
         final Optional<String> loadedAt = cache.getValue(loadedKey);
@@ -189,7 +197,7 @@ public final class PartitionScanCache<V> {
         final Map<String, Map<String, String>> byPartition = new HashMap<>();
         for (final V v : all) {
             byPartition.computeIfAbsent(keyPrefix + partitioner.apply(v), k -> new HashMap<>())
-                    .put(fielder.apply(v), serializer.apply(v));
+                    .put(fielder.apply(v), codec.encode(serializer.apply(v)));
         }
         for (final Map.Entry<String, Map<String, String>> e : byPartition.entrySet()) {
             cache.putHashFields(e.getKey(), e.getValue());
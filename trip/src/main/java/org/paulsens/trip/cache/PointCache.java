@@ -1,9 +1,17 @@
 package org.paulsens.trip.cache;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
@@ -20,7 +28,11 @@ import lombok.extern.slf4j.Slf4j;
  * <p>A value without an envelope prefix is a legacy entry: served as-is and treated as stale-once, so the
  * background refresh rewrites it enveloped -- no flush, no format-version bump. This relies on serializers
  * emitting JSON: entity JSON starts with <code>'{'</code>, so a real value can never be mistaken for an
- * envelope prefix.</p>
+ * envelope prefix. Inside the envelope the JSON may be compressed ({@link CacheValueCodec}); the codec's own
+ * version character keeps that from ever being mistaken for JSON either.</p>
+ *
+ * <p>Concurrent single-id misses of one key load once ({@link SingleFlight}); the others re-read what it wrote.
+ * {@link #getAll}'s bulk misses are not coalesced: they already cost one load for the lot.</p>
  *
  * <p>Blocking since the virtual-threads port. Background reload with null removes the entry (out-of-band
  * deletes heal). Soft revalidate is read-triggered. {@link CacheKeys#GC_TTL} is hygiene only. Duplicate
@@ -41,31 +53,173 @@ public class PointCache<V> {
     private final Duration gcTtl = CacheKeys.GC_TTL;
     private final Function<V, String> serializer;
     private final Function<String, V> deserializer;
+    /** The stored form of the serializer's JSON inside the envelope; see {@link CacheValueCodec}. */
+    @Builder.Default
+    private final CacheValueCodec codec = CacheValueCodec.standard();
     @Builder.Default
     private final Supplier<Long> clock = System::currentTimeMillis;
     /** Injectable jitter source in [0,1) for tests; production uses {@link Revalidator#randomJitter()}. */
     @Builder.Default
     private final Supplier<Double> ttlJitter = Revalidator::randomJitter;
+    /** How long a concurrent miss waits for the first one's load before loading itself; see {@link SingleFlight}. */
+    @Builder.Default
+    private final Duration missWait = SingleFlight.MAX_WAIT;
+    /** Also coalesce misses across instances, behind a short Valkey lock; only worth it for hot keys. */
+    @Builder.Default
+    private final boolean coalesceAcrossInstances = false;
 
     private final ConcurrentHashMap<String, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final SingleFlight flights = new SingleFlight();
 
     public Optional<V> get(final String id, final Function<String, V> loader) {
         final String key = keyPrefix + id;
         final Optional<String> cached = cache.getValue(key);
         if (cached.isPresent()) {
             final Envelope env = Envelope.decode(cached.get());
-            final V value = deserializer.apply(env.json());
+            final V value = read(env);
             if (value != null) {
                 maybeScheduleRefresh(id, key, env, loader);
                 return Optional.of(value);
             }
         }
-        final V value = loader.apply(id);
-        if (value == null) {
-            return Optional.empty();
+        return coalesce(key, () -> {
+            final V value = loader.apply(id);
+            if (value == null) {
+                return Optional.empty();
+            }
+            put(id, value);
+            return Optional.of(value);
+        }, () -> {
+            final V value = reread(key);
+            return (value == null) ? null : Optional.of(value);
+        });
+    }
+
+    /**
+     * {@link #get} with the {@link Stamped stamp} of the stored JSON. When {@code unchanged} accepts a hit's stamp
+     * the value is not parsed at all (the result is {@link Stamped#unchanged()}); stale hits still revalidate. A
+     * miss is stamped from the form it writes back, so the first read is stampable too.
+     */
+    public Optional<Stamped<V>> getStamped(
+            final String id, final Function<String, V> loader, final Predicate<String> unchanged) {
+        final String key = keyPrefix + id;
+        final Optional<String> cached = cache.getValue(key);
+        if (cached.isPresent()) {
+            final Envelope env = Envelope.decode(cached.get());
+            final String stamp = Stamped.of(env.json());
+            if (unchanged.test(stamp)) {
+                maybeScheduleRefresh(id, key, env, loader);
+                return Optional.of(new Stamped<>(stamp, null));
+            }
+            final V value = read(env);
+            if (value != null) {
+                maybeScheduleRefresh(id, key, env, loader);
+                return Optional.of(new Stamped<>(stamp, value));
+            }
+        }
+        return coalesce(key, () -> {
+            final V value = loader.apply(id);
+            if (value == null) {
+                return Optional.empty();
+            }
+            final String stored = write(id, value);
+            return Optional.of(new Stamped<>(stored == null ? null : Stamped.of(stored), value));
+        }, () -> {
+            final Envelope env = cache.getValue(key).map(Envelope::decode).orElse(null);
+            final V value = (env == null) ? null : read(env);
+            return (value == null) ? null : Optional.of(new Stamped<>(Stamped.of(env.json()), value));
+        });
+    }
+
+    /**
+     * A {@link Stamped stamp} of these ids' stored JSON, folded in order, from ONE MGET and with nothing parsed or
+     * re-serialized; null when any of them is not cached, since a cold entry has no stored form to vouch for.
+     * Taken before the caller renders the entities, a stamp can only lag what is rendered, never run ahead of it.
+     */
+    public String stampOf(final List<String> ids) {
+        final Map<String, String> cached = cache.getValues(ids.stream().map(id -> keyPrefix + id).toList());
+        final StringBuilder stored = new StringBuilder();
+        for (final String id : ids) {
+            final String raw = cached.get(keyPrefix + id);
+            if (raw == null) {
+                return null;
+            }
+            stored.append(Envelope.decode(raw).json()).append('\0');
         }
-        put(id, value);
-        return Optional.of(value);
+        return Stamped.of(stored.toString());
+    }
+
+    /**
+     * Multi-id {@link #get}: ONE {@link CacheClient#getValues} (MGET) for every id, ONE {@code bulkLoader} call
+     * for just the misses, and the loaded values written back in one {@link CacheBatch}. Stale hits revalidate
+     * per id exactly as {@code get}'s do, through a single-id call of the same loader.
+     *
+     * @param bulkLoader loads the given ids from the source of truth; ids it cannot find are simply absent.
+     * @return the found values keyed by id, in the order the ids were given (duplicates collapse).
+     */
+    public Map<String, V> getAll(
+            final Collection<String> ids, final Function<Collection<String>, Map<String, V>> bulkLoader) {
+        final List<String> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        if (distinct.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        final Map<String, String> cached = cache.getValues(distinct.stream().map(id -> keyPrefix + id).toList());
+        final Function<String, V> singleLoader = id -> bulkLoader.apply(List.of(id)).get(id);
+        final Map<String, V> found = new HashMap<>();
+        final List<String> misses = new ArrayList<>();
+        for (final String id : distinct) {
+            final String key = keyPrefix + id;
+            final String raw = cached.get(key);
+            final Envelope env = (raw == null) ? null : Envelope.decode(raw);
+            final V value = (env == null) ? null : read(env);
+            if (value == null) {
+                misses.add(id);
+            } else {
+                found.put(id, value);
+                maybeScheduleRefresh(id, key, env, singleLoader);
+            }
+        }
+        if (!misses.isEmpty()) {
+            loadMisses(misses, bulkLoader, found);
+        }
+        final Map<String, V> result = new LinkedHashMap<>();
+        for (final String id : distinct) {
+            final V value = found.get(id);
+            if (value != null) {
+                result.put(id, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A single-key miss through {@link SingleFlight}: {@code load} runs once per key at a time, and a caller that
+     * waited on it answers {@code reread} -- what the load wrote -- instead of loading again.
+     */
+    private <T> T coalesce(final String key, final Supplier<T> load, final Supplier<T> reread) {
+        final Supplier<T> leader = coalesceAcrossInstances
+                ? () -> SingleFlight.acrossInstances(cache, key, load, reread) : load;
+        return flights.load(key, leader, reread, missWait);
+    }
+
+    /** The entry a concurrent load just wrote, or null. */
+    private V reread(final String key) {
+        return cache.getValue(key).map(raw -> read(Envelope.decode(raw))).orElse(null);
+    }
+
+    private void loadMisses(final List<String> misses,
+            final Function<Collection<String>, Map<String, V>> bulkLoader, final Map<String, V> found) {
+        final Map<String, V> loaded = bulkLoader.apply(misses);
+        final CacheBatch writeBack = CacheBatch.of(cache);
+        for (final String id : misses) {
+            final V value = loaded.get(id);
+            if (value != null) {
+                found.put(id, value);
+                queuePut(writeBack, id, value);
+            }
+        }
+        // Results are ignored for the same reason put() always answers true.
+        writeBack.execute();
     }
 
     private void maybeScheduleRefresh(
@@ -87,12 +241,34 @@ public class PointCache<V> {
      * via soft revalidate.</p>
      */
     public boolean put(final String id, final V value) {
+        write(id, value);
+        return true;
+    }
+
+    /** Writes the value enveloped and answers its stored form, or null when it did not serialize (and was removed). */
+    private String write(final String id, final V value) {
         final String json = serializer.apply(value);
         if (json == null) {
-            return remove(id);
+            remove(id);
+            return null;
         }
-        cache.putValue(keyPrefix + id, clock.get() + "|" + json, gcTtl);
-        return true;
+        final String stored = codec.encode(json);
+        cache.putValue(keyPrefix + id, clock.get() + "|" + stored, gcTtl);
+        return stored;
+    }
+
+    private void queuePut(final CacheBatch batch, final String id, final V value) {
+        final String json = serializer.apply(value);
+        if (json == null) {
+            batch.removeKey(keyPrefix + id);
+        } else {
+            batch.putValue(keyPrefix + id, clock.get() + "|" + codec.encode(json), gcTtl);
+        }
+    }
+
+    private V read(final Envelope env) {
+        final String json = codec.decode(env.json());
+        return json == null ? null : deserializer.apply(json);
     }
 
     public boolean remove(final String id) {
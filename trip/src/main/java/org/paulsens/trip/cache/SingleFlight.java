@@ -0,0 +1,104 @@
+package org.paulsens.trip.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces FOREGROUND cache-miss loads of one key: the miss-path counterpart of {@link Revalidator}'s refresh
+ * dedup. Without it, a popular trip or a big registration partition that was just invalidated (an admin "Clear
+ * caches", a scope invalidation) sends every concurrent reader to DynamoDB for the identical load.
+ *
+ * <p>The first caller for a key loads and writes back as before. Later callers wait for it -- boundedly -- and
+ * then re-read the CACHE rather than taking the leader's result: the cached entities are mutable beans, and a
+ * re-read gives each caller its own copy, as every hit does. A waiter that finds nothing (the wait ran out, the
+ * leader failed, the write-back did not land, or there was nothing to find) loads for itself, exactly as it would
+ * have without this class. Coalescing can only remove loads; it never answers differently.
+ *
+ * <p>Across instances ({@link #acrossInstances}) the leader additionally takes a short distributed lock, which
+ * doubles as the "loading" marker: an instance that finds it held polls the cache briefly before loading anyway.
+ * The lock carries a random owner token and is released by compare-and-delete, so a load that outlived the TTL
+ * cannot delete the lock of the instance that took it over.
+ * Instance state is the per-cache map only; the caches keep their own knobs and pass them per call.</p>
+ */
+@Slf4j
+final class SingleFlight {
+    /** How long a waiter gives the leader: a cold partition load, with room to spare. */
+    static final Duration MAX_WAIT = Duration.ofSeconds(2);
+    /** Crash-safety TTL of the cross-instance load lock; a load that outlives it just overlaps another. */
+    static final Duration LOAD_LOCK_TTL = Duration.ofSeconds(10);
+    static final int LOAD_POLLS = 5;
+    static final long LOAD_POLL_MILLIS = 50L;
+
+    private final ConcurrentHashMap<String, CountDownLatch> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code load} if no other caller in this JVM is loading {@code key}; otherwise waits up to
+     * {@code maxWait} for that caller, then answers {@code reread}, or runs {@code load} itself when that is null.
+     *
+     * @param reread what a finished load left in the cache, or null when there is nothing to share
+     */
+    <T> T load(final String key, final Supplier<T> load, final Supplier<T> reread, final Duration maxWait) {
+        final CountDownLatch mine = new CountDownLatch(1);
+        final CountDownLatch leader = loading.putIfAbsent(key, mine);
+        if (leader == null) {
+            try {
+                return load.get();
+            } finally {
+                loading.remove(key, mine);
+                mine.countDown();
+            }
+        }
+        try {
+            if (!leader.await(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.debug("Gave up waiting {} for the load of '{}'; loading it here", maxWait, key);
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the load of " + key, ex);
+        }
+        final T shared = reread.get();
+        return (shared != null) ? shared : load.get();
+    }
+
+    /**
+     * {@code load} under the cross-instance load lock for {@code dataKey}. Another instance holding it is loading
+     * the same key: poll the cache for its result for up to {@link #LOAD_POLLS} x {@link #LOAD_POLL_MILLIS} ms,
+     * then load regardless. A cache that cannot take the lock looks the same as a held one, so an outage costs
+     * that short poll and nothing more.
+     */
+    static <T> T acrossInstances(final CacheClient cache, final String dataKey, final Supplier<T> load,
+            final Supplier<T> reread) {
+        final String lockKey = CacheKeys.loadLockKey(dataKey);
+        final String owner = UUID.randomUUID().toString();
+        if (cache.tryAcquireLock(lockKey, owner, LOAD_LOCK_TTL)) {
+            try {
+                return load.get();
+            } finally {
+                cache.releaseLock(lockKey, owner);
+            }
+        }
+        for (int poll = 0; poll < LOAD_POLLS; poll++) {
+            try {
+                Thread.sleep(LOAD_POLL_MILLIS);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for another instance to load " + dataKey, ex);
+            }
+            final T shared = reread.get();
+            if (shared != null) {
+                return shared;
+            }
+        }
+        return load.get();
+    }
+
+    /** Test hook: keys with a load in flight. */
+    int inFlight() {
+        return loading.size();
+    }
+}
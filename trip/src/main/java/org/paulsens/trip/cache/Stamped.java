@@ -0,0 +1,74 @@
+package org.paulsens.trip.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A typed-cache read paired with a stamp of the stored form it came from: a digest of exactly the string(s) the
+ * cache holds for the entity, never of the loaded-at bookkeeping, so a soft refresh that rewrites the same content
+ * keeps the same stamp and any write-through of different content changes it. Stamps back conditional GETs: a
+ * caller that already holds the representation for a stamp says so up front, and the template then skips the parse
+ * entirely.
+ *
+ * <p>{@code value} is null exactly when the caller's predicate accepted the stamp (see {@link #unchanged()}).
+ * {@code stamp} is null when the template cannot vouch for one -- e.g. a partition answered from a cold load whose
+ * write-back did not land -- and callers then simply do not tag.</p>
+ *
+ * @param stamp Digest of the stored form, or null when unknown.
+ * @param value The entity, or null when the caller's predicate accepted the stamp.
+ * @param <T>   The entity (or list) type.
+ */
+public record Stamped<T>(String stamp, T value) {
+    private static final int STAMP_BYTES = 16;
+
+    /** True when the caller already holds this content: the template skipped the parse. */
+    public boolean unchanged() {
+        return value == null;
+    }
+
+    /**
+     * Stamp of one stored value (the encoded JSON inside a point-cache envelope). Public so a caller can fold
+     * several stamps and its own inputs into one digest of the same shape.
+     */
+    public static String of(final String stored) {
+        final MessageDigest digest = sha256();
+        digest.update(stored.getBytes(StandardCharsets.UTF_8));
+        return encode(digest);
+    }
+
+    /**
+     * Stamp of a partition hash's entity fields, independent of field order. {@code ignored} names the
+     * bookkeeping field(s) whose value changes on every reload without the content changing.
+     */
+    static String ofFields(final Map<String, String> fields, final String ignored) {
+        final MessageDigest digest = sha256();
+        for (final Map.Entry<String, String> entry : new TreeMap<>(fields).entrySet()) {
+            if (!entry.getKey().equals(ignored)) {
+                digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        return encode(digest);
+    }
+
+    private static String encode(final MessageDigest digest) {
+        final byte[] full = digest.digest();
+        final byte[] head = new byte[STAMP_BYTES];
+        System.arraycopy(full, 0, head, 0, STAMP_BYTES);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(head);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is required of every JVM.", ex);
+        }
+    }
+}
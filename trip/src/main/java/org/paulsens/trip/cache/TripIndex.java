@@ -105,19 +105,25 @@ public final class TripIndex {
             if (tripId == null) {
                 return true;
             }
-            cache.removeSortedSetEntries(CacheKeys.TRIPS_BY_DATE, List.of(tripId));
-            return cache.removeSortedSetEntries(CacheKeys.TRIPS_BY_PERSON, personEntries(oldUsers, tripId));
+            return CacheBatch.of(cache)
+                    .removeSortedSetEntries(CacheKeys.TRIPS_BY_DATE, List.of(tripId))
+                    .removeSortedSetEntries(CacheKeys.TRIPS_BY_PERSON, personEntries(oldUsers, tripId))
+                    .execute()
+                    .get(1);
         }
         final String tripId = updated.tripId();
         final Set<String> addedUsers = new HashSet<>(updated.userIds());
         addedUsers.removeAll(oldUsers);
         final Set<String> removedUsers = new HashSet<>(oldUsers);
         removedUsers.removeAll(updated.userIds());
-        cache.addScoredEntries(CacheKeys.TRIPS_BY_DATE, Map.of(tripId, (double) updated.endEpochMillis()));
-        cache.removeSortedSetEntries(CacheKeys.TRIPS_BY_PERSON, personEntries(removedUsers, tripId));
-        final boolean ok = cache.addSortedSetEntries(CacheKeys.TRIPS_BY_PERSON, personEntries(addedUsers, tripId));
-        cache.expire(CacheKeys.TRIPS_BY_DATE, gcTtl);
-        return ok;
+        // One pipeline for both indexes: a trip save is on the request path, and these four are independent.
+        return CacheBatch.of(cache)
+                .addScoredEntries(CacheKeys.TRIPS_BY_DATE, Map.of(tripId, (double) updated.endEpochMillis()))
+                .removeSortedSetEntries(CacheKeys.TRIPS_BY_PERSON, personEntries(removedUsers, tripId))
+                .addSortedSetEntries(CacheKeys.TRIPS_BY_PERSON, personEntries(addedUsers, tripId))
+                .expire(CacheKeys.TRIPS_BY_DATE, gcTtl)
+                .execute()
+                .get(2);
     }
 
     /** Drops both indexes (next query rebuilds). */
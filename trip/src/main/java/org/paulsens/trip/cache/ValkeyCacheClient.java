@@ -5,10 +5,13 @@ import io.lettuce.core.KeyScanCursor;
 import io.lettuce.core.Limit;
 import io.lettuce.core.Range;
 import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisNoScriptException;
 import io.lettuce.core.ScoredValue;
 import io.lettuce.core.RedisFuture;
 import io.lettuce.core.RedisURI;
 import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.SetArgs;
 import io.lettuce.core.TimeoutOptions;
 import io.lettuce.core.api.StatefulRedisConnection;
@@ -21,19 +24,26 @@ import io.lettuce.core.pubsub.RedisPubSubAdapter;
 import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
 import io.lettuce.core.KeyValue;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import org.paulsens.trip.util.CacheLane;
 import org.paulsens.trip.util.TripThreads;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 
@@ -67,61 +77,88 @@ public final class ValkeyCacheClient implements CacheClient {
      * impossible. Queue size is a client-level option, hence the second client below.
      */
     private static final int BACKGROUND_QUEUE_SIZE = 500;
+    private static final String FOREGROUND = "fg";
+    private static final String BACKGROUND = "bg";
     /**
      * Backstop for the blocking await, over and above Lettuce's own {@link #COMMAND_TIMEOUT}: the client
      * fails the future at 3s, so this only fires if a completion is lost outright. It must exist -- a
      * virtual thread parked forever on a lost future is a leaked request.
      */
     private static final long AWAIT_TIMEOUT_SECONDS = COMMAND_TIMEOUT.toSeconds() + 2;
+    /**
+     * How long a server-side error from a script (scripting disabled by the provider, NOPERM, a broken script)
+     * parks {@link #runScript}. Without it every chat poll would pay a doomed round trip before its fallback.
+     */
+    private static final long SCRIPT_PARK_MILLIS = 5 * 60_000L;
+    /** Owned-lock steps: act only while the lock still holds the caller's token (see {@link #tryAcquireLock}). */
+    private static final String EXTEND_IF_OWNER =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end return 0";
+    private static final String RELEASE_IF_OWNER =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0";
 
     private final AutoCloseable fgClient;
     private final AutoCloseable bgClient;
-    private final AutoCloseable fgConnection;
-    private final AutoCloseable bgConnection;
-    private final RedisClusterAsyncCommands<String, String> fgCommands;
-    private final RedisClusterAsyncCommands<String, String> bgCommands;
+    /**
+     * The foreground connections: one unless {@link CacheConfig#getForegroundPoolSize()} asks for more. Each has
+     * its own {@value #REQUEST_QUEUE_SIZE}-command queue and its own Netty channel, so one large reply (a big
+     * HGETALL, a script's table) no longer holds up every small read behind it on a single socket.
+     */
+    private final List<Lane> foreground;
+    private final Lane background;
+    /** Where the least-outstanding scan starts, rotated so idle connections share the load rather than fg-0. */
+    private final AtomicInteger nextStart = new AtomicInteger();
+    private final CommandLatencies latencies = new CommandLatencies();
     /**
      * Opens a pub/sub connection on demand. Separate from the command connections because a subscribed
      * connection cannot serve ordinary commands -- issuing a GET on it is a protocol error -- so they cannot
      * be shared. Lazy so a deployment that never subscribes never opens one.
      */
     private final Supplier<StatefulRedisPubSubConnection<String, String>> pubSubFactory;
+    private volatile long scriptsParkedUntil;
 
     public ValkeyCacheClient(final CacheConfig config) {
         final RedisURI uri = RedisURI.create(config.getValkeyUri());
         if (config.isCluster()) {
             final RedisClusterClient fg = clusterClient(uri, REQUEST_QUEUE_SIZE);
             final RedisClusterClient bg = clusterClient(uri, BACKGROUND_QUEUE_SIZE);
-            final StatefulRedisClusterConnection<String, String> fgConn = fg.connect();
             final StatefulRedisClusterConnection<String, String> bgConn = bg.connect();
             this.fgClient = fg;
             this.bgClient = bg;
-            this.fgConnection = fgConn;
-            this.bgConnection = bgConn;
-            this.fgCommands = fgConn.async();
-            this.bgCommands = bgConn.async();
+            this.foreground = pool(config.getForegroundPoolSize(), i -> {
+                final StatefulRedisClusterConnection<String, String> conn = fg.connect();
+                return new Lane("fg-" + i, FOREGROUND, conn, conn.async());
+            });
+            this.background = new Lane(BACKGROUND, BACKGROUND, bgConn, bgConn.async());
             this.pubSubFactory = fg::connectPubSub;
         } else {
             final RedisClient fg = standaloneClient(uri, REQUEST_QUEUE_SIZE);
             final RedisClient bg = standaloneClient(uri, BACKGROUND_QUEUE_SIZE);
-            final StatefulRedisConnection<String, String> fgConn = fg.connect();
             final StatefulRedisConnection<String, String> bgConn = bg.connect();
             this.fgClient = fg;
             this.bgClient = bg;
-            this.fgConnection = fgConn;
-            this.bgConnection = bgConn;
-            this.fgCommands = fgConn.async();
-            this.bgCommands = bgConn.async();
+            this.foreground = pool(config.getForegroundPoolSize(), i -> {
+                final StatefulRedisConnection<String, String> conn = fg.connect();
+                return new Lane("fg-" + i, FOREGROUND, conn, conn.async());
+            });
+            this.background = new Lane(BACKGROUND, BACKGROUND, bgConn, bgConn.async());
             this.pubSubFactory = fg::connectPubSub;
         }
         // Startup connectivity check -- log only, the app must come up even if the cache is down.
         final String mode = config.isCluster() ? "cluster" : "standalone";
         final String uriLabel = config.getValkeyUri();
-        fgCommands.ping()
-                .thenAccept(pong -> logConnected(mode, uriLabel))
+        foreground.getFirst().commands.ping()
+                .thenAccept(pong -> logConnected(mode, uriLabel, foreground.size()))
                 .exceptionally(ex -> logNotReachable(uriLabel, ex));
     }
 
+    private static List<Lane> pool(final int size, final IntFunction<Lane> open) {
+        final List<Lane> lanes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lanes.add(open.apply(i));
+        }
+        return List.copyOf(lanes);
+    }
+
     private static RedisClusterClient clusterClient(final RedisURI uri, final int queueSize) {
         final RedisClusterClient client = RedisClusterClient.create(uri);
         client.setOptions(ClusterClientOptions.builder()
@@ -147,19 +184,110 @@ public final class ValkeyCacheClient implements CacheClient {
     /**
      * Routes by lane: background-spawned work ({@link org.paulsens.trip.util.TripThreads} binds the lane)
      * gets the small-queue connection so a background flood sheds early instead of starving request-path
-     * reads. Unbound threads -- request threads and their StructuredTaskScope forks -- stay foreground.
+     * reads. Unbound threads -- request threads and their StructuredTaskScope forks -- stay foreground, on
+     * whichever pooled connection has the fewest commands outstanding. The pool never serves the background
+     * lane: the bulkhead is between the lanes, and widening the foreground must not narrow it.
      */
-    private RedisClusterAsyncCommands<String, String> commands() {
-        return CacheLane.isBackground() ? bgCommands : fgCommands;
+    private Lane lane() {
+        if (CacheLane.isBackground()) {
+            return background;
+        }
+        final int size = foreground.size();
+        if (size == 1) {
+            return foreground.getFirst();
+        }
+        final int start = Math.floorMod(nextStart.getAndIncrement(), size);
+        Lane best = foreground.get(start);
+        for (int i = 1; i < size && best.outstanding.get() > 0; i++) {
+            final Lane candidate = foreground.get((start + i) % size);
+            if (candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        return best;
     }
 
     /** Test seam: whether a command issued right now would ride the background connection. */
     boolean routesToBackground() {
-        return commands() == bgCommands;
+        return lane() == background;
+    }
+
+    /**
+     * One command on the chosen lane, awaited like any other, and timed: from dispatch to the caller holding
+     * its answer, so queueing behind other commands on the connection counts against the command that waited.
+     */
+    private <T, R> R call(final String op,
+            final Function<RedisClusterAsyncCommands<String, String>, ? extends Future<T>> command,
+            final Function<T, R> mapper, final R fallback) {
+        final Lane lane = lane();
+        final long started = lane.begin();
+        try {
+            return await(op, command.apply(lane.commands), mapper, fallback);
+        } finally {
+            finish(op, lane, started);
+        }
+    }
+
+    private void finish(final String op, final Lane lane, final long started) {
+        lane.outstanding.decrementAndGet();
+        final int space = op.indexOf(' ');
+        latencies.record(space < 0 ? op : op.substring(0, space), lane.kind, System.nanoTime() - started);
+    }
+
+    /**
+     * One command connection and its gauges. {@code outstanding} is the queue-depth gauge: commands issued on
+     * this connection whose callers are still waiting. Lettuce does not expose its own queue, and issued but
+     * unanswered is exactly what fills it.
+     */
+    private static final class Lane {
+        private final String name;
+        private final String kind;
+        private final AutoCloseable connection;
+        private final RedisClusterAsyncCommands<String, String> commands;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger peakOutstanding = new AtomicInteger();
+        private final LongAdder dispatched = new LongAdder();
+
+        private Lane(final String name, final String kind, final AutoCloseable connection,
+                final RedisClusterAsyncCommands<String, String> commands) {
+            this.name = name;
+            this.kind = kind;
+            this.connection = connection;
+            this.commands = commands;
+        }
+
+        /** Counts the command in and answers its start time. */
+        private long begin() {
+            dispatched.increment();
+            peakOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+            return System.nanoTime();
+        }
+    }
+
+    /** One connection's gauges in {@link Stats}. */
+    public record LaneStats(String name, String lane, int outstanding, int peakOutstanding, long dispatched) {
     }
 
-    private static void logConnected(final String mode, final String uriLabel) {
-        log.info("Valkey cache connected ({} mode): {}", mode, uriLabel);
+    /** What {@code GET /api/cache/stats} reports for the shared cache: the connections, then per-command latency. */
+    public record Stats(List<LaneStats> connections, List<CommandLatencies.Summary> commands) {
+    }
+
+    public Stats stats() {
+        final List<LaneStats> connections = new ArrayList<>(foreground.size() + 1);
+        for (final Lane lane : foreground) {
+            connections.add(laneStats(lane));
+        }
+        connections.add(laneStats(background));
+        return new Stats(connections, latencies.snapshot());
+    }
+
+    private static LaneStats laneStats(final Lane lane) {
+        return new LaneStats(lane.name, lane.kind, lane.outstanding.get(), lane.peakOutstanding.get(),
+                lane.dispatched.sum());
+    }
+
+    private static void logConnected(final String mode, final String uriLabel, final int poolSize) {
+        log.info("Valkey cache connected ({} mode, {} foreground connection(s)): {}", mode, poolSize, uriLabel);
     }
 
     private static Void logNotReachable(final String uriLabel, final Throwable ex) {
@@ -169,34 +297,47 @@ public final class ValkeyCacheClient implements CacheClient {
 
     @Override
     public Optional<String> getValue(final String key) {
-        return await("GET " + key, commands().get(key), Optional::ofNullable, Optional.empty());
+        return call("GET " + key, c -> c.get(key), Optional::ofNullable, Optional.empty());
+    }
+
+    /**
+     * One MGET for every key. On a cluster connection Lettuce splits a cross-slot MGET into per-slot
+     * commands and reassembles the answer, so callers need not co-locate keys.
+     */
+    @Override
+    public Map<String, String> getValues(final Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        return call("MGET " + keys.size() + " keys", c -> c.mget(keys.toArray(String[]::new)),
+                ValkeyCacheClient::presentValues, Map.of());
     }
 
     @Override
     public boolean putValue(final String key, final String value, final Duration ttl) {
         if (ttl == null || ttl.isZero() || ttl.isNegative()) {
-            return await("SET " + key, commands().set(key, value), "OK"::equals, false);
+            return call("SET " + key, c -> c.set(key, value), "OK"::equals, false);
         }
-        return await("SETEX " + key, commands().setex(key, ttl.toSeconds(), value), "OK"::equals, false);
+        return call("SETEX " + key, c -> c.setex(key, ttl.toSeconds(), value), "OK"::equals, false);
     }
 
     @Override
     public boolean removeKey(final String key) {
-        return await("UNLINK " + key, commands().unlink(key), ignored -> true, false);
+        return call("UNLINK " + key, c -> c.unlink(key), ignored -> true, false);
     }
 
     @Override
     public Map<String, String> getHash(final String key) {
-        return await("HGETALL " + key, commands().hgetall(key), Function.identity(), Map.of());
+        return call("HGETALL " + key, c -> c.hgetall(key), Function.identity(), Map.of());
     }
 
     @Override
     public Map<String, String> getHashFields(final String key, final Collection<String> fields) {
-        return await("HMGET " + key, commands().hmget(key, fields.toArray(String[]::new)),
-                ValkeyCacheClient::toHashFieldMap, Map.of());
+        return call("HMGET " + key, c -> c.hmget(key, fields.toArray(String[]::new)),
+                ValkeyCacheClient::presentValues, Map.of());
     }
 
-    private static Map<String, String> toHashFieldMap(final List<KeyValue<String, String>> keyValues) {
+    private static Map<String, String> presentValues(final List<KeyValue<String, String>> keyValues) {
         final Map<String, String> result = new HashMap<>();
         for (final KeyValue<String, String> kv : keyValues) {
             if (kv.hasValue()) {
@@ -208,22 +349,22 @@ public final class ValkeyCacheClient implements CacheClient {
 
     @Override
     public boolean putHashField(final String key, final String field, final String value) {
-        return await("HSET " + key, commands().hset(key, field, value), ignored -> true, false);
+        return call("HSET " + key, c -> c.hset(key, field, value), ignored -> true, false);
     }
 
     @Override
     public boolean putHashFields(final String key, final Map<String, String> fields) {
-        return await("HSET(multi) " + key, commands().hset(key, fields), ignored -> true, false);
+        return call("HSET(multi) " + key, c -> c.hset(key, fields), ignored -> true, false);
     }
 
     @Override
     public boolean removeHashField(final String key, final String field) {
-        return await("HDEL " + key, commands().hdel(key, field), ignored -> true, false);
+        return call("HDEL " + key, c -> c.hdel(key, field), ignored -> true, false);
     }
 
     @Override
     public boolean addSetMembers(final String key, final Collection<String> members) {
-        return await("SADD " + key, commands().sadd(key, members.toArray(String[]::new)), ignored -> true, false);
+        return call("SADD " + key, c -> c.sadd(key, members.toArray(String[]::new)), ignored -> true, false);
     }
 
     @Override
@@ -231,10 +372,7 @@ public final class ValkeyCacheClient implements CacheClient {
         if (entries.isEmpty()) {
             return true;
         }
-        final ScoredValue<String>[] scored = entries.stream()
-                .map(entry -> ScoredValue.just(0.0d, entry))
-                .toArray(ScoredValue[]::new);
-        return await("ZADD " + key, commands().zadd(key, scored), ignored -> true, false);
+        return call("ZADD " + key, c -> c.zadd(key, lexScored(entries)), ignored -> true, false);
     }
 
     @Override
@@ -242,7 +380,16 @@ public final class ValkeyCacheClient implements CacheClient {
         if (entries.isEmpty()) {
             return true;
         }
-        return await("ZREM " + key, commands().zrem(key, entries.toArray(String[]::new)), ignored -> true, false);
+        return call("ZREM " + key, c -> c.zrem(key, entries.toArray(String[]::new)), ignored -> true, false);
+    }
+
+    @Override
+    public long removeScoredEntries(final String key, final Collection<String> members) {
+        if (members.isEmpty()) {
+            return 0L;
+        }
+        return call("ZREM " + key, c -> c.zrem(key, members.toArray(String[]::new)),
+                removed -> removed == null ? 0L : removed, 0L);
     }
 
     @Override
@@ -250,7 +397,7 @@ public final class ValkeyCacheClient implements CacheClient {
         final Range<String> range = Range.from(
                 Range.Boundary.including(prefix), Range.Boundary.including(prefix + Character.MAX_VALUE));
         final Limit lim = (limit > 0) ? Limit.create(0, limit) : Limit.unlimited();
-        return await("ZRANGEBYLEX " + key, commands().zrangebylex(key, range, lim), Function.identity(), List.of());
+        return call("ZRANGEBYLEX " + key, c -> c.zrangebylex(key, range, lim), Function.identity(), List.of());
     }
 
     @Override
@@ -258,10 +405,22 @@ public final class ValkeyCacheClient implements CacheClient {
         if (memberScores.isEmpty()) {
             return true;
         }
-        final ScoredValue<String>[] scored = memberScores.entrySet().stream()
+        return call("ZADD(scored) " + key, c -> c.zadd(key, scored(memberScores)), ignored -> true, false);
+    }
+
+    /** Lexicographic index entries all carry score 0, so ZRANGEBYLEX orders them as plain strings. */
+    @SuppressWarnings("unchecked")
+    private static ScoredValue<String>[] lexScored(final Collection<String> entries) {
+        return entries.stream()
+                .map(entry -> ScoredValue.just(0.0d, entry))
+                .toArray(ScoredValue[]::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ScoredValue<String>[] scored(final Map<String, Double> memberScores) {
+        return memberScores.entrySet().stream()
                 .map(e -> ScoredValue.just(e.getValue(), e.getKey()))
                 .toArray(ScoredValue[]::new);
-        return await("ZADD(scored) " + key, commands().zadd(key, scored), ignored -> true, false);
     }
 
     @Override
@@ -269,10 +428,9 @@ public final class ValkeyCacheClient implements CacheClient {
             final String key, final double minScore, final double maxScore, final boolean reverse, final int limit) {
         final Range<Double> range = Range.from(scoreBoundary(minScore, true), scoreBoundary(maxScore, false));
         final Limit lim = (limit > 0) ? Limit.create(0, limit) : Limit.unlimited();
-        final RedisFuture<List<String>> future = reverse
-                ? commands().zrevrangebyscore(key, range, lim)
-                : commands().zrangebyscore(key, range, lim);
-        return await((reverse ? "ZREVRANGEBYSCORE " : "ZRANGEBYSCORE ") + key, future, Function.identity(), List.of());
+        return call((reverse ? "ZREVRANGEBYSCORE " : "ZRANGEBYSCORE ") + key,
+                c -> reverse ? c.zrevrangebyscore(key, range, lim) : c.zrangebyscore(key, range, lim),
+                Function.identity(), List.of());
     }
 
     private static Range.Boundary<Double> scoreBoundary(final double score, final boolean lower) {
@@ -284,22 +442,22 @@ public final class ValkeyCacheClient implements CacheClient {
 
     @Override
     public boolean removeSetMember(final String key, final String member) {
-        return await("SREM " + key, commands().srem(key, member), ignored -> true, false);
+        return call("SREM " + key, c -> c.srem(key, member), ignored -> true, false);
     }
 
     @Override
     public Set<String> getSetMembers(final String key) {
-        return await("SMEMBERS " + key, commands().smembers(key), Function.identity(), Set.of());
+        return call("SMEMBERS " + key, c -> c.smembers(key), Function.identity(), Set.of());
     }
 
     @Override
     public boolean expire(final String key, final Duration ttl) {
-        return await("EXPIRE " + key, commands().expire(key, ttl.toSeconds()), ignored -> true, false);
+        return call("EXPIRE " + key, c -> c.expire(key, ttl.toSeconds()), ignored -> true, false);
     }
 
     @Override
     public Optional<Long> increment(final String key, final long delta, final Duration ttl) {
-        return await("INCRBY " + key, commands().incrby(key, delta),
+        return call("INCRBY " + key, c -> c.incrby(key, delta),
                 value -> countedWithTtl(key, delta, ttl, value),
                 Optional.empty());
     }
@@ -314,7 +472,7 @@ public final class ValkeyCacheClient implements CacheClient {
             // Fire and forget, but observed: an unhandled failure here must not surface as an exception on the
             // caller's future -- the counter itself already succeeded, and a missing TTL costs memory hygiene,
             // not correctness.
-            commands().expire(key, ttl.toSeconds()).exceptionally(ex -> logTtlFailure(key, ex));
+            lane().commands.expire(key, ttl.toSeconds()).exceptionally(ex -> logTtlFailure(key, ex));
         }
         return Optional.ofNullable(value);
     }
@@ -330,8 +488,8 @@ public final class ValkeyCacheClient implements CacheClient {
             return true;
         }
         // Keep the highest-ranked (newest by score) maxSize members; drop the oldest.
-        return await("ZREMRANGEBYRANK " + key,
-                commands().zremrangebyrank(key, 0, -(maxSize + 1L)),
+        return call("ZREMRANGEBYRANK " + key,
+                c -> c.zremrangebyrank(key, 0, -(maxSize + 1L)),
                 ignored -> true,
                 false);
     }
@@ -339,8 +497,8 @@ public final class ValkeyCacheClient implements CacheClient {
     @Override
     public boolean tryAcquireLock(final String key, final Duration ttl) {
         final long seconds = Math.max(1L, ttl == null ? 5L : ttl.toSeconds());
-        return await("SET NX EX " + key,
-                commands().set(key, "1", SetArgs.Builder.nx().ex(seconds)),
+        return call("SET(NX EX) " + key,
+                c -> c.set(key, "1", SetArgs.Builder.nx().ex(seconds)),
                 "OK"::equals,
                 false);
     }
@@ -350,6 +508,37 @@ public final class ValkeyCacheClient implements CacheClient {
         return removeKey(key);
     }
 
+    @Override
+    public boolean tryAcquireLock(final String key, final String owner, final Duration ttl) {
+        final long millis = Math.max(1L, ttl == null ? 5_000L : ttl.toMillis());
+        return call("SET(NX PX) " + key,
+                c -> c.set(key, owner, SetArgs.Builder.nx().px(millis)),
+                "OK"::equals,
+                false);
+    }
+
+    @Override
+    public boolean extendLock(final String key, final String owner, final Duration ttl) {
+        final long millis = Math.max(1L, ttl == null ? 5_000L : ttl.toMillis());
+        return ifOwner("PEXPIRE(owner) " + key, EXTEND_IF_OWNER, key, owner, String.valueOf(millis));
+    }
+
+    @Override
+    public boolean releaseLock(final String key, final String owner) {
+        return ifOwner("DEL(owner) " + key, RELEASE_IF_OWNER, key, owner);
+    }
+
+    /**
+     * One compare-and-act on a lock. Plain {@code EVAL}, not {@link #runScript}: the source is a few dozen bytes,
+     * and a lock hand-off must never be parked behind a misbehaving chat script the way optional scripts are.
+     */
+    private boolean ifOwner(final String op, final String source, final String key, final String... args) {
+        return call(op,
+                c -> c.<Long>eval(source, ScriptOutputType.INTEGER, new String[] {key}, args),
+                done -> done != null && done == 1L,
+                false);
+    }
+
     @Override
     public boolean clearNamespace(final String prefix) {
         // Admin/test path only: SCAN (never KEYS -- restricted on ElastiCache Serverless) + UNLINK, blocking
@@ -358,18 +547,19 @@ public final class ValkeyCacheClient implements CacheClient {
     }
 
     private boolean scanAndUnlink(final String prefix) {
+        final RedisClusterAsyncCommands<String, String> commands = lane().commands;
         try {
             final ScanArgs args = ScanArgs.Builder.matches(prefix + "*").limit(SCAN_BATCH);
-            KeyScanCursor<String> cursor = commands().scan(args).get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            KeyScanCursor<String> cursor = commands.scan(args).get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             while (true) {
                 if (!cursor.getKeys().isEmpty()) {
-                    commands().unlink(cursor.getKeys().toArray(String[]::new))
+                    commands.unlink(cursor.getKeys().toArray(String[]::new))
                             .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
                 }
                 if (cursor.isFinished()) {
                     return true;
                 }
-                cursor = commands().scan(cursor, args).get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                cursor = commands.scan(cursor, args).get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
             }
         } catch (final Exception ex) {
             log.error("Valkey clearNamespace('{}') failed", prefix, ex);
@@ -377,6 +567,129 @@ public final class ValkeyCacheClient implements CacheClient {
         }
     }
 
+    /**
+     * The pipeline: every command is dispatched on the lane's connection before any is awaited, so Lettuce
+     * writes them back-to-back and the whole batch costs one round trip. Deliberately NOT
+     * {@code setAutoFlushCommands(false)}: that switch is connection-wide, and these connections are shared by
+     * every virtual thread in the JVM. Each result then maps through the ordinary {@link #await}, so one failed
+     * command is {@code false} in its own slot and nothing more.
+     */
+    @Override
+    public List<Boolean> executeBatch(final List<CacheBatch.Command> batch) {
+        final Lane lane = lane();
+        final long started = lane.begin();
+        try {
+            return pipelined(lane.commands, batch);
+        } finally {
+            finish("BATCH", lane, started);
+        }
+    }
+
+    private static List<Boolean> pipelined(final RedisClusterAsyncCommands<String, String> lane,
+            final List<CacheBatch.Command> batch) {
+        final List<RedisFuture<?>> futures = new ArrayList<>(batch.size());
+        final boolean[] refused = new boolean[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.add(dispatch(lane, batch.get(i)));
+            } catch (final RuntimeException ex) {
+                // Refused before it reached the wire (e.g. a null argument): this slot fails, the rest still go.
+                log.error("Valkey batch {} could not be issued: {}", describe(batch.get(i)), ex.toString());
+                refused[i] = true;
+                futures.add(null);
+            }
+        }
+        final List<Boolean> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            results.add(!refused[i] && awaitBatched(batch.get(i), futures.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Issues one batched command without awaiting it. Null means "nothing to send" (an empty entry list, a
+     * non-positive trim), which the single-command methods also answer as success.
+     */
+    private static RedisFuture<?> dispatch(
+            final RedisClusterAsyncCommands<String, String> lane, final CacheBatch.Command command) {
+        return switch (command) {
+            case CacheBatch.PutValue c -> hasTtl(c.ttl())
+                    ? lane.setex(c.key(), c.ttl().toSeconds(), c.value())
+                    : lane.set(c.key(), c.value());
+            case CacheBatch.RemoveKey c -> lane.unlink(c.key());
+            case CacheBatch.PutHashField c -> lane.hset(c.key(), c.field(), c.value());
+            case CacheBatch.PutHashFields c -> c.fields().isEmpty() ? null : lane.hset(c.key(), c.fields());
+            case CacheBatch.RemoveHashField c -> lane.hdel(c.key(), c.field());
+            case CacheBatch.AddSortedSetEntries c -> c.entries().isEmpty() ? null
+                    : lane.zadd(c.key(), lexScored(c.entries()));
+            case CacheBatch.RemoveSortedSetEntries c -> c.entries().isEmpty() ? null
+                    : lane.zrem(c.key(), c.entries().toArray(String[]::new));
+            case CacheBatch.AddScoredEntries c -> c.memberScores().isEmpty() ? null
+                    : lane.zadd(c.key(), scored(c.memberScores()));
+            case CacheBatch.TrimSortedSet c -> c.maxSize() <= 0 ? null
+                    : lane.zremrangebyrank(c.key(), 0, -(c.maxSize() + 1L));
+            case CacheBatch.Expire c -> lane.expire(c.key(), c.ttl().toSeconds());
+            case CacheBatch.Increment c -> lane.incrby(c.key(), c.delta());
+        };
+    }
+
+    private static boolean awaitBatched(final CacheBatch.Command command, final RedisFuture<?> future) {
+        if (future == null) {
+            return true;
+        }
+        // SET answers "OK"; every other batched command counts as done once it completes at all.
+        final boolean expectsOk = command instanceof CacheBatch.PutValue;
+        return await(describe(command), future, value -> !expectsOk || "OK".equals(value), false);
+    }
+
+    private static String describe(final CacheBatch.Command command) {
+        return "batch " + command.getClass().getSimpleName() + " " + command.key();
+    }
+
+    /**
+     * {@code EVALSHA}, and on {@code NOSCRIPT} (a node that never saw the script, a failover, a SCRIPT FLUSH)
+     * one {@code EVAL} that both answers and re-caches it -- chained on the same lane, so the retry costs a
+     * second round trip only that once. Any other server error parks scripting for
+     * {@value #SCRIPT_PARK_MILLIS}ms; timeouts and queue overflow do not, they are ordinary fail-open misses.
+     */
+    @Override
+    public Optional<List<Object>> runScript(final CacheScript script, final List<String> keys,
+            final List<String> args) {
+        if (System.currentTimeMillis() < scriptsParkedUntil) {
+            return Optional.empty();
+        }
+        final String[] keyArray = keys.toArray(String[]::new);
+        final String[] argArray = args.toArray(String[]::new);
+        return call("EVALSHA " + script.name(), lane -> evalsha(lane, script, keyArray, argArray),
+                Optional::of, Optional.empty());
+    }
+
+    private CompletableFuture<List<Object>> evalsha(final RedisClusterAsyncCommands<String, String> lane,
+            final CacheScript script, final String[] keyArray, final String[] argArray) {
+        return lane
+                .<List<Object>>evalsha(script.sha(), ScriptOutputType.MULTI, keyArray, argArray)
+                .toCompletableFuture()
+                .exceptionallyCompose(ex -> unwrap(ex) instanceof RedisNoScriptException
+                        ? lane.<List<Object>>eval(script.source(), ScriptOutputType.MULTI, keyArray, argArray)
+                                .toCompletableFuture()
+                        : CompletableFuture.failedFuture(unwrap(ex)))
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null && unwrap(ex) instanceof RedisCommandExecutionException) {
+                        scriptsParkedUntil = System.currentTimeMillis() + SCRIPT_PARK_MILLIS;
+                        log.warn("Valkey script {} failed on the server ({}); multi-command fallback for {}s",
+                                script.name(), unwrap(ex).getMessage(), SCRIPT_PARK_MILLIS / 1000);
+                    }
+                });
+    }
+
+    private static Throwable unwrap(final Throwable ex) {
+        return ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+    }
+
+    private static boolean hasTtl(final Duration ttl) {
+        return ttl != null && !ttl.isZero() && !ttl.isNegative();
+    }
+
     @Override
     public boolean publish(final String channel, final String payload) {
         // Regular PUBLISH, deliberately NOT sharded SPUBLISH. Sharded hashes the channel to a slot and delivers
@@ -385,7 +698,7 @@ public final class ValkeyCacheClient implements CacheClient {
         // message-loss bug nobody can reproduce. Regular PUBLISH broadcasts to every node, so cross-shard
         // delivery is correct by construction with no dependency on routing or topology refresh. The saving from
         // sharded fan-out is unmeasurable at one small nudge per message.
-        return await("PUBLISH " + channel, commands().publish(channel, payload), received -> true, false);
+        return call("PUBLISH " + channel, c -> c.publish(channel, payload), received -> true, false);
     }
 
     @Override
@@ -438,8 +751,8 @@ public final class ValkeyCacheClient implements CacheClient {
 
     @Override
     public void close() {
-        closeQuietly(fgConnection);
-        closeQuietly(bgConnection);
+        foreground.forEach(lane -> closeQuietly(lane.connection));
+        closeQuietly(background.connection);
         closeQuietly(fgClient);
         closeQuietly(bgClient);
     }
@@ -459,7 +772,7 @@ public final class ValkeyCacheClient implements CacheClient {
      * a parked thread (the future is cancelled and the interrupt flag restored). Every failure maps to the
      * caller-supplied fallback -- cache trouble degrades the feature, never the request.
      */
-    private static <T, R> R await(final String op, final RedisFuture<T> future,
+    private static <T, R> R await(final String op, final Future<T> future,
             final Function<T, R> mapper, final R fallback) {
         final T value;
         try {
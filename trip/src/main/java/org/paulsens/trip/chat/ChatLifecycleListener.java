@@ -6,9 +6,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.action.ChatPhotos;
 import org.paulsens.trip.action.MediaEvents;
 import org.paulsens.trip.action.PhotoChatCommands;
+import org.paulsens.trip.mail.MailSpool;
 
 /**
- * Starts and stops the chat digest scheduler with the webapp.
+ * Starts and stops the chat digest scheduler with the webapp -- and the mail spool's poll, which lives here rather
+ * than in a listener of its own because a new listener means a {@code web.xml} entry, and this one is already
+ * declared.
  *
  * <p>Declared by hand in {@code web.xml}, not annotated: {@code metadata-complete="true"} means
  * {@code @WebListener} is ignored outright, which fails silently — the listener simply never runs and nobody ever
@@ -28,6 +31,12 @@ public class ChatLifecycleListener implements ServletContextListener {
         } catch (final RuntimeException ex) {
             log.error("Unable to start the chat digest scheduler; digests will not be sent", ex);
         }
+        try {
+            MailSpool.start();
+        } catch (final RuntimeException ex) {
+            // New jobs still drain as they are queued; only leftovers from a restart wait for the next one.
+            log.error("Unable to start the mail spool poll", ex);
+        }
         // A removed chat photo takes its comment thread with it, whichever path removed it (message
         // moderation or the admin media page) — both fire the REMOVED media event.
         MediaEvents.onPrefix(ChatPhotos.KEY_PREFIX, PhotoChatCommands::onMediaChange);
@@ -40,5 +49,10 @@ public class ChatLifecycleListener implements ServletContextListener {
         } catch (final RuntimeException ex) {
             log.warn("Unable to stop the chat digest scheduler cleanly", ex);
         }
+        try {
+            MailSpool.stop();
+        } catch (final RuntimeException ex) {
+            log.warn("Unable to stop the mail spool cleanly", ex);
+        }
     }
 }
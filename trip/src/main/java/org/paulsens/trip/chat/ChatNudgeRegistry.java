@@ -2,12 +2,19 @@ package org.paulsens.trip.chat;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.cache.CacheClient;
 import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.dynamo.DAO;
+import org.paulsens.trip.util.TripThreads;
 
 /**
  * Parked readers, keyed by channel, woken when that channel gets a nudge.
@@ -25,6 +32,14 @@ import org.paulsens.trip.dynamo.DAO;
  * late, a payload from another build -- costs latency only: the long-poll still rides its own timeout and the reader
  * still does the cursor read that is the actual source of truth. Nothing here is allowed to be load-bearing for
  * delivery.
+ *
+ * <p><b>A wake is coalesced and shares one read.</b> Every parked reader used to run its own cursor read on a nudge,
+ * so a send on a 200-person channel was 200 identical bursts of Valkey reads, and a burst of sends repeated that
+ * per send. The shared instance instead holds each channel's nudges for {@link #COALESCE_MILLIS}, then runs ONE
+ * {@link SharedRead#refresh} and wakes everyone once with the highest watermark seen. The readers still do their
+ * own cursor read -- the source of truth, with their own visibility -- which the refresh has made a local slice
+ * of a snapshot rather than a round trip. Every nudge {@link SharedRead#invalidate}s the channel on arrival, so
+ * no reader is ever served a snapshot older than a nudge this instance has seen.
  */
 @Slf4j
 public final class ChatNudgeRegistry {
@@ -38,13 +53,54 @@ public final class ChatNudgeRegistry {
         void wake(long upToMillis);
     }
 
+    /**
+     * The read one wake does on behalf of every reader it is about to wake. Implemented by the DAO; both calls
+     * must be cheap to skip and must not throw, though a throw is contained.
+     */
+    public interface SharedRead {
+        SharedRead NONE = new SharedRead() {
+            @Override
+            public void invalidate(final String channelId) {
+            }
+
+            @Override
+            public void refresh(final String channelId) {
+            }
+        };
+
+        /** A nudge arrived: nothing read before it may be served as the channel's current state. */
+        void invalidate(String channelId);
+
+        /** Read the channel once, now, for the readers about to be woken. */
+        void refresh(String channelId);
+    }
+
+    /** How long the shared instance holds a channel's first nudge for the rest of its burst. */
+    public static final long COALESCE_MILLIS = 20L;
+
     private static volatile ChatNudgeRegistry shared;
 
     private final CacheClient cacheClient;
+    private final SharedRead sharedRead;
+    private final long coalesceMillis;
+    private final Executor delayed;
     private final Map<String, Channel> channels = new ConcurrentHashMap<>();
 
+    /** Wakes on the pub/sub callback itself, with no window and no shared read: the behaviour tests pin. */
     public ChatNudgeRegistry(final CacheClient cacheClient) {
+        this(cacheClient, SharedRead.NONE, 0L);
+    }
+
+    /**
+     * @param coalesceMillis how long a channel's first nudge waits for the rest of its burst; 0 wakes on the
+     *     pub/sub callback at once
+     */
+    public ChatNudgeRegistry(final CacheClient cacheClient, final SharedRead sharedRead, final long coalesceMillis) {
         this.cacheClient = cacheClient;
+        this.sharedRead = sharedRead == null ? SharedRead.NONE : sharedRead;
+        this.coalesceMillis = Math.max(0L, coalesceMillis);
+        this.delayed = CompletableFuture.delayedExecutor(this.coalesceMillis, TimeUnit.MILLISECONDS,
+                TripThreads::start);
     }
 
     /** The process-wide registry. One per JVM so a subscription is shared by every reader of a channel. */
@@ -54,7 +110,8 @@ public final class ChatNudgeRegistry {
             synchronized (ChatNudgeRegistry.class) {
                 local = shared;
                 if (local == null) {
-                    local = new ChatNudgeRegistry(DAO.getInstance().getCacheClient());
+                    final DAO dao = DAO.getInstance();
+                    local = new ChatNudgeRegistry(dao.getCacheClient(), dao.getChatWakeReads(), COALESCE_MILLIS);
                     shared = local;
                 }
             }
@@ -110,12 +167,57 @@ public final class ChatNudgeRegistry {
             return;
         }
         final long upTo = ChatNudge.upTo(payload);
+        shareQuietly(channelId, false);
+        if (coalesceMillis == 0) {
+            fanOut(channelId, channel, upTo);
+            return;
+        }
+        channel.pendingUpTo.accumulateAndGet(upTo, Math::max);
+        // Only the nudge that finds no wake pending schedules one; the rest of the burst rides along.
+        if (channel.wakeScheduled.compareAndSet(false, true)) {
+            try {
+                delayed.execute(() -> coalescedWake(channelId, channel));
+            } catch (final RejectedExecutionException ex) {
+                channel.wakeScheduled.set(false);
+                fanOut(channelId, channel, channel.pendingUpTo.getAndSet(0L));
+            }
+        }
+    }
+
+    /**
+     * The scheduled wake. The flag is cleared BEFORE the watermark is taken, so a nudge landing during the
+     * fan-out schedules a wake of its own instead of being absorbed by one that has already read.
+     */
+    private void coalescedWake(final String channelId, final Channel channel) {
+        channel.wakeScheduled.set(false);
+        fanOut(channelId, channel, channel.pendingUpTo.getAndSet(0L));
+    }
+
+    private void fanOut(final String channelId, final Channel channel, final long upTo) {
         // Snapshot: a waiter's wake() closes its own handle, which mutates the list we are walking.
-        for (final Waiter waiter : List.copyOf(channel.waiters)) {
+        final List<Waiter> waiters = List.copyOf(channel.waiters);
+        if (waiters.isEmpty()) {
+            return;
+        }
+        shareQuietly(channelId, true);
+        for (final Waiter waiter : waiters) {
             wakeOne(channelId, waiter, upTo);
         }
     }
 
+    /** Best effort like everything else here: a failed shared read leaves each reader to read for itself. */
+    private void shareQuietly(final String channelId, final boolean refresh) {
+        try {
+            if (refresh) {
+                sharedRead.refresh(channelId);
+            } else {
+                sharedRead.invalidate(channelId);
+            }
+        } catch (final RuntimeException ex) {
+            log.warn("Shared chat wake read failed on channel {}", channelId, ex);
+        }
+    }
+
     private void wakeOne(final String channelId, final Waiter waiter, final long upTo) {
         try {
             waiter.wake(upTo);
@@ -134,6 +236,10 @@ public final class ChatNudgeRegistry {
     private void leave(final String channelId, final Waiter waiter) {
         // Still inside compute(), which is what makes this atomic against a concurrent park().
         channels.compute(channelId, (key, channel) -> withoutWaiter(key, channel, waiter));
+        if (!channels.containsKey(channelId)) {
+            // Unsubscribed: no nudge will invalidate a snapshot from here on, so none may outlive the last reader.
+            shareQuietly(channelId, false);
+        }
     }
 
     /** Returns the channel to keep, or {@code null} to drop it -- which also closes its subscription. */
@@ -162,6 +268,9 @@ public final class ChatNudgeRegistry {
 
     private static final class Channel {
         private final List<Waiter> waiters = new CopyOnWriteArrayList<>();
+        /** The highest watermark nudged since the last wake. */
+        private final AtomicLong pendingUpTo = new AtomicLong();
+        private final AtomicBoolean wakeScheduled = new AtomicBoolean();
         private AutoCloseable subscription;
     }
 }
@@ -0,0 +1,162 @@
+package org.paulsens.trip.chat;
+
+import java.util.List;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.cache.CacheClient;
+import org.paulsens.trip.cache.CacheScript;
+
+/**
+ * {@link ChatRateLimiter#check}'s whole decision as ONE server-side call: slow mode, the burst, sustained and
+ * global tiers, and -- on a hit -- the alarm gate and the auto-mute counters, which the multi-command path spends
+ * up to eight sequential round trips on. A busy group moment is exactly when every sender pays them, so the send
+ * path now waits on one.
+ *
+ * <p>Fixed windows make the same decisions as the multi-command path, counter for counter and key for key, so
+ * the two can alternate (a script parked after a server error, a failover) without anyone gaining an allowance.
+ * The smoothed mode ({@code chat.limits.smooth}) is GCRA instead: each tier keeps the theoretical arrival time
+ * of the next send, a denied send consumes nothing, and the retry-after is exact rather than half a window. It
+ * exists only here; without the script the limiter counts windows.
+ *
+ * <p>What the verdict means -- the audit records, the mute length from the configured ladder -- stays in Java.
+ * The script only counts and answers, so policy cannot drift between the two paths.
+ *
+ * <p>All seven keys carry {@link org.paulsens.trip.cache.CacheKeys#chatPersonTag} so they share a cluster slot.
+ */
+@Slf4j
+final class ChatRateLimitScript {
+
+    static final int ALLOWED = 0;
+    static final int SLOW_MODE = 1;
+    static final int BURST = 2;
+    static final int SUSTAINED = 3;
+    static final int GLOBAL = 4;
+
+    /**
+     * KEYS: slow mode, burst, sustained, global, auto-mute hits, auto-mute tier, alarm gate.
+     * ARGV: slow-mode seconds; burst, sustained and global limit and window; trigger count and window; tier
+     * decay seconds; alarm dedupe seconds; "1" for GCRA; now in epoch millis.
+     * Reply: {verdict, count, limit, window, retry-after seconds, alarm (0/1), new auto-mute tier or 0}.
+     */
+    static final CacheScript SCRIPT = CacheScript.of("chat-rate-limit", """
+            local now = tonumber(ARGV[13])
+            local slow = tonumber(ARGV[1])
+            if slow > 0 then
+              if redis.call('EXISTS', KEYS[1]) == 1 then
+                local left = tonumber(redis.call('TTL', KEYS[1]))
+                if left < 1 then left = slow end
+                return {1, 0, 0, 0, left, 0, 0}
+              end
+              redis.call('SET', KEYS[1], '1', 'EX', slow)
+            end
+            local function hit(verdict, count, limit, window, retry)
+              local alarm = 0
+              if redis.call('EXISTS', KEYS[7]) == 0 then
+                redis.call('SET', KEYS[7], '1', 'EX', ARGV[11])
+                alarm = 1
+              end
+              local hits = redis.call('INCR', KEYS[5])
+              if hits == 1 then redis.call('EXPIRE', KEYS[5], 2 * tonumber(ARGV[9])) end
+              local tier = 0
+              if hits >= tonumber(ARGV[8]) then
+                redis.call('DEL', KEYS[5])
+                tier = redis.call('INCR', KEYS[6])
+                if tier == 1 then redis.call('EXPIRE', KEYS[6], ARGV[10]) end
+              end
+              return {verdict, count, limit, window, retry, alarm, tier}
+            end
+            if ARGV[12] ~= '1' then
+              for i = 0, 2 do
+                local limit = tonumber(ARGV[2 + 2 * i])
+                local window = tonumber(ARGV[3 + 2 * i])
+                local n = redis.call('INCR', KEYS[2 + i])
+                if n == 1 then redis.call('EXPIRE', KEYS[2 + i], 2 * window) end
+                if n > limit then
+                  return hit(2 + i, n, limit, window, math.max(1, math.floor(window / 2)))
+                end
+              end
+              return {0, 0, 0, 0, 0, 0, 0}
+            end
+            local tats = {}
+            for i = 0, 2 do
+              local limit = tonumber(ARGV[2 + 2 * i])
+              local window = tonumber(ARGV[3 + 2 * i])
+              local span = window * 1000
+              local step = math.max(1, math.floor(span / limit))
+              local tat = tonumber(redis.call('GET', KEYS[2 + i]) or now)
+              if tat < now then tat = now end
+              local allowAt = tat + step - span
+              if allowAt > now then
+                return hit(2 + i, math.ceil((tat + step - now) / step), limit, window,
+                  math.max(1, math.ceil((allowAt - now) / 1000)))
+              end
+              tats[i + 1] = tat + step
+            end
+            for i = 0, 2 do
+              redis.call('SET', KEYS[2 + i], string.format('%.0f', tats[i + 1]), 'PX',
+                string.format('%.0f', math.max(1, tats[i + 1] - now)))
+            end
+            return {0, 0, 0, 0, 0, 0, 0}
+            """);
+
+    /**
+     * The script's answer.
+     *
+     * @param verdict  {@link #ALLOWED}, {@link #SLOW_MODE}, or the tier that was hit
+     * @param alarm    this hit won the alarm gate: the caller writes the {@code ALARM} record
+     * @param muteTier non-zero when this hit earned an auto-mute, at that escalation tier
+     */
+    record Verdict(int verdict, long count, int limit, int windowSeconds, int retryAfterSeconds, boolean alarm,
+            int muteTier) {
+    }
+
+    /** Everything the decision depends on: the keys, then the settings read for this check. */
+    record Request(List<String> keys, int slowModeSeconds, int burstLimit, int burstWindowSeconds,
+            int sustainedLimit, int sustainedWindowSeconds, int globalLimit, int globalWindowSeconds,
+            int triggerCount, int triggerWindowSeconds, long tierDecaySeconds, int alarmDedupeSeconds,
+            boolean smooth, long nowMillis) {
+    }
+
+    /** The verdict, or empty when scripting gave no usable answer and the caller must use its fallback. */
+    static Optional<Verdict> run(final CacheClient cache, final Request request) {
+        final List<String> args = List.of(
+                Integer.toString(request.slowModeSeconds()),
+                Integer.toString(Math.max(1, request.burstLimit())),
+                Integer.toString(Math.max(1, request.burstWindowSeconds())),
+                Integer.toString(Math.max(1, request.sustainedLimit())),
+                Integer.toString(Math.max(1, request.sustainedWindowSeconds())),
+                Integer.toString(Math.max(1, request.globalLimit())),
+                Integer.toString(Math.max(1, request.globalWindowSeconds())),
+                Integer.toString(request.triggerCount()),
+                Integer.toString(request.triggerWindowSeconds()),
+                Long.toString(request.tierDecaySeconds()),
+                Integer.toString(request.alarmDedupeSeconds()),
+                request.smooth() ? "1" : "0",
+                Long.toString(request.nowMillis()));
+        return cache.runScript(SCRIPT, request.keys(), args).flatMap(ChatRateLimitScript::parse);
+    }
+
+    static Optional<Verdict> parse(final List<Object> reply) {
+        if (reply == null || reply.size() != 7) {
+            log.warn("Unexpected chat-rate-limit script reply {}; using the multi-command path", reply);
+            return Optional.empty();
+        }
+        final long[] values = new long[7];
+        for (int i = 0; i < values.length; i++) {
+            if (!(reply.get(i) instanceof Number number)) {
+                log.warn("Unexpected chat-rate-limit script reply {}; using the multi-command path", reply);
+                return Optional.empty();
+            }
+            values[i] = number.longValue();
+        }
+        if (values[0] < ALLOWED || values[0] > GLOBAL) {
+            log.warn("Unknown chat-rate-limit verdict {}; using the multi-command path", values[0]);
+            return Optional.empty();
+        }
+        return Optional.of(new Verdict((int) values[0], values[1], (int) values[2], (int) values[3],
+                (int) values[4], values[5] == 1L, (int) values[6]));
+    }
+
+    private ChatRateLimitScript() {
+    }
+}
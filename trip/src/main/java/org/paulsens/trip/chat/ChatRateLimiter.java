@@ -2,6 +2,7 @@ package org.paulsens.trip.chat;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -24,6 +25,11 @@ import org.paulsens.trip.model.chat.ChatSettings;
  * Two-tier fixed-window rate limits (burst + sustained) plus a global per-user tier, with slow mode and an
  * escalating auto-mute on top.
  *
+ * <p><b>One round trip.</b> The whole decision -- every tier, slow mode, and on a hit the alarm gate and the
+ * auto-mute counters -- is one server-side script ({@link ChatRateLimitScript}), which can also smooth the limits
+ * (GCRA) instead of counting fixed windows. Where scripting is unavailable (local mode, a parked script, a cache
+ * outage) the same decision is made with one command at a time, below.
+ *
  * <p><b>This class holds no per-user state.</b> Every counter — the three limit windows, the auto-mute hit count
  * and the escalation tier — lives in the shared cache with the window length in the key, so it is correct across
  * tasks and cannot be reset by constructing a new instance. That matters twice over: the bean is rebuilt per
@@ -104,6 +110,15 @@ public class ChatRateLimiter {
         return config.getInt(KnownSettings.CHAT_AUTO_MUTE_TRIGGER_WINDOW_SECONDS, 1, Integer.MAX_VALUE);
     }
 
+    private boolean smoothLimits() {
+        return config.getBoolean(KnownSettings.CHAT_SMOOTH_LIMITS);
+    }
+
+    private long tierDecaySeconds() {
+        return Duration.ofHours(config.getInt(
+                KnownSettings.CHAT_AUTO_MUTE_TIER_DECAY_HOURS, 1, Integer.MAX_VALUE)).toSeconds();
+    }
+
     private int alarmDedupeWindowSeconds() {
         return config.getInt(KnownSettings.CHAT_ALARM_DEDUPE_WINDOW_SECONDS, 1, Integer.MAX_VALUE);
     }
@@ -145,6 +160,77 @@ public class ChatRateLimiter {
         }
         final ChatSettings settings = channel.getSettings() == null
                 ? ChatSettings.defaults() : channel.getSettings();
+        final Optional<ChatRateLimitScript.Verdict> verdict = ChatRateLimitScript.run(cacheClient,
+                scriptRequest(channel, personId, now, settings));
+        if (verdict.isPresent()) {
+            return decide(channel, personId, now, verdict.get());
+        }
+        return checkCommandByCommand(channel, personId, now, settings);
+    }
+
+    private ChatRateLimitScript.Request scriptRequest(
+            final ChatChannel channel, final Person.Id personId, final Instant now, final ChatSettings settings) {
+        final String channelId = channel.getId().getValue();
+        final String person = personId.getValue();
+        final long epochSec = now.getEpochSecond();
+        final boolean smooth = smoothLimits();
+        final int gWindow = globalWindowSeconds();
+        final int triggerWindow = autoMuteTriggerWindowSeconds();
+        final int dedupeWindow = alarmDedupeWindowSeconds();
+        final List<String> keys = List.of(
+                CacheKeys.chatSlowModeKey(channelId, person),
+                limitKey(smooth, channelId, person, "b", settings.getBurstWindowSeconds(), epochSec),
+                limitKey(smooth, channelId, person, "s", settings.getSustainedWindowSeconds(), epochSec),
+                limitKey(smooth, null, person, "g", gWindow, epochSec),
+                CacheKeys.chatAutoMuteHitsKey(channelId, person, triggerWindow, epochSec),
+                CacheKeys.chatAutoMuteTierKey(channelId, person),
+                CacheKeys.chatAlarmLockKey(channelId, person, epochSec, dedupeWindow));
+        return new ChatRateLimitScript.Request(keys, settings.getSlowModeSeconds(),
+                settings.getBurstLimit(), settings.getBurstWindowSeconds(),
+                settings.getSustainedLimit(), settings.getSustainedWindowSeconds(),
+                globalLimit(), gWindow, autoMuteTriggerCount(), triggerWindow, tierDecaySeconds(), dedupeWindow,
+                smooth, now.toEpochMilli());
+    }
+
+    private static String limitKey(final boolean smooth, final String channelId, final String person,
+            final String tier, final int windowSeconds, final long epochSec) {
+        return smooth ? CacheKeys.chatRateLimitTatKey(channelId, person, tier, windowSeconds)
+                : CacheKeys.chatRateLimitKey(channelId, person, tier, windowSeconds, epochSec);
+    }
+
+    /** The script's verdict, with the audit records and the mute length it leaves to Java. */
+    private Decision decide(final ChatChannel channel, final Person.Id personId, final Instant now,
+            final ChatRateLimitScript.Verdict verdict) {
+        final String tier = switch (verdict.verdict()) {
+            case ChatRateLimitScript.ALLOWED -> null;
+            case ChatRateLimitScript.SLOW_MODE -> "slow_mode";
+            case ChatRateLimitScript.BURST -> "burst";
+            case ChatRateLimitScript.SUSTAINED -> "sustained";
+            default -> "global";
+        };
+        if (tier == null) {
+            return Decision.allow();
+        }
+        if (verdict.verdict() == ChatRateLimitScript.SLOW_MODE) {
+            return Decision.deny(tier, verdict.retryAfterSeconds());
+        }
+        final String channelId = channel.getId().getValue();
+        final String person = personId.getValue();
+        log.info("CHAT-RATE-LIMIT channel={} person={} tier={}", channelId, person, tier);
+        if (verdict.alarm()) {
+            logAlarm(channelId, person, tier, verdict.count(), verdict.limit());
+        }
+        final Instant autoMute = verdict.muteTier() > 0
+                ? autoMute(channelId, person, now, verdict.muteTier()) : null;
+        return Decision.deny(tier, verdict.retryAfterSeconds(), verdict.limit(), verdict.windowSeconds(), autoMute);
+    }
+
+    /**
+     * The same decision one command at a time, for when the script gives no answer. Always fixed windows: the
+     * smoothed mode needs the script's atomic read-decide-write, which separate commands cannot give it.
+     */
+    private Decision checkCommandByCommand(
+            final ChatChannel channel, final Person.Id personId, final Instant now, final ChatSettings settings) {
         final String channelId = channel.getId().getValue();
         final String person = personId.getValue();
         final long epochSec = now.getEpochSecond();
@@ -231,9 +317,13 @@ public class ChatRateLimiter {
         final boolean first = cacheClient.tryAcquireLock(
                 CacheKeys.chatAlarmLockKey(channelId, person, now.getEpochSecond(), dedupeWindow),
                 Duration.ofSeconds(dedupeWindow));
-        if (!first) {
-            return;
+        if (first) {
+            logAlarm(channelId, person, tier, count, limit);
         }
+    }
+
+    private static void logAlarm(
+            final String channelId, final String person, final String tier, final long count, final int limit) {
         Audit.log(Audit.builder(AuditAction.ALARM, AuditOutcome.FAILURE)
                 .actor(person, person)
                 .target(AuditEventBuilder.TARGET_CHAT_CHANNEL, channelId)
@@ -264,7 +354,14 @@ public class ChatRateLimiter {
         // instead of requiring a fresh set of offences per step.
         cacheClient.removeKey(hitsKey);
         FALLBACK_BUCKETS.remove(hitsKey);
-        final int tier = nextTier(channelId, person);
+        return Optional.of(autoMute(channelId, person, now, nextTier(channelId, person)));
+    }
+
+    /**
+     * Applies escalation tier {@code tier}: its length from the configured ladder, and the two audit records.
+     * Returns the instant the caller must persist.
+     */
+    private Instant autoMute(final String channelId, final String person, final Instant now, final int tier) {
         final int[] ladder = autoMuteLadder();
         final int minutes = ladder[Math.min(tier, ladder.length) - 1];
         final Instant until = now.plus(Duration.ofMinutes(minutes));
@@ -281,7 +378,7 @@ public class ChatRateLimiter {
                 .message("automatic mute applied to " + person + "; tier=" + tier
                         + " duration=" + minutes + "m")
                 .build());
-        return Optional.of(until);
+        return until;
     }
 
     /**
@@ -291,9 +388,7 @@ public class ChatRateLimiter {
      */
     private int nextTier(final String channelId, final String person) {
         return cacheClient.increment(
-                        CacheKeys.chatAutoMuteTierKey(channelId, person), 1,
-                        Duration.ofHours(config.getInt(
-                                KnownSettings.CHAT_AUTO_MUTE_TIER_DECAY_HOURS, 1, Integer.MAX_VALUE)))
+                        CacheKeys.chatAutoMuteTierKey(channelId, person), 1, Duration.ofSeconds(tierDecaySeconds()))
                 .map(Long::intValue)
                 .orElse(1);
     }
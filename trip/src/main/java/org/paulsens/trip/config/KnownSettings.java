@@ -116,6 +116,13 @@ public final class KnownSettings {
             "The window the limit above is counted over. Changing it starts a fresh count rather than "
                     + "reinterpreting the one in progress.");
 
+    public static final SettingDef CHAT_SMOOTH_LIMITS = new SettingDef(
+            "chat.limits.smooth", Config.Type.BOOLEAN, "false", "Smooth the limits",
+            "Off, each limit counts messages in fixed windows, so someone can send a full allowance at the end of "
+                    + "one window and another at the start of the next. On, the same limits are spread evenly "
+                    + "(GCRA): the allowance still comes as a burst, then one message per share of the window. "
+                    + "Applies only while the cache is reachable; the degraded fallback always counts windows.");
+
     public static final SettingDef CHAT_EDIT_WINDOW_MINUTES = new SettingDef(
             "chat.edit.windowMinutes", Config.Type.INT, "15", "Author edit window (minutes)",
             "How long someone may correct their own message. Short on purpose: an edit rewrites what others "
@@ -367,12 +374,20 @@ public final class KnownSettings {
                     + "-Dtrip.cache.near.ttlSeconds sysprop pins this against the settings table entirely.");
 
     public static final SettingDef CACHE_NEAR_CHECK_SECONDS = new SettingDef(
-            "cache.near.checkSeconds", Config.Type.INT, "300", "Near-cache health-check interval (seconds)",
+            "cache.near.checkSeconds", Config.Type.INT, "7200", "Near-cache health-check interval (seconds)",
             "On a near-cache hit whose last check is older than this, ONE background refresh re-reads the "
-                    + "shared cache and updates the entry; the request itself never waits. Since broadcast "
-                    + "invalidation covers deliberate out-of-band writes, this is the convergence bound only "
-                    + "for ordinary writes from OTHER JVMs (CLI tools with the cache configured, a second "
-                    + "instance) and for missed broadcasts.");
+                    + "shared cache and updates the entry; the request itself never waits. Writes from every "
+                    + "instance (and CLI tools with the cache configured) broadcast the keys they touched, so "
+                    + "this is only the convergence bound for a missed broadcast or a writer without the "
+                    + "cache -- hence hours. Shorter costs background Valkey reads on every hot key.");
+
+    public static final SettingDef CACHE_NEAR_MAX_MEGABYTES = new SettingDef(
+            "cache.near.maxMegabytes", Config.Type.INT, "64", "Near-cache size cap (MB)",
+            "Estimated heap the near-cache may hold. Past it, the least popular entries are evicted, and a "
+                    + "key read once only gets in by out-scoring one read often, so a burst of one-off reads "
+                    + "cannot flush the hot pages. 0 removes the cap. Lowering it evicts down on save; a "
+                    + "-Dtrip.cache.near.maxMegabytes sysprop pins it. The admin cache stats show hits, "
+                    + "misses and evictions for sizing.");
 
     private static final List<SettingSection> SECTIONS = List.of(
             new SettingSection("Site", null,
@@ -381,7 +396,7 @@ public final class KnownSettings {
                     "The in-JVM near-cache in front of the shared Valkey cache. Only reads whose call site "
                             + "declared Cached.YES (public/render paths) are served from it; auth, payments "
                             + "and editors always bypass it.",
-                    List.of(CACHE_NEAR_TTL_SECONDS, CACHE_NEAR_CHECK_SECONDS)),
+                    List.of(CACHE_NEAR_TTL_SECONDS, CACHE_NEAR_CHECK_SECONDS, CACHE_NEAR_MAX_MEGABYTES)),
             new SettingSection("Profile pictures", null,
                     List.of(PROFILE_BG_REMOVAL_ENABLED)),
             new SettingSection("Home page", null,
@@ -398,7 +413,8 @@ public final class KnownSettings {
             new SettingSection("Chat limits",
                     "Per-chat burst and sustained limits live on each trip's own Chat settings page. These are "
                             + "the site-wide ones.",
-                    List.of(CHAT_GLOBAL_LIMIT, CHAT_GLOBAL_WINDOW_SECONDS, CHAT_EDIT_WINDOW_MINUTES)),
+                    List.of(CHAT_GLOBAL_LIMIT, CHAT_GLOBAL_WINDOW_SECONDS, CHAT_SMOOTH_LIMITS,
+                            CHAT_EDIT_WINDOW_MINUTES)),
             new SettingSection("Chat moderation", null,
                     List.of(CHAT_AUTO_MUTE_TRIGGER_COUNT, CHAT_AUTO_MUTE_TRIGGER_WINDOW_SECONDS,
                             CHAT_AUTO_MUTE_LADDER_MINUTES, CHAT_AUTO_MUTE_TIER_DECAY_HOURS,
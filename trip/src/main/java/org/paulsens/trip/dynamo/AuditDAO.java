@@ -6,10 +6,17 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.model.AuditEvent;
 import org.paulsens.trip.model.AuditQuery;
@@ -25,17 +32,38 @@ import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedExce
  * request and read only when an admin opens the audit page. Caching it would spend memory and invalidation
  * traffic to speed up something nobody does, and a stale audit view is worse than a slow one.
  *
- * <p><b>Reading.</b> There are no secondary indexes, so ordering exists only within a day partition. A page is
- * assembled by querying today backwards, then the previous day, and so on, applying filters server-side, until
- * enough rows are collected. That walk is BOUNDED ({@link #MAX_DAYS_PER_PAGE}): a filter matching nothing --
- * say an actor who never did the thing being searched for -- would otherwise walk to the beginning of time on
- * every page. When the bound is hit the page says how far back it actually looked, so an empty result is
- * honestly "nothing in this window" rather than a silent "nothing, ever".
+ * <p><b>Reading.</b> Ordering exists only within a day partition. A page is assembled by querying today
+ * backwards, then the previous days, applying filters server-side, until enough rows are collected. That walk is
+ * BOUNDED ({@link #MAX_DAYS_PER_PAGE}): a filter matching nothing -- say an actor who never did the thing being
+ * searched for -- would otherwise walk to the beginning of time on every page. When the bound is hit the page
+ * says how far back it actually looked, so an empty result is honestly "nothing in this window" rather than a
+ * silent "nothing, ever".
+ *
+ * <p>The days are read in parallel rounds of 1, 2, 4, then {@value #PARALLEL_DAYS} at a time: the unfiltered
+ * newest page is usually filled by today alone and reads nothing extra, while a selective filter -- the one that
+ * used to wait out sixty queries back to back -- covers its window in about ten rounds. Days are appended newest
+ * first and the walk stops at the day that filled the page, so the page, its cursor and {@code searchedBackTo}
+ * are exactly what the one-day-at-a-time walk produced; days read past that point are discarded.
+ *
+ * <p><b>Search indexes (optional).</b> With {@code TRIP_AUDIT_INDEX_SINCE} set (a date, see {@link
+ * #indexedSince()}), every stored event is also written to two sparse tables -- {@value #ACTOR_INDEX_TABLE}
+ * (partition {@value #ACTOR_KEY}: each lower-cased actor and target email) and {@value #ACTION_INDEX_TABLE}
+ * (partition {@value #ACTION_KEY}: the action) -- keyed by the same {@value #SORT} and carrying the same content.
+ * A query filtering on a whole address or on an action then reads its matches from one partition instead of
+ * walking days. The date says from when the tables are complete (when writing started, or the backfill reached);
+ * a search continuing past it falls back to the walk. A whole address is taken to mean that person: unlike the
+ * walk's substring match it does not also find longer addresses that contain it.
  *
  * <p><b>Writing.</b> Conditionally, and never blocking a request thread (see {@code DynamoAuditSink}). The
  * condition is the point: the sort key is a bare millisecond, so two events in the same millisecond target the
  * same row, and an unconditional {@code PutItem} would not fail -- it would OVERWRITE, destroying a record.
  * A rejected write is retried one millisecond later.
+ *
+ * <p><b>Writing in batches.</b> The sink drains in batches ({@link #saveAuditEvents}), and there the
+ * millisecond is settled <em>before</em> the write: this JVM remembers the keys it has recently claimed and
+ * moves a colliding event to the next free millisecond up front, so a burst in one millisecond costs no
+ * rejected round trips. The condition stays -- another task can still claim the same millisecond -- and
+ * {@link Persistence#putItemsIfAbsent} reports exactly those items back, to be nudged and resubmitted.
  */
 @Slf4j
 public class AuditDAO {
@@ -52,19 +80,68 @@ public class AuditDAO {
      */
     static final int MAX_DAYS_PER_PAGE = 60;
 
+    /** The widest parallel round of the day walk. */
+    static final int PARALLEL_DAYS = 8;
+
+    static final String ACTOR_INDEX_TABLE = "audit_by_actor";
+    static final String ACTOR_KEY = "actor";
+    static final String ACTION_INDEX_TABLE = "audit_by_action";
+    static final String ACTION_KEY = "action";
+    static final String INDEX_SINCE_VAR = "TRIP_AUDIT_INDEX_SINCE";
+    static final String INDEX_SINCE_PROP = "trip.audit.index.since";
+    /** Rows per index read; a filtered page usually needs one. */
+    private static final int INDEX_PAGE = 100;
+    /** Rows per read of a streamed export: what one export holds in memory at a time. */
+    static final int EXPORT_SLICE = 500;
+
     /** How many times a colliding write is nudged forward before giving up. */
     private static final int MAX_WRITE_RETRIES = 10;
 
+    /** Events per conditional batch write. */
+    static final int WRITE_BATCH = 25;
+
+    /**
+     * Milliseconds this JVM has recently keyed an event under. Bounded: a claim old enough to have been evicted
+     * belongs to an event written long ago, and a late arrival landing on it is caught by the condition anyway.
+     */
+    private static final int CLAIMS_REMEMBERED = 4_096;
+
     /** Guards against walking past the start of recorded history. Shared with the model so the paging
      *  cursor ({@code AuditPage.nextCursor}) can tell "budget ran out" from "history ran out". */
     private static final LocalDate EARLIEST = org.paulsens.trip.model.AuditQuery.EARLIEST;
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<AuditEvent> auditEventJson;
     private final Persistence persistence;
+    private final LinkedHashSet<Long> claimedMillis = new LinkedHashSet<>();
+    /** The first day the search indexes are complete for; null when they are not kept. */
+    private final LocalDate indexedSince;
 
     protected AuditDAO(final ObjectMapper mapper, final Persistence persistence) {
-        this.mapper = mapper;
+        this(mapper, persistence, indexedSince());
+    }
+
+    AuditDAO(final ObjectMapper mapper, final Persistence persistence, final LocalDate indexedSince) {
+        this.auditEventJson = JsonCodec.of(mapper, AuditEvent.class);
         this.persistence = persistence;
+        this.indexedSince = indexedSince;
+    }
+
+    /**
+     * {@code TRIP_AUDIT_INDEX_SINCE} (or {@code -Dtrip.audit.index.since}): the day from which the search
+     * indexes hold every event. Setting it turns index writes on; unset or unparseable leaves them off.
+     */
+    static LocalDate indexedSince() {
+        final String raw = System.getProperty(INDEX_SINCE_PROP, System.getenv(INDEX_SINCE_VAR));
+        if (raw == null || raw.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(raw.trim());
+        } catch (final DateTimeParseException ex) {
+            log.warn("Ignoring {}={}: not a yyyy-MM-dd date, so the audit search indexes are off",
+                    INDEX_SINCE_VAR, raw);
+            return null;
+        }
     }
 
     /**
@@ -87,7 +164,7 @@ public class AuditDAO {
         item.put(SORT, persistence.toStrAttr(event.getSortKey()));
         final String json;
         try {
-            json = mapper.writeValueAsString(event);
+            json = auditEventJson.write(event);
         } catch (final IOException ex) {
             log.error("Unable to serialize audit event: {}", event, ex);
             return false;
@@ -95,13 +172,17 @@ public class AuditDAO {
         item.put(CONTENT, persistence.toStrAttr(json));
 
         try {
-            return 
+            final boolean stored =
                     persistence.putItem(b -> b.tableName(AUDIT_TABLE)
                                     .item(item)
                                     // The whole reason writes are conditional: without this, a same-millisecond
                                     // collision silently replaces an existing audit record instead of failing.
                                     .conditionExpression("attribute_not_exists(" + SORT + ")"))
                             .sdkHttpResponse().isSuccessful();
+            if (stored) {
+                writeIndexRows(List.of(event), List.of(item));
+            }
+            return stored;
         } catch (final RuntimeException ex) {
             if (isConditionalFailure(ex)) {
                 // Taken. Move one millisecond later, which keeps this record AFTER the one already
@@ -113,6 +194,154 @@ public class AuditDAO {
         }
     }
 
+    /**
+     * Stores many events, in conditional batches of {@value #WRITE_BATCH}, each keyed in-process first (see the
+     * class comment). An event whose key another writer took is nudged forward and resubmitted, up to the same
+     * {@value #MAX_WRITE_RETRIES} times as a single write.
+     *
+     * @return the events that did NOT reach the table, for the caller (the sink) to print; empty when all did.
+     */
+    protected List<AuditEvent> saveAuditEvents(final List<AuditEvent> events) {
+        final List<AuditEvent> unstored = new ArrayList<>();
+        for (int from = 0; from < events.size(); from += WRITE_BATCH) {
+            final List<AuditEvent> batch = new ArrayList<>();
+            for (final AuditEvent event : events.subList(from, Math.min(from + WRITE_BATCH, events.size()))) {
+                batch.add(claimKey(event));
+            }
+            saveBatch(batch, unstored);
+        }
+        return unstored;
+    }
+
+    private void saveBatch(final List<AuditEvent> batch, final List<AuditEvent> unstored) {
+        List<AuditEvent> pending = batch;
+        for (int attempt = 0; !pending.isEmpty(); attempt++) {
+            if (attempt >= MAX_WRITE_RETRIES) {
+                log.warn("{} audit records could not find a free key after {} attempts", pending.size(), attempt);
+                unstored.addAll(pending);
+                return;
+            }
+            final List<AuditEvent> writable = new ArrayList<>(pending.size());
+            final List<Map<String, AttributeValue>> items = new ArrayList<>(pending.size());
+            for (final AuditEvent event : pending) {
+                final Map<String, AttributeValue> item = toItem(event);
+                if (item == null) {
+                    unstored.add(event);
+                } else {
+                    writable.add(event);
+                    items.add(item);
+                }
+            }
+            final Set<Integer> taken;
+            try {
+                taken = persistence.putItemsIfAbsent(AUDIT_TABLE, SORT, items);
+            } catch (final RuntimeException ex) {
+                log.warn("Unable to store {} audit events (they remain in the log stream)", writable.size(), ex);
+                unstored.addAll(writable);
+                return;
+            }
+            final List<AuditEvent> retry = new ArrayList<>(taken.size());
+            final List<AuditEvent> stored = new ArrayList<>(writable.size());
+            final List<Map<String, AttributeValue>> storedItems = new ArrayList<>(writable.size());
+            for (int i = 0; i < writable.size(); i++) {
+                if (taken.contains(i)) {
+                    // Taken by another writer: move past it, as the single write does, and claim the new key too.
+                    retry.add(claimKey(writable.get(i).withNextMilli()));
+                } else {
+                    stored.add(writable.get(i));
+                    storedItems.add(items.get(i));
+                }
+            }
+            writeIndexRows(stored, storedItems);
+            pending = retry;
+        }
+    }
+
+    /**
+     * The search-index rows for events already in the main table, when the indexes are kept. The sort key is the
+     * stored one, so it is unique and the rows are written with the same condition; a key already present is an
+     * index row written before. A failure is logged and the event stays findable by the walk, not by a search
+     * within the index window.
+     */
+    private void writeIndexRows(final List<AuditEvent> events, final List<Map<String, AttributeValue>> items) {
+        if (indexedSince == null || events.isEmpty()) {
+            return;
+        }
+        final List<Map<String, AttributeValue>> byActor = new ArrayList<>();
+        final List<Map<String, AttributeValue>> byAction = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            final AuditEvent event = events.get(i);
+            final Map<String, AttributeValue> item = items.get(i);
+            for (final String address : actorKeys(event)) {
+                byActor.add(indexRow(ACTOR_KEY, address, item));
+            }
+            if (event.getAction() != null) {
+                byAction.add(indexRow(ACTION_KEY, event.getAction().name(), item));
+            }
+        }
+        for (final Map.Entry<String, List<Map<String, AttributeValue>>> rows
+                : Map.of(ACTOR_INDEX_TABLE, byActor, ACTION_INDEX_TABLE, byAction).entrySet()) {
+            try {
+                if (!rows.getValue().isEmpty()) {
+                    persistence.putItemsIfAbsent(rows.getKey(), SORT, rows.getValue());
+                }
+            } catch (final RuntimeException ex) {
+                log.warn("Unable to write {} {} rows for {} stored audit events",
+                        rows.getValue().size(), rows.getKey(), events.size(), ex);
+            }
+        }
+    }
+
+    /** The lower-cased actor and target addresses -- what an actor filter matches on -- without repeats. */
+    private static Set<String> actorKeys(final AuditEvent event) {
+        final Set<String> keys = new LinkedHashSet<>(2);
+        for (final String email : new String[] {event.getActorEmail(), event.getTargetEmail()}) {
+            if (email != null && !email.isBlank()) {
+                keys.add(email.strip().toLowerCase(Locale.ROOT));
+            }
+        }
+        return keys;
+    }
+
+    private static Map<String, AttributeValue> indexRow(
+            final String keyAttribute, final String key, final Map<String, AttributeValue> item) {
+        final Map<String, AttributeValue> row = new HashMap<>(4);
+        row.put(keyAttribute, AttributeValue.builder().s(key).build());
+        row.put(SORT, item.get(SORT));
+        row.put(CONTENT, item.get(CONTENT));
+        return row;
+    }
+
+    /** The event at the first millisecond, at or after its own, that this JVM has not keyed another event under. */
+    private AuditEvent claimKey(final AuditEvent event) {
+        final long wanted = event.getTimestamp().toEpochMilli();
+        long millis = wanted;
+        synchronized (claimedMillis) {
+            while (!claimedMillis.add(millis)) {
+                millis++;
+            }
+            if (claimedMillis.size() > CLAIMS_REMEMBERED) {
+                final Iterator<Long> oldest = claimedMillis.iterator();
+                oldest.next();
+                oldest.remove();
+            }
+        }
+        return millis == wanted ? event : event.withTimestamp(Instant.ofEpochMilli(millis));
+    }
+
+    private Map<String, AttributeValue> toItem(final AuditEvent event) {
+        final Map<String, AttributeValue> item = new HashMap<>();
+        item.put(PARTITION, persistence.toStrAttr(event.getPartition()));
+        item.put(SORT, persistence.toStrAttr(event.getSortKey()));
+        try {
+            item.put(CONTENT, persistence.toStrAttr(auditEventJson.write(event)));
+        } catch (final IOException ex) {
+            log.error("Unable to serialize audit event: {}", event, ex);
+            return null;
+        }
+        return item;
+    }
+
     private static boolean isConditionalFailure(final Throwable ex) {
         Throwable cause = ex;
         while (cause != null) {
@@ -134,26 +363,150 @@ public class AuditDAO {
         final LocalDate startDay = (query.getBefore() == null)
                 ? LocalDate.now(ZoneOffset.UTC)
                 : LocalDate.ofInstant(query.getBefore(), ZoneOffset.UTC);
-        return walkBackwards(query, startDay, new ArrayList<>(), 0, new java.util.concurrent.atomic.AtomicInteger());
+        final IndexLookup lookup = indexFor(query, startDay);
+        if (lookup != null) {
+            final AuditPage indexed = searchIndex(query, lookup);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        return walkBackwards(query, startDay, new ArrayList<>());
+    }
+
+    /** One day's matches, or the fact that the day could not be read. */
+    private record DayResult(List<AuditEvent> events, boolean failed) {
     }
 
-    private AuditPage walkBackwards(final AuditQuery query, final LocalDate day,
-            final List<AuditEvent> collected, final int daysExamined,
-            final java.util.concurrent.atomic.AtomicInteger failures) {
-        final boolean exhausted = daysExamined >= MAX_DAYS_PER_PAGE
+    private AuditPage walkBackwards(final AuditQuery query, final LocalDate startDay,
+            final List<AuditEvent> collected) {
+        LocalDate day = startDay;
+        int daysExamined = 0;
+        int failures = 0;
+        int round = 1;
+        while (collected.size() < query.getLimit() && !exhausted(query, day, daysExamined)) {
+            final List<LocalDate> days = new ArrayList<>(round);
+            for (LocalDate next = day; days.size() < round && !exhausted(query, next, daysExamined + days.size());
+                    next = next.minusDays(1)) {
+                days.add(next);
+            }
+            for (final DayResult result : queryDays(query, days)) {
+                collected.addAll(result.events());
+                failures += result.failed() ? 1 : 0;
+                day = day.minusDays(1);
+                daysExamined++;
+                if (collected.size() >= query.getLimit()) {
+                    break;
+                }
+            }
+            round = Math.min(round * 2, PARALLEL_DAYS);
+        }
+        final List<AuditEvent> page = collected.size() > query.getLimit()
+                ? new ArrayList<>(collected.subList(0, query.getLimit()))
+                : collected;
+        // "Searched back to" is the honest part: with a bounded walk, an empty page means "nothing in this
+        // window", and the caller must be able to tell that apart from "nothing at all".
+        return new AuditPage(page, day.plusDays(1), !exhausted(query, day, daysExamined), failures);
+    }
+
+    private static boolean exhausted(final AuditQuery query, final LocalDate day, final int daysExamined) {
+        return daysExamined >= MAX_DAYS_PER_PAGE
                 || day.isBefore(EARLIEST)
                 || (query.getSince() != null && day.isBefore(LocalDate.ofInstant(query.getSince(), ZoneOffset.UTC)));
-        if (collected.size() >= query.getLimit() || exhausted) {
-            final List<AuditEvent> page = collected.size() > query.getLimit()
-                    ? new ArrayList<>(collected.subList(0, query.getLimit()))
-                    : collected;
-            // "Searched back to" is the honest part: with a bounded walk, an empty page means "nothing in this
-            // window", and the caller must be able to tell that apart from "nothing at all".
-            return 
-                    new AuditPage(page, day.plusDays(1), !exhausted, failures.get());
+    }
+
+    /** The days' results in the order given, read concurrently when there is more than one. */
+    private List<DayResult> queryDays(final AuditQuery query, final List<LocalDate> days) {
+        if (days.size() == 1) {
+            return List.of(queryDay(query, days.get(0)));
+        }
+        try (var scope = StructuredTaskScope.open()) {
+            final List<StructuredTaskScope.Subtask<DayResult>> reads = new ArrayList<>(days.size());
+            for (final LocalDate day : days) {
+                reads.add(scope.fork(() -> queryDay(query, day)));
+            }
+            scope.join();
+            return reads.stream().map(StructuredTaskScope.Subtask::get).toList();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading audit partitions", ex);
         }
-        collected.addAll(queryDay(query, day, failures));
-        return walkBackwards(query, day.minusDays(1), collected, daysExamined + 1, failures);
+    }
+
+    /** Which index partition answers a query: the table, its key attribute, and the key. */
+    private record IndexLookup(String table, String keyAttribute, String key) {
+    }
+
+    /**
+     * The index for this query, or null: indexes off, no filter an index can answer, or a cursor older than the
+     * index. A whole address (it has an {@code @}) is more selective than an action, so it wins when both are set.
+     */
+    private IndexLookup indexFor(final AuditQuery query, final LocalDate startDay) {
+        if (indexedSince == null || startDay.isBefore(indexedSince)) {
+            return null;
+        }
+        final String actor = query.getActor() == null ? "" : query.getActor().strip().toLowerCase(Locale.ROOT);
+        if (actor.indexOf('@') > 0) {
+            return new IndexLookup(ACTOR_INDEX_TABLE, ACTOR_KEY, actor);
+        }
+        if (query.getAction() != null) {
+            return new IndexLookup(ACTION_INDEX_TABLE, ACTION_KEY, query.getAction().name());
+        }
+        return null;
+    }
+
+    /**
+     * A page from one index partition, newest first, read in slices of {@value #INDEX_PAGE} until the page is
+     * full or the index window ends; the query's other filters are applied as on the walk. Matches older than
+     * the index's first day come from the walk, which picks up at the day before it. Null when the index could
+     * not be read, and the caller walks instead -- slower, never wrong.
+     */
+    private AuditPage searchIndex(final AuditQuery query, final IndexLookup lookup) {
+        final LocalDate floor = query.getSince() == null || LocalDate.ofInstant(query.getSince(), ZoneOffset.UTC)
+                .isBefore(indexedSince) ? indexedSince : LocalDate.ofInstant(query.getSince(), ZoneOffset.UTC);
+        final String lo = AuditEvent.sortKeyFor(floor.atStartOfDay(ZoneOffset.UTC).toInstant());
+        String hi = AuditEvent.sortKeyFor((query.getBefore() == null ? Instant.now() : query.getBefore())
+                .minusMillis(1));
+        final List<AuditEvent> collected = new ArrayList<>();
+        try {
+            while (collected.size() < query.getLimit() && hi.compareTo(lo) >= 0) {
+                final Map<String, AttributeValue> values = new HashMap<>();
+                values.put(":pk", persistence.toStrAttr(lookup.key()));
+                values.put(":lo", persistence.toStrAttr(lo));
+                values.put(":hi", persistence.toStrAttr(hi));
+                final List<Map<String, AttributeValue>> rows = persistence.query(b -> b.tableName(lookup.table())
+                        .keyConditionExpression("#pk = :pk AND #ts BETWEEN :lo AND :hi")
+                        .expressionAttributeNames(Map.of("#pk", lookup.keyAttribute(), "#ts", SORT))
+                        .expressionAttributeValues(values)
+                        .scanIndexForward(false)
+                        .limit(INDEX_PAGE)).items();
+                for (final Map<String, AttributeValue> row : rows) {
+                    final AttributeValue content = row.get(CONTENT);
+                    final AuditEvent event = content == null ? null : parseEvent(content.s());
+                    if (event != null && query.matches(event)) {
+                        collected.add(event);
+                    }
+                }
+                if (rows.size() < INDEX_PAGE) {
+                    break;
+                }
+                hi = AuditEvent.sortKeyFor(Instant.ofEpochMilli(
+                        Long.parseLong(rows.get(rows.size() - 1).get(SORT).s()) - 1));
+            }
+        } catch (final RuntimeException ex) {
+            log.warn("Unable to read audit index {} for '{}'; walking the days instead", lookup.table(),
+                    lookup.key(), ex);
+            return null;
+        }
+        if (collected.size() >= query.getLimit()) {
+            final List<AuditEvent> page = new ArrayList<>(collected.subList(0, query.getLimit()));
+            final LocalDate oldest = LocalDate.ofInstant(page.get(page.size() - 1).getTimestamp(), ZoneOffset.UTC);
+            return new AuditPage(page, oldest, true, 0);
+        }
+        if (!floor.equals(indexedSince) || !indexedSince.isAfter(EARLIEST)) {
+            // The index reached the query's own lower bound: there is nothing older to look for.
+            return new AuditPage(collected, floor, false, 0);
+        }
+        return walkBackwards(query, indexedSince.minusDays(1), collected);
     }
 
     /**
@@ -165,8 +518,7 @@ public class AuditDAO {
      * the page rendered "no records" for a table holding 36,000 of them, because the per-day catch below turned
      * each failure into an empty list. {@code ts} is aliased too, for the next person who renames a key.
      */
-    private List<AuditEvent> queryDay(final AuditQuery query, final LocalDate day,
-            final java.util.concurrent.atomic.AtomicInteger failures) {
+    private DayResult queryDay(final AuditQuery query, final LocalDate day) {
         final Map<String, AttributeValue> values = new HashMap<>();
         values.put(":day", persistence.toStrAttr(day.toString()));
         final Map<String, String> names = new HashMap<>();
@@ -181,7 +533,7 @@ public class AuditDAO {
         }
 
         try {
-            return persistence.queryAll(b -> {
+            return new DayResult(persistence.queryAll(b -> {
                 b.tableName(AUDIT_TABLE)
                         .keyConditionExpression(keyCond.toString())
                         .expressionAttributeNames(names)
@@ -195,26 +547,63 @@ public class AuditDAO {
                     .map(content -> parseEvent(content.s()))
                     .filter(event -> event != null)
                     .filter(query::matches)
-                    .toList();
+                    .toList(), false);
         } catch (final RuntimeException ex) {
             // One unreadable day must not blank the whole page -- but it MUST be counted. Swallowing
             // this silently is how a reserved-word error in every single query presented as "no
             // records" over a table holding 36,000 of them.
             log.warn("Unable to read audit partition {}", day, ex);
-            failures.incrementAndGet();
-            return List.of();
+            return new DayResult(List.of(), true);
         }
     }
 
     /**
-     * Every event in a window, oldest first -- for CSV export, which wants the whole range rather than a page.
-     * Bounded by the same day budget so an export cannot become an unbounded table walk.
+     * Every matching event from {@link AuditQuery#getSince() since} (the start of history when null) up to
+     * {@link AuditQuery#getBefore() before} (now when null), OLDEST first, handed to {@code each} as it is read.
+     *
+     * <p>For exports, which want the whole range rather than a page, however long: day partitions are read
+     * forwards in slices of {@value #EXPORT_SLICE}, so memory is one slice however long the range, and a caller
+     * writing to a slow client slows the reads down with it. Sort keys are unique, so a caller that stopped can
+     * resume from one millisecond after the last event it saw. There is no day budget: the caller bounds the
+     * range. A read failure is thrown, not skipped -- a silently missing day in an export is worse than an
+     * export that says where it stopped -- and so is anything {@code each} throws.
      */
-    protected List<AuditEvent> exportAuditEvents(final AuditQuery query) {
-        final AuditQuery unlimited = query.withLimit(Integer.MAX_VALUE);
-        final List<AuditEvent> events = new ArrayList<>(getAuditEvents(unlimited).getEvents());
-        events.sort(java.util.Comparator.comparing(AuditEvent::getTimestamp));
-        return events;
+    protected void streamAuditEvents(final AuditQuery query, final Consumer<AuditEvent> each) {
+        final Instant earliest = EARLIEST.atStartOfDay(ZoneOffset.UTC).toInstant();
+        final Instant from = query.getSince() == null || query.getSince().isBefore(earliest)
+                ? earliest : query.getSince();
+        final Instant last = (query.getBefore() == null ? Instant.now() : query.getBefore()).minusMillis(1);
+        for (LocalDate day = LocalDate.ofInstant(from, ZoneOffset.UTC);
+                !day.isAfter(LocalDate.ofInstant(last, ZoneOffset.UTC)); day = day.plusDays(1)) {
+            final Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+            final Instant dayLast = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().minusMillis(1);
+            String lo = AuditEvent.sortKeyFor(from.isAfter(dayStart) ? from : dayStart);
+            final String hi = AuditEvent.sortKeyFor(last.isBefore(dayLast) ? last : dayLast);
+            while (lo.compareTo(hi) <= 0) {
+                final Map<String, AttributeValue> values = new HashMap<>();
+                values.put(":day", persistence.toStrAttr(day.toString()));
+                values.put(":lo", persistence.toStrAttr(lo));
+                values.put(":hi", persistence.toStrAttr(hi));
+                final List<Map<String, AttributeValue>> rows = persistence.query(b -> b.tableName(AUDIT_TABLE)
+                        .keyConditionExpression("#day = :day AND #ts BETWEEN :lo AND :hi")
+                        .expressionAttributeNames(Map.of("#day", PARTITION, "#ts", SORT))
+                        .expressionAttributeValues(values)
+                        .scanIndexForward(true)
+                        .limit(EXPORT_SLICE)).items();
+                for (final Map<String, AttributeValue> row : rows) {
+                    final AttributeValue content = row.get(CONTENT);
+                    final AuditEvent event = content == null ? null : parseEvent(content.s());
+                    if (event != null && query.matches(event)) {
+                        each.accept(event);
+                    }
+                }
+                if (rows.size() < EXPORT_SLICE) {
+                    break;
+                }
+                lo = AuditEvent.sortKeyFor(Instant.ofEpochMilli(
+                        Long.parseLong(rows.get(rows.size() - 1).get(SORT).s()) + 1));
+            }
+        }
     }
 
     /** How long the walk may span, for callers that want to explain the window to a user. */
@@ -224,7 +613,7 @@ public class AuditDAO {
 
     private AuditEvent parseEvent(final String json) {
         try {
-            return mapper.readValue(json, AuditEvent.class);
+            return auditEventJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse audit record: {}", json, ex);
             return null;
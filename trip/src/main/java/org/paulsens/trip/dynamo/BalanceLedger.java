@@ -0,0 +1,231 @@
+package org.paulsens.trip.dynamo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.cache.CacheClient;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.Transaction;
+import org.paulsens.trip.pay.MoneyMath;
+
+/**
+ * Each person's balance in exact cents, kept current by {@link TransactionDAO}'s write-through, so a finance page
+ * for a 300-person trip reads ONE hash instead of 300 transaction partitions.
+ *
+ * <p>Every balance carries the version it was computed at. A write bumps the person's counter and then stores the
+ * balance recomputed from their (already written-through) partition under the new version; a read fetches the
+ * balances and the counters in two round trips and trusts only the balances whose version matches. Anything else
+ * -- a miss, an older version left by a slower writer, a reader's fill that raced a write -- is recomputed and
+ * stored under the counter the reader saw, which the next write supersedes. So an out-of-order store can cost a
+ * recompute but never serve a wrong balance, and none of it needs a script.
+ *
+ * <p>Fail-open like the caches it sits beside: when the counter cannot be bumped the balance is dropped, and the
+ * next read recomputes it. Writes that bypass the DAO (a direct table edit) are what
+ * {@link TransactionDAO#reconcileBalances} is for.
+ */
+@Slf4j
+public final class BalanceLedger {
+    /** Misses are recomputed this many people at a time: a cold trip page should not fan out 300 queries. */
+    static final int FILL_PARALLEL = 16;
+
+    private static final String SEPARATOR = ":";
+
+    private final CacheClient cache;
+    private final Function<Person.Id, List<Transaction>> transactions;
+
+    /**
+     * @param transactions a person's live (not deleted) rows, as the partition cache serves them
+     */
+    BalanceLedger(final CacheClient cache, final Function<Person.Id, List<Transaction>> transactions) {
+        this.cache = cache;
+        this.transactions = transactions;
+    }
+
+    /** One person whose stored balance differed from the one recomputed from the database. */
+    public record Drift(Person.Id personId, long ledgerCents, long sourceCents) {
+    }
+
+    /** What a reconcile checked, and the balances it found wrong and repaired. */
+    public record Reconciliation(int checked, List<Drift> drifted) {
+    }
+
+    /** Balances in cents, in the order asked, each either current in the ledger or recomputed now. */
+    Map<Person.Id, Long> balances(final Collection<Person.Id> ids) {
+        final List<Person.Id> people = people(ids);
+        if (people.isEmpty()) {
+            return Map.of();
+        }
+        final Map<String, String> stored = cache.getHashFields(CacheKeys.LEDGER_BALANCES,
+                people.stream().map(Person.Id::getValue).toList());
+        final Map<String, String> versions =
+                cache.getValues(people.stream().map(BalanceLedger::versionKey).toList());
+        final Map<Person.Id, Long> result = new LinkedHashMap<>();
+        final List<Person.Id> misses = new ArrayList<>();
+        for (final Person.Id id : people) {
+            final Long cents = current(stored.get(id.getValue()), version(versions.get(versionKey(id))));
+            result.put(id, cents);
+            if (cents == null) {
+                misses.add(id);
+            }
+        }
+        fill(misses, versions).forEach(result::put);
+        return result;
+    }
+
+    /** The stored cents whatever their version, for reconcile to compare against. */
+    Map<Person.Id, Long> storedCents(final Collection<Person.Id> ids) {
+        final List<Person.Id> people = people(ids);
+        final Map<String, String> stored = people.isEmpty() ? Map.of() : cache.getHashFields(
+                CacheKeys.LEDGER_BALANCES, people.stream().map(Person.Id::getValue).toList());
+        final Map<Person.Id, Long> result = new LinkedHashMap<>();
+        for (final Person.Id id : people) {
+            final String[] parts = parse(stored.get(id.getValue()));
+            if (parts != null) {
+                result.put(id, Long.parseLong(parts[1]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write-through: this person's rows changed. The counter moves FIRST, so of two racing writers the one that
+     * read the partition last also holds the newest version; the other's balance is stored stale and ignored.
+     * When the counter cannot move the balance is dropped instead, and the next read recomputes it.
+     *
+     * <p>The counter has no TTL. One given only on creation expired a fixed time after a person's FIRST write,
+     * however active they were, and a recreated counter restarts at 1 -- where it can match a balance stored
+     * under the old counter's 1 and serve it. Kept forever, it never restarts; it is one small key per person
+     * with transactions, and {@link #clear} drops it together with the balances.</p>
+     */
+    void recompute(final Person.Id id) {
+        final Long version = cache.increment(versionKey(id), 1L, null).orElse(null);
+        if (version == null) {
+            log.warn("Unable to version the balance of {}; dropping it for the next read to recompute", id);
+            cache.removeHashField(CacheKeys.LEDGER_BALANCES, id.getValue());
+            return;
+        }
+        try {
+            cache.putHashField(CacheKeys.LEDGER_BALANCES, id.getValue(),
+                    version + SEPARATOR + balanceCents(id, transactions.apply(id)));
+        } catch (final RuntimeException ex) {
+            // The version already moved, so whatever is stored is no longer trusted: the next read recomputes.
+            log.warn("Unable to recompute the balance of {}", id, ex);
+        }
+    }
+
+    void clear() {
+        cache.clearNamespace(CacheKeys.LEDGER_PREFIX);
+    }
+
+    /** The sum of this person's shares of {@code rows}. */
+    static long balanceCents(final Person.Id id, final List<Transaction> rows) {
+        long total = 0L;
+        for (final Transaction tx : rows) {
+            total = Math.addExact(total, shareCents(id, tx));
+        }
+        return total;
+    }
+
+    /**
+     * This person's share of one row in cents. A shared row is split with {@link MoneyMath#splitEvenly} in its
+     * stamped member order, so the shares of one row always add back up to it exactly; a legacy row with no
+     * members is all its own user's. A negative amount is split by magnitude so the spare cents fall the same
+     * way as for a positive one.
+     */
+    public static long shareCents(final Person.Id id, final Transaction tx) {
+        if (tx == null || tx.getAmount() == null) {
+            return 0L;
+        }
+        final long cents = Math.round(tx.getAmount() * 100d);
+        final List<Person.Id> members = tx.getGroupPeople();
+        if (!tx.isShared() || members == null || members.isEmpty()) {
+            return cents;
+        }
+        final long[] shares = MoneyMath.splitEvenly(Math.abs(cents), members.size());
+        final int position = members.indexOf(id);
+        final long share = shares[position < 0 ? shares.length - 1 : position];
+        return cents < 0 ? -share : share;
+    }
+
+    static String versionKey(final Person.Id id) {
+        return CacheKeys.balanceVersionKey(id.getValue());
+    }
+
+    private Map<Person.Id, Long> fill(final List<Person.Id> misses, final Map<String, String> versions) {
+        final Map<Person.Id, Long> filled = new LinkedHashMap<>();
+        if (misses.size() == 1) {
+            final Person.Id id = misses.get(0);
+            filled.put(id, fill(id, version(versions.get(versionKey(id)))));
+            return filled;
+        }
+        for (int from = 0; from < misses.size(); from += FILL_PARALLEL) {
+            final List<Person.Id> round = misses.subList(from, Math.min(misses.size(), from + FILL_PARALLEL));
+            try (var scope = StructuredTaskScope.open()) {
+                final List<StructuredTaskScope.Subtask<Long>> fills = new ArrayList<>(round.size());
+                for (final Person.Id id : round) {
+                    final long version = version(versions.get(versionKey(id)));
+                    fills.add(scope.fork(() -> fill(id, version)));
+                }
+                scope.join();
+                for (int i = 0; i < round.size(); i++) {
+                    filled.put(round.get(i), fills.get(i).get());
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while computing balances", ex);
+            }
+        }
+        return filled;
+    }
+
+    /** Computes from the partition and stores under the version read BEFORE computing; a write since wins. */
+    private long fill(final Person.Id id, final long version) {
+        final long cents = balanceCents(id, transactions.apply(id));
+        cache.putHashField(CacheKeys.LEDGER_BALANCES, id.getValue(), version + SEPARATOR + cents);
+        return cents;
+    }
+
+    private static List<Person.Id> people(final Collection<Person.Id> ids) {
+        return (ids == null) ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    private static Long current(final String stored, final long version) {
+        final String[] parts = parse(stored);
+        return (parts != null && Long.parseLong(parts[0]) == version) ? Long.parseLong(parts[1]) : null;
+    }
+
+    /** {version, cents}, or null for a missing or malformed entry. */
+    private static String[] parse(final String stored) {
+        if (stored == null) {
+            return null;
+        }
+        final String[] parts = stored.split(SEPARATOR, 2);
+        if (parts.length != 2 || !isLong(parts[0]) || !isLong(parts[1])) {
+            return null;
+        }
+        return parts;
+    }
+
+    private static long version(final String counter) {
+        return isLong(counter) ? Long.parseLong(counter) : 0L;
+    }
+
+    private static boolean isLong(final String value) {
+        if (value == null) {
+            return false;
+        }
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (final NumberFormatException ex) {
+            return false;
+        }
+    }
+}
@@ -5,18 +5,23 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.cache.CacheBatch;
 import org.paulsens.trip.cache.CacheClient;
 import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.cache.CacheSupport;
 import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.cache.PointCache;
 import org.paulsens.trip.chat.ChatNudge;
+import org.paulsens.trip.chat.ChatNudgeRegistry;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Trip;
 import org.paulsens.trip.model.chat.ChatAttachment;
@@ -66,10 +71,13 @@ public class ChatDAO {
     private static final Duration CLIENT_MSG_TTL = Duration.ofHours(24);
 
     private final ObjectMapper mapper;
+    /** One {@link JsonCodec} per type this DAO reads or writes, built on first use. */
+    private final Map<Class<?>, JsonCodec<?>> codecs = new ConcurrentHashMap<>();
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PointCache<ChatChannel> channelCache;
     private final AtomicLong idClock = new AtomicLong(0L);
+    private final ChatWakeSlices wakeSlices = new ChatWakeSlices();
 
     protected ChatDAO(final ObjectMapper mapper, final Persistence persistence) {
         this(mapper, persistence, new InMemoryCacheClient());
@@ -412,22 +420,28 @@ public class ChatDAO {
                 ? 60 : channel.getSettings().getBufferMinutes();
         final Duration bufferTtl = Duration.ofMinutes(Math.max(1, bufferMinutes));
 
-        cacheClient.addScoredEntries(CacheKeys.chatLogKey(channelId), Map.of(msgId, score));
-        cacheClient.putHashField(CacheKeys.chatBodyKey(channelId), msgId, toJson(message));
-        cacheClient.trimSortedSet(CacheKeys.chatLogKey(channelId), bufferMax);
-        cacheClient.expire(CacheKeys.chatLogKey(channelId), bufferTtl);
-        cacheClient.expire(CacheKeys.chatBodyKey(channelId), bufferTtl);
+        // One pipeline for the whole buffer update: eight blocking round trips per send became one (plus the
+        // nudge, below), which under a busy trip chat is most of the send latency.
+        final CacheBatch batch = CacheBatch.of(cacheClient)
+                .addScoredEntries(CacheKeys.chatLogKey(channelId), Map.of(msgId, score))
+                .putHashField(CacheKeys.chatBodyKey(channelId), msgId, toJson(message))
+                .trimSortedSet(CacheKeys.chatLogKey(channelId), bufferMax)
+                .expire(CacheKeys.chatLogKey(channelId), bufferTtl)
+                .expire(CacheKeys.chatBodyKey(channelId), bufferTtl);
         // The MESSAGE ID, not System.currentTimeMillis(). Unread is "cursor < lastActivity", and the
         // cursor a client reports is a message id -- so a fresh clock reading here is a different, always
         // later number, and the comparison could never come out equal. The unread dot stayed lit forever,
         // for everyone, even immediately after reading. Same total order as the sort key and the ZSET
         // score, which is the property the whole cursor design rests on.
-        // Photo channels are excluded: "My Chats" reads this WHOLE hash per request, and a field per
-        // commented photo would grow it without bound for a page that never lists photo threads anyway.
+        // Photo channels are excluded: readers HMGET only the channels they list, but a field per commented
+        // photo would still grow the hash without bound for pages that never list photo threads anyway.
         if (!isPhotoChannel(channelId)) {
-            cacheClient.putHashField(CacheKeys.CHAT_LAST_ACTIVITY, channelId, msgId);
+            batch.putHashField(CacheKeys.CHAT_LAST_ACTIVITY, channelId, msgId);
         }
-        markClientMessageId(message);
+        markClientMessageId(batch, message);
+        batch.execute();
+        // NOT in the batch: a pipeline only orders commands per shard, and the nudge must not overtake the
+        // buffer writes it announces.
         nudge(message);
     }
 
@@ -450,18 +464,18 @@ public class ChatDAO {
     }
 
     /**
-     * Records the sender's idempotency key so a retried send collapses onto this message instead of writing a
+     * Queues the sender's idempotency key so a retried send collapses onto this message instead of writing a
      * second one. No key (a SYSTEM message, or a client that sent none) means nothing to record.
      */
-    private boolean markClientMessageId(final ChatMessage message) {
+    private void markClientMessageId(final CacheBatch batch, final ChatMessage message) {
         if (message.getClientMessageId() == null || message.getAuthorId() == null) {
-            return true;
+            return;
         }
         final String key = CacheKeys.chatClientMessageKey(
                 message.getChannelId().getValue(),
                 message.getAuthorId().getValue(),
                 message.getClientMessageId());
-        return cacheClient.putValue(key, message.getId().getValue(), CLIENT_MSG_TTL);
+        batch.putValue(key, message.getId().getValue(), CLIENT_MSG_TTL);
     }
 
     /**
@@ -701,6 +715,34 @@ public class ChatDAO {
         return cacheClient.getHash(CacheKeys.CHAT_LAST_ACTIVITY);
     }
 
+    /**
+     * {@link #lastActivity()} for just these channels: one HMGET, so a page asking about a person's few chats
+     * costs the same however many channels the system holds. Channels with no activity are absent.
+     */
+    protected Map<String, String> lastActivity(final Collection<ChatChannel.Id> channelIds) {
+        if (channelIds == null || channelIds.isEmpty()) {
+            return Map.of();
+        }
+        return cacheClient.getHashFields(CacheKeys.CHAT_LAST_ACTIVITY,
+                channelIds.stream().map(ChatChannel.Id::getValue).distinct().toList());
+    }
+
+    /** This person's read cursors in these channels in one MGET; a channel they never opened is absent. */
+    protected Map<ChatChannel.Id, ChatMessage.Id> getCursors(
+            final Collection<ChatChannel.Id> channelIds, final Person.Id personId) {
+        if (channelIds == null || channelIds.isEmpty() || personId == null) {
+            return Map.of();
+        }
+        final Map<String, ChatChannel.Id> byKey = new LinkedHashMap<>();
+        for (final ChatChannel.Id channelId : channelIds) {
+            byKey.put(CacheKeys.chatCursorKey(channelId.getValue(), personId.getValue()), channelId);
+        }
+        final Map<ChatChannel.Id, ChatMessage.Id> cursors = new HashMap<>();
+        cacheClient.getValues(byKey.keySet()).forEach((key, cursor) -> cursors.put(byKey.get(key),
+                ChatMessage.Id.from(cursor)));
+        return cursors;
+    }
+
     /**
      * Messages after {@code since} (exclusive), oldest first — the poll hot path.
      *
@@ -708,6 +750,10 @@ public class ChatDAO {
      * the buffer holds just the last {@code bufferMaxMessages} / {@code bufferMinutes}, so a client returning
      * after a day would otherwise be served the buffered tail, advance its cursor past the gap, and never see
      * the messages in between. See {@link #bufferCoversCursor}.
+     *
+     * <p>Against Valkey the buffer legs run as one script call ({@link ChatPollScript}); the multi-command legs
+     * below remain the path wherever scripting gives no answer (local mode, a provider that disables it, an
+     * error), and both make the same decisions.
      */
     protected ChatPage getMessagesSince(
             final ChatChannel.Id channelId,
@@ -719,10 +765,92 @@ public class ChatDAO {
             final Instant now) {
         final Read read = new Read(channelId.getValue(), since, limit <= 0 ? 200 : Math.min(limit, 200),
                 member, channel, trip, now);
+        final ChatWakeSlices.Slice slice = wakeSlices.fresh(read.channelId());
+        if (slice != null && slice.covers(read.sinceMillis())) {
+            return slicedSince(read, slice);
+        }
+        final Optional<ChatPollScript.Snapshot> scripted =
+                ChatPollScript.read(cacheClient, read.channelId(), read.sinceMillis(), read.limit());
+        if (scripted.isPresent()) {
+            return scriptedSince(channelId, read, scripted.get());
+        }
         final boolean covered = bufferCoversCursor(read.channelId(), read.sinceMillis());
         return withReactionMeta(channelId, covered ? bufferedSince(read) : dynamoSince(read));
     }
 
+    /**
+     * The scripted poll: coverage, ids, bodies and both counters arrived in one round trip, so they feed the
+     * same legs the multi-command path uses. The counters were read with the buffer, before any DynamoDB leg --
+     * the safe order, since a counter older than the page can only cause one extra refetch, never a missed one.
+     */
+    private ChatPage scriptedSince(
+            final ChatChannel.Id channelId, final Read read, final ChatPollScript.Snapshot snapshot) {
+        final ChatPage page;
+        if (!snapshot.covered()) {
+            page = dynamoSince(read);
+        } else if (snapshot.ids().isEmpty()) {
+            page = nothingNew(read);
+        } else {
+            page = bufferedBodies(read, snapshot.ids(), snapshot.bodies());
+        }
+        return page.withReactions(summariesForPage(channelId, page),
+                toVersion(Optional.of(snapshot.reactionsVersion())),
+                toVersion(Optional.of(snapshot.mutationsVersion())));
+    }
+
+    /**
+     * A woken read served from the wake's shared slice: the same cursor cut and visibility filter as a buffer
+     * read, with no round trip at all. See {@link ChatWakeSlices}.
+     */
+    private ChatPage slicedSince(final Read read, final ChatWakeSlices.Slice slice) {
+        final List<ChatMessage> examined = slice.after(read.sinceMillis(), read.limit());
+        final ChatPage page = examined.isEmpty()
+                ? nothingNew(read) : bufferPage(read, examined, examined.size() >= read.limit());
+        return page.withReactions(slice.summariesFor(page.getMessages()), slice.reactionsVersion(),
+                slice.mutationsVersion());
+    }
+
+    /** What {@code ChatNudgeRegistry} calls around each coalesced wake. */
+    ChatNudgeRegistry.SharedRead wakeReads() {
+        return new ChatNudgeRegistry.SharedRead() {
+            @Override
+            public void invalidate(final String channelId) {
+                wakeSlices.invalidate(channelId);
+            }
+
+            @Override
+            public void refresh(final String channelId) {
+                refreshWakeSlice(channelId);
+            }
+        };
+    }
+
+    /**
+     * Reads the buffer's newest {@link ChatWakeSlices#SLICE_SIZE} messages once for every reader about to wake.
+     * Counters first, for the reason {@link #scriptedSince} gives. Anything short of a whole tail -- an empty
+     * buffer, a body missing behind its log entry -- installs nothing, and each reader reads for itself.
+     */
+    private void refreshWakeSlice(final String channelId) {
+        final long generation = wakeSlices.generation(channelId);
+        final long rver = reactionsVersion(channelId);
+        final long mver = mutationsVersion(channelId);
+        final List<String> newestFirst = cacheClient.getRangeByScore(CacheKeys.chatLogKey(channelId),
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, true, ChatWakeSlices.SLICE_SIZE);
+        if (newestFirst.isEmpty()) {
+            return;
+        }
+        final List<String> ids = new ArrayList<>(newestFirst.reversed());
+        final List<ChatMessage> msgs =
+                parseBodies(ids, cacheClient.getHashFields(CacheKeys.chatBodyKey(channelId), ids));
+        if (msgs.size() != ids.size()) {
+            return;
+        }
+        final Map<ChatMessage.Id, ChatReactionSummary> summaries =
+                cachedSummaries(ChatChannel.Id.from(channelId), msgs);
+        wakeSlices.install(channelId, generation,
+                new ChatWakeSlices.Slice(List.copyOf(msgs), Map.copyOf(summaries), rver, mver, System.nanoTime()));
+    }
+
     /**
      * Everything a paged read needs, grouped so the legs below can be separate methods without a seven-argument
      * signature repeated at each hand-off.
@@ -749,7 +877,8 @@ public class ChatDAO {
     private ChatPage bufferedSince(final Read read) {
         final List<String> ids = cacheClient.getRangeByScore(CacheKeys.chatLogKey(read.channelId()),
                 read.sinceMillis() + 1, Double.POSITIVE_INFINITY, false, read.limit());
-        return ids.isEmpty() ? nothingNew(read) : bufferedBodies(read, ids);
+        return ids.isEmpty() ? nothingNew(read)
+                : bufferedBodies(read, ids, cacheClient.getHashFields(CacheKeys.chatBodyKey(read.channelId()), ids));
     }
 
     /**
@@ -760,8 +889,8 @@ public class ChatDAO {
         return toPage(List.of(), List.of(), false, OLDEST_FIRST, read.now());
     }
 
-    private ChatPage bufferedBodies(final Read read, final List<String> ids) {
-        final List<ChatMessage> msgs = loadBodies(read.channelId(), ids);
+    private ChatPage bufferedBodies(final Read read, final List<String> ids, final Map<String, String> bodies) {
+        final List<ChatMessage> msgs = parseBodies(ids, bodies);
         if (msgs.size() == ids.size()) {
             return bufferPage(read, msgs, ids.size() >= read.limit());
         }
@@ -891,10 +1020,6 @@ public class ChatDAO {
         return out;
     }
 
-    private List<ChatMessage> loadBodies(final String channelId, final List<String> ids) {
-        return parseBodies(ids, cacheClient.getHashFields(CacheKeys.chatBodyKey(channelId), ids));
-    }
-
     /**
      * Parses bodies in the log's order. A short result means the buffer is missing a body for an id it still
      * lists; the caller must treat that as a miss rather than a shorter page.
@@ -1134,8 +1259,10 @@ public class ChatDAO {
      *
      * <p>Order matters. The summary field is dropped <em>before</em> the version is published, so a client that
      * refetches the instant it sees the new version cannot be served the pre-write summary it was told to replace.
-     * The nudge goes last, for the same reason it does on the message path: whoever it wakes must already be able
-     * to read the change it is telling them about.
+     * Both ride one pipeline in that order; on a cluster the two keys may sit on different shards, which leaves
+     * a window of one pipeline's flight time rather than one round trip. The nudge goes last and outside the
+     * pipeline, for the same reason it does on the message path: whoever it wakes must already be able to read
+     * the change it is telling them about.
      */
     private Boolean afterReactionWritten(
             final boolean ok, final ChatChannel.Id channelId, final ChatMessage.Id targetMessageId) {
@@ -1143,14 +1270,23 @@ public class ChatDAO {
             return false;
         }
         final String cId = channelId.getValue();
-        cacheClient.removeHashField(CacheKeys.chatReactionSummaryKey(cId), targetMessageId.getValue());
-        bumpReactionsVersion(cId);
+        dropSummaryAndBumpVersion(cId, targetMessageId.getValue());
         nudgeChannel(cId);
         return true;
     }
 
-    private Optional<Long> bumpReactionsVersion(final String channelId) {
-        return cacheClient.increment(CacheKeys.chatReactionsVersionKey(channelId), 1L, CacheKeys.GC_TTL);
+    /**
+     * The drop-field / bump-version pair as one pipeline, queued in that order. The EXPIRE is unconditional
+     * (the single-command increment applies it only on creation): sliding a GC_TTL on a live counter is
+     * harmless hygiene, and deciding would need the INCR result the pipeline does not have yet.
+     */
+    private void dropSummaryAndBumpVersion(final String channelId, final String msgId) {
+        final String versionKey = CacheKeys.chatReactionsVersionKey(channelId);
+        CacheBatch.of(cacheClient)
+                .removeHashField(CacheKeys.chatReactionSummaryKey(channelId), msgId)
+                .increment(versionKey, 1L)
+                .expire(versionKey, CacheKeys.GC_TTL)
+                .execute();
     }
 
     /**
@@ -1471,9 +1607,7 @@ public class ChatDAO {
             return false;
         }
         final String parentId = photoChannel.getParentChannelId().getValue();
-        cacheClient.removeHashField(
-                CacheKeys.chatReactionSummaryKey(parentId), photoChannel.getParentMsgId().getValue());
-        bumpReactionsVersion(parentId);
+        dropSummaryAndBumpVersion(parentId, photoChannel.getParentMsgId().getValue());
         nudgeChannel(parentId);
         return true;
     }
@@ -1544,9 +1678,13 @@ public class ChatDAO {
         return false;
     }
 
+    @SuppressWarnings("unchecked")
     private String toJson(final Object value) {
+        if (value == null) {
+            return "null";
+        }
         try {
-            return mapper.writeValueAsString(value);
+            return codec((Class<Object>) value.getClass()).write(value);
         } catch (final IOException ex) {
             log.error("Unable to serialize {}", value == null ? null : value.getClass().getSimpleName(), ex);
             return null;
@@ -1569,12 +1707,17 @@ public class ChatDAO {
         return parse(json, ChatReaction.class);
     }
 
+    @SuppressWarnings("unchecked")
+    private <T> JsonCodec<T> codec(final Class<T> type) {
+        return (JsonCodec<T>) codecs.computeIfAbsent(type, t -> JsonCodec.of(mapper, t));
+    }
+
     private <T> T parse(final String json, final Class<T> type) {
         if (json == null) {
             return null;
         }
         try {
-            return mapper.readValue(json, type);
+            return codec(type).read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse {}: {}", type.getSimpleName(), json, ex);
             return null;
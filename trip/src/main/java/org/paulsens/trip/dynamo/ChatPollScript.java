@@ -0,0 +1,90 @@
+package org.paulsens.trip.dynamo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.cache.CacheClient;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.CacheScript;
+
+/**
+ * {@link ChatDAO#getMessagesSince}'s buffer read as ONE server-side call: the coverage check, the ids after the
+ * cursor, their bodies and both version counters, which the multi-command path fetches in up to five sequential
+ * round trips. Idle long-poll wakeups across every parked client are the largest source of Valkey commands, and
+ * an idle wakeup is now exactly this one call.
+ *
+ * <p>The script makes the same decisions as the fallback legs in {@code ChatDAO}, and only those: covered when
+ * the log's oldest score is at or below {@code since + 1}; never covered for an initial load. What to do with a
+ * short body list or an uncovered cursor stays in Java, so the two paths cannot drift apart on policy.
+ *
+ * <p>All four keys carry {@link CacheKeys#chatChannelTag} so they share a cluster slot.
+ */
+@Slf4j
+final class ChatPollScript {
+
+    /** KEYS: log, bodies, reactions version, mutations version. ARGV: since, since + 1, limit. */
+    static final CacheScript SCRIPT = CacheScript.of("chat-poll", """
+            local unpack = unpack or table.unpack
+            local rver = redis.call('GET', KEYS[3]) or ''
+            local mver = redis.call('GET', KEYS[4]) or ''
+            local since = tonumber(ARGV[1])
+            if since < 0 then
+              return {0, rver, mver, {}, {}}
+            end
+            local oldest = redis.call('ZRANGE', KEYS[1], '0', '0', 'WITHSCORES')
+            if #oldest == 0 or tonumber(oldest[2]) > since + 1 then
+              return {0, rver, mver, {}, {}}
+            end
+            local ids = redis.call('ZRANGEBYSCORE', KEYS[1], ARGV[2], '+inf', 'LIMIT', '0', ARGV[3])
+            if #ids == 0 then
+              return {1, rver, mver, ids, {}}
+            end
+            return {1, rver, mver, ids, redis.call('HMGET', KEYS[2], unpack(ids))}
+            """);
+
+    /**
+     * What the buffer said. Versions are raw counter strings ({@code ""} when absent), parsed by the caller
+     * exactly as it parses a plain {@code GET}.
+     */
+    record Snapshot(boolean covered, List<String> ids, Map<String, String> bodies, String reactionsVersion,
+            String mutationsVersion) {
+    }
+
+    /** The snapshot, or empty when scripting gave no usable answer and the caller must use its fallback. */
+    static Optional<Snapshot> read(final CacheClient cache, final String channelId, final long sinceMillis,
+            final int limit) {
+        final List<String> keys = List.of(CacheKeys.chatLogKey(channelId), CacheKeys.chatBodyKey(channelId),
+                CacheKeys.chatReactionsVersionKey(channelId), CacheKeys.chatMutationsVersionKey(channelId));
+        final List<String> args = List.of(Long.toString(sinceMillis), Long.toString(sinceMillis + 1),
+                Integer.toString(limit));
+        return cache.runScript(SCRIPT, keys, args).flatMap(ChatPollScript::parse);
+    }
+
+    static Optional<Snapshot> parse(final List<Object> reply) {
+        if (reply == null || reply.size() != 5 || !(reply.get(0) instanceof Long covered)
+                || !(reply.get(3) instanceof List<?> rawIds) || !(reply.get(4) instanceof List<?> rawBodies)) {
+            log.warn("Unexpected chat-poll script reply {}; using the multi-command path", reply);
+            return Optional.empty();
+        }
+        final List<String> ids = new ArrayList<>(rawIds.size());
+        rawIds.forEach(id -> ids.add(String.valueOf(id)));
+        // HMGET answers positionally, nil for a body that went missing; the caller detects the gap by count.
+        final Map<String, String> bodies = new HashMap<>();
+        for (int i = 0; i < rawBodies.size() && i < ids.size(); i++) {
+            if (rawBodies.get(i) != null) {
+                bodies.put(ids.get(i), String.valueOf(rawBodies.get(i)));
+            }
+        }
+        return Optional.of(new Snapshot(covered == 1L, ids, bodies, asString(reply.get(1)), asString(reply.get(2))));
+    }
+
+    private static String asString(final Object value) {
+        return value == null ? "" : String.valueOf(value);
+    }
+
+    private ChatPollScript() {
+    }
+}
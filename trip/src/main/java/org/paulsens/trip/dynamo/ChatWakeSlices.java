@@ -0,0 +1,112 @@
+package org.paulsens.trip.dynamo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.paulsens.trip.model.chat.ChatMessage;
+import org.paulsens.trip.model.chat.ChatReactionSummary;
+
+/**
+ * The shared half of a coalesced chat wake: per channel, the newest tail of the hot buffer as read ONCE by
+ * {@code ChatNudgeRegistry} just before it wakes everyone parked there, which each woken reader's own
+ * {@link ChatDAO#getMessagesSince} then slices with its own cursor and visibility instead of re-reading Valkey.
+ * Two hundred readers on a trip channel become one read per wake.
+ *
+ * <p>A slice is only an answer while nothing newer can exist, and three things enforce that. Every nudge the
+ * registry receives {@link #invalidate}s the channel before the coalesced read is even scheduled. A read that
+ * started before such an invalidation is refused at {@link #install}, by generation. And a slice older than
+ * {@link #MAX_AGE_MILLIS} is never served, which bounds the damage of a nudge that never arrived. A reader it
+ * cannot serve -- stale, absent, or a cursor older than the tail -- does its ordinary read; nothing is lost.
+ *
+ * <p>Unfiltered by design: the slice holds what the buffer holds, and {@link ChatDAO} applies the reader's
+ * {@code ChatVisibility} to it exactly as it does to a buffer read. Reaction summaries are held for the whole
+ * tail and handed out only for the messages that survive that filter.
+ */
+final class ChatWakeSlices {
+
+    /** How much of the buffer's tail one wake reads. A reader further behind than this reads for itself. */
+    static final int SLICE_SIZE = 50;
+    static final long MAX_AGE_MILLIS = 2_000L;
+
+    /**
+     * One channel's tail, oldest first and contiguous: nothing in the buffer falls between two of its messages
+     * or after its last.
+     */
+    record Slice(List<ChatMessage> messages, Map<ChatMessage.Id, ChatReactionSummary> summaries,
+            long reactionsVersion, long mutationsVersion, long readAtNanos) {
+
+        /**
+         * Whether every message after this cursor is in the slice: the cursor is at or past its oldest message.
+         * An initial load ({@code sinceMillis < 0}) is never covered, just as the buffer never covers one.
+         */
+        boolean covers(final long sinceMillis) {
+            return !messages.isEmpty() && sinceMillis >= 0
+                    && sinceMillis >= messages.getFirst().getId().getEpochMilli();
+        }
+
+        /** Up to {@code limit} messages after the cursor, in order. */
+        List<ChatMessage> after(final long sinceMillis, final int limit) {
+            final List<ChatMessage> out = new ArrayList<>();
+            for (final ChatMessage m : messages) {
+                if (out.size() >= limit) {
+                    break;
+                }
+                if (m.getId().getEpochMilli() > sinceMillis) {
+                    out.add(m);
+                }
+            }
+            return out;
+        }
+
+        /** Summaries for exactly these (already visibility-filtered) messages. */
+        Map<ChatMessage.Id, ChatReactionSummary> summariesFor(final List<ChatMessage> visible) {
+            final Map<ChatMessage.Id, ChatReactionSummary> out = new HashMap<>();
+            for (final ChatMessage m : visible) {
+                final ChatReactionSummary summary = summaries.get(m.getId());
+                if (summary != null) {
+                    out.put(m.getId(), summary);
+                }
+            }
+            return out;
+        }
+    }
+
+    private final Map<String, Slice> slices = new ConcurrentHashMap<>();
+    /** Bumped by every invalidation; a read installs only if its channel's generation did not move meanwhile. */
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+
+    /** Taken BEFORE reading, and handed back to {@link #install}. */
+    long generation(final String channelId) {
+        return generations.getOrDefault(channelId, 0L);
+    }
+
+    /**
+     * Installs a slice unless an invalidation landed since {@code seenGeneration} was taken. Checked inside
+     * {@code compute}, and {@link #invalidate} removes AFTER bumping, so whichever order the two race in, a
+     * slice read before a nudge does not survive it.
+     */
+    void install(final String channelId, final long seenGeneration, final Slice slice) {
+        slices.compute(channelId, (key, old) -> generation(key) == seenGeneration ? slice : old);
+    }
+
+    void invalidate(final String channelId) {
+        generations.merge(channelId, 1L, Long::sum);
+        slices.remove(channelId);
+    }
+
+    /** The channel's slice if it is young enough to serve, otherwise {@code null}. */
+    Slice fresh(final String channelId) {
+        final Slice slice = slices.get(channelId);
+        if (slice == null) {
+            return null;
+        }
+        if (System.nanoTime() - slice.readAtNanos() > TimeUnit.MILLISECONDS.toNanos(MAX_AGE_MILLIS)) {
+            slices.remove(channelId, slice);
+            return null;
+        }
+        return slice;
+    }
+}
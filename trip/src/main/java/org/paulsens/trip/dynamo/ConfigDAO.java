@@ -33,7 +33,7 @@ public class ConfigDAO {
     private static final String CONTENT = "content";
     private static final String CONFIG_TABLE = "config";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Config> configJson;
     private final Persistence persistence;
     private final PartitionScanCache<Config> cache;
 
@@ -42,7 +42,7 @@ public class ConfigDAO {
     }
 
     protected ConfigDAO(final ObjectMapper mapper, final Persistence persistence, final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.configJson = JsonCodec.of(mapper, Config.class);
         this.persistence = persistence;
         this.cache = PartitionScanCache.<Config>builder()
                 .cache(cacheClient)
@@ -66,7 +66,7 @@ public class ConfigDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(NAME, persistence.toStrAttr(config.getName()));
         try {
-            map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(config)));
+            map.put(CONTENT, persistence.toStrAttr(configJson.write(config)));
         } catch (final IOException ex) {
             final String error = "Unable to serialize config named: " + config.getName();
             log.warn(error);
@@ -132,7 +132,7 @@ public class ConfigDAO {
 
     private Config parseConfig(final String json) {
         try {
-            return mapper.readValue(json, Config.class);
+            return configJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse config record: " + json, ex);
             return null;
@@ -141,7 +141,7 @@ public class ConfigDAO {
 
     private String toJson(final Config config) {
         try {
-            return mapper.writeValueAsString(config);
+            return configJson.write(config);
         } catch (final IOException ex) {
             log.error("Unable to serialize config: " + config.getName(), ex);
             return null;
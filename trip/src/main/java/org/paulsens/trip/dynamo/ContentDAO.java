@@ -34,7 +34,8 @@ public class ContentDAO {
     /** Package-visible so {@link InMemoryPersistence} can register the table for local mode. */
     static final String CONTENT_TABLE = "content";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<ContentRecord> contentRecordJson;
+    private final JsonCodec<ContentInstance> contentInstanceJson;
     private final Persistence persistence;
     private final PartitionScanCache<ContentInstance> cache;
 
@@ -44,7 +45,8 @@ public class ContentDAO {
 
     protected ContentDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.contentRecordJson = JsonCodec.of(mapper, ContentRecord.class);
+        this.contentInstanceJson = JsonCodec.of(mapper, ContentInstance.class);
         this.persistence = persistence;
         this.cache = PartitionScanCache.<ContentInstance>builder()
                 .cache(cacheClient)
@@ -198,7 +200,7 @@ public class ContentDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, persistence.toStrAttr(row.getId()));
         try {
-            map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(row)));
+            map.put(CONTENT, persistence.toStrAttr(contentRecordJson.write(row)));
         } catch (final IOException ex) {
             final String error = "Unable to serialize content record: " + row.getId();
             log.warn(error);
@@ -235,7 +237,7 @@ public class ContentDAO {
 
     private ContentRecord parseRecord(final String json) {
         try {
-            return mapper.readValue(json, ContentRecord.class);
+            return contentRecordJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse content record: " + json, ex);
             return null;
@@ -244,7 +246,7 @@ public class ContentDAO {
 
     private ContentInstance parseInstance(final String json) {
         try {
-            return mapper.readValue(json, ContentInstance.class);
+            return contentInstanceJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse content instance: " + json, ex);
             return null;
@@ -253,7 +255,7 @@ public class ContentDAO {
 
     private String toJson(final ContentInstance instance) {
         try {
-            return mapper.writeValueAsString(instance);
+            return contentInstanceJson.write(instance);
         } catch (final IOException ex) {
             log.error("Unable to serialize content instance: " + instance.getId(), ex);
             return null;
@@ -13,6 +13,7 @@ import org.paulsens.trip.model.Person;
 import org.paulsens.trip.security.PasswordHasher;
 import org.paulsens.trip.util.RandomData;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 
 @Slf4j
@@ -115,6 +116,11 @@ public class CredentialsDAO {
      * This method sets the last login timestamp for the given user (via {@link Creds}). It returns the previous last
      * login, or {@code null} if the user hasn't logged in before.
      *
+     * <p>Only the {@code lastLogin} attribute is written (an {@code UpdateItem}), never the whole row: a login runs
+     * on every sign-in, and re-putting the row it read could put back a password changed meanwhile. The update is
+     * conditioned on the row still existing, so a login racing a credentials removal does not leave behind a
+     * password-less stub row; that race is logged and otherwise ignored, as a failed timestamp always was.</p>
+     *
      * @param creds     The {@link Creds} to update.
      * @return The previous last login in Epoch seconds.
      */
@@ -126,11 +132,27 @@ public class CredentialsDAO {
         creds.setLastLogin(Instant.now().getEpochSecond());
         // If the previous login was more than 2 seconds ago, save the new login time.
         if ((prevLast == null) || (prevLast < creds.getLastLogin() - 2)) {
-            saveCreds(creds);
+            saveLastLogin(creds);
         }
         return prevLast;
     }
 
+    private void saveLastLogin(final Creds creds) {
+        final String email = creds.getEmail().toLowerCase(Locale.ROOT);
+        try {
+            persistence.updateItem(b -> b.tableName(PASS_TABLE).key(getCredQueryKey(email))
+                    .updateExpression("SET #ll = :ll")
+                    .conditionExpression("attribute_exists(#e)")
+                    .expressionAttributeNames(Map.of("#ll", LAST_LOGIN, "#e", EMAIL))
+                    .expressionAttributeValues(Map.of(":ll",
+                            AttributeValue.builder().n("" + creds.getLastLogin()).build())));
+        } catch (final ConditionalCheckFailedException ex) {
+            log.warn("Credentials for '{}' were removed during login; last login not recorded.", email);
+        } catch (final RuntimeException ex) {
+            log.error("Failed to save last login!", ex);
+        }
+    }
+
     protected Optional<Creds> createCreds(final String email) {
         final Person user = personDao.getPersonByEmail(email);
         if (user == null) {
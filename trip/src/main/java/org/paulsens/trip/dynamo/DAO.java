@@ -7,9 +7,12 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.cache.Cached;
@@ -21,7 +24,9 @@ import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.cache.NearCacheClient;
 import org.paulsens.trip.cache.NearCacheContext;
 import org.paulsens.trip.cache.NoopCacheClient;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.cache.ValkeyCacheClient;
+import org.paulsens.trip.chat.ChatNudgeRegistry;
 import org.paulsens.trip.config.KnownSettings;
 import org.paulsens.trip.model.SettingDef;
 import org.paulsens.trip.model.AuditEvent;
@@ -201,19 +206,20 @@ public class DAO {
     }
 
     /**
-     * The near-cache's settings reader: {@code {ttlSeconds, checkSeconds}} through the normal DAL with
-     * {@link Cached#NO}. Static and lazy on purpose -- it is handed to the client as a supplier before this
+     * The near-cache's settings reader: {@code {ttlSeconds, checkSeconds, maxMegabytes}} through the normal DAL
+     * with {@link Cached#NO}. Static and lazy on purpose -- it is handed to the client as a supplier before this
      * singleton exists, and only ever invoked from the client's tuning re-sync (admin save or its lazy
      * background check), never from the cache read path (the ConfigDAO-sits-on-these-caches cycle).
      */
     static long[] readNearCacheTuning() {
         return new long[] {
-                settingSeconds(KnownSettings.CACHE_NEAR_TTL_SECONDS),
-                settingSeconds(KnownSettings.CACHE_NEAR_CHECK_SECONDS)};
+                settingLong(KnownSettings.CACHE_NEAR_TTL_SECONDS),
+                settingLong(KnownSettings.CACHE_NEAR_CHECK_SECONDS),
+                settingLong(KnownSettings.CACHE_NEAR_MAX_MEGABYTES)};
     }
 
     /** Package-private (not private) so DAOTest can pin the parse-and-fallback rules directly. */
-    static long settingSeconds(final SettingDef def) {
+    static long settingLong(final SettingDef def) {
         final String raw = getInstance().getConfig(def.getName(), Cached.NO)
                 .map(Config::getValue).orElse(def.getDefaultValue());
         try {
@@ -233,6 +239,15 @@ public class DAO {
     public Optional<Person> getPerson(final Person.Id id, final Cached cached) {
         return NearCacheContext.call(cached, () -> personDao.getPerson(id));
     }
+    /** {@link #getPerson} with the cache stamp; the person is not parsed when {@code unchanged} accepts it. */
+    public Optional<Stamped<Person>> getPersonStamped(
+            final Person.Id id, final Predicate<String> unchanged, final Cached cached) {
+        return NearCacheContext.call(cached, () -> personDao.getPersonStamped(id, unchanged));
+    }
+    /** Batched {@link #getPerson}: one cache round trip for the lot; unknown ids are skipped, order kept. */
+    public List<Person> getPeople(final Collection<Person.Id> ids, final Cached cached) {
+        return NearCacheContext.call(cached, () -> personDao.getPeople(ids));
+    }
     public Person getPersonByEmail(final String email, final Cached cached) {
         return NearCacheContext.call(cached, () -> personDao.getPersonByEmail(email));
     }
@@ -328,6 +343,15 @@ public class DAO {
     public Optional<Trip> getTrip(final String id, final Cached cached) {
         return NearCacheContext.call(cached, () -> tripDao.getTrip(id));
     }
+    /** {@link #getTrip} with the cache stamp; the trip is not parsed when {@code unchanged} accepts it. */
+    public Optional<Stamped<Trip>> getTripStamped(
+            final String id, final Predicate<String> unchanged, final Cached cached) {
+        return NearCacheContext.call(cached, () -> tripDao.getTripStamped(id, unchanged));
+    }
+    /** Batched {@link #getTrip}: one cache round trip for the lot; unknown ids are skipped, order kept. */
+    public List<Trip> getTrips(final Collection<String> ids, final Cached cached) {
+        return NearCacheContext.call(cached, () -> tripDao.getTrips(ids));
+    }
     public List<Trip> getActiveTrips(final LocalDateTime cutoff, final Cached cached) {
         return NearCacheContext.call(cached, () -> tripDao.getActiveTrips(cutoff));
     }
@@ -345,6 +369,14 @@ public class DAO {
     public TripEvent getTripEvent(final String id, final Cached cached) {
         return NearCacheContext.call(cached, () -> tripEventDao.getTripEvent(id));
     }
+    /** Batched {@link #getTripEvent}: one cache round trip for the lot; unknown ids are skipped, order kept. */
+    public List<TripEvent> getTripEvents(final Collection<String> ids, final Cached cached) {
+        return NearCacheContext.call(cached, () -> tripEventDao.getTripEvents(ids));
+    }
+    /** A stamp of these events as stored, or null; see {@link TripEventDAO#stampOf}. */
+    public String getTripEventsStamp(final List<String> eventIds, final Cached cached) {
+        return NearCacheContext.call(cached, () -> tripEventDao.stampOf(eventIds));
+    }
     public Boolean saveTripEvent(final TripEvent te) {
         return tripEventDao.saveTripEvent(te);
     }
@@ -359,6 +391,11 @@ public class DAO {
     public List<Registration> getRegistrations(final String tripId, final Cached cached) {
         return NearCacheContext.call(cached, () -> regDao.getRegistrations(tripId));
     }
+    /** {@link #getRegistrations} with the cache stamp; nothing is parsed when {@code unchanged} accepts it. */
+    public Stamped<List<Registration>> getRegistrationsStamped(
+            final String tripId, final Predicate<String> unchanged, final Cached cached) {
+        return NearCacheContext.call(cached, () -> regDao.getRegistrationsStamped(tripId, unchanged));
+    }
     public Optional<Registration> getRegistration(final String tripId, final Person.Id userId, final Cached cached) {
         return NearCacheContext.call(cached, () -> regDao.getRegistration(tripId, userId));
     }
@@ -367,12 +404,24 @@ public class DAO {
     public List<Transaction> getTransactions(final Person.Id userId, final Cached cached) {
         return NearCacheContext.call(cached, () -> txDao.getTransactions(userId));
     }
+    /** {@link #getTransactions} with the cache stamp; nothing is parsed when {@code unchanged} accepts it. */
+    public Stamped<List<Transaction>> getTransactionsStamped(
+            final Person.Id userId, final Predicate<String> unchanged, final Cached cached) {
+        return NearCacheContext.call(cached, () -> txDao.getTransactionsStamped(userId, unchanged));
+    }
     public Optional<Transaction> getTransaction(final Person.Id userId, final String txId, final Cached cached) {
         return NearCacheContext.call(cached, () -> txDao.getTransaction(userId, txId));
     }
     public Boolean saveTransaction(final Transaction tx) throws IOException {
         return txDao.saveTransaction(tx);
     }
+    /** Balances in cents, in the order given; see {@link BalanceLedger}. */
+    public Map<Person.Id, Long> getBalances(final Collection<Person.Id> userIds, final Cached cached) {
+        return NearCacheContext.call(cached, () -> txDao.getBalances(userIds));
+    }
+    public BalanceLedger.Reconciliation reconcileBalances(final Collection<Person.Id> userIds) {
+        return txDao.reconcileBalances(userIds);
+    }
 
     // Credentials
     public Creds adminGetCredsByEmail(final String email, final Cached cached) {
@@ -554,11 +603,16 @@ public class DAO {
     public Boolean saveAuditEvent(final AuditEvent event) {
         return auditDao.saveAuditEvent(event);
     }
+    /** Stores a batch from the index sink; answers the events that were NOT stored. */
+    public List<AuditEvent> saveAuditEvents(final List<AuditEvent> events) {
+        return auditDao.saveAuditEvents(events);
+    }
     public AuditPage getAuditEvents(final AuditQuery query, final Cached cached) {
         return NearCacheContext.call(cached, () -> auditDao.getAuditEvents(query));
     }
-    public List<AuditEvent> exportAuditEvents(final AuditQuery query, final Cached cached) {
-        return NearCacheContext.call(cached, () -> auditDao.exportAuditEvents(query));
+    /** Streamed export, oldest first, one slice in memory at a time (see AuditDAO). */
+    public void streamAuditEvents(final AuditQuery query, final Consumer<AuditEvent> each) {
+        auditDao.streamAuditEvents(query, each);
     }
 
     public Optional<Privilege> getPrivilege(final String name, final Cached cached) {
@@ -619,6 +673,10 @@ public class DAO {
         return NearCacheContext.call(cached,
                 () -> chatDao.getMessagesSince(channelId, since, limit, member, channel, trip, now));
     }
+    /** The shared read {@code ChatNudgeRegistry} runs once per coalesced wake. */
+    public ChatNudgeRegistry.SharedRead getChatWakeReads() {
+        return chatDao.wakeReads();
+    }
     public ChatPage getChatMessagesBefore(
             final ChatChannel.Id channelId, final ChatMessage.Id before, final int limit,
             final ChatMembership member, final ChatChannel channel, final Trip trip,
@@ -661,6 +719,13 @@ public class DAO {
     public Map<String, String> getChatLastActivity(final Cached cached) {
         return NearCacheContext.call(cached, () -> chatDao.lastActivity());
     }
+    public Map<String, String> getChatLastActivity(final Collection<ChatChannel.Id> channelIds, final Cached cached) {
+        return NearCacheContext.call(cached, () -> chatDao.lastActivity(channelIds));
+    }
+    public Map<ChatChannel.Id, ChatMessage.Id> getChatCursors(
+            final Collection<ChatChannel.Id> channelIds, final Person.Id personId, final Cached cached) {
+        return NearCacheContext.call(cached, () -> chatDao.getCursors(channelIds, personId));
+    }
     public Map<String, PhotoChatMeta> getPhotoChatMeta(final List<String> s3Keys, final Cached cached) {
         return NearCacheContext.call(cached, () -> chatDao.photoMeta(s3Keys));
     }
@@ -787,7 +852,7 @@ public class DAO {
 
     private List<String> clearTxScope() {
         txDao.clearCache();
-        return List.of(CacheKeys.TX_PREFIX);
+        return List.of(CacheKeys.TX_PREFIX, CacheKeys.LEDGER_PREFIX);
     }
 
     private List<String> clearTodoScope() {
@@ -849,7 +914,7 @@ public class DAO {
         invalidate(CacheScope.ALL);
     }
 
-    private ObjectMapper createObjectMapper() {
+    static ObjectMapper createObjectMapper() {
         final ObjectMapper mapper = new ObjectMapper();
         mapper.setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL);
         mapper.registerModule(new JavaTimeModule());
@@ -3,8 +3,13 @@ package org.paulsens.trip.dynamo;
 import java.net.URI;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.StructuredTaskScope;
 import java.util.function.Consumer;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
@@ -14,16 +19,24 @@ import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 /**
  * The real (deployed) {@link Persistence}: a synchronous DynamoDB client called from virtual threads.
@@ -45,6 +58,26 @@ class DynamoPersistence implements Persistence {
     private static final Duration ACQUISITION_TIMEOUT = Duration.ofSeconds(10);
     private static final Duration ATTEMPT_TIMEOUT = Duration.ofSeconds(10);
     private static final Duration CALL_TIMEOUT = Duration.ofSeconds(30);
+    /** DynamoDB's per-request key cap for {@code BatchGetItem}. */
+    private static final int BATCH_GET_LIMIT = 100;
+    /**
+     * Rounds per chunk before giving up on keys DynamoDB keeps handing back as unprocessed (throttling, or the
+     * 16 MB response cap). Backoff doubles from {@link #BATCH_GET_BACKOFF_MILLIS}, so the worst case is ~1.5s.
+     */
+    private static final int BATCH_GET_ATTEMPTS = 6;
+    /** Items per {@code TransactWriteItems} call. The service allows 100; 25 keeps one call's size and cost small. */
+    private static final int TRANSACT_WRITE_LIMIT = 25;
+    /** Rounds for a chunk cancelled for anything but a taken key; same backoff as the batch read. */
+    private static final int TRANSACT_WRITE_ATTEMPTS = 6;
+    private static final long BATCH_GET_BACKOFF_MILLIS = 50;
+    /**
+     * Parallel segments of a whole-table scan when the caller does not choose; override with
+     * {@code -Dtrip.dynamo.scanSegments} or {@code TRIP_DYNAMO_SCAN_SEGMENTS}. Each segment holds one pooled
+     * connection for the length of the scan, so this stays far below {@link #MAX_CONNECTIONS}.
+     */
+    private static final int DEFAULT_SCAN_SEGMENTS = 4;
+    private static final int MAX_SCAN_SEGMENTS = 16;
+    private static final int SCAN_SEGMENTS = resolveScanSegments();
 
     private final DynamoDbClient client;
 
@@ -102,6 +135,22 @@ class DynamoPersistence implements Persistence {
         return (region == null || region.isBlank()) ? Region.US_WEST_2 : Region.of(region.trim());
     }
 
+    static int resolveScanSegments() {
+        String raw = System.getProperty("trip.dynamo.scanSegments");
+        if (raw == null || raw.isBlank()) {
+            raw = System.getenv("TRIP_DYNAMO_SCAN_SEGMENTS");
+        }
+        try {
+            return (raw == null || raw.isBlank()) ? DEFAULT_SCAN_SEGMENTS : clampSegments(Integer.parseInt(raw.trim()));
+        } catch (final NumberFormatException ex) {
+            return DEFAULT_SCAN_SEGMENTS;
+        }
+    }
+
+    private static int clampSegments(final int segments) {
+        return Math.max(1, Math.min(MAX_SCAN_SEGMENTS, segments));
+    }
+
     @Override
     public ScanResponse scan(final Consumer<ScanRequest.Builder> scanRequest) {
         return client.scan(scanRequest);
@@ -112,6 +161,11 @@ class DynamoPersistence implements Persistence {
         return client.putItem(putItemRequest);
     }
 
+    @Override
+    public UpdateItemResponse updateItem(final Consumer<UpdateItemRequest.Builder> updateItemRequest) {
+        return client.updateItem(updateItemRequest);
+    }
+
     @Override
     public QueryResponse query(final Consumer<QueryRequest.Builder> queryRequest) {
         return client.query(queryRequest);
@@ -127,15 +181,157 @@ class DynamoPersistence implements Persistence {
         return client.deleteItem(delItemRequest);
     }
 
+    /**
+     * {@code BatchGetItem} in chunks of {@link #BATCH_GET_LIMIT}. Keys are de-duplicated first: DynamoDB rejects
+     * a request naming the same key twice. A chunk that still has unprocessed keys after
+     * {@link #BATCH_GET_ATTEMPTS} rounds fails the call rather than silently reporting those items as missing.
+     */
+    @Override
+    public List<Map<String, AttributeValue>> batchGetItems(
+            final String tableName, final Collection<Map<String, AttributeValue>> keys) {
+        final List<Map<String, AttributeValue>> distinct = List.copyOf(new LinkedHashSet<>(keys));
+        final List<Map<String, AttributeValue>> items = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += BATCH_GET_LIMIT) {
+            batchGetChunk(tableName, distinct.subList(from, Math.min(from + BATCH_GET_LIMIT, distinct.size())), items);
+        }
+        return items;
+    }
+
+    private void batchGetChunk(final String tableName, final List<Map<String, AttributeValue>> chunk,
+            final List<Map<String, AttributeValue>> items) {
+        Map<String, KeysAndAttributes> pending = Map.of(tableName, KeysAndAttributes.builder().keys(chunk).build());
+        for (int attempt = 1; ; attempt++) {
+            final Map<String, KeysAndAttributes> request = pending;
+            final BatchGetItemResponse resp = client.batchGetItem(b -> b.requestItems(request));
+            items.addAll(resp.responses().getOrDefault(tableName, List.of()));
+            if (!resp.hasUnprocessedKeys() || resp.unprocessedKeys().isEmpty()) {
+                return;
+            }
+            if (attempt >= BATCH_GET_ATTEMPTS) {
+                throw new IllegalStateException("BatchGetItem on " + tableName + " left "
+                        + resp.unprocessedKeys().get(tableName).keys().size() + " keys unprocessed after "
+                        + attempt + " attempts");
+            }
+            pause(BATCH_GET_BACKOFF_MILLIS << (attempt - 1));
+            pending = resp.unprocessedKeys();
+        }
+    }
+
+    /**
+     * {@code TransactWriteItems} in chunks of {@link #TRANSACT_WRITE_LIMIT}, every put conditioned on its key
+     * being free. A transaction is all or nothing, so a chunk with a taken key writes nothing: the cancellation
+     * reasons say which items failed their condition, and the chunk is resubmitted without them. A cancellation
+     * with no failed condition (a conflicting transaction on the same item, throttling) is retried as it stands,
+     * and one still cancelled after {@link #TRANSACT_WRITE_ATTEMPTS} rounds fails the call.
+     */
+    @Override
+    public Set<Integer> putItemsIfAbsent(
+            final String tableName, final String keyAttribute, final List<Map<String, AttributeValue>> items) {
+        final Set<Integer> taken = new TreeSet<>();
+        for (int from = 0; from < items.size(); from += TRANSACT_WRITE_LIMIT) {
+            final List<Integer> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + TRANSACT_WRITE_LIMIT, items.size()); i++) {
+                chunk.add(i);
+            }
+            putChunkIfAbsent(tableName, keyAttribute, items, chunk, taken);
+        }
+        return taken;
+    }
+
+    private void putChunkIfAbsent(final String tableName, final String keyAttribute,
+            final List<Map<String, AttributeValue>> items, final List<Integer> chunk, final Set<Integer> taken) {
+        List<Integer> pending = chunk;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            final List<TransactWriteItem> puts = new ArrayList<>(pending.size());
+            for (final int index : pending) {
+                puts.add(TransactWriteItem.builder().put(Put.builder()
+                        .tableName(tableName)
+                        .item(items.get(index))
+                        .conditionExpression("attribute_not_exists(" + keyAttribute + ")")
+                        .build()).build());
+            }
+            try {
+                client.transactWriteItems(b -> b.transactItems(puts));
+                return;
+            } catch (final TransactionCanceledException ex) {
+                final List<Integer> retry = new ArrayList<>(pending.size());
+                final List<CancellationReason> reasons = ex.hasCancellationReasons()
+                        ? ex.cancellationReasons() : List.of();
+                for (int i = 0; i < pending.size(); i++) {
+                    if (i < reasons.size() && "ConditionalCheckFailed".equals(reasons.get(i).code())) {
+                        taken.add(pending.get(i));
+                    } else {
+                        retry.add(pending.get(i));
+                    }
+                }
+                if (retry.size() == pending.size()) {
+                    if (attempt >= TRANSACT_WRITE_ATTEMPTS) {
+                        throw ex;
+                    }
+                    pause(BATCH_GET_BACKOFF_MILLIS << (attempt - 1));
+                }
+                pending = retry;
+            }
+        }
+    }
+
+    private static void pause(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a batched DynamoDB request", ex);
+        }
+    }
+
+    /** Every loader's full scan, now segmented: the pages of all segments, collected. */
     @Override
     public List<Map<String, AttributeValue>> scanAll(final Consumer<ScanRequest.Builder> scanRequest) {
         final List<Map<String, AttributeValue>> items = new ArrayList<>();
-        for (final ScanResponse page : client.scanPaginator(scanRequest)) {
-            items.addAll(page.items());
-        }
+        scanPages(scanRequest, 0, page -> {
+            synchronized (items) {
+                items.addAll(page);
+            }
+        });
         return items;
     }
 
+    /**
+     * One virtual thread per segment, each following its own pagination. A segment that fails fails the scan
+     * once the others finish, as a sequential scan that failed part-way would: a partial table is never an
+     * answer. A single segment runs on the caller's thread.
+     */
+    @Override
+    public void scanPages(final Consumer<ScanRequest.Builder> scanRequest, final int segments,
+            final Consumer<List<Map<String, AttributeValue>>> pages) {
+        final int total = (segments > 0) ? clampSegments(segments) : SCAN_SEGMENTS;
+        if (total == 1) {
+            for (final ScanResponse page : client.scanPaginator(scanRequest)) {
+                pages.accept(page.items());
+            }
+            return;
+        }
+        try (var scope = StructuredTaskScope.open()) {
+            for (int segment = 0; segment < total; segment++) {
+                final int mine = segment;
+                scope.fork(() -> {
+                    final Consumer<ScanRequest.Builder> segmentRequest = b -> {
+                        scanRequest.accept(b);
+                        b.segment(mine).totalSegments(total);
+                    };
+                    for (final ScanResponse page : client.scanPaginator(segmentRequest)) {
+                        pages.accept(page.items());
+                    }
+                    return null;
+                });
+            }
+            scope.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while scanning a table", ex);
+        }
+    }
+
     @Override
     public List<Map<String, AttributeValue>> queryAll(final Consumer<QueryRequest.Builder> queryRequest) {
         final List<Map<String, AttributeValue>> items = new ArrayList<>();
@@ -32,12 +32,12 @@ public class FamilyDAO {
     private static final String ID = "id";
     private static final String CONTENT = "content";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Family> familyJson;
     private final Persistence persistence;
     private final PointCache<Family> cache;
 
     protected FamilyDAO(final ObjectMapper mapper, final Persistence persistence, final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.familyJson = JsonCodec.of(mapper, Family.class);
         this.persistence = persistence;
         this.cache = PointCache.<Family>builder()
                 .cache(cacheClient)
@@ -58,7 +58,7 @@ public class FamilyDAO {
         family.setVersion(expected + 1);
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, AttributeValue.builder().s(family.getId().getValue()).build());
-        map.put(CONTENT, AttributeValue.builder().s(mapper.writeValueAsString(family)).build());
+        map.put(CONTENT, AttributeValue.builder().s(familyJson.write(family)).build());
         map.put(VERSION_ATTR, AttributeValue.builder().n(Long.toString(family.getVersion())).build());
         try {
             final boolean saved = persistence.putItem(b -> {
@@ -109,7 +109,7 @@ public class FamilyDAO {
 
     private Family parseFamily(final String json) {
         try {
-            return mapper.readValue(json, Family.class);
+            return familyJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse family record: " + json, ex);
             return null;
@@ -118,7 +118,7 @@ public class FamilyDAO {
 
     private String toJson(final Family family) {
         try {
-            return mapper.writeValueAsString(family);
+            return familyJson.write(family);
         } catch (final IOException ex) {
             log.error("Unable to serialize family: " + family.getId(), ex);
             return null;
@@ -5,10 +5,13 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
@@ -20,6 +23,8 @@ import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 /**
  * The in-memory datastore behind local mode and the tests.
@@ -29,6 +34,7 @@ import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
  *
  * <ul>
  *   <li>A conditional put on an existing key FAILS rather than overwriting.</li>
+ *   <li>An update applies its clauses atomically per item, and creates the item when the key is absent.</li>
  *   <li>Keys sort as STRINGS, not numbers — zero-padding is load-bearing.</li>
  *   <li>{@code scanIndexForward(false)} returns a partition newest-first.</li>
  *   <li>Unaliased reserved words in expressions are rejected the way DynamoDB would.</li>
@@ -54,6 +60,8 @@ public class InMemoryPersistence implements Persistence {
      */
     private static final Map<String, TableKeys> TABLES = Map.ofEntries(
             Map.entry(AuditDAO.AUDIT_TABLE, new TableKeys(AuditDAO.PARTITION, AuditDAO.SORT)),
+            Map.entry(AuditDAO.ACTOR_INDEX_TABLE, new TableKeys(AuditDAO.ACTOR_KEY, AuditDAO.SORT)),
+            Map.entry(AuditDAO.ACTION_INDEX_TABLE, new TableKeys(AuditDAO.ACTION_KEY, AuditDAO.SORT)),
             Map.entry(ChatDAO.CHANNELS_TABLE, new TableKeys(ChatDAO.ATTR_CHANNEL_ID, null)),
             Map.entry(ChatDAO.MEMBERS_TABLE, new TableKeys(ChatDAO.ATTR_CHANNEL_ID, ChatDAO.ATTR_PERSON_ID)),
             Map.entry(ChatDAO.MESSAGES_TABLE, new TableKeys(ChatDAO.ATTR_CHANNEL_ID, ChatDAO.ATTR_MSG_ID)),
@@ -91,6 +99,11 @@ public class InMemoryPersistence implements Persistence {
             // untestable.
             Map.entry(PaymentDAO.PAYMENTS_TABLE, new TableKeys(PaymentDAO.PAYMENT_ID, null)));
 
+    /** The start of each clause of an {@code UpdateExpression}. */
+    private static final Pattern UPDATE_CLAUSE = Pattern.compile("(?i)(?:^|\\s)(SET|REMOVE|ADD|DELETE)\\s");
+    private static final Pattern EXISTS_CONDITION =
+            Pattern.compile("^\\s*attribute_(not_)?exists\\s*\\(\\s*(#?\\w+)\\s*\\)\\s*$");
+
     /** table -> (pk -> (sk -> item)). sk is "" for PK-only tables. */
     private final Map<String, Map<String, Map<String, Map<String, AttributeValue>>>> store =
             new ConcurrentHashMap<>();
@@ -121,7 +134,8 @@ public class InMemoryPersistence implements Persistence {
             rejections.incrementAndGet();
             throw ConditionalCheckFailedException.builder().message("key exists: " + sk).build();
         }
-        if (condition != null && !notExists && !equalityConditionHolds(put, partition.get(sk))) {
+        if (condition != null && !notExists && !equalityConditionHolds(condition, put.expressionAttributeNames(),
+                put.expressionAttributeValues(), partition.get(sk))) {
             rejections.incrementAndGet();
             throw ConditionalCheckFailedException.builder().message("condition failed: " + condition).build();
         }
@@ -131,6 +145,46 @@ public class InMemoryPersistence implements Persistence {
         return response.build();
     }
 
+    /**
+     * {@code UpdateExpression} in the shapes the DAOs write -- {@code SET a = :v, ...} and {@code REMOVE a, ...},
+     * names plain or {@code #}-aliased -- applied atomically to the one item, which is created from its key when
+     * absent, as DynamoDB does. The condition may be {@code attribute_exists(a)}, {@code attribute_not_exists(a)}
+     * or the {@code #attr = :value} guard; like an unparseable condition, anything else ({@code ADD}, arithmetic,
+     * {@code if_not_exists}) fails loudly rather than being approximated.
+     */
+    @Override
+    public UpdateItemResponse updateItem(final Consumer<UpdateItemRequest.Builder> request) {
+        final UpdateItemRequest.Builder builder = UpdateItemRequest.builder();
+        request.accept(builder);
+        final UpdateItemRequest update = builder.build();
+        final TableKeys keys = TABLES.get(update.tableName());
+        if (keys == null) {
+            return Persistence.super.updateItem(request);
+        }
+        rejectUnaliasedReservedWords(update.updateExpression());
+        rejectUnaliasedReservedWords(update.conditionExpression());
+
+        final Map<String, AttributeValue> key = update.key();
+        final String pk = key.get(keys.pk).s();
+        final String sk = keys.sk == null ? "" : key.get(keys.sk).s();
+        final Map<String, Map<String, AttributeValue>> partition =
+                store.computeIfAbsent(update.tableName(), t -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(pk, k -> new ConcurrentHashMap<>());
+        partition.compute(sk, (k, existing) -> {
+            if (!conditionHolds(update, existing)) {
+                rejections.incrementAndGet();
+                throw ConditionalCheckFailedException.builder()
+                        .message("condition failed: " + update.conditionExpression()).build();
+            }
+            final Map<String, AttributeValue> item = new HashMap<>(existing == null ? key : existing);
+            applyUpdate(update, keys, item);
+            return item;
+        });
+        final UpdateItemResponse.Builder response = UpdateItemResponse.builder();
+        response.sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).build());
+        return response.build();
+    }
+
     @Override
     public GetItemResponse getItem(final Consumer<GetItemRequest.Builder> getItemRequest) {
         final GetItemRequest.Builder builder = GetItemRequest.builder();
@@ -275,32 +329,109 @@ public class InMemoryPersistence implements Persistence {
         return QueryResponse.builder().items(result).build();
     }
 
+    private static boolean conditionHolds(
+            final UpdateItemRequest update, final Map<String, AttributeValue> existing) {
+        final String condition = update.conditionExpression();
+        if (condition == null) {
+            return true;
+        }
+        final Matcher exists = EXISTS_CONDITION.matcher(condition);
+        if (exists.matches()) {
+            final String attr = resolveName(exists.group(2), update.expressionAttributeNames(), condition);
+            final boolean present = existing != null && existing.containsKey(attr);
+            return (exists.group(1) == null) == present;
+        }
+        return equalityConditionHolds(
+                condition, update.expressionAttributeNames(), update.expressionAttributeValues(), existing);
+    }
+
     /**
      * Evaluates a single {@code #attr = :value} equality condition (the optimistic-version guard shape) the way
      * DynamoDB would: the item must exist and the aliased attribute must equal the supplied value. Anything this
      * fake cannot parse fails loudly rather than silently passing -- a test asserting on a condition it does not
      * actually enforce would be worse than no test.
      */
-    private static boolean equalityConditionHolds(
-            final PutItemRequest put, final Map<String, AttributeValue> existing) {
-        final java.util.regex.Matcher matcher =
-                java.util.regex.Pattern.compile("^\\s*(#\\w+)\\s*=\\s*(:\\w+)\\s*$").matcher(put.conditionExpression());
+    private static boolean equalityConditionHolds(final String condition, final Map<String, String> names,
+            final Map<String, AttributeValue> values, final Map<String, AttributeValue> existing) {
+        final Matcher matcher = Pattern.compile("^\\s*(#\\w+)\\s*=\\s*(:\\w+)\\s*$").matcher(condition);
         if (!matcher.matches()) {
-            throw new IllegalArgumentException(
-                    "InMemoryPersistence cannot evaluate condition: " + put.conditionExpression());
+            throw new IllegalArgumentException("InMemoryPersistence cannot evaluate condition: " + condition);
         }
-        final String attr = put.expressionAttributeNames() == null
-                ? null : put.expressionAttributeNames().get(matcher.group(1));
-        final AttributeValue expected = put.expressionAttributeValues() == null
-                ? null : put.expressionAttributeValues().get(matcher.group(2));
+        final String attr = names == null ? null : names.get(matcher.group(1));
+        final AttributeValue expected = values == null ? null : values.get(matcher.group(2));
         if (attr == null || expected == null) {
-            throw new IllegalArgumentException("ValidationException: unresolved alias in condition: "
-                    + put.conditionExpression());
+            throw new IllegalArgumentException("ValidationException: unresolved alias in condition: " + condition);
         }
         final AttributeValue actual = existing == null ? null : existing.get(attr);
         return actual != null && actual.equals(expected);
     }
 
+    /** Applies each {@code SET}/{@code REMOVE} clause of the update to {@code item}; key attributes are immutable. */
+    private static void applyUpdate(
+            final UpdateItemRequest update, final TableKeys keys, final Map<String, AttributeValue> item) {
+        final String expression = update.updateExpression() == null ? "" : update.updateExpression();
+        final Matcher clause = UPDATE_CLAUSE.matcher(expression);
+        final List<String> actions = new ArrayList<>();
+        final List<Integer> starts = new ArrayList<>();
+        final List<Integer> bodies = new ArrayList<>();
+        while (clause.find()) {
+            actions.add(clause.group(1).toUpperCase(Locale.ROOT));
+            starts.add(clause.start());
+            bodies.add(clause.end());
+        }
+        if (actions.isEmpty() || !expression.substring(0, starts.get(0)).isBlank()) {
+            throw new IllegalArgumentException("InMemoryPersistence cannot evaluate update: " + expression);
+        }
+        for (int i = 0; i < actions.size(); i++) {
+            final int end = (i + 1 < actions.size()) ? starts.get(i + 1) : expression.length();
+            for (final String part : expression.substring(bodies.get(i), end).split(",")) {
+                applyAction(actions.get(i), part.trim(), update, keys, item);
+            }
+        }
+    }
+
+    private static void applyAction(final String action, final String part, final UpdateItemRequest update,
+            final TableKeys keys, final Map<String, AttributeValue> item) {
+        final Map<String, String> names = update.expressionAttributeNames();
+        final String expression = update.updateExpression();
+        final Matcher set = Pattern.compile("^(#?\\w+)\\s*=\\s*(:\\w+)$").matcher(part);
+        final String attr;
+        if ("SET".equals(action) && set.matches()) {
+            attr = resolveName(set.group(1), names, expression);
+        } else if ("REMOVE".equals(action) && part.matches("^#?\\w+$")) {
+            attr = resolveName(part, names, expression);
+        } else {
+            throw new IllegalArgumentException("InMemoryPersistence cannot evaluate update: " + expression);
+        }
+        if (attr.equals(keys.pk) || attr.equals(keys.sk)) {
+            throw new IllegalArgumentException("ValidationException: Cannot update attribute " + attr
+                    + ". This attribute is part of the key");
+        }
+        if ("REMOVE".equals(action)) {
+            item.remove(attr);
+            return;
+        }
+        final AttributeValue value = update.expressionAttributeValues() == null
+                ? null : update.expressionAttributeValues().get(set.group(2));
+        if (value == null) {
+            throw new IllegalArgumentException("ValidationException: unresolved value in update: " + expression);
+        }
+        item.put(attr, value);
+    }
+
+    /** A {@code #alias} resolved through {@code names}; a plain name is itself. */
+    private static String resolveName(final String token, final Map<String, String> names, final String expression) {
+        if (!token.startsWith("#")) {
+            return token;
+        }
+        final String name = names == null ? null : names.get(token);
+        if (name == null) {
+            throw new IllegalArgumentException("ValidationException: ExpressionAttributeNames contains no entry for "
+                    + token + " in " + expression);
+        }
+        return name;
+    }
+
     /** The sort key as a comparable string; a table without one, or a missing value, sorts as empty. */
     private static String sortKeyOf(final Map<String, AttributeValue> item, final TableKeys keys) {
         if (keys.sk == null) {
@@ -325,6 +456,9 @@ public class InMemoryPersistence implements Persistence {
         if (values.containsKey(":c")) {
             return values.get(":c").s();
         }
+        if (values.containsKey(":pk")) {
+            return values.get(":pk").s();
+        }
         // Fallback: first value whose attribute name maps to the PK.
         for (final Map.Entry<String, AttributeValue> e : values.entrySet()) {
             if (e.getKey().startsWith(":") && e.getValue().s() != null) {
@@ -0,0 +1,171 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+/**
+ * One-off sweep that writes the {@link IndexAttributes} onto {@code trips} and {@code people} rows saved before
+ * the DAOs wrote them, so the index rebuilds can stop reading and parsing those rows whole.
+ *
+ * <p>It computes the attributes with the DAOs' own code (the search tokens must match the app's tokenizer exactly,
+ * which is why this is not a shell script) and writes each row back unchanged but for them, on the condition that
+ * its {@code content} is still what was read: a row saved meanwhile already carries fresh attributes and is left
+ * alone. Rows whose content does not parse are reported and skipped; the rebuild keeps reading those whole.
+ * Nothing cached changes, so no cache invalidation is needed.</p>
+ *
+ * <p><b>Safe by default.</b> With no arguments it is a dry run that counts what would be written. Pass
+ * {@code --apply} to write and {@code --parallel N} to write up to N rows at once (default 1). It talks to the
+ * real DynamoDB (region from {@code TRIP_DYNAMO_REGION}, default {@code us-west-2}). Idempotent: a re-run skips
+ * every row already current.</p>
+ */
+@Slf4j
+public final class IndexAttributeBackfill {
+    private static final String CONTENT = "content";
+
+    private final Persistence persistence;
+    private final TripDAO trips;
+    private final PersonDAO people;
+
+    IndexAttributeBackfill(final ObjectMapper mapper, final Persistence persistence) {
+        this.persistence = persistence;
+        this.trips = new TripDAO(mapper, persistence, new TripEventDAO(mapper, persistence));
+        this.people = new PersonDAO(mapper, persistence);
+    }
+
+    public static void main(final String[] args) {
+        final boolean apply = hasFlag(args, "--apply");
+        final int parallelism = Math.max(1, intArg(args, "--parallel", 1));
+        if (!apply) {
+            log.info("DRY RUN (pass --apply to write). Scanning for rows without index attributes...");
+        } else {
+            log.warn("APPLY mode: index attributes WILL be written ({} rows at a time).", parallelism);
+        }
+        final IndexAttributeBackfill backfill =
+                new IndexAttributeBackfill(DAO.createObjectMapper(), new DynamoPersistence());
+        final Result result = backfill.run(apply, parallelism);
+        log.info("Done. Scanned={}, current={}, stale={}, written={}, changedMeanwhile={}, unparseable={}, "
+                        + "failed={}.", result.scanned.get(), result.current.get(), result.stale.get(),
+                result.written.get(), result.changedMeanwhile.get(), result.unparseable.get(),
+                result.failed.get());
+        if (result.failed.get() > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean hasFlag(final String[] args, final String flag) {
+        for (final String arg : args) {
+            if (flag.equals(arg)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int intArg(final String[] args, final String name, final int fallback) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (name.equals(args[i])) {
+                return Integer.parseInt(args[i + 1].trim());
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Runs the sweep over both tables, blocking until it finishes. When {@code apply} is false, counts what would
+     * be written but performs no writes.
+     */
+    Result run(final boolean apply, final int parallelism) {
+        final Result result = new Result();
+        final Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        backfill(TripDAO.TRIP_TABLE, trips::indexAttributesOf, apply, result, permits);
+        backfill(PersonDAO.PERSON_TABLE, people::indexAttributesOf, apply, result, permits);
+        return result;
+    }
+
+    private void backfill(final String table, final Function<Map<String, AttributeValue>,
+            Map<String, AttributeValue>> attributes, final boolean apply, final Result result,
+            final Semaphore permits) {
+        final List<Map<String, AttributeValue>> rows = persistence.scanAll(b -> b.tableName(table));
+        try (var scope = StructuredTaskScope.open()) {
+            for (final Map<String, AttributeValue> row : rows) {
+                result.scanned.incrementAndGet();
+                if (IndexAttributes.isCurrent(row)) {
+                    result.current.incrementAndGet();
+                    continue;
+                }
+                final Map<String, AttributeValue> attrs = attributes.apply(row);
+                if (attrs == null) {
+                    result.unparseable.incrementAndGet();
+                    log.warn("Row {} in '{}' has no parseable content; skipping.", idOf(row), table);
+                    continue;
+                }
+                result.stale.incrementAndGet();
+                if (apply) {
+                    scope.fork(() -> writeOne(table, row, attrs, result, permits));
+                }
+            }
+            scope.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backfilling index attributes", ex);
+        }
+    }
+
+    /**
+     * Writes ONE row back with its index attributes, counting the outcome. Never throws: one bad row must be a
+     * {@code failed} tally, not a cancelled sweep.
+     */
+    private Void writeOne(final String table, final Map<String, AttributeValue> row,
+            final Map<String, AttributeValue> attrs, final Result result, final Semaphore permits) {
+        try {
+            permits.acquire();
+            try {
+                final Map<String, AttributeValue> updated = new HashMap<>(row);
+                updated.putAll(attrs);
+                persistence.putItem(b -> b.tableName(table).item(updated)
+                        .conditionExpression("#c = :c")
+                        .expressionAttributeNames(Map.of("#c", CONTENT))
+                        .expressionAttributeValues(Map.of(":c", row.get(CONTENT))));
+                result.written.incrementAndGet();
+            } finally {
+                permits.release();
+            }
+        } catch (final ConditionalCheckFailedException ex) {
+            // Saved since the scan; that save wrote current attributes of its own.
+            result.changedMeanwhile.incrementAndGet();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            result.failed.incrementAndGet();
+            log.error("Interrupted while backfilling {} in '{}'.", idOf(row), table, ex);
+        } catch (final RuntimeException ex) {
+            result.failed.incrementAndGet();
+            log.error("Failed to backfill {} in '{}'.", idOf(row), table, ex);
+        }
+        return null;
+    }
+
+    private static String idOf(final Map<String, AttributeValue> row) {
+        final AttributeValue id = row.get("id");
+        return (id == null) ? "?" : id.s();
+    }
+
+    /** Thread-safe tallies from a sweep (updated from parallel workers). */
+    static final class Result {
+        final AtomicInteger scanned = new AtomicInteger();
+        final AtomicInteger current = new AtomicInteger();
+        final AtomicInteger stale = new AtomicInteger();
+        final AtomicInteger written = new AtomicInteger();
+        final AtomicInteger changedMeanwhile = new AtomicInteger();
+        final AtomicInteger unparseable = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+    }
+}
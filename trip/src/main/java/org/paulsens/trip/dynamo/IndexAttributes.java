@@ -0,0 +1,67 @@
+package org.paulsens.trip.dynamo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * The small top-level attributes a save writes beside an entity's {@code content} JSON, so an index rebuild can
+ * scan with a {@code ProjectionExpression} over just those and never read or parse the documents.
+ *
+ * <p>{@link #VERSION_ATTR} marks a row whose attributes were written by code that knows the current layout. A
+ * rebuild trusts only such rows; anything else -- a row saved before the attributes existed, or by an older
+ * layout -- is read whole and parsed as before, so an index is never wrong for want of a backfill. The backfill
+ * ({@link IndexAttributeBackfill}) only makes the rebuild cheaper. Bump {@link #VERSION} when the attributes
+ * change meaning, and every row falls back to the full read until it is saved or backfilled again.
+ */
+final class IndexAttributes {
+    static final String VERSION_ATTR = "idxV";
+    static final int VERSION = 1;
+
+    private IndexAttributes() {
+    }
+
+    static AttributeValue currentVersion() {
+        return AttributeValue.fromN(Integer.toString(VERSION));
+    }
+
+    /** Whether this row carries index attributes of the current layout. */
+    static boolean isCurrent(final Map<String, AttributeValue> row) {
+        final AttributeValue version = row.get(VERSION_ATTR);
+        return version != null && Integer.toString(VERSION).equals(version.n());
+    }
+
+    /** A string set, or empty for no strings: DynamoDB rejects an empty set, so the attribute is left off. */
+    static Optional<AttributeValue> stringSet(final Collection<String> values) {
+        return (values == null || values.isEmpty())
+                ? Optional.empty() : Optional.of(AttributeValue.fromSs(List.copyOf(values)));
+    }
+
+    static List<String> strings(final AttributeValue set) {
+        return (set == null || !set.hasSs()) ? List.of() : set.ss();
+    }
+
+    /**
+     * The whole rows behind projected ones that were not {@link #isCurrent}: those already carrying
+     * {@code contentAttr} (a store that ignores projections) as they are, the rest re-read in one batch.
+     */
+    static List<Map<String, AttributeValue>> wholeRows(final Persistence persistence, final String table,
+            final String keyAttr, final String contentAttr, final List<Map<String, AttributeValue>> rows) {
+        final List<Map<String, AttributeValue>> whole = new ArrayList<>();
+        final List<Map<String, AttributeValue>> keys = new ArrayList<>();
+        for (final Map<String, AttributeValue> row : rows) {
+            if (row.containsKey(contentAttr)) {
+                whole.add(row);
+            } else if (row.containsKey(keyAttr)) {
+                keys.add(Map.of(keyAttr, row.get(keyAttr)));
+            }
+        }
+        if (!keys.isEmpty()) {
+            whole.addAll(persistence.batchGetItems(table, keys));
+        }
+        return whole;
+    }
+}
@@ -0,0 +1,115 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One entity type's JSON reader and writer, built once per DAO instead of resolved on every call, and timed.
+ * {@code mapper.readValue(json, Trip.class)} looks up the root deserializer for {@code Trip} on each call; a reader
+ * made with {@code readerFor} fetched it when it was built, and cache-hit renders parse the same handful of types
+ * thousands of times a second.
+ *
+ * <p>The writer is typed only for final classes (records, Lombok {@code @Value}s). A writer typed to a class with
+ * subclasses would serialize every subclass as that class and silently drop its extra properties; for those the
+ * untyped writer still skips the mapper's per-call config copy.
+ *
+ * <p>Every codec of the same type shares one set of counters, reported per type by {@link #stats()} in
+ * {@code GET /api/cache/stats}, so "Jackson is hot on cache hits" can be narrowed to the type that makes it so.
+ *
+ * @param <T> the entity type.
+ */
+public final class JsonCodec<T> {
+
+    private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final Counters counters;
+
+    private JsonCodec(final ObjectMapper mapper, final Class<T> type) {
+        this.reader = mapper.readerFor(type);
+        this.writer = Modifier.isFinal(type.getModifiers()) ? mapper.writerFor(type) : mapper.writer();
+        this.counters = COUNTERS.computeIfAbsent(type.getSimpleName(), name -> new Counters());
+    }
+
+    public static <T> JsonCodec<T> of(final ObjectMapper mapper, final Class<T> type) {
+        return new JsonCodec<>(mapper, type);
+    }
+
+    /** Parses one entity. Throws exactly what {@code ObjectMapper.readValue} would. */
+    public T read(final String json) throws JsonProcessingException {
+        final long started = System.nanoTime();
+        try {
+            final T value = reader.readValue(json);
+            counters.reads.increment();
+            counters.readNanos.add(System.nanoTime() - started);
+            counters.readChars.add(json.length());
+            return value;
+        } catch (final JsonProcessingException | RuntimeException ex) {
+            counters.failures.increment();
+            throw ex;
+        }
+    }
+
+    /** Serializes one entity. Throws exactly what {@code ObjectMapper.writeValueAsString} would. */
+    public String write(final T value) throws JsonProcessingException {
+        final long started = System.nanoTime();
+        try {
+            final String json = writer.writeValueAsString(value);
+            counters.writes.increment();
+            counters.writeNanos.add(System.nanoTime() - started);
+            counters.writeChars.add(json.length());
+            return json;
+        } catch (final JsonProcessingException | RuntimeException ex) {
+            counters.failures.increment();
+            throw ex;
+        }
+    }
+
+    /** One type's totals since startup; means are in microseconds. */
+    public record Stats(String type, long reads, double meanReadMicros, long readChars, long writes,
+            double meanWriteMicros, long writeChars, long failures) {
+    }
+
+    /** Every type parsed or written so far, by total time spent, most first. */
+    public static List<Stats> stats() {
+        final List<Stats> out = new ArrayList<>(COUNTERS.size());
+        COUNTERS.forEach((type, c) -> out.add(c.snapshot(type)));
+        out.sort(Comparator.comparingDouble(JsonCodec::totalMicros).reversed());
+        return out;
+    }
+
+    private static double totalMicros(final Stats s) {
+        return s.reads() * s.meanReadMicros() + s.writes() * s.meanWriteMicros();
+    }
+
+    private static final class Counters {
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder readNanos = new LongAdder();
+        private final LongAdder readChars = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder writeNanos = new LongAdder();
+        private final LongAdder writeChars = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Stats snapshot(final String type) {
+            final long r = reads.sum();
+            final long w = writes.sum();
+            return new Stats(type, r, meanMicros(readNanos.sum(), r), readChars.sum(), w,
+                    meanMicros(writeNanos.sum(), w), writeChars.sum(), failures.sum());
+        }
+
+        private static double meanMicros(final long nanos, final long count) {
+            return count == 0 ? 0 : nanos / 1_000.0d / count;
+        }
+    }
+}
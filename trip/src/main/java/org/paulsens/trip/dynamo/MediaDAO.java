@@ -35,7 +35,7 @@ public class MediaDAO {
     /** Package-visible so {@link InMemoryPersistence} can register the table for local mode. */
     static final String MEDIA_TABLE = "media";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<MediaItem> mediaItemJson;
     private final Persistence persistence;
     private final PartitionScanCache<MediaItem> cache;
 
@@ -44,7 +44,7 @@ public class MediaDAO {
     }
 
     protected MediaDAO(final ObjectMapper mapper, final Persistence persistence, final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.mediaItemJson = JsonCodec.of(mapper, MediaItem.class);
         this.persistence = persistence;
         this.cache = PartitionScanCache.<MediaItem>builder()
                 .cache(cacheClient)
@@ -68,7 +68,7 @@ public class MediaDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, persistence.toStrAttr(item.getId()));
         try {
-            map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(item)));
+            map.put(CONTENT, persistence.toStrAttr(mediaItemJson.write(item)));
         } catch (final IOException ex) {
             final String error = "Unable to serialize media item: " + item.getId();
             log.warn(error);
@@ -169,7 +169,7 @@ public class MediaDAO {
 
     private MediaItem parseMedia(final String json) {
         try {
-            return mapper.readValue(json, MediaItem.class);
+            return mediaItemJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse media record: " + json, ex);
             return null;
@@ -178,7 +178,7 @@ public class MediaDAO {
 
     private String toJson(final MediaItem item) {
         try {
-            return mapper.writeValueAsString(item);
+            return mediaItemJson.write(item);
         } catch (final IOException ex) {
             log.error("Unable to serialize media item: " + item.getId(), ex);
             return null;
@@ -32,13 +32,13 @@ public class OrgMemberDAO {
     static final String PERSON_ID = "personId";
     private static final String CONTENT = "content";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<OrgMember> orgMemberJson;
     private final Persistence persistence;
     private final PartitionCache<String, OrgMember> cache;
 
     protected OrgMemberDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.orgMemberJson = JsonCodec.of(mapper, OrgMember.class);
         this.persistence = persistence;
         this.cache = PartitionCache.<String, OrgMember>builder()
                 .cache(cacheClient)
@@ -56,7 +56,7 @@ public class OrgMemberDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ORG_ID, AttributeValue.builder().s(member.getOrgId().getValue()).build());
         map.put(PERSON_ID, AttributeValue.builder().s(member.getPersonId().getValue()).build());
-        map.put(CONTENT, AttributeValue.builder().s(mapper.writeValueAsString(member)).build());
+        map.put(CONTENT, AttributeValue.builder().s(orgMemberJson.write(member)).build());
         final boolean saved = persistence.putItem(b -> b.tableName(ORG_MEMBERS_TABLE).item(map))
                 .sdkHttpResponse().isSuccessful();
         return saved && cache.put(member.getOrgId().getValue(), member);
@@ -100,7 +100,7 @@ public class OrgMemberDAO {
 
     private OrgMember parseMember(final String json) {
         try {
-            return mapper.readValue(json, OrgMember.class);
+            return orgMemberJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse org member record: " + json, ex);
             return null;
@@ -109,7 +109,7 @@ public class OrgMemberDAO {
 
     private String toJson(final OrgMember member) {
         try {
-            return mapper.writeValueAsString(member);
+            return orgMemberJson.write(member);
         } catch (final IOException ex) {
             log.error("Unable to serialize org member: " + member.getOrgId() + "/" + member.getPersonId(), ex);
             return null;
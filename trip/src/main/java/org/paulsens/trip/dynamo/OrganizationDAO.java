@@ -33,13 +33,13 @@ public class OrganizationDAO {
     private static final String ID = "id";
     private static final String CONTENT = "content";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Organization> organizationJson;
     private final Persistence persistence;
     private final PartitionScanCache<Organization> cache;
 
     protected OrganizationDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.organizationJson = JsonCodec.of(mapper, Organization.class);
         this.persistence = persistence;
         this.cache = PartitionScanCache.<Organization>builder()
                 .cache(cacheClient)
@@ -65,7 +65,7 @@ public class OrganizationDAO {
         org.setVersion(expected + 1);
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, AttributeValue.builder().s(org.getId().getValue()).build());
-        map.put(CONTENT, AttributeValue.builder().s(mapper.writeValueAsString(org)).build());
+        map.put(CONTENT, AttributeValue.builder().s(organizationJson.write(org)).build());
         map.put(VERSION_ATTR, AttributeValue.builder().n(Long.toString(org.getVersion())).build());
         try {
             final boolean saved = persistence.putItem(b -> {
@@ -132,7 +132,7 @@ public class OrganizationDAO {
 
     private Organization parseOrganization(final String json) {
         try {
-            return mapper.readValue(json, Organization.class);
+            return organizationJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse organization record: " + json, ex);
             return null;
@@ -141,7 +141,7 @@ public class OrganizationDAO {
 
     private String toJson(final Organization org) {
         try {
-            return mapper.writeValueAsString(org);
+            return organizationJson.write(org);
         } catch (final IOException ex) {
             log.error("Unable to serialize organization: " + org.getId(), ex);
             return null;
@@ -29,11 +29,11 @@ public class PaymentDAO {
     static final String STATUS_ATTR = "paymentStatus";
     private static final String CONTENT = "content";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Payment> paymentJson;
     private final Persistence persistence;
 
     protected PaymentDAO(final ObjectMapper mapper, final Persistence persistence) {
-        this.mapper = mapper;
+        this.paymentJson = JsonCodec.of(mapper, Payment.class);
         this.persistence = persistence;
     }
 
@@ -86,13 +86,13 @@ public class PaymentDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(PAYMENT_ID, AttributeValue.builder().s(payment.getPaymentId()).build());
         map.put(STATUS_ATTR, AttributeValue.builder().s(payment.getStatus().name()).build());
-        map.put(CONTENT, AttributeValue.builder().s(mapper.writeValueAsString(payment)).build());
+        map.put(CONTENT, AttributeValue.builder().s(paymentJson.write(payment)).build());
         return map;
     }
 
     private Payment parsePayment(final String json) {
         try {
-            return mapper.readValue(json, Payment.class);
+            return paymentJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse payment record: " + json, ex);
             return null;
@@ -34,13 +34,13 @@ public class PaymentProcessorDAO {
     static final String VERSION_ATTR = "version";
     private static final String CONTENT = "content";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<PaymentProcessorConfig> paymentProcessorConfigJson;
     private final Persistence persistence;
     private final PartitionCache<String, PaymentProcessorConfig> cache;
 
     protected PaymentProcessorDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.paymentProcessorConfigJson = JsonCodec.of(mapper, PaymentProcessorConfig.class);
         this.persistence = persistence;
         this.cache = PartitionCache.<String, PaymentProcessorConfig>builder()
                 .cache(cacheClient)
@@ -64,7 +64,7 @@ public class PaymentProcessorDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ORG_ID, AttributeValue.builder().s(config.getOrgId().getValue()).build());
         map.put(CONFIG_ID, AttributeValue.builder().s(config.getId().getValue()).build());
-        map.put(CONTENT, AttributeValue.builder().s(mapper.writeValueAsString(config)).build());
+        map.put(CONTENT, AttributeValue.builder().s(paymentProcessorConfigJson.write(config)).build());
         map.put(VERSION_ATTR, AttributeValue.builder().n(Long.toString(config.getVersion())).build());
         try {
             final boolean saved = persistence.putItem(b -> {
@@ -130,7 +130,7 @@ public class PaymentProcessorDAO {
 
     private PaymentProcessorConfig parseConfig(final String json) {
         try {
-            return mapper.readValue(json, PaymentProcessorConfig.class);
+            return paymentProcessorConfigJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse payment processor config: " + json, ex);
             return null;
@@ -139,7 +139,7 @@ public class PaymentProcessorDAO {
 
     private String toJson(final PaymentProcessorConfig config) {
         try {
-            return mapper.writeValueAsString(config);
+            return paymentProcessorConfigJson.write(config);
         } catch (final IOException ex) {
             log.error("Unable to serialize payment processor config: " + config.getId(), ex);
             return null;
@@ -5,9 +5,12 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 import software.amazon.awssdk.http.SdkHttpResponse;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
@@ -18,6 +21,8 @@ import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 /**
  * Abstracts the datastore. Since the virtual-threads migration these are plain BLOCKING calls: the caller's
@@ -32,6 +37,19 @@ public interface Persistence {
         return builder.build();
     }
 
+    /**
+     * Changes named attributes of one item in place ({@code UpdateExpression}), leaving the rest of the row
+     * alone: a hot single-field write (a login timestamp) then ships those few bytes instead of the whole
+     * row, and cannot clobber a field another writer changed meanwhile. Like DynamoDB's, it CREATES the item
+     * when the key is absent -- callers that must only touch an existing row say so with a condition
+     * ({@code attribute_exists}), which throws {@link ConditionalCheckFailedException} when it does not hold.
+     */
+    default UpdateItemResponse updateItem(Consumer<UpdateItemRequest.Builder> updateItemRequest) {
+        final UpdateItemResponse.Builder builder = UpdateItemResponse.builder();
+        builder.sdkHttpResponse(SdkHttpResponse.builder().statusCode(200).build());
+        return builder.build();
+    }
+
     default ScanResponse scan(Consumer<ScanRequest.Builder> scanRequest) {
         return ScanResponse.builder().items(new ArrayList<>()).build();
     }
@@ -64,6 +82,25 @@ public interface Persistence {
         return scan(scanRequest).items();
     }
 
+    /**
+     * Scans the entire table like {@link #scanAll}, handing each page to {@code pages} as it arrives instead of
+     * collecting them first, so a loader can parse and index while the rest of the table is still on the wire.
+     * The real store splits the scan into {@code segments} parallel DynamoDB segments ({@code Segment} /
+     * {@code TotalSegments}), so {@code pages} is called from several threads at once and must be thread-safe;
+     * the page order is unspecified. {@code segments <= 0} means the store's configured default. This default
+     * hands over {@link #scanAll} as a single page, so fakes and tests keep their existing behavior.
+     */
+    default void scanPages(Consumer<ScanRequest.Builder> scanRequest, int segments,
+            Consumer<List<Map<String, AttributeValue>>> pages) {
+        pages.accept(scanAll(scanRequest));
+    }
+
+    /** {@link #scanPages(Consumer, int, Consumer)} with the store's configured segment count. */
+    default void scanPages(Consumer<ScanRequest.Builder> scanRequest,
+            Consumer<List<Map<String, AttributeValue>>> pages) {
+        scanPages(scanRequest, 0, pages);
+    }
+
     /**
      * Runs a query, following pagination (see {@link #scanAll}). This default delegates to {@link #query} (one
      * page) so fakes and tests keep their existing behavior.
@@ -78,6 +115,47 @@ public interface Persistence {
         return query(queryRequest).items();
     }
 
+    /**
+     * Point-reads many items of one table by primary key. The real store issues {@code BatchGetItem}, chunked at
+     * DynamoDB's 100-key request limit with unprocessed keys retried; this default falls back to one
+     * {@link #getItem} per key so fakes that model {@code getItem} answer correctly. Missing items are simply
+     * absent from the result, and the result order is unspecified -- key the items by id.
+     */
+    default List<Map<String, AttributeValue>> batchGetItems(
+            final String tableName, final Collection<Map<String, AttributeValue>> keys) {
+        final List<Map<String, AttributeValue>> items = new ArrayList<>();
+        for (final Map<String, AttributeValue> key : keys) {
+            final GetItemResponse resp = getItem(b -> b.tableName(tableName).key(key));
+            if (resp.hasItem() && !resp.item().isEmpty()) {
+                items.add(resp.item());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Puts many items of one table, each only if its key is not taken yet ({@code attribute_not_exists} on
+     * {@code keyAttribute}). The real store issues {@code TransactWriteItems} -- the batch write that can carry a
+     * condition -- and resubmits the rest when some conditions fail, so the answer means the same thing on
+     * every store: the items at the returned indexes were NOT written (their key was taken), and every other
+     * item was. This default puts one item at a time, so fakes that model conditional {@code putItem} answer
+     * correctly. Any other failure throws, and then nothing can be assumed about which items were written.
+     */
+    default Set<Integer> putItemsIfAbsent(
+            final String tableName, final String keyAttribute, final List<Map<String, AttributeValue>> items) {
+        final Set<Integer> taken = new TreeSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            final Map<String, AttributeValue> item = items.get(i);
+            try {
+                putItem(b -> b.tableName(tableName).item(item)
+                        .conditionExpression("attribute_not_exists(" + keyAttribute + ")"));
+            } catch (final ConditionalCheckFailedException ex) {
+                taken.add(i);
+            }
+        }
+        return taken;
+    }
+
     default AttributeValue toStrAttr(final String val) {
         return AttributeValue.builder().s(val).build();
     }
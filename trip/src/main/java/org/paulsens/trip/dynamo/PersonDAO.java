@@ -3,6 +3,8 @@ package org.paulsens.trip.dynamo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -10,21 +12,27 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.cache.CacheClient;
+import org.paulsens.trip.cache.CacheInvalidation;
 import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.cache.CacheSupport;
 import org.paulsens.trip.cache.InMemoryCacheClient;
+import org.paulsens.trip.cache.LocalSearchIndex;
 import org.paulsens.trip.cache.PointCache;
 import org.paulsens.trip.cache.SearchIndex;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Person;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 /**
  * People are point entries -- there is deliberately no "load all people" path. Lookups are by id (point cache in
  * front of a Dynamo point read), by email (cached hash in front of the {@code email-index} GSI), or by prefix
- * search ({@link SearchIndex} over name/nickname/email/cell tokens).
+ * search over name/nickname/email/cell tokens -- ranked and typo-tolerant from this process's
+ * {@link LocalSearchIndex}, or prefix-only from the shared {@link SearchIndex} until that is built.
  */
 @Slf4j
 public class PersonDAO {
@@ -34,19 +42,25 @@ public class PersonDAO {
     /** Top-level (lowercased) copy of the person's email; partition key of the {@link #EMAIL_INDEX} GSI. */
     static final String EMAIL_ATTR = "email";
     static final String EMAIL_INDEX = "email-index";
+    /** Index attribute ({@link IndexAttributes}): a live person's search tokens; absent for the deleted. */
+    static final String SEARCH_TOKENS = "searchTokens";
+    private static final String INDEX_PROJECTION = "#id, #v, #tokens";
+    private static final Map<String, String> INDEX_NAMES =
+            Map.of("#id", ID, "#v", IndexAttributes.VERSION_ATTR, "#tokens", SEARCH_TOKENS);
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Person> personJson;
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PointCache<Person> cache;
     private final SearchIndex searchIndex;
+    private final LocalSearchIndex localSearch;
 
     protected PersonDAO(final ObjectMapper mapper, final Persistence persistence) {
         this(mapper, persistence, new InMemoryCacheClient());
     }
 
     protected PersonDAO(final ObjectMapper mapper, final Persistence persistence, final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.personJson = JsonCodec.of(mapper, Person.class);
         this.persistence = persistence;
         this.cacheClient = cacheClient;
         this.cache = PointCache.<Person>builder()
@@ -62,16 +76,24 @@ public class PersonDAO {
                 .softRevalidate(CacheSupport.softRevalidateEnabled(cacheClient))
                 .loader(this::loadAllSearchTokens)
                 .build();
+        this.localSearch = LocalSearchIndex.builder()
+                .name("people")
+                .loader(this::loadAllSearchTokens)
+                .build();
+        // Other instances' person writes reach this index through the per-key broadcast; held for the DAO's life.
+        CacheInvalidation.onRemoteWrites(cacheClient, CacheKeys.PERSON_PREFIX,
+                this::reindexRemoteWrite, localSearch::invalidate);
     }
 
     protected Boolean savePerson(final Person person) throws IOException {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, AttributeValue.builder().s(person.getId().getValue()).build());
-        map.put(CONTENT, AttributeValue.builder().s(mapper.writeValueAsString(person)).build());
+        map.put(CONTENT, AttributeValue.builder().s(personJson.write(person)).build());
         final String email = normalizedEmail(person);
         if (email != null) {
             map.put(EMAIL_ATTR, AttributeValue.builder().s(email).build());
         }
+        map.putAll(indexAttributes(person));
         // The previous version drives the search-index / email-lookup diff (removing stale tokens and mappings).
         try {
             final Person prev = cache.get(person.getId().getValue(), this::loadPersonById).orElse(null);
@@ -94,6 +116,22 @@ public class PersonDAO {
         }
     }
 
+    /** {@link #getPerson(Person.Id)} stamped for conditional GETs; see {@link PointCache#getStamped}. */
+    protected Optional<Stamped<Person>> getPersonStamped(final Person.Id id, final Predicate<String> unchanged) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return cache.getStamped(id.getValue(), this::loadPersonById, unchanged);
+    }
+
+    /**
+     * Many people by id in one pass (one cache MGET, one {@code BatchGetItem} for the misses), in the order
+     * given. Null, unknown and deleted ids are skipped.
+     */
+    protected List<Person> getPeople(final Collection<Person.Id> ids) {
+        return resolvePeople(ids.stream().filter(id -> id != null).map(Person.Id::getValue).toList());
+    }
+
     protected Person getPersonByEmail(final String email) {
         final String lowEmail = (email == null) ? "" : email.trim().toLowerCase(Locale.ROOT);
         if (lowEmail.isEmpty()) {
@@ -129,14 +167,20 @@ public class PersonDAO {
     }
 
     /**
-     * Prefix search over name/nickname/email/cell. The first (longest) query word drives the index lookup; every
-     * word must then match the resolved person, which also filters out entries stale since the last index rebuild.
+     * Search over name/nickname/email/cell; every query word must match. Ranked by match quality (see
+     * {@link LocalSearchIndex#score}) once this process's index is built, then by name. Until then -- the first
+     * searches after a start or a {@link #clearCache()} -- the longest word drives a {@link SearchIndex} prefix
+     * lookup instead. Either way the resolved people are re-checked, which drops entries stale since a rebuild.
      */
     protected List<Person> searchPeople(final String query, final int limit) {
         final List<String> words = queryWords(query);
         if (words.isEmpty() || limit <= 0) {
             return List.of();
         }
+        final Optional<List<String>> ranked = localSearch.searchIds(words, limit * 3);
+        if (ranked.isPresent()) {
+            return rankPeople(resolvePeople(ranked.get()), words, limit);
+        }
         final String prefix = words.stream().reduce((a, b) -> b.length() > a.length() ? b : a).get();
         try {
             return 
@@ -150,10 +194,26 @@ public class PersonDAO {
         }
     }
 
+    /**
+     * Another instance wrote the person cached under {@code key}: re-reads the row and moves this process's
+     * index to its tokens (none once deleted). Reads the table, not the cache, so the re-read puts nothing
+     * that would be announced back.
+     */
+    private void reindexRemoteWrite(final String key) {
+        final String id = key.substring(CacheKeys.PERSON_PREFIX.length());
+        localSearch.update(id, Set.of(), searchTokens(loadPersonById(id)));
+    }
+
+    /** Builds this process's search index now, on the calling thread, rather than on the first search. */
+    void warmSearch() {
+        localSearch.warm();
+    }
+
     public void clearCache() {
         cacheClient.clearNamespace(CacheKeys.PERSON_PREFIX);
         cacheClient.removeKey(CacheKeys.EMAIL_IDX);
         searchIndex.invalidate();
+        localSearch.invalidate();
     }
 
     /** The (normalized, non-empty) search tokens for one person. */
@@ -178,6 +238,7 @@ public class PersonDAO {
                 ? cache.put(id, person) : cache.remove(id);
         final Set<String> newTokens = (person.getDeleted() == null) ? searchTokens(person) : Set.of();
         searchIndex.update(id, searchTokens(prev), newTokens);
+        localSearch.update(id, searchTokens(prev), newTokens);
         return entityUpdate;
     }
 
@@ -234,9 +295,19 @@ public class PersonDAO {
     }
 
     private List<Person> resolvePeople(final List<String> ids) {
-        final List<Person> people = new ArrayList<>();
-        for (final String id : ids) {
-            cache.get(id, this::loadPersonById).ifPresent(people::add);
+        return new ArrayList<>(cache.getAll(ids, this::loadPeopleByIds).values());
+    }
+
+    private Map<String, Person> loadPeopleByIds(final Collection<String> ids) {
+        final List<Map<String, AttributeValue>> keys = ids.stream()
+                .map(id -> Map.of(ID, persistence.toStrAttr(id)))
+                .toList();
+        final Map<String, Person> people = new HashMap<>();
+        for (final Map<String, AttributeValue> item : persistence.batchGetItems(PERSON_TABLE, keys)) {
+            final Person person = toPerson(item.get(CONTENT));
+            if (person != null && person.getDeleted() == null) {
+                people.put(item.get(ID).s(), person);
+            }
         }
         return people;
     }
@@ -248,21 +319,74 @@ public class PersonDAO {
                 .toList();
     }
 
+    private static List<Person> rankPeople(final List<Person> people, final List<String> words, final int limit) {
+        record Ranked(Person person, int score) {
+        }
+        return people.stream()
+                .map(person -> new Ranked(person, LocalSearchIndex.score(words, searchTokens(person))))
+                .filter(ranked -> ranked.score() > 0)
+                .sorted(Comparator.comparingInt(Ranked::score).reversed()
+                        .thenComparing(Ranked::person))
+                .limit(limit)
+                .map(Ranked::person)
+                .toList();
+    }
+
     private static boolean matchesAllWords(final Person person, final List<String> words) {
         final Set<String> tokens = searchTokens(person);
         return words.stream().allMatch(word -> tokens.stream().anyMatch(token -> token.contains(word)));
     }
 
+    /**
+     * Scans only the stored search tokens, so a cold build parses no person JSON. Rows saved before the tokens
+     * were stored are read whole and tokenized, a page at a time as segments deliver them.
+     */
     private Map<String, Set<String>> loadAllSearchTokens() {
+        final Map<String, Set<String>> tokens = new ConcurrentHashMap<>();
+        persistence.scanPages(b -> b.consistentRead(false).limit(2000).tableName(PERSON_TABLE)
+                        .projectionExpression(INDEX_PROJECTION).expressionAttributeNames(INDEX_NAMES),
+                page -> tokens.putAll(tokensOf(page)));
+        return tokens;
+    }
+
+    private Map<String, Set<String>> tokensOf(final List<Map<String, AttributeValue>> page) {
         final Map<String, Set<String>> tokens = new HashMap<>();
-        persistence.scanAll(b -> b.consistentRead(false).limit(2000).tableName(PERSON_TABLE).build())
-                .stream()
-                .map(it -> toPerson(it.get(CONTENT)))
-                .filter(p -> p != null && p.getDeleted() == null)
-                .forEach(p -> tokens.put(p.getId().getValue(), searchTokens(p)));
+        final List<Map<String, AttributeValue>> unindexed = new ArrayList<>();
+        for (final Map<String, AttributeValue> row : page) {
+            if (!IndexAttributes.isCurrent(row)) {
+                unindexed.add(row);
+            } else if (row.containsKey(SEARCH_TOKENS)) {
+                tokens.put(row.get(ID).s(), Set.copyOf(IndexAttributes.strings(row.get(SEARCH_TOKENS))));
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            IndexAttributes.wholeRows(persistence, PERSON_TABLE, ID, CONTENT, unindexed).stream()
+                    .map(it -> toPerson(it.get(CONTENT)))
+                    .filter(p -> p != null && p.getDeleted() == null)
+                    .forEach(p -> tokens.put(p.getId().getValue(), searchTokens(p)));
+        }
         return tokens;
     }
 
+    /**
+     * The index attributes a save writes beside {@code content}. A deleted person (or one with nothing to
+     * search by) is marked current with no tokens, which the rebuild skips without reading the row.
+     */
+    static Map<String, AttributeValue> indexAttributes(final Person person) {
+        final Map<String, AttributeValue> attrs = new HashMap<>();
+        attrs.put(IndexAttributes.VERSION_ATTR, IndexAttributes.currentVersion());
+        if (person.getDeleted() == null) {
+            IndexAttributes.stringSet(searchTokens(person)).ifPresent(tokens -> attrs.put(SEARCH_TOKENS, tokens));
+        }
+        return attrs;
+    }
+
+    /** {@link #indexAttributes} for a stored row, or null when its content does not parse; for the backfill. */
+    Map<String, AttributeValue> indexAttributesOf(final Map<String, AttributeValue> row) {
+        final Person person = toPerson(row.get(CONTENT));
+        return (person == null) ? null : indexAttributes(person);
+    }
+
     private static String normalizedEmail(final Person person) {
         if (person == null) {
             return null;
@@ -277,7 +401,7 @@ public class PersonDAO {
 
     private Person parsePerson(final String json) {
         try {
-            return mapper.readValue(json, Person.class);
+            return personJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse person record: " + json, ex);
             return null;
@@ -286,7 +410,7 @@ public class PersonDAO {
 
     private String toJson(final Person person) {
         try {
-            return mapper.writeValueAsString(person);
+            return personJson.write(person);
         } catch (final IOException ex) {
             log.error("Unable to serialize person: " + person.getId(), ex);
             return null;
@@ -29,7 +29,7 @@ public class PersonDataValueDAO {
     private static final String TYPE = "type";
     private static final String USER_ID = "userId";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<PersonDataValue> personDataValueJson;
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PartitionCache<DataId, PersonDataValue> cache;
@@ -40,7 +40,7 @@ public class PersonDataValueDAO {
 
     protected PersonDataValueDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.personDataValueJson = JsonCodec.of(mapper, PersonDataValue.class);
         this.persistence = persistence;
         this.cacheClient = cacheClient;
         this.cache = PartitionCache.<DataId, PersonDataValue>builder()
@@ -60,7 +60,7 @@ public class PersonDataValueDAO {
         map.put(USER_ID, persistence.toStrAttr(pdv.getUserId().getValue()));
         map.put(DATA_ID, persistence.toStrAttr(pdv.getDataId().getValue()));
         map.put(TYPE, persistence.toStrAttr(pdv.getType()));
-        map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(pdv)));
+        map.put(CONTENT, persistence.toStrAttr(personDataValueJson.write(pdv)));
         try {
             final boolean saved = persistence.putItem(b -> b.tableName(PERSON_DATA_VALUE_TABLE).item(map))
                     .sdkHttpResponse().isSuccessful();
@@ -123,7 +123,7 @@ public class PersonDataValueDAO {
 
     private PersonDataValue parsePersonDataValue(final String json) {
         try {
-            return mapper.readValue(json, PersonDataValue.class);
+            return personDataValueJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse Person Data Value record: " + json, ex);
             return null;
@@ -132,7 +132,7 @@ public class PersonDataValueDAO {
 
     private String toJson(final PersonDataValue pdv) {
         try {
-            return mapper.writeValueAsString(pdv);
+            return personDataValueJson.write(pdv);
         } catch (final IOException ex) {
             log.error("Unable to serialize PDV: " + pdv.getDataId(), ex);
             return null;
@@ -31,7 +31,7 @@ public class PrivilegesDAO {
     protected static final Comparator<Privilege> privSorter = (a, b) ->
             a.getName().compareToIgnoreCase(b.getName());
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Privilege> privilegeJson;
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PartitionScanCache<Privilege> cache;
@@ -41,7 +41,7 @@ public class PrivilegesDAO {
     }
 
     protected PrivilegesDAO(final ObjectMapper mapper, final Persistence persistence, final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.privilegeJson = JsonCodec.of(mapper, Privilege.class);
         this.persistence = persistence;
         this.cacheClient = cacheClient;
         this.cache = PartitionScanCache.<Privilege>builder()
@@ -61,7 +61,7 @@ public class PrivilegesDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(NAME, persistence.toStrAttr(priv.getId()));
         try {
-            map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(priv)));
+            map.put(CONTENT, persistence.toStrAttr(privilegeJson.write(priv)));
         } catch (final IOException ex) {
             final String error = "Unable to serialize privilege named: " + priv.getId();
             log.warn(error);
@@ -153,7 +153,7 @@ public class PrivilegesDAO {
 
     private Privilege parsePrivilege(final String json) {
         try {
-            return mapper.readValue(json, Privilege.class);
+            return privilegeJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse privilege record: " + json, ex);
             return null;
@@ -162,7 +162,7 @@ public class PrivilegesDAO {
 
     private String toJson(final Privilege priv) {
         try {
-            return mapper.writeValueAsString(priv);
+            return privilegeJson.write(priv);
         } catch (final IOException ex) {
             log.error("Unable to serialize privilege: " + priv.getId(), ex);
             return null;
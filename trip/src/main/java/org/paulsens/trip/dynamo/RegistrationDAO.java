@@ -7,12 +7,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.cache.CacheClient;
 import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.cache.CacheSupport;
 import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.cache.PartitionCache;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Registration;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
@@ -26,7 +28,7 @@ public class RegistrationDAO {
     private static final String DELETED = "deleted";
     private static final String REGISTRATION_TABLE = "registrations";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Registration> registrationJson;
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PartitionCache<Person.Id, Registration> cache;
@@ -37,13 +39,15 @@ public class RegistrationDAO {
 
     protected RegistrationDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.registrationJson = JsonCodec.of(mapper, Registration.class);
         this.persistence = persistence;
         this.cacheClient = cacheClient;
         this.cache = PartitionCache.<Person.Id, Registration>builder()
                 .cache(cacheClient)
                 .keyPrefix(CacheKeys.REG_PREFIX)
                 .softRevalidate(CacheSupport.softRevalidateEnabled(cacheClient))
+                // A trip's registrations are one big partition behind every roster page: load it once per cluster.
+                .coalesceAcrossInstances(CacheSupport.sharedAcrossInstances(cacheClient))
                 .idGetter(Registration::getUserId)
                 .idFormatter(Person.Id::getValue)
                 .serializer(this::toJson)
@@ -57,7 +61,7 @@ public class RegistrationDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(TRIP_ID, persistence.toStrAttr(reg.getTripId()));
         map.put(USER_ID, persistence.toStrAttr(reg.getUserId().getValue()));
-        map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(reg)));
+        map.put(CONTENT, persistence.toStrAttr(registrationJson.write(reg)));
         try {
             final boolean saved = persistence.putItem(b -> b.tableName(REGISTRATION_TABLE).item(map))
                     .sdkHttpResponse().isSuccessful();
@@ -83,6 +87,12 @@ public class RegistrationDAO {
         }
     }
 
+    /** {@link #getRegistrations} stamped for conditional GETs; see {@link PartitionCache#getAllStamped}. */
+    protected Stamped<List<Registration>> getRegistrationsStamped(
+            final String tripId, final Predicate<String> unchanged) {
+        return cache.getAllStamped(tripId, () -> loadTripRegData(tripId), unchanged);
+    }
+
     protected Optional<Registration> getRegistration(final String tripId, final Person.Id userId) {
         try {
             return cache.getOne(tripId, userId, () -> loadTripRegData(tripId));
@@ -116,7 +126,7 @@ public class RegistrationDAO {
 
     private Registration parseRegistration(final String json) {
         try {
-            return mapper.readValue(json, Registration.class);
+            return registrationJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse registration record: " + json, ex);
             return null;
@@ -125,7 +135,7 @@ public class RegistrationDAO {
 
     private String toJson(final Registration reg) {
         try {
-            return mapper.writeValueAsString(reg);
+            return registrationJson.write(reg);
         } catch (final IOException ex) {
             log.error("Unable to serialize registration: " + reg.getTripId() + "/" + reg.getUserId(), ex);
             return null;
@@ -39,7 +39,8 @@ public class TemplateDAO {
     /** Package-visible so {@link InMemoryPersistence} can register the table for local mode. */
     static final String TEMPLATES_TABLE = "templates";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<TemplateRecord> templateRecordJson;
+    private final JsonCodec<ContentTemplate> contentTemplateJson;
     private final Persistence persistence;
     private final PartitionScanCache<ContentTemplate> cache;
 
@@ -49,7 +50,8 @@ public class TemplateDAO {
 
     protected TemplateDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.templateRecordJson = JsonCodec.of(mapper, TemplateRecord.class);
+        this.contentTemplateJson = JsonCodec.of(mapper, ContentTemplate.class);
         this.persistence = persistence;
         this.cache = PartitionScanCache.<ContentTemplate>builder()
                 .cache(cacheClient)
@@ -170,7 +172,7 @@ public class TemplateDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, persistence.toStrAttr(row.getId()));
         try {
-            map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(row)));
+            map.put(CONTENT, persistence.toStrAttr(templateRecordJson.write(row)));
         } catch (final IOException ex) {
             final String error = "Unable to serialize template record: " + row.getId();
             log.warn(error);
@@ -204,7 +206,7 @@ public class TemplateDAO {
 
     private TemplateRecord parseRecord(final String json) {
         try {
-            return mapper.readValue(json, TemplateRecord.class);
+            return templateRecordJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse template record: " + json, ex);
             return null;
@@ -213,7 +215,7 @@ public class TemplateDAO {
 
     private ContentTemplate parseTemplate(final String json) {
         try {
-            return mapper.readValue(json, ContentTemplate.class);
+            return contentTemplateJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse template: " + json, ex);
             return null;
@@ -222,7 +224,7 @@ public class TemplateDAO {
 
     private String toJson(final ContentTemplate template) {
         try {
-            return mapper.writeValueAsString(template);
+            return contentTemplateJson.write(template);
         } catch (final IOException ex) {
             log.error("Unable to serialize template: " + template.getId(), ex);
             return null;
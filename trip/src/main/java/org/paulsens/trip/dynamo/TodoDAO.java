@@ -26,7 +26,7 @@ public class TodoDAO {
     private static final String DATA_ID = "dataId";
     private static final String TRIP_ID = "tripId";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<TodoItem> todoItemJson;
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PartitionCache<DataId, TodoItem> cache;
@@ -36,7 +36,7 @@ public class TodoDAO {
     }
 
     protected TodoDAO(final ObjectMapper mapper, final Persistence persistence, final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.todoItemJson = JsonCodec.of(mapper, TodoItem.class);
         this.persistence = persistence;
         this.cacheClient = cacheClient;
         this.cache = PartitionCache.<DataId, TodoItem>builder()
@@ -56,7 +56,7 @@ public class TodoDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(TRIP_ID, persistence.toStrAttr(todo.getTripId()));
         map.put(DATA_ID, persistence.toStrAttr(todo.getDataId().getValue()));
-        map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(todo)));
+        map.put(CONTENT, persistence.toStrAttr(todoItemJson.write(todo)));
         try {
             final boolean saved = persistence.putItem(b -> b.tableName(TODO_ITEM_TABLE).item(map))
                     .sdkHttpResponse().isSuccessful();
@@ -115,7 +115,7 @@ public class TodoDAO {
 
     private TodoItem parseTodoItem(final String json) {
         try {
-            return mapper.readValue(json, TodoItem.class);
+            return todoItemJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse Todo Item record: " + json, ex);
             return null;
@@ -124,7 +124,7 @@ public class TodoDAO {
 
     private String toJson(final TodoItem todo) {
         try {
-            return mapper.writeValueAsString(todo);
+            return todoItemJson.write(todo);
         } catch (final IOException ex) {
             log.error("Unable to serialize todo item: " + todo.getDataId(), ex);
             return null;
@@ -2,17 +2,22 @@ package org.paulsens.trip.dynamo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.cache.CacheClient;
 import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.cache.CacheSupport;
 import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.cache.PartitionCache;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Transaction;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
@@ -25,10 +30,11 @@ public class TransactionDAO {
     private static final String TX_ID = "txId";
     private static final String USER_ID = "userId";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Transaction> transactionJson;
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PartitionCache<String, Transaction> cache;
+    private final BalanceLedger ledger;
 
     protected TransactionDAO(final ObjectMapper mapper, final Persistence persistence) {
         this(mapper, persistence, new InMemoryCacheClient());
@@ -36,7 +42,7 @@ public class TransactionDAO {
 
     protected TransactionDAO(final ObjectMapper mapper, final Persistence persistence,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.transactionJson = JsonCodec.of(mapper, Transaction.class);
         this.persistence = persistence;
         this.cacheClient = cacheClient;
         this.cache = PartitionCache.<String, Transaction>builder()
@@ -49,6 +55,7 @@ public class TransactionDAO {
                 .deserializer(this::parseTransaction)
                 .order(Comparator.comparing(Transaction::getTxId))
                 .build();
+        this.ledger = new BalanceLedger(cacheClient, this::getTransactions);
     }
 
     protected List<Transaction> getTransactions(final Person.Id userId) {
@@ -61,6 +68,18 @@ public class TransactionDAO {
         }
     }
 
+    /**
+     * {@link #getTransactions} stamped for conditional GETs; see {@link PartitionCache#getAllStamped}. The stamp
+     * covers the partition's content, so the date sort (a function of it) needs no part in it.
+     */
+    protected Stamped<List<Transaction>> getTransactionsStamped(
+            final Person.Id userId, final Predicate<String> unchanged) {
+        final Stamped<List<Transaction>> found =
+                cache.getAllStamped(userId.getValue(), () -> loadUserTxData(userId), unchanged);
+        return found.unchanged() ? found : new Stamped<>(found.stamp(),
+                persistence.sortList(found.value(), Comparator.comparing(Transaction::getTxDate)));
+    }
+
     protected Optional<Transaction> getTransaction(final Person.Id userId, final String txId) {
         try {
             return 
@@ -74,19 +93,57 @@ public class TransactionDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(USER_ID, AttributeValue.builder().s(tx.getUserId().getValue()).build());
         map.put(TX_ID, AttributeValue.builder().s(tx.getTxId()).build());
-        map.put(CONTENT, AttributeValue.builder().s(mapper.writeValueAsString(tx)).build());
+        map.put(CONTENT, AttributeValue.builder().s(transactionJson.write(tx)).build());
         try {
             final boolean saved = persistence.putItem(b -> b.tableName(TRANSACTION_TABLE).item(map))
                     .sdkHttpResponse().isSuccessful();
-            return saved && updateCacheForTx(tx);
+            if (!saved) {
+                return false;
+            }
+            final boolean cached = updateCacheForTx(tx);
+            // After the partition: the ledger recomputes from it. A group save lands here once per member.
+            ledger.recompute(tx.getUserId());
+            return cached;
         } catch (final RuntimeException ex) {
             // Shim until Phase 5: persistence failures are synchronous now but callers expect a failed future.
             throw ex;
         }
     }
 
+    /** Balances in cents from the {@link BalanceLedger}; see there for when one is recomputed. */
+    protected Map<Person.Id, Long> getBalances(final Collection<Person.Id> userIds) {
+        return ledger.balances(userIds);
+    }
+
+    /**
+     * Recomputes each person's balance from the database, bypassing every cache, and repairs each stored balance
+     * that disagrees (one never stored is not drift: the next read computes it). The repair drops the person's
+     * partition before recomputing: cached rows are the likelier culprit (a direct table edit), and recomputing
+     * from them would store the same wrong balance again.
+     */
+    protected BalanceLedger.Reconciliation reconcileBalances(final Collection<Person.Id> userIds) {
+        final List<Person.Id> people = (userIds == null) ? List.of()
+                : userIds.stream().filter(Objects::nonNull).distinct().toList();
+        final Map<Person.Id, Long> stored = ledger.storedCents(people);
+        final List<BalanceLedger.Drift> drifted = new ArrayList<>();
+        for (final Person.Id id : people) {
+            final long source = BalanceLedger.balanceCents(id, loadUserTxData(id));
+            final Long ledgerCents = stored.get(id);
+            if (ledgerCents != null && ledgerCents != source) {
+                drifted.add(new BalanceLedger.Drift(id, ledgerCents, source));
+                cache.invalidate(id.getValue());
+                ledger.recompute(id);
+            }
+        }
+        if (!drifted.isEmpty()) {
+            log.warn("Balance reconcile repaired {} of {} balances: {}", drifted.size(), people.size(), drifted);
+        }
+        return new BalanceLedger.Reconciliation(people.size(), List.copyOf(drifted));
+    }
+
     public void clearCache() {
         cacheClient.clearNamespace(CacheKeys.TX_PREFIX);
+        ledger.clear();
     }
 
     private boolean updateCacheForTx(final Transaction tx) {
@@ -110,7 +167,7 @@ public class TransactionDAO {
 
     private Transaction parseTransaction(final String json) {
         try {
-            return mapper.readValue(json, Transaction.class);
+            return transactionJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse record: " + json, ex);
             return null;
@@ -119,7 +176,7 @@ public class TransactionDAO {
 
     private String toJson(final Transaction tx) {
         try {
-            return mapper.writeValueAsString(tx);
+            return transactionJson.write(tx);
         } catch (final IOException ex) {
             log.error("Unable to serialize transaction: " + tx.getTxId(), ex);
             return null;
@@ -5,12 +5,16 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.paulsens.trip.cache.CacheClient;
@@ -18,6 +22,7 @@ import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.cache.CacheSupport;
 import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.cache.PointCache;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.cache.TripIndex;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Trip;
@@ -33,14 +38,21 @@ import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 public class TripDAO {
     private static final String ID = "id";
     private static final String CONTENT = "content";
-    private static final String TRIP_TABLE = "trips";
+    static final String TRIP_TABLE = "trips";
+    /** Index attributes ({@link IndexAttributes}): the end date in epoch millis and the member ids. */
+    static final String END_MILLIS = "endMillis";
+    static final String MEMBERS = "members";
+    /** All aliased: {@code members} is a DynamoDB reserved word. */
+    private static final String INDEX_PROJECTION = "#id, #v, #end, #members";
+    private static final Map<String, String> INDEX_NAMES = Map.of("#id", ID,
+            "#v", IndexAttributes.VERSION_ATTR, "#end", END_MILLIS, "#members", MEMBERS);
     /** Display order for resolved trip lists (matches the pre-index whole-table cache ordering). */
     private static final Comparator<Trip> TRIP_ORDER =
             Comparator.comparing(Trip::getStartDate).thenComparing(Trip::getId);
     /** Trips with no end date sort as "ongoing" (always active, never inactive) rather than crashing date math. */
     private static final long NO_END_DATE = Long.MAX_VALUE / 2;
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<Trip> tripJson;
     private final Persistence persistence;
     private final TripEventDAO tripEventDao;
     private final CacheClient cacheClient;
@@ -59,7 +71,7 @@ public class TripDAO {
             final Persistence persistence,
             final TripEventDAO tripEventDao,
             final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.tripJson = JsonCodec.of(mapper, Trip.class);
         this.persistence = persistence;
         this.tripEventDao = tripEventDao;
         this.cacheClient = cacheClient;
@@ -67,6 +79,8 @@ public class TripDAO {
                 .cache(cacheClient)
                 .keyPrefix(CacheKeys.TRIP_PREFIX)
                 .softRevalidate(CacheSupport.softRevalidateEnabled(cacheClient))
+                // Every member's page reads its trip, so after a clear they would all miss the same key at once.
+                .coalesceAcrossInstances(CacheSupport.sharedAcrossInstances(cacheClient))
                 .serializer(this::toJson)
                 .deserializer(this::parseTrip)
                 .build();
@@ -80,7 +94,8 @@ public class TripDAO {
     protected Boolean saveTrip(final Trip trip) throws IOException {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, persistence.toStrAttr(trip.getId()));
-        map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(trip)));
+        map.put(CONTENT, persistence.toStrAttr(tripJson.write(trip)));
+        map.putAll(indexAttributes(trip));
         // NOTE: trip + events are N independent putItems -- not atomic. Consciously unchanged by the cache port.
         try {
             final boolean savedEvents = tripEventDao.saveAllTripEvents(trip);
@@ -117,6 +132,23 @@ public class TripDAO {
         }
     }
 
+    /** {@link #getTrip(String)} stamped for conditional GETs; see {@link PointCache#getStamped}. */
+    protected Optional<Stamped<Trip>> getTripStamped(final String id, final Predicate<String> unchanged) {
+        if ((id == null) || id.isEmpty()) {
+            return Optional.empty();
+        }
+        return cache.getStamped(id, this::loadTripById, unchanged);
+    }
+
+    /**
+     * Many trips by id in one pass -- one cache MGET, then one {@code BatchGetItem} for the misses -- in the order
+     * given. Blank and unknown ids are skipped.
+     */
+    protected List<Trip> getTrips(final Collection<String> ids) {
+        final List<String> usable = ids.stream().filter(id -> (id != null) && !id.isEmpty()).toList();
+        return resolveTrips(usable, false);
+    }
+
     /** Active trips (endDate at/after {@code cutoff}), in display order. */
     protected List<Trip> getActiveTrips(final LocalDateTime cutoff) {
         try {
@@ -170,13 +202,10 @@ public class TripDAO {
         return index.update(prevEntry, entryOf(trip), false);
     }
 
-    // Sequential point reads: each is a cache hit in the common case, and page renders that need many
-    // trips resolve them from one request thread -- the Phase 7 structured-concurrency pass may re-fan-out.
+    // One multi-key read for the whole list: a menu of N trips costs one cache round trip, plus one
+    // BatchGetItem when any of them missed.
     private List<Trip> resolveTrips(final List<String> ids, final boolean displayOrder) {
-        final List<Trip> trips = new ArrayList<>();
-        for (final String id : ids) {
-            cache.get(id, this::loadTripById).ifPresent(trips::add);
-        }
+        final List<Trip> trips = new ArrayList<>(cache.getAll(ids, this::loadTripsByIds).values());
         if (displayOrder) {
             trips.sort(TRIP_ORDER);
         }
@@ -189,13 +218,67 @@ public class TripDAO {
         return toTrip(resp.item().get(CONTENT));
     }
 
-    private List<TripIndex.Entry> loadAllEntries() {
-        return persistence.scanAll(b -> b.consistentRead(false).limit(1000).tableName(TRIP_TABLE).build())
-                .stream()
-                .map(it -> toTrip(it.get(CONTENT)))
-                .filter(trip -> trip != null)
-                .map(TripDAO::entryOf)
+    private Map<String, Trip> loadTripsByIds(final Collection<String> ids) {
+        final List<Map<String, AttributeValue>> keys = ids.stream()
+                .map(id -> Map.of(ID, persistence.toStrAttr(id)))
                 .toList();
+        final Map<String, Trip> trips = new HashMap<>();
+        for (final Map<String, AttributeValue> item : persistence.batchGetItems(TRIP_TABLE, keys)) {
+            final Trip trip = toTrip(item.get(CONTENT));
+            if (trip != null) {
+                trips.put(item.get(ID).s(), trip);
+            }
+        }
+        return trips;
+    }
+
+    /**
+     * Scans only the index attributes, so a cold index build reads a few bytes per trip and parses no JSON. Rows
+     * saved before those attributes existed are read whole and parsed, a page at a time as segments deliver them.
+     */
+    private List<TripIndex.Entry> loadAllEntries() {
+        final Queue<TripIndex.Entry> entries = new ConcurrentLinkedQueue<>();
+        persistence.scanPages(b -> b.consistentRead(false).limit(1000).tableName(TRIP_TABLE)
+                        .projectionExpression(INDEX_PROJECTION).expressionAttributeNames(INDEX_NAMES),
+                page -> entries.addAll(entriesOf(page)));
+        return List.copyOf(entries);
+    }
+
+    private List<TripIndex.Entry> entriesOf(final List<Map<String, AttributeValue>> page) {
+        final List<TripIndex.Entry> entries = new ArrayList<>(page.size());
+        final List<Map<String, AttributeValue>> unindexed = new ArrayList<>();
+        for (final Map<String, AttributeValue> row : page) {
+            if (IndexAttributes.isCurrent(row) && row.containsKey(END_MILLIS)) {
+                entries.add(new TripIndex.Entry(row.get(ID).s(), Long.parseLong(row.get(END_MILLIS).n()),
+                        Set.copyOf(IndexAttributes.strings(row.get(MEMBERS)))));
+            } else {
+                unindexed.add(row);
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            IndexAttributes.wholeRows(persistence, TRIP_TABLE, ID, CONTENT, unindexed).stream()
+                    .map(it -> toTrip(it.get(CONTENT)))
+                    .filter(trip -> trip != null)
+                    .map(TripDAO::entryOf)
+                    .forEach(entries::add);
+        }
+        return entries;
+    }
+
+    /** The index attributes a save writes beside {@code content}: exactly what {@link #entryOf} reads. */
+    static Map<String, AttributeValue> indexAttributes(final Trip trip) {
+        final Map<String, AttributeValue> attrs = new HashMap<>();
+        attrs.put(IndexAttributes.VERSION_ATTR, IndexAttributes.currentVersion());
+        attrs.put(END_MILLIS, AttributeValue.fromN(Long.toString(toEpochMillis(trip.getEndDate()))));
+        IndexAttributes.stringSet(trip.getPeople().stream().map(Person.Id::getValue).distinct().toList())
+                .ifPresent(members -> attrs.put(MEMBERS, members));
+        return attrs;
+    }
+
+    /** {@link #indexAttributes} for a stored row, or null when its content does not parse; for the backfill. */
+    Map<String, AttributeValue> indexAttributesOf(final Map<String, AttributeValue> row) {
+        final Trip trip = toTrip(row.get(CONTENT));
+        return (trip == null) ? null : indexAttributes(trip);
     }
 
     private static TripIndex.Entry entryOf(final Trip trip) {
@@ -213,7 +296,7 @@ public class TripDAO {
 
     private Trip parseTrip(final String json) {
         try {
-            return mapper.readValue(json, Trip.class);
+            return tripJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse trip record: " + json, ex);
             return null;
@@ -222,7 +305,7 @@ public class TripDAO {
 
     private String toJson(final Trip trip) {
         try {
-            return mapper.writeValueAsString(trip);
+            return tripJson.write(trip);
         } catch (final IOException ex) {
             log.error("Unable to serialize trip: " + trip.getId(), ex);
             return null;
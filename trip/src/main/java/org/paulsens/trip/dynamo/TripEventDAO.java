@@ -2,7 +2,9 @@ package org.paulsens.trip.dynamo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +14,7 @@ import org.paulsens.trip.cache.CacheKeys;
 import org.paulsens.trip.cache.CacheSupport;
 import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.cache.PointCache;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Trip;
 import org.paulsens.trip.model.TripEvent;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
@@ -23,7 +26,7 @@ public class TripEventDAO {
     private static final String CONTENT = "content";
     private static final String TRIP_EVENT_TABLE = "trip_events";
 
-    private final ObjectMapper mapper;
+    private final JsonCodec<TripEvent> tripEventJson;
     private final Persistence persistence;
     private final CacheClient cacheClient;
     private final PointCache<TripEvent> cache;
@@ -33,7 +36,7 @@ public class TripEventDAO {
     }
 
     protected TripEventDAO(final ObjectMapper mapper, final Persistence persistence, final CacheClient cacheClient) {
-        this.mapper = mapper;
+        this.tripEventJson = JsonCodec.of(mapper, TripEvent.class);
         this.persistence = persistence;
         this.cacheClient = cacheClient;
         this.cache = PointCache.<TripEvent>builder()
@@ -64,7 +67,7 @@ public class TripEventDAO {
         final Map<String, AttributeValue> map = new HashMap<>();
         map.put(ID, persistence.toStrAttr(te.getId()));
         try {
-            map.put(CONTENT, persistence.toStrAttr(mapper.writeValueAsString(te)));
+            map.put(CONTENT, persistence.toStrAttr(tripEventJson.write(te)));
         } catch (final IOException ex) {
             throw new RuntimeException(ex);
         }
@@ -77,6 +80,23 @@ public class TripEventDAO {
         return cache.get(id, this::loadTripEvent).orElse(null);
     }
 
+    /**
+     * Many trip events by id in one pass (one cache MGET, one {@code BatchGetItem} for the misses), in the order
+     * given. Unknown ids are logged and skipped.
+     */
+    protected List<TripEvent> getTripEvents(final Collection<String> ids) {
+        return new ArrayList<>(cache.getAll(ids, this::loadTripEvents).values());
+    }
+
+    /**
+     * A {@link Stamped stamp} of these events' stored form, for a conditional GET of a view that renders them; null
+     * when one is not cached. Read from the cache's own strings (see {@link PointCache#stampOf}), so a GET never
+     * re-serializes the events just to tag them.
+     */
+    protected String stampOf(final List<String> ids) {
+        return cache.stampOf(ids);
+    }
+
     public void clearCache() {
         cacheClient.clearNamespace(CacheKeys.TRIP_EVENT_PREFIX);
     }
@@ -86,6 +106,27 @@ public class TripEventDAO {
         return toTripEvent(persistence.getItem(b -> b.key(key).tableName(TRIP_EVENT_TABLE).build()), id);
     }
 
+    private Map<String, TripEvent> loadTripEvents(final Collection<String> ids) {
+        final List<Map<String, AttributeValue>> keys = ids.stream()
+                .map(id -> Map.of(ID, persistence.toStrAttr(id)))
+                .toList();
+        final Map<String, TripEvent> events = new HashMap<>();
+        for (final Map<String, AttributeValue> item : persistence.batchGetItems(TRIP_EVENT_TABLE, keys)) {
+            final String teId = item.get(ID).s();
+            final AttributeValue content = item.get(CONTENT);
+            if (content == null) {
+                log.error("TripEvent (" + teId + ") is missing content!!");
+            } else {
+                final TripEvent te = parseTripEvent(content.s());
+                if (te != null) {
+                    events.put(teId, te);
+                }
+            }
+        }
+        ids.stream().filter(id -> !events.containsKey(id)).forEach(id -> log.warn("TripEvent (" + id + ") not found!"));
+        return events;
+    }
+
     private TripEvent toTripEvent(final GetItemResponse resp, final String teId) {
         if (!resp.hasItem()) {
             log.warn("TripEvent (" + teId + ") not found!");
@@ -101,7 +142,7 @@ public class TripEventDAO {
 
     private TripEvent parseTripEvent(final String json) {
         try {
-            return mapper.readValue(json, TripEvent.class);
+            return tripEventJson.read(json);
         } catch (final IOException ex) {
             log.error("Unable to parse TripEvent record: " + json, ex);
             return null;
@@ -110,7 +151,7 @@ public class TripEventDAO {
 
     private String toJson(final TripEvent te) {
         try {
-            return mapper.writeValueAsString(te);
+            return tripEventJson.write(te);
         } catch (final IOException ex) {
             log.error("Unable to serialize trip event: " + te.getId(), ex);
             return null;
@@ -0,0 +1,20 @@
+package org.paulsens.trip.mail;
+
+/**
+ * A spooled job's progress: how many of its messages went out, how many failed, and how many are still queued.
+ *
+ * <p>{@code sent} means SES accepted the message, which is all this side can know; delivery is SES's business.
+ * {@code failed} covers refusals and sends given up on after repeated throttling -- each is also in the audit
+ * trail as a failed EMAIL record naming the recipient.
+ */
+public record MailJob(String id, int total, int sent, int failed, long createdAt) {
+
+    /** Messages not yet sent or failed: queued, waiting out a throttle retry, or in flight right now. */
+    public int pending() {
+        return Math.max(0, total - sent - failed);
+    }
+
+    public boolean done() {
+        return pending() == 0;
+    }
+}
@@ -0,0 +1,372 @@
+package org.paulsens.trip.mail;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.paulsens.trip.action.MailCommands;
+import org.paulsens.trip.audit.AuditActor;
+import org.paulsens.trip.cache.CacheClient;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.dynamo.DAO;
+import org.paulsens.trip.util.TripThreads;
+
+/**
+ * The outbound mail spool: bulk mail queued in the shared cache and sent at the rate SES allows.
+ *
+ * <p>Layout, all under {@link CacheKeys#MAIL_FORMAT_VERSION}:
+ *
+ * <ol>
+ *   <li><b>A job hash</b> per call: the envelope once (from, subject, body, who asked) and one {@code to.n} field
+ *       per recipient, plus {@code tries.n} for any that were throttled. Kept for {@link CacheKeys#MAIL_JOB_TTL} so
+ *       its status stays answerable after it finishes.</li>
+ *   <li><b>One scored queue</b> for every job, member {@code jobId#n}, score = when it is due. A throttled send goes
+ *       back in with a later score, which is the whole retry mechanism.</li>
+ *   <li><b>A drain lock.</b> One instance sends at a time, so the {@link SendRateLimiter} it draws from is the
+ *       cluster's pace and not one of N. An instance that loses the lock leaves the queue to the winner. The lock
+ *       is owned (a token per drain), so a drainer whose lock lapsed during a slow send can neither extend nor
+ *       release the next holder's; it notices at its next extend and stops.</li>
+ * </ol>
+ *
+ * <p>A send is taken off the queue <em>before</em> it is attempted, the digest's rule: a crash in between loses
+ * that one mail rather than sending it twice when the next drainer picks the queue up. Taking it off is the
+ * claim -- only the drainer whose ZREM removed the member sends it -- so even two drainers overlapping after a
+ * lapsed lock never send one message twice. Up to {@value #SEND_IN_FLIGHT} sends are in flight at once: SES
+ * calls are synchronous, and one at a time could never reach the rate the limiter paces to. Local mode runs the
+ * same code against the in-memory cache, where {@link MailCommands} logs instead of sending.
+ *
+ * <p>Not SES's bulk templated send. That needs the template stored in SES in its own syntax, and these messages
+ * are already rendered per recipient from templates SES has never seen. It would not be faster either: SES counts
+ * every destination of a bulk call against the same per-second rate, so the rate, not the call count, is the
+ * limit this paces to.
+ */
+@Slf4j
+public final class MailSpool {
+
+    /** Sends taken off the queue per pass; the lock is extended after each one. */
+    private static final int BATCH = 25;
+    /** Sends a drain keeps in flight, as a merge does. The limiter sets the pace; this only bounds the waiters. */
+    static final int SEND_IN_FLIGHT = 8;
+    /** Long enough for a batch at the sandbox rate, short enough that a crashed drainer frees it promptly. */
+    private static final Duration LOCK_TTL = Duration.ofMinutes(2);
+    /** Idle poll: picks up jobs queued on other instances and throttle retries coming due. */
+    private static final Duration POLL = Duration.ofSeconds(5);
+    /** Attempts a throttled message gets before it counts as failed. */
+    static final int MAX_ATTEMPTS = 8;
+    static final Duration FIRST_RETRY = Duration.ofSeconds(15);
+    static final Duration MAX_RETRY = Duration.ofMinutes(10);
+
+    static final String SENT = "sent";
+    static final String FAILED = "failed";
+
+    private static final String FROM = "from";
+    private static final String BCC = "bcc";
+    private static final String REPLY_TO = "replyTo";
+    private static final String SUBJECT = "subject";
+    private static final String BODY = "body";
+    private static final String ACTOR_EMAIL = "actorEmail";
+    private static final String ACTOR_ID = "actorId";
+    private static final String TOTAL = "total";
+    private static final String CREATED_AT = "createdAt";
+    private static final String TO = "to.";
+    private static final String TRIES = "tries.";
+    private static final String SUBJECT_OF = "subject.";
+    private static final String BODY_OF = "body.";
+
+    /** Job ids are ours (random UUIDs); anything else asked about is refused before it becomes a cache key. */
+    private static final Pattern JOB_ID = Pattern.compile("[0-9a-f-]{36}");
+
+    private static volatile MailSpool instance;
+
+    private final CacheClient cache;
+    private final MailCommands mail;
+    private final LongSupplier clock;
+    private final boolean background;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private ScheduledExecutorService poller;
+
+    /** What every message in a job shares. The actor is stored with it, so the sends are audited as theirs. */
+    public record Envelope(String from, String bcc, String replyTo, String subject, String body, AuditActor actor) {
+    }
+
+    /** One recipient of a merge. A null subject or body is the envelope's. */
+    public record Message(String to, String subject, String body) {
+    }
+
+    private MailSpool(
+            final CacheClient cache, final MailCommands mail, final LongSupplier clock, final boolean background) {
+        this.cache = cache;
+        this.mail = mail;
+        this.clock = clock;
+        this.background = background;
+    }
+
+    /** The JVM's spool. Draining starts with the first job queued here, or with {@link #start()}. */
+    public static MailSpool shared() {
+        MailSpool spool = instance;
+        if (spool == null) {
+            synchronized (MailSpool.class) {
+                if (instance == null) {
+                    instance = new MailSpool(DAO.getInstance().getCacheClient(), new MailCommands(),
+                            System::currentTimeMillis, true);
+                }
+                spool = instance;
+            }
+        }
+        return spool;
+    }
+
+    /**
+     * Test seam: a spool that drains only when {@link #drain()} is called, so a test decides when mail moves.
+     */
+    static MailSpool forTest(final CacheClient cache, final MailCommands mail, final LongSupplier clock) {
+        return new MailSpool(cache, mail, clock, false);
+    }
+
+    /**
+     * Starts the idle poll once per JVM, so jobs left queued by a restart or another instance are picked up
+     * without waiting for someone to queue more. Safe to call again; later calls do nothing.
+     */
+    public static synchronized void start() {
+        final MailSpool spool = shared();
+        if (spool.poller != null) {
+            return;
+        }
+        spool.poller = Executors.newSingleThreadScheduledExecutor(body -> {
+            final Thread thread = new Thread(body, "mail-spool");
+            // Daemon: a container shutting down must not wait on a sleeping poller.
+            thread.setDaemon(true);
+            return thread;
+        });
+        spool.poller.scheduleWithFixedDelay(spool::drain, POLL.toMillis(), POLL.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Mail spool started");
+    }
+
+    public static synchronized void stop() {
+        if (instance == null || instance.poller == null) {
+            return;
+        }
+        instance.poller.shutdownNow();
+        instance.poller = null;
+        log.info("Mail spool stopped");
+    }
+
+    /**
+     * Queues one message per recipient.
+     *
+     * @return the job id, or null when the cache did not keep the job -- the caller must then send some other way.
+     */
+    public String enqueue(final Envelope envelope, final List<String> recipients) {
+        return enqueueMessages(envelope, recipients.stream().map(to -> new Message(to, null, null)).toList());
+    }
+
+    /**
+     * Queues a merge: one message per recipient, each with its own rendered text. Text equal to the envelope's is
+     * not stored again, so an unpersonalised merge costs what {@link #enqueue} does.
+     *
+     * @return the job id, or null when the cache did not keep the job -- the caller must then send some other way.
+     */
+    public String enqueueMessages(final Envelope envelope, final List<Message> messages) {
+        final String jobId = UUID.randomUUID().toString();
+        final String key = CacheKeys.mailJobKey(jobId);
+        final Map<String, String> fields = new LinkedHashMap<>();
+        putIfPresent(fields, FROM, envelope.from());
+        putIfPresent(fields, BCC, envelope.bcc());
+        putIfPresent(fields, REPLY_TO, envelope.replyTo());
+        putIfPresent(fields, SUBJECT, envelope.subject());
+        putIfPresent(fields, BODY, envelope.body());
+        if (envelope.actor() != null) {
+            putIfPresent(fields, ACTOR_EMAIL, envelope.actor().email());
+            putIfPresent(fields, ACTOR_ID, envelope.actor().id());
+        }
+        fields.put(TOTAL, String.valueOf(messages.size()));
+        fields.put(CREATED_AT, String.valueOf(clock.getAsLong()));
+        final Map<String, Double> due = new LinkedHashMap<>();
+        final double now = clock.getAsLong();
+        for (int n = 0; n < messages.size(); n++) {
+            final Message message = messages.get(n);
+            fields.put(TO + n, message.to());
+            if (message.subject() != null && !message.subject().equals(envelope.subject())) {
+                fields.put(SUBJECT_OF + n, message.subject());
+            }
+            if (message.body() != null && !message.body().equals(envelope.body())) {
+                fields.put(BODY_OF + n, message.body());
+            }
+            due.put(jobId + '#' + n, now);
+        }
+        // The job first, then the queue: a queue entry without its job is dropped by the drainer, whereas a job
+        // whose entries were queued first could be drained before its recipients existed. The read-back is the
+        // real check -- with the cache switched off, every write "succeeds" and nothing is kept.
+        cache.putHashFields(key, fields);
+        if (!cache.getHashFields(key, List.of(TOTAL)).containsKey(TOTAL)) {
+            return null;
+        }
+        cache.expire(key, CacheKeys.MAIL_JOB_TTL);
+        if (!due.isEmpty() && !cache.addScoredEntries(CacheKeys.MAIL_QUEUE, due)) {
+            cache.removeKey(key);
+            return null;
+        }
+        if (background) {
+            TripThreads.start(this::drain);
+        }
+        return jobId;
+    }
+
+    private static void putIfPresent(final Map<String, String> fields, final String name, final String value) {
+        if (value != null) {
+            fields.put(name, value);
+        }
+    }
+
+    /** A job's progress, or null for an id that was never issued or has expired. */
+    public MailJob status(final String jobId) {
+        if (jobId == null || !JOB_ID.matcher(jobId).matches()) {
+            return null;
+        }
+        final Map<String, String> head = cache.getHashFields(CacheKeys.mailJobKey(jobId), List.of(TOTAL, CREATED_AT));
+        if (!head.containsKey(TOTAL)) {
+            return null;
+        }
+        final String sentKey = CacheKeys.mailJobCountKey(jobId, SENT);
+        final String failedKey = CacheKeys.mailJobCountKey(jobId, FAILED);
+        final Map<String, String> counts = cache.getValues(List.of(sentKey, failedKey));
+        return new MailJob(jobId, parseInt(head.get(TOTAL)), parseInt(counts.get(sentKey)),
+                parseInt(counts.get(failedKey)), parseLong(head.get(CREATED_AT)));
+    }
+
+    /**
+     * Sends everything due, if this instance can take the drain lock. Returns when the queue has nothing due; a
+     * second call while one is running returns at once.
+     */
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final String owner = UUID.randomUUID().toString();
+            if (!cache.tryAcquireLock(CacheKeys.MAIL_DRAIN_LOCK, owner, LOCK_TTL)) {
+                return;
+            }
+            try {
+                while (drainBatch(owner)) {
+                    log.debug("Mail spool batch sent");
+                }
+            } finally {
+                cache.releaseLock(CacheKeys.MAIL_DRAIN_LOCK, owner);
+            }
+        } catch (final RuntimeException ex) {
+            // The poll comes back in a few seconds; a thrown drain would kill the scheduled task for good.
+            log.warn("Mail spool drain stopped early", ex);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /** One batch, {@value #SEND_IN_FLIGHT} sends at a time. False when the queue is drained or the lock was lost. */
+    private boolean drainBatch(final String owner) {
+        final List<String> due = cache.getRangeByScore(CacheKeys.MAIL_QUEUE, 0, clock.getAsLong(), false, BATCH);
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicBoolean held = new AtomicBoolean(true);
+        try (var scope = StructuredTaskScope.open()) {
+            for (int i = 0; i < Math.min(SEND_IN_FLIGHT, due.size()); i++) {
+                scope.fork(() -> {
+                    for (int n = next.getAndIncrement(); n < due.size() && held.get(); n = next.getAndIncrement()) {
+                        sendIfClaimed(due.get(n), owner, held);
+                    }
+                    return null;
+                });
+            }
+            scope.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while draining the mail spool", ex);
+        }
+        if (!held.get()) {
+            log.warn("Mail spool drain lock lapsed; leaving the queue to its new holder");
+        }
+        return held.get() && !due.isEmpty();
+    }
+
+    private void sendIfClaimed(final String member, final String owner, final AtomicBoolean held) {
+        // Claim before sending (see the class comment). Only the drainer whose ZREM removed it sends it.
+        if (cache.removeScoredEntries(CacheKeys.MAIL_QUEUE, List.of(member)) != 1L) {
+            return;
+        }
+        sendOne(member);
+        if (!cache.extendLock(CacheKeys.MAIL_DRAIN_LOCK, owner, LOCK_TTL)) {
+            held.set(false);
+        }
+    }
+
+    private void sendOne(final String member) {
+        final int hash = member.lastIndexOf('#');
+        if (hash < 0) {
+            return;
+        }
+        final String jobId = member.substring(0, hash);
+        final String n = member.substring(hash + 1);
+        final String key = CacheKeys.mailJobKey(jobId);
+        final Map<String, String> job = cache.getHashFields(key,
+                List.of(FROM, BCC, REPLY_TO, SUBJECT, BODY, ACTOR_EMAIL, ACTOR_ID, TO + n, TRIES + n,
+                        SUBJECT_OF + n, BODY_OF + n));
+        final String to = job.get(TO + n);
+        if (to == null) {
+            log.warn("Mail spool entry {} has no job behind it (expired?); dropped", member);
+            return;
+        }
+        final AuditActor actor = new AuditActor(job.get(ACTOR_EMAIL), job.get(ACTOR_ID));
+        final String subject = job.getOrDefault(SUBJECT_OF + n, job.get(SUBJECT));
+        final String body = job.getOrDefault(BODY_OF + n, job.get(BODY));
+        final MailCommands.Attempt attempt = mail.attempt(job.get(FROM), to, job.get(BCC), job.get(REPLY_TO),
+                subject, body, actor);
+        if (!attempt.throttled()) {
+            count(jobId, attempt.sent() ? SENT : FAILED);
+            return;
+        }
+        final int tries = parseInt(job.get(TRIES + n)) + 1;
+        if (tries < MAX_ATTEMPTS
+                && cache.putHashField(key, TRIES + n, String.valueOf(tries))
+                && cache.addScoredEntries(CacheKeys.MAIL_QUEUE,
+                        Map.of(member, (double) (clock.getAsLong() + retryDelay(tries).toMillis())))) {
+            return;
+        }
+        mail.recordGaveUp(actor, to, "throttled by SES " + tries + " times");
+        count(jobId, FAILED);
+    }
+
+    private void count(final String jobId, final String outcome) {
+        cache.increment(CacheKeys.mailJobCountKey(jobId, outcome), 1L, CacheKeys.MAIL_JOB_TTL);
+    }
+
+    /** 15s, 30s, 1m ... capped at 10m: about half an hour of SES saying no before a message is given up on. */
+    static Duration retryDelay(final int tries) {
+        final Duration delay = FIRST_RETRY.multipliedBy(1L << Math.min(tries - 1, 16));
+        return delay.compareTo(MAX_RETRY) > 0 ? MAX_RETRY : delay;
+    }
+
+    private static int parseInt(final String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value);
+        } catch (final NumberFormatException ex) {
+            return 0;
+        }
+    }
+
+    private static long parseLong(final String value) {
+        try {
+            return value == null ? 0L : Long.parseLong(value);
+        } catch (final NumberFormatException ex) {
+            return 0L;
+        }
+    }
+}
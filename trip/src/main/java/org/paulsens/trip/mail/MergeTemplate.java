@@ -0,0 +1,191 @@
+package org.paulsens.trip.mail;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.paulsens.trip.chat.MailTemplates;
+import org.paulsens.trip.model.Person;
+
+/**
+ * A mail-merge subject or body, parsed once into literal text and bound {@link Person} property reads.
+ *
+ * <p>{@code sendTemplate} used to push each recipient into {@code #{requestScope.to}} and re-evaluate the whole
+ * template through EL, per recipient, on the request thread, before the first mail left: parse, resolve and coerce,
+ * a thousand times over, for templates that almost always say nothing more than {@code #{requestScope.to.first}}.
+ * This does the parse once. A property path becomes a chain of getter handles resolved against the declared types,
+ * so rendering a recipient is string appends and a few direct calls, safe on any thread and in parallel.
+ *
+ * <p><b>Only property paths from the recipient compile</b> -- {@code #{to.first}} or {@code #{requestScope.to.first}},
+ * any depth ({@code #{to.address.city}}). Anything else -- an operator, a method call, a bean other than the
+ * recipient, {@code ${}} or an escaped <code>\#{</code> -- makes {@link #compile} answer null and the caller keeps the
+ * EL path. Interpreting "most of" EL here would be a second EL with different bugs.
+ *
+ * <p>A value renders as its {@code toString()}, and as nothing for a null anywhere along the path. A body is HTML,
+ * so {@link #compileHtml} escapes each value with {@link MailTemplates#escape}: a recipient named {@code <O'Brien>}
+ * cannot inject markup into everyone's mail. A subject is compiled with {@link #compile} and left raw, since SES sends
+ * it as plain text, where an escaped {@code &amp;} would arrive literally.
+ */
+public final class MergeTemplate {
+
+    /** The recipient's name in a template, in both spellings the existing templates use. */
+    private static final Pattern RECIPIENT_PATH =
+            Pattern.compile("(requestScope\\.)?to(\\.[A-Za-z_][A-Za-z0-9_]*)*");
+
+    private final List<Segment> segments;
+    private final int literalLength;
+
+    private MergeTemplate(final List<Segment> segments) {
+        this.segments = List.copyOf(segments);
+        int length = 0;
+        for (final Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                length += literal.text().length();
+            }
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses a plain-text template, such as a subject: values are written as they are.
+     *
+     * @return the compiled template, or null when it uses anything beyond recipient property paths (see the class
+     *     comment) -- the caller must then render it through EL.
+     */
+    public static MergeTemplate compile(final String source) {
+        return compile(source, false);
+    }
+
+    /** Parses an HTML template, such as a body: values are escaped. Null exactly when {@link #compile} is. */
+    public static MergeTemplate compileHtml(final String source) {
+        return compile(source, true);
+    }
+
+    private static MergeTemplate compile(final String source, final boolean escape) {
+        if (source == null || source.contains("${") || source.contains("\\#{")) {
+            return null;
+        }
+        final List<Segment> segments = new ArrayList<>();
+        int at = 0;
+        while (at < source.length()) {
+            final int open = source.indexOf("#{", at);
+            if (open < 0) {
+                segments.add(new Literal(source.substring(at)));
+                break;
+            }
+            final int close = source.indexOf('}', open + 2);
+            if (close < 0) {
+                return null;
+            }
+            if (open > at) {
+                segments.add(new Literal(source.substring(at, open)));
+            }
+            final Property property = property(source.substring(open + 2, close).strip(), escape);
+            if (property == null) {
+                return null;
+            }
+            segments.add(property);
+            at = close + 1;
+        }
+        return new MergeTemplate(segments);
+    }
+
+    /** The getter chain for {@code to.a.b}, or null when a hop has no readable property on its declared type. */
+    private static Property property(final String expression, final boolean escape) {
+        if (!RECIPIENT_PATH.matcher(expression).matches()) {
+            return null;
+        }
+        final String[] parts = expression.split("\\.");
+        final int first = "requestScope".equals(parts[0]) ? 2 : 1;
+        final List<MethodHandle> getters = new ArrayList<>();
+        Class<?> type = Person.class;
+        for (int i = first; i < parts.length; i++) {
+            final Method getter = getter(type, parts[i]);
+            if (getter == null) {
+                return null;
+            }
+            try {
+                getters.add(MethodHandles.publicLookup().unreflect(getter)
+                        .asType(MethodType.methodType(Object.class, Object.class)));
+            } catch (final IllegalAccessException ex) {
+                return null;
+            }
+            type = getter.getReturnType();
+        }
+        return new Property(List.copyOf(getters), escape);
+    }
+
+    private static Method getter(final Class<?> type, final String name) {
+        try {
+            for (final PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+                if (descriptor.getName().equals(name) && descriptor.getReadMethod() != null) {
+                    return descriptor.getReadMethod();
+                }
+            }
+        } catch (final IntrospectionException ex) {
+            return null;
+        }
+        return null;
+    }
+
+    /** Renders for one recipient. */
+    public String render(final Person to) {
+        final StringBuilder out = new StringBuilder(literalLength + 64);
+        renderInto(to, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the rendering for one recipient to {@code out}. A caller rendering many recipients clears and reuses
+     * one buffer per thread, so a merge allocates its text once per recipient rather than once per append.
+     */
+    public void renderInto(final Person to, final StringBuilder out) {
+        out.ensureCapacity(out.length() + literalLength + 64);
+        for (final Segment segment : segments) {
+            segment.appendTo(to, out);
+        }
+    }
+
+    private sealed interface Segment permits Literal, Property {
+        void appendTo(Person to, StringBuilder out);
+    }
+
+    private record Literal(String text) implements Segment {
+        @Override
+        public void appendTo(final Person to, final StringBuilder out) {
+            out.append(text);
+        }
+    }
+
+    private record Property(List<MethodHandle> getters, boolean escape) implements Segment {
+        @Override
+        public void appendTo(final Person to, final StringBuilder out) {
+            Object value = to;
+            for (final MethodHandle getter : getters) {
+                if (value == null) {
+                    return;
+                }
+                value = read(getter, value);
+            }
+            if (value != null) {
+                out.append(escape ? MailTemplates.escape(value.toString()) : value);
+            }
+        }
+
+        private static Object read(final MethodHandle getter, final Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (final RuntimeException | Error ex) {
+                throw ex;
+            } catch (final Throwable ex) {
+                throw new IllegalStateException("Unable to read a merge property", ex);
+            }
+        }
+    }
+}
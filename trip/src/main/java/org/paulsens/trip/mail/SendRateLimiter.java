@@ -0,0 +1,165 @@
+package org.paulsens.trip.mail;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket in front of SES, so mail leaves at the account's maximum send rate instead of all at once.
+ *
+ * <p>SES enforces a per-second send rate and answers anything above it with a throttling error. Before this, a
+ * 600-person merge forked 600 sends at once; the first few went out and the rest came back throttled, each one
+ * a logged null and a person who got nothing. Waiting for a token costs the caller a few milliseconds; being
+ * throttled costs the recipient their mail.
+ *
+ * <p>The bucket holds up to one second of sends, which is the burst SES itself tolerates, and refills
+ * continuously. A throttle anyway (another instance sending, a quota that dropped) empties it and pauses every
+ * send for a back-off that doubles while throttles keep coming and resets on the first send that gets through.
+ *
+ * <p>Per JVM, deliberately. The bulk path -- the mail spool -- drains on one instance at a time, so its pace is
+ * the cluster's pace; the sends that bypass it (a login code, a chat mention) are a trickle, and the throttle
+ * back-off absorbs the rare collision. A cluster-wide bucket would put a Valkey round trip in front of every
+ * send to solve a problem that does not occur at this volume.
+ */
+public final class SendRateLimiter {
+
+    /** SES's sandbox rate, where every account starts: the safe assumption until the real quota is read. */
+    static final double FALLBACK_RATE = 1.0;
+    /** How long a quota reading is trusted. SES raises limits by support case, not minute to minute. */
+    static final Duration QUOTA_TTL = Duration.ofMinutes(15);
+    /** The first pause after a throttle; doubles per consecutive throttle up to {@link #MAX_PAUSE}. */
+    static final Duration FIRST_PAUSE = Duration.ofSeconds(1);
+    static final Duration MAX_PAUSE = Duration.ofSeconds(30);
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final SendRateLimiter SES = new SendRateLimiter(FALLBACK_RATE, System::nanoTime);
+
+    private final LongSupplier nanos;
+    private final boolean unlimited;
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+    private int throttleStreak;
+    private long quotaCheckedAt;
+    private boolean quotaChecked;
+
+    SendRateLimiter(final double rate, final LongSupplier nanos) {
+        this(rate, nanos, false);
+    }
+
+    private SendRateLimiter(final double rate, final LongSupplier nanos, final boolean unlimited) {
+        this.rate = rate;
+        this.nanos = nanos;
+        this.unlimited = unlimited;
+        this.tokens = Math.max(1.0, rate);
+        this.refilledAt = nanos.getAsLong();
+        this.pausedUntil = refilledAt;
+    }
+
+    /** The one bucket every SES send in this JVM draws from. */
+    public static SendRateLimiter ses() {
+        return SES;
+    }
+
+    /** A bucket that never waits, for tests that are about what is sent rather than when. */
+    public static SendRateLimiter unlimited() {
+        return new SendRateLimiter(Double.POSITIVE_INFINITY, System::nanoTime, true);
+    }
+
+    /** Blocks until a send may go out. */
+    public void acquire() throws InterruptedException {
+        for (long wait = reserve(); wait > 0; wait = reserve()) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Takes a token if one is there.
+     *
+     * @return 0 when a token was taken, otherwise how many nanoseconds to wait before asking again.
+     */
+    synchronized long reserve() {
+        if (unlimited) {
+            return 0L;
+        }
+        final long now = nanos.getAsLong();
+        if (now < pausedUntil) {
+            return pausedUntil - now;
+        }
+        refill(now);
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0L;
+        }
+        return Math.max(1L, (long) Math.ceil((1.0 - tokens) / rate * NANOS_PER_SECOND));
+    }
+
+    private void refill(final long now) {
+        final double elapsed = (double) (now - refilledAt) / NANOS_PER_SECOND;
+        tokens = Math.min(Math.max(1.0, rate), tokens + elapsed * rate);
+        refilledAt = now;
+    }
+
+    /** SES accepted a send: the throttle back-off starts over. */
+    public synchronized void sent() {
+        throttleStreak = 0;
+    }
+
+    /**
+     * SES refused a send for rate. Empties the bucket and pauses every sender.
+     *
+     * @return the pause applied, for the caller's log line.
+     */
+    public synchronized Duration throttled() {
+        final Duration pause = pauseFor(throttleStreak++);
+        final long until = nanos.getAsLong() + pause.toNanos();
+        if (until > pausedUntil) {
+            pausedUntil = until;
+            // Nothing accrues during the pause, so the first sends after it are paced, not a burst.
+            refilledAt = until;
+            tokens = 0.0;
+        }
+        return pause;
+    }
+
+    static Duration pauseFor(final int streak) {
+        final Duration pause = FIRST_PAUSE.multipliedBy(1L << Math.min(streak, 16));
+        return pause.compareTo(MAX_PAUSE) > 0 ? MAX_PAUSE : pause;
+    }
+
+    /**
+     * Claims the next quota read. True at most once per {@link #QUOTA_TTL}, so N senders noticing a stale quota
+     * at once make one {@code GetSendQuota} call, not N.
+     */
+    public synchronized boolean claimQuotaRefresh() {
+        if (unlimited) {
+            return false;
+        }
+        final long now = nanos.getAsLong();
+        if (quotaChecked && now - quotaCheckedAt < QUOTA_TTL.toNanos()) {
+            return false;
+        }
+        quotaChecked = true;
+        quotaCheckedAt = now;
+        return true;
+    }
+
+    /**
+     * Adopts the account's {@code MaxSendRate}. A missing or nonsensical reading keeps the current rate: the
+     * quota call failing is no reason to send faster, or to stop.
+     */
+    public synchronized void applyQuota(final Double maxSendRate) {
+        if (unlimited || maxSendRate == null || !(maxSendRate > 0.0) || maxSendRate.isInfinite()) {
+            return;
+        }
+        refill(nanos.getAsLong());
+        rate = maxSendRate;
+    }
+
+    /** Sends per second this bucket currently allows. */
+    public synchronized double rate() {
+        return rate;
+    }
+}
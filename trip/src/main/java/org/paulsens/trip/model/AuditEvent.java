@@ -139,7 +139,12 @@ public class AuditEvent implements Serializable {
      * exact while making the ordering within that millisecond arbitrary.
      */
     public AuditEvent withNextMilli() {
-        return new AuditEvent(timestamp.plusMillis(1), action, outcome, actorEmail, actorId,
+        return withTimestamp(timestamp.plusMillis(1));
+    }
+
+    /** This event moved to another instant, for a writer that settles the key before it writes. */
+    public AuditEvent withTimestamp(final Instant when) {
+        return new AuditEvent(when, action, outcome, actorEmail, actorId,
                 targetType, targetEmail, targetId, message, schemaVersion);
     }
 
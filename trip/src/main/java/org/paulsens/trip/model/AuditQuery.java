@@ -10,10 +10,10 @@ import lombok.Value;
 /**
  * What the audit page is asking for: a filter plus a cursor.
  *
- * <p>With no secondary indexes, none of these filters can be an index lookup -- they are all evaluated while
- * walking day partitions backwards. That is a deliberate trade (see {@link AuditEvent}), and it means a filter
- * narrows what comes BACK, not how much is read. At this volume that is the right trade; it is also why the
- * walk is bounded rather than open-ended.
+ * <p>Filters are evaluated while walking day partitions backwards, so a filter narrows what comes BACK, not how
+ * much is read -- which is why the walk is bounded rather than open-ended. The exception is the optional search
+ * indexes ({@code AuditDAO}): when they are kept, a whole-address {@link #actor} or an {@link #action} is read
+ * from its own partition instead, and {@link #matches} still applies the rest.
  *
  * <p>Serializable because anything a page may park in {@code viewScope} ends up in the Valkey-backed session;
  * see {@link AuditPage} for what happens when it is not.
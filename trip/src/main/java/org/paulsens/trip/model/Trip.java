@@ -11,11 +11,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.concurrent.StructuredTaskScope;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
@@ -217,30 +218,35 @@ public final class Trip implements Serializable {
         return resolvedEvents;
     }
 
+    /**
+     * The ids of the events {@link #getTripEvents()} renders, without resolving them: the resolved list's when
+     * resolution ran, else the stored list. Lets a caller stamp the events before it pays to read them.
+     */
+    @JsonIgnore
+    public List<String> getTripEventIds() {
+        if (resolvedEvents != null) {
+            return eventIds(resolvedEvents);
+        }
+        return (tripEventIds == null) ? List.of() : List.copyOf(tripEventIds);
+    }
+
     private void resolveEvents() {
         final List<String> ids = (tripEventIds == null) ? List.of() : List.copyOf(tripEventIds);
+        // One batched read for the whole trip: a single cache MGET, and one BatchGetItem for whatever missed.
+        final List<TripEvent> fetched = DAO.getInstance().getTripEvents(ids, Cached.YES);
+        // Checked AFTER the read: a blocking read interrupted part-way can return normally, with some events
+        // missing and our caller's interrupt still set. Fail the same way then instead of memoizing the gap.
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Interrupted while loading trip events");
+        }
+        final Map<String, TripEvent> byId = new HashMap<>();
+        for (final TripEvent event : fetched) {
+            byId.put(event.getId(), event);
+        }
         final List<TripEvent> events = new ArrayList<>(ids.size());
         final List<String> failed = new ArrayList<>();
-        // Fork per id: cache misses for a trip's events resolve concurrently (a 50-event trip is one round
-        // trip's latency, not 50), each on a virtual thread, and the scope outlives nothing.
-        try (var scope = StructuredTaskScope.open()) {
-            final List<StructuredTaskScope.Subtask<TripEvent>> tasks = new ArrayList<>(ids.size());
-            for (final String eventId : ids) {
-                tasks.add(scope.fork(() -> DAO.getInstance().getTripEvent(eventId, Cached.YES)));
-            }
-            scope.join();
-            // join() reports an interrupt only when it actually parks; once every fork has finished it
-            // returns normally and an interrupt set by our caller goes unseen. Check it explicitly so an
-            // interrupted resolve always fails the same way instead of by scheduling luck.
-            if (Thread.currentThread().isInterrupted()) {
-                throw new IllegalStateException("Interrupted while loading trip events");
-            }
-            for (int i = 0; i < ids.size(); i++) {
-                collectResolved(ids.get(i), tasks.get(i).get(), events, failed);
-            }
-        } catch (final InterruptedException ex) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException("Interrupted while loading trip events", ex);
+        for (final String eventId : ids) {
+            collectResolved(eventId, byId.get(eventId), events, failed);
         }
         this.resolvedEvents = events;
         this.unresolvedIds = failed;
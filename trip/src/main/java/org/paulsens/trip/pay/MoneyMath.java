@@ -87,9 +87,9 @@ public final class MoneyMath {
     }
 
     /**
-     * Deterministic even split (documented for any future per-person materialization; the live SHARED rows
-     * divide at read time instead): base share everywhere, the remainder cents to the FIRST {@code r}
-     * positions of the caller's (already deterministically ordered) member list.
+     * Deterministic even split (how the balance ledger and the per-row amounts share a SHARED row): base share
+     * everywhere, the remainder cents to the FIRST {@code r} positions of the caller's (already
+     * deterministically ordered) member list.
      */
     public static long[] splitEvenly(final long totalCents, final int ways) {
         if (ways <= 0) {
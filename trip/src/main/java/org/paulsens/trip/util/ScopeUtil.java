@@ -23,6 +23,15 @@ public class ScopeUtil {
         return withCtx(ctx -> (T) ctx.getExternalContext().getRequestMap().get(key), () -> null);
     }
 
+    /**
+     * The value stored under {@code key} for the rest of this request, computing it on first use. Outside a
+     * request (a REST call, a test) nothing is stored and every call computes.
+     */
+    public <T> T requestMemo(final String key, final Supplier<T> compute) {
+        return withCtx(ctx -> (T) ctx.getExternalContext().getRequestMap().computeIfAbsent(key, k -> compute.get()),
+                compute);
+    }
+
     private <T> T withCtx(final Function<FacesContext, T> usingFacesContext, final Supplier<T> whenNoFacesContext) {
         final FacesContext ctx = FacesContext.getCurrentInstance();
         return (ctx == null) ? whenNoFacesContext.get() : usingFacesContext.apply(ctx);
@@ -12,8 +12,9 @@ import org.paulsens.trip.dynamo.DAO;
 /**
  * Subscribes this instance to {@link CacheKeys#CACHE_INVAL_CHANNEL} so an invalidation initiated anywhere
  * (another instance's admin button, the REST endpoint, a migration-script hook) drops this JVM's near-cache
- * heap copies too. Declared in the live {@code web.xml} AFTER {@code TripBootstrapListener}, whose
- * being-first is load-bearing (LocalMode resolution).
+ * heap copies too -- and to {@link CacheKeys#CACHE_KEY_INVAL_CHANNEL}, the per-key broadcast of ordinary
+ * write-through, on the same connection. Declared in the live {@code web.xml} AFTER
+ * {@code TripBootstrapListener}, whose being-first is load-bearing (LocalMode resolution).
  *
  * <p>Failure posture: a failed subscribe degrades freshness to the soft-TTL polling backstop and must never
  * abort startup. In local/memory/off cache modes {@code subscribe} is a no-op, which is correct for a
@@ -29,9 +30,9 @@ public class CacheInvalidationListener implements ServletContextListener {
     public void contextInitialized(final ServletContextEvent sce) {
         try {
             final CacheClient client = client();
-            subscription = client.subscribe(
-                    List.of(CacheKeys.CACHE_INVAL_CHANNEL), CacheInvalidation.handlerFor(client));
-            log.info("Subscribed to cache-invalidation channel {}", CacheKeys.CACHE_INVAL_CHANNEL);
+            final List<String> channels = List.of(CacheKeys.CACHE_INVAL_CHANNEL, CacheKeys.CACHE_KEY_INVAL_CHANNEL);
+            subscription = client.subscribe(channels, CacheInvalidation.handlerFor(client));
+            log.info("Subscribed to cache-invalidation channels {}", channels);
         } catch (final RuntimeException ex) {
             log.warn("Cache-invalidation subscribe failed; freshness falls back to the soft-TTL poll", ex);
         }
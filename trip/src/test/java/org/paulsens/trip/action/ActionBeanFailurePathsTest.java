@@ -69,6 +69,16 @@ public class ActionBeanFailurePathsTest {
         Assert.assertNull(trips.getTripEvent("evt-1"));
     }
 
+    /** A failed stamped read answers null, which is every caller's cue to take its plain (untagged) path. */
+    @Test
+    public void stampedReadsFailToNull() {
+        Assert.assertNull(new TripCommands().getTripStamped("t1", stamp -> false));
+        Assert.assertNull(new PersonCommands().getPersonStamped(Person.Id.from("u"), stamp -> false));
+        Assert.assertNull(new RegistrationCommands().getRegistrationsStamped("t1", stamp -> false));
+        Assert.assertNull(new TransactionsCommands().getTransactionsStamped(Person.Id.from("u"), stamp -> false));
+        Assert.assertNull(new TransactionsCommands().getTransactionsStamped(null, stamp -> false));
+    }
+
     /** Credential lookups fail soft to null; a privilege save failure maps to false (both logged). */
     @Test
     public void credentialAndPrivilegeFailureTails() {
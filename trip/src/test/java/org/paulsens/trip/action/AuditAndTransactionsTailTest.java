@@ -243,7 +243,10 @@ public class AuditAndTransactionsTailTest {
         for (int attempt = 0; attempt < 5 && !csv.contains("csv row"); attempt++) {
             audit.log("csv@audit.example", "CONFIG", "csv row, with a comma");
             try { Thread.sleep(50L); } catch (final InterruptedException ex) { break; }
-            csv = auditView.toCsv(null, "csv@audit.example", null, null, null);
+            final StringBuilder out = new StringBuilder(AuditViewCommands.CSV_HEADER);
+            auditView.export(auditView.exportQuery(null, null, "csv@audit.example", null, null, null),
+                    event -> out.append(AuditViewCommands.csvRow(event)));
+            csv = out.toString();
         }
 
         Assert.assertTrue(csv.startsWith("time"), "A header row leads the file");
@@ -60,8 +60,12 @@ public class ChatMembershipAndPrefsTest {
     }
 
     private void seedTrip() throws IOException {
+        seedTrip(tripId);
+    }
+
+    private void seedTrip(final String id) throws IOException {
         final Trip trip = Trip.builder()
-                .id(tripId)
+                .id(id)
                 .title("Chat prefs trip")
                 .openToPublic(false)
                 .startDate(LocalDateTime.now())
@@ -213,6 +217,24 @@ public class ChatMembershipAndPrefsTest {
         Assert.assertTrue(chat.hasUnread(tripId, member));
     }
 
+    @Test
+    public void unreadTripIdsAnswersForAWholePage() throws IOException {
+        final String otherTrip = java.util.UUID.randomUUID().toString();
+        seedTrip(otherTrip);
+        chat.ensureChannel(tripId, actor);
+        chat.ensureChannel(otherTrip, actor);
+        final ChatCommands.SendResult read = chat.send(tripId, adminId, "seen", null, null, actor);
+        Assert.assertTrue(chat.markRead(tripId, member, read.getMessageObj().getId()));
+        Assert.assertTrue(chat.send(otherTrip, adminId, "not yet", null, null, actor).isOk());
+
+        Assert.assertEquals(chat.unreadTripIds(List.of(tripId, otherTrip, "no-such-trip"), member),
+                java.util.Set.of(otherTrip));
+        Assert.assertEquals(chat.unreadTripIds(List.of(tripId, otherTrip), adminId),
+                java.util.Set.of(tripId, otherTrip), "cursors are per person");
+        Assert.assertTrue(chat.unreadTripIds(List.of(tripId, otherTrip), person("Stranger")).isEmpty());
+        Assert.assertTrue(chat.unreadTripIds(List.of(), member).isEmpty());
+    }
+
     @Test
     public void cursorOperationsGuardTheirInputs() {
         chat.ensureChannel(tripId, actor);
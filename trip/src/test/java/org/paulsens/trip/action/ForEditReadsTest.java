@@ -1,5 +1,6 @@
 package org.paulsens.trip.action;
 
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Trip;
@@ -61,4 +62,29 @@ public class ForEditReadsTest {
         Assert.assertEquals(new TripCommands().getTripForEdit(stored.getId()).getTitle(),
                 DAO.getInstance().getTrip(stored.getId(), NO).orElseThrow().getTitle());
     }
+
+    /**
+     * The stamped reads serve the same records as the display getters, and hold a stamp steady across reads of
+     * unchanged content -- which is all a conditional GET needs from them.
+     */
+    @Test
+    public void stampedReadsAnswerTheStoredRecordUnderAStableStamp() throws Exception {
+        final Trip stored = Trip.builder().id("fe-stamp-" + System.nanoTime()).title("Stamped").build();
+        Assert.assertTrue(DAO.getInstance().saveTrip(stored));
+        final TripCommands trips = new TripCommands();
+
+        final Stamped<Trip> first = trips.getTripStamped(stored.getId(), stamp -> false);
+        Assert.assertEquals(first.value().getTitle(), "Stamped");
+        Assert.assertTrue(trips.getTripStamped(stored.getId(), first.stamp()::equals).unchanged());
+        Assert.assertNull(trips.getTripStamped("fe-absent-" + System.nanoTime(), stamp -> false),
+                "no such trip: nothing to stamp, the caller falls back to getTrip");
+
+        final Person person = new Person();
+        person.setFirst("Stamp");
+        Assert.assertTrue(DAO.getInstance().savePerson(person));
+        Assert.assertEquals(new PersonCommands().getPersonStamped(person.getId(), stamp -> false).value().getFirst(),
+                "Stamp");
+        Assert.assertNotNull(new RegistrationCommands().getRegistrationsStamped(stored.getId(), stamp -> false));
+        Assert.assertNotNull(new TransactionsCommands().getTransactionsStamped(person.getId(), stamp -> false));
+    }
 }
@@ -16,9 +16,11 @@ import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.SendEmailRequest;
 import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+import software.amazon.awssdk.services.ses.model.SesException;
 
 /**
  * The SES half of {@link MailCommands#send} -- everything past the local-mode guard.
@@ -98,6 +100,49 @@ public class MailSendSesPathTest {
                 "S", "B", AuditActor.system()));
     }
 
+    private static RuntimeException throttle() {
+        return SesException.builder()
+                .awsErrorDetails(AwsErrorDetails.builder()
+                        .errorCode("Throttling").errorMessage("Maximum sending rate exceeded.").build())
+                .statusCode(400)
+                .build();
+    }
+
+    /** A throttle is not a failure yet: attempt() says so, and send() tries again before giving up. */
+    @Test
+    public void aThrottledSendIsRetriedRatherThanReportedFailed() {
+        Mockito.clearInvocations(ses);
+        Mockito.when(ses.sendEmail(ArgumentMatchers.any(SendEmailRequest.class)))
+                .thenThrow(throttle())
+                .thenReturn(okResponse());
+
+        final SendEmailResponse response = mail.send("f@example.org", "to@example.org", null, "r@example.org",
+                "S", "B", AuditActor.system());
+
+        Assert.assertEquals(response.messageId(), "ses-99");
+        Mockito.verify(ses, Mockito.times(2)).sendEmail(ArgumentMatchers.any(SendEmailRequest.class));
+    }
+
+    @Test
+    public void aSendThrottledEveryTimeEndsNullAfterABoundedNumberOfTries() {
+        Mockito.clearInvocations(ses);
+        Mockito.when(ses.sendEmail(ArgumentMatchers.any(SendEmailRequest.class))).thenThrow(throttle());
+
+        Assert.assertTrue(mail.attempt("f@example.org", "to@example.org", null, "r@example.org",
+                "S", "B", AuditActor.system()).throttled());
+        Mockito.clearInvocations(ses);
+        Assert.assertNull(mail.send("f@example.org", "to@example.org", null, "r@example.org",
+                "S", "B", AuditActor.system()));
+        Mockito.verify(ses, Mockito.times(3)).sendEmail(ArgumentMatchers.any(SendEmailRequest.class));
+    }
+
+    @Test
+    public void onlyRateRefusalsCountAsThrottles() {
+        Assert.assertTrue(MailCommands.isThrottle(throttle()));
+        Assert.assertTrue(MailCommands.isThrottle(new IllegalStateException("Maximum sending rate exceeded.")));
+        Assert.assertFalse(MailCommands.isThrottle(new IllegalStateException("Email address is not verified.")));
+    }
+
     /**
      * The virtual-threads-era attribution semantics: the explicit parameter always wins, and a null actor
      * resolves through the bound {@code RequestContext} -- the send blocks on the bound thread, so the audit
@@ -133,16 +178,17 @@ public class MailSendSesPathTest {
     }
 
     /**
-     * The merge itself: rendering stays sequential (the EL slot is shared), the SES sends fan out one
-     * StructuredTaskScope fork per recipient, and the response list keeps recipient order.
+     * The merge itself, on the EL path (a template that does not compile): rendering stays sequential (the EL
+     * slot is shared), the SES sends fan out over a few StructuredTaskScope forks, and the response list keeps
+     * recipient order.
      */
     @Test
     public void sendTemplateRendersSequentiallyAndFansOutTheSends() {
         Mockito.clearInvocations(ses);
         Mockito.when(ses.sendEmail(ArgumentMatchers.any(SendEmailRequest.class))).thenReturn(okResponse());
         final com.sun.jsft.util.ELUtil el = Mockito.mock(com.sun.jsft.util.ELUtil.class);
-        Mockito.when(el.eval("S")).thenReturn("S");
-        Mockito.when(el.eval("B")).thenReturn("B");
+        Mockito.when(el.eval("#{requestScope.s}")).thenReturn("S");
+        Mockito.when(el.eval("#{requestScope.b}")).thenReturn("B");
         final Person one = new Person();
         one.setEmail("one@example.org");
         final Person two = new Person();
@@ -152,12 +198,30 @@ public class MailSendSesPathTest {
         try (var elStatic = Mockito.mockStatic(com.sun.jsft.util.ELUtil.class)) {
             elStatic.when(com.sun.jsft.util.ELUtil::getInstance).thenReturn(el);
             out = new MailCommands(ses).sendTemplate("f@example.org", List.of(one, two), null,
-                    "r@example.org", "S", "B", AuditActor.system());
+                    "r@example.org", "#{requestScope.s}", "#{requestScope.b}", AuditActor.system());
         }
 
         Assert.assertEquals(out.size(), 2, "one response per usable recipient, in recipient order");
         Assert.assertEquals(out.get(0).messageId(), "ses-99");
         Mockito.verify(ses, Mockito.times(2)).sendEmail(ArgumentMatchers.any(SendEmailRequest.class));
+        Mockito.verify(el, Mockito.times(2)).eval("#{requestScope.b}");
+    }
+
+    /** A template of recipient properties compiles: no EL at all, and each recipient's values escaped. */
+    @Test
+    public void aCompiledMergePersonalisesEachMailWithoutEl() {
+        Mockito.clearInvocations(ses);
+        Mockito.when(ses.sendEmail(ArgumentMatchers.any(SendEmailRequest.class))).thenReturn(okResponse());
+        final Person person = Person.builder().first("Tom & Jerry").email("tj@example.org").build();
+
+        final List<SendEmailResponse> out = mail.sendTemplate("f@example.org", List.of(person), null,
+                "r@example.org", "Hi #{to.first}", "<p>Dear #{requestScope.to.first}</p>", AuditActor.system());
+
+        Assert.assertEquals(out.size(), 1);
+        final ArgumentCaptor<SendEmailRequest> req = ArgumentCaptor.forClass(SendEmailRequest.class);
+        Mockito.verify(ses).sendEmail(req.capture());
+        Assert.assertEquals(req.getValue().message().subject().data(), "Hi Tom &amp; Jerry");
+        Assert.assertEquals(req.getValue().message().body().html().data(), "<p>Dear Tom &amp; Jerry</p>");
     }
 
     /** Off a Faces thread the EL evaluates to null; sendTemplate must refuse loudly, not mail "null". */
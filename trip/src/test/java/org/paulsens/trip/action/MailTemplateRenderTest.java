@@ -1,5 +1,6 @@
 package org.paulsens.trip.action;
 
+import org.paulsens.trip.mail.MergeTemplate;
 import org.paulsens.trip.model.Person;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -56,4 +57,17 @@ public class MailTemplateRenderTest {
         Assert.assertThrows(RuntimeException.class,
                 () -> mail.renderTemplate(person, "Hello #{to.noSuchProperty}"));
     }
+
+    @Test
+    public void aCompiledBodyEscapesItsValuesAndACompiledSubjectDoesNot() {
+        final Person person = Person.builder().first("Smith & Co").last("<O'Brien>").build();
+        final MergeTemplate body = MergeTemplate.compileHtml("<p>Dear #{to.first} #{to.last}</p>");
+        Assert.assertNotNull(body);
+        Assert.assertEquals(body.render(person), "<p>Dear Smith &amp; Co &lt;O&#39;Brien&gt;</p>",
+                "a recipient's name must not become markup in the body; the template's own markup stays");
+        final MergeTemplate subject = MergeTemplate.compile("Trip news for #{to.first} #{to.last}");
+        Assert.assertNotNull(subject);
+        Assert.assertEquals(subject.render(person), "Trip news for Smith & Co <O'Brien>",
+                "SES sends the subject as plain text, where an escaped &amp; would arrive literally");
+    }
 }
@@ -56,14 +56,32 @@ public class TransactionsCommandsTest {
         final Transaction memberTx = txCmds.getGroupTransactionForUser(p1, sharedGroup).orElse(null);
         final List<Person.Id> groupUsers = txCmds.getUserIdsForGroup(memberTx);
         assertEquals(groupUsers.size(), 4);
-        final Transaction tx0 = txCmds.getGroupTransactionForUser(groupUsers.get(0), sharedGroup).orElse(null);
-        assertEquals((float) txCmds.getUserAmount(tx0), amount / 4);
-        final Transaction tx1 = txCmds.getGroupTransactionForUser(groupUsers.get(1), sharedGroup).orElse(null);
-        assertEquals((float) txCmds.getUserAmount(tx1), amount / 4);
-        final Transaction tx2 = txCmds.getGroupTransactionForUser(groupUsers.get(2), sharedGroup).orElse(null);
-        assertEquals((float) txCmds.getUserAmount(tx2), amount / 4);
-        final Transaction tx3 = txCmds.getGroupTransactionForUser(groupUsers.get(3), sharedGroup).orElse(null);
-        assertEquals((float) txCmds.getUserAmount(tx3), amount / 4);
+        // 10350 cents four ways: the two spare cents go to the first two members, as the ledger splits it.
+        final float[] expected = {-25.88f, -25.88f, -25.87f, -25.87f};
+        for (int i = 0; i < groupUsers.size(); i++) {
+            final Transaction tx = txCmds.getGroupTransactionForUser(groupUsers.get(i), sharedGroup).orElse(null);
+            assertEquals((float) txCmds.getUserAmount(tx), expected[i]);
+        }
+    }
+
+    /** A shared row that does not divide evenly: each member's rows must still add up to their balance. */
+    @Test
+    public void rowSharesOfAnOddSplitAddUpToTheBalance() {
+        final String sharedGroup = RandomData.genAlpha(8);
+        final List<Person.Id> members = List.of(createPerson(), createPerson(), createPerson());
+        txCmds.saveGroupTx(sharedGroup, List.of(), Transaction.Type.Shared, Transaction.TransactionType.Bill,
+                LocalDateTime.now(), -100.01f, "cat", "note", null /* tripId */, null /* eventId */,
+                members.toArray(new Person.Id[0]));
+        long rowTotal = 0L;
+        for (final Person.Id member : members) {
+            long memberRows = 0L;
+            for (final Transaction tx : txCmds.getTransactions(member)) {
+                memberRows += Math.round(txCmds.getUserAmount(tx) * 100d);
+            }
+            assertEquals(memberRows, Math.round(txCmds.getBalance(member) * 100d), "rows vs balance of " + member);
+            rowTotal += memberRows;
+        }
+        assertEquals(rowTotal, -10001L, "the shares add back up to the row");
     }
 
     // ------------------------------------------------------------------ org (tenancy) stamping
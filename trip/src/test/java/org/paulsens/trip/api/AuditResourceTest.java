@@ -1,14 +1,23 @@
 package org.paulsens.trip.api;
 
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.paulsens.trip.action.AuditViewCommands;
 import org.paulsens.trip.action.PersonCommands;
+import org.paulsens.trip.audit.DynamoAuditSink;
+import org.paulsens.trip.model.AuditAction;
+import org.paulsens.trip.model.AuditEvent;
+import org.paulsens.trip.model.AuditOutcome;
 import org.paulsens.trip.model.AuditPage;
 import org.paulsens.trip.model.Person;
 import org.testng.Assert;
@@ -46,8 +55,10 @@ public class AuditResourceTest extends ResourceTestSupport {
 
         assertError(resource.page(null, null, null, null, null, 50), 403, ApiErrors.FORBIDDEN);
         assertError(resource.recent(50), 403, ApiErrors.FORBIDDEN);
-        assertError(resource.export(null, null, null, null, null), 403, ApiErrors.FORBIDDEN);
+        assertError(resource.export(null, null, null, null, null, null), 403, ApiErrors.FORBIDDEN);
+        assertError(resource.exportJson(null, null, null, null, null, null), 403, ApiErrors.FORBIDDEN);
         assertError(resource.vocabularies(), 403, ApiErrors.FORBIDDEN);
+        assertError(resource.indexStats(), 403, ApiErrors.FORBIDDEN);
         Mockito.verifyNoInteractions(view);
     }
 
@@ -56,7 +67,8 @@ public class AuditResourceTest extends ResourceTestSupport {
         signedInAsSiteAdmin(ADMIN);
 
         assertError(resource.page("yesterday-ish", null, null, null, null, 50), 400, ApiErrors.BAD_REQUEST);
-        assertError(resource.export("not-a-time", null, null, null, null), 400, ApiErrors.BAD_REQUEST);
+        assertError(resource.export("not-a-time", null, null, null, null, null), 400, ApiErrors.BAD_REQUEST);
+        assertError(resource.exportJson(null, "last week", null, null, null, null), 400, ApiErrors.BAD_REQUEST);
         Mockito.verifyNoInteractions(view);
     }
 
@@ -115,17 +127,49 @@ public class AuditResourceTest extends ResourceTestSupport {
     }
 
     @Test
-    public void exportIsCsvWithAFilenameNotJson() {
+    public void exportIsCsvWithAFilenameNotJson() throws Exception {
         signedInAsSiteAdmin(ADMIN);
-        Mockito.when(view.toCsv(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
-                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn("time,actor\n");
+        stubExport(new AuditViewCommands.ExportEnd(1, null, false));
 
-        final Response response = resource.export(null, null, null, null, null);
+        final Response response = resource.export(null, null, null, null, null, null);
 
         Assert.assertEquals(response.getStatus(), 200);
         Assert.assertEquals(response.getMediaType().toString(), "text/csv");
         Assert.assertTrue(response.getHeaderString("Content-Disposition").contains("audit.csv"));
-        Assert.assertEquals(response.getEntity(), "time,actor\n");
+        final String csv = drain(response);
+        Assert.assertTrue(csv.startsWith(AuditViewCommands.CSV_HEADER));
+        Assert.assertTrue(csv.contains("2026-08-01T12:00:00Z,LOGIN,SUCCESS,csv@example.com"));
+        Assert.assertFalse(csv.contains("INCOMPLETE"));
+    }
+
+    /** Rows go out as they are read; a cut-off export says where to pick up rather than ending quietly. */
+    @Test
+    public void aCutOffExportEndsWithTheSinceThatContinuesIt() throws Exception {
+        signedInAsSiteAdmin(ADMIN);
+        stubExport(new AuditViewCommands.ExportEnd(1, Instant.parse("2026-08-01T12:00:00.001Z"), true));
+
+        final String csv = drain(resource.export(null, null, null, null, null, null));
+
+        Assert.assertTrue(csv.contains("csv@example.com"));
+        Assert.assertTrue(csv.contains("INCOMPLETE"));
+        Assert.assertTrue(csv.contains("since=2026-08-01T12:00:00.001Z"));
+    }
+
+    /** Feeds one event to the export's consumer, as the DAO walk would, then ends with {@code end}. */
+    private void stubExport(final AuditViewCommands.ExportEnd end) {
+        final AuditEvent event = new AuditEvent(Instant.parse("2026-08-01T12:00:00Z"), AuditAction.LOGIN,
+                AuditOutcome.SUCCESS, "csv@example.com", null, null, null, null, "signed in", null);
+        Mockito.when(view.export(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(call -> {
+            final Consumer<AuditEvent> each = call.getArgument(1);
+            each.accept(event);
+            return end;
+        });
+    }
+
+    private static String drain(final Response response) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(bytes);
+        return bytes.toString(StandardCharsets.UTF_8);
     }
 
     /** Dropdowns come from the server's enums; a client that guessed would drift on the next enum addition. */
@@ -144,6 +188,33 @@ public class AuditResourceTest extends ResourceTestSupport {
         Assert.assertTrue(outcomes.contains("SUCCESS"));
     }
 
+    @Test
+    public void indexStatsReportTheSinksCounters() {
+        signedInAsSiteAdmin(ADMIN);
+        Mockito.when(view.getIndexStats())
+                .thenReturn(Optional.of(new DynamoAuditSink.Stats(3, 10_000, 40, 2, 1, 25)));
+
+        final Response response = resource.indexStats();
+
+        assertOk(response);
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> body = (Map<String, Object>) response.getEntity();
+        Assert.assertEquals(body.get("enabled"), true);
+        Assert.assertEquals(body.get("depth"), 3);
+        Assert.assertEquals(body.get("notIndexed"), 2L);
+        Assert.assertEquals(body.get("dropped"), 1L);
+    }
+
+    @Test
+    public void indexStatsSayWhenThereIsNoIndex() {
+        signedInAsSiteAdmin(ADMIN);
+        Mockito.when(view.getIndexStats()).thenReturn(Optional.empty());
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> body = (Map<String, Object>) resource.indexStats().getEntity();
+        Assert.assertEquals(body, Map.of("enabled", false));
+    }
+
     @Test
     public void theProducedTypeIsTheAuditMediaType() {
         Assert.assertEquals(new AuditResource().versionedType(), ApiMediaTypes.AUDIT_V1);
@@ -77,4 +77,24 @@ public class CacheResourceTest extends ResourceTestSupport {
         final Map<String, Object> body = (Map<String, Object>) response.getEntity();
         Assert.assertEquals(body.get("invalidated"), List.of("t1:"));
     }
+
+    @Test
+    public void statsRefusesWithoutConfigAdmin() {
+        signedInAs(ADMIN);
+        assertError(resource.stats(), 403, ApiErrors.FORBIDDEN);
+    }
+
+    /** Tests run on the in-memory client, which has no near-cache in front of it. */
+    @Test
+    public void statsReportsTheNearCacheDisabledWhenNotWrapped() {
+        signedInAsSiteAdmin(ADMIN);
+
+        final Response response = resource.stats();
+
+        assertOk(response);
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> body = (Map<String, Object>) response.getEntity();
+        Assert.assertEquals(body.get("enabled"), false);
+        Assert.assertTrue(body.get("json") instanceof java.util.List, "entity JSON timings are reported regardless");
+    }
 }
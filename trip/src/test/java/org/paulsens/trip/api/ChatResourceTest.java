@@ -1,6 +1,9 @@
 package org.paulsens.trip.api;
 
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -373,6 +376,27 @@ public class ChatResourceTest extends ResourceTestSupport {
         Assert.assertEquals(body.get("reactionsVersion"), 0L);
     }
 
+    /** The window is tagged from the reactions version read first; a held tag skips the window entirely. */
+    @Test
+    public void aHeldReactionWindowTagIsAnsweredNotModified() {
+        channel();
+        Mockito.when(chat.readDenial(ArgumentMatchers.any(), ArgumentMatchers.eq(ME))).thenReturn(null);
+        Mockito.when(chat.reactionsVersion(TRIP_ID)).thenReturn(12L);
+        Mockito.when(chat.reactionWindow(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.eq(ME),
+                ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(Map.of());
+        final Response first = resource.reactions(CHANNEL, "m1", "m9");
+        assertOk(first);
+        Assert.assertTrue(first.getEntityTag().isWeak(), "display names can change under one version");
+
+        ifNoneMatch(first.getEntityTag().toString());
+        final Response again = resource.reactions(CHANNEL, "m1", "m9");
+
+        Assert.assertEquals(again.getStatus(), 304);
+        Mockito.verify(chat, Mockito.times(1)).reactionWindow(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any());
+        Assert.assertEquals(resource.reactions(CHANNEL, "m1", "m8").getStatus(), 200, "another window, another tag");
+    }
+
     @Test
     public void joinReportsWhetherRejoiningIsAllowed() {
         Mockito.when(chat.rejoin(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.eq(ME),
@@ -407,6 +431,56 @@ public class ChatResourceTest extends ResourceTestSupport {
                 ArgumentMatchers.any(AuditActor.class));
     }
 
+    /** The streamed export pages through history on the server and audits what was actually written. */
+    @Test
+    public void theStreamedExportPagesThroughAndAuditsWhatLeft() throws Exception {
+        Mockito.when(chat.canAdminister(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.any(Caller.class)))
+                .thenReturn(false);
+        assertError(resource.exportStream(CHANNEL, null), 403, ChatErrors.FORBIDDEN);
+        Mockito.verify(chat, Mockito.never()).auditExport(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.any());
+
+        Mockito.when(chat.canAdminister(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.any(Caller.class)))
+                .thenReturn(true);
+        final ChatPage first = new ChatPage(List.of(message("m3"), message("m2")), Map.of(),
+                ChatMessage.Id.from("m2"), 0L, 0L, true, true, Map.of(), Instant.now());
+        Mockito.when(chat.history(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.eq(ME), ArgumentMatchers.isNull(),
+                ArgumentMatchers.anyInt())).thenReturn(first);
+        Mockito.when(chat.history(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.eq(ME),
+                ArgumentMatchers.eq(ChatMessage.Id.from("m2")), ArgumentMatchers.anyInt()))
+                .thenReturn(pageOf(message("m1")));
+
+        final Response response = resource.exportStream(CHANNEL, " ");
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(bytes);
+        final List<String> lines = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+
+        Assert.assertEquals(lines.size(), 4, "three messages and the trailer");
+        Assert.assertTrue(lines.get(0).contains("m3"));
+        Assert.assertTrue(lines.get(2).contains("m1"));
+        Assert.assertTrue(lines.get(3).contains("\"complete\":true"));
+        Assert.assertTrue(lines.get(3).contains("\"count\":3"));
+        Mockito.verify(chat).auditExport(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.eq(3),
+                ArgumentMatchers.any(AuditActor.class));
+    }
+
+    /** A bad resume cursor is a 400 before anything streams, not an empty export behind a 200. */
+    @Test
+    public void theStreamedExportRejectsABadCursorUpFront() {
+        Mockito.when(chat.canAdminister(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.any(Caller.class)))
+                .thenReturn(true);
+
+        assertError(resource.exportStream(CHANNEL, "yesterday"), 400, ChatErrors.BAD_CHANNEL);
+        assertError(resource.exportStream(CHANNEL, "17000000000"), 400, ChatErrors.BAD_CHANNEL);
+        Mockito.verify(chat, Mockito.never()).history(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+        Mockito.verify(chat, Mockito.never()).auditExport(ArgumentMatchers.any(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.any());
+
+        Assert.assertTrue(resource.exportStream(CHANNEL, " 1700000000000 ").getEntity() instanceof StreamingOutput,
+                "a well-formed id streams");
+    }
+
     @Test
     public void theRosterIsForMembersOnly() {
         Mockito.when(chat.canParticipate(TRIP_ID, ME)).thenReturn(false);
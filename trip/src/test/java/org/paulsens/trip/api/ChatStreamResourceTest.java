@@ -0,0 +1,229 @@
+package org.paulsens.trip.api;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.mockito.ArgumentMatchers;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.paulsens.trip.action.ChatCommands;
+import org.paulsens.trip.chat.ChatNudgeRegistry;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.chat.ChatChannel;
+import org.paulsens.trip.model.chat.ChatMessage;
+import org.paulsens.trip.model.chat.ChatPage;
+import org.paulsens.trip.model.chat.ChatSettings;
+import org.paulsens.trip.util.TripThreads;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * {@link ChatStreamResource} over the REAL {@link ChatNudgeRegistry}, as {@code ChatFeedLongPollTest} drives the
+ * long-poll: a fresh stream starts at now, a resumed one sends exactly what moved since its token, a nudge on any
+ * channel wakes the one connection, and every channel unparks however the stream ends.
+ *
+ * <p>The stream body runs on the TEST thread for the same reason the long-poll does there: the static mock of
+ * {@code ChatCommands.getChatCommands} is thread-local.
+ */
+public class ChatStreamResourceTest extends ResourceTestSupport {
+
+    private static final String TRIP_A = "stream-a";
+    private static final String TRIP_B = "stream-b";
+    private static final Person.Id ME = Person.Id.from("stream-me");
+    private static final Duration PATIENCE = Duration.ofSeconds(5);
+
+    private ChatCommands chat;
+    private MockedStatic<ChatCommands> chatStatic;
+
+    @BeforeMethod
+    public void bindChat() {
+        chat = Mockito.mock(ChatCommands.class);
+        chatStatic = Mockito.mockStatic(ChatCommands.class);
+        chatStatic.when(ChatCommands::getChatCommands).thenReturn(chat);
+        signedInAs(ME);
+        Mockito.when(chat.myChats(ME)).thenReturn(List.of(summary(TRIP_A), summary(TRIP_B)));
+        Mockito.when(chat.history(ArgumentMatchers.anyString(), ArgumentMatchers.eq(ME), ArgumentMatchers.isNull(),
+                ArgumentMatchers.anyInt())).thenReturn(page(List.of(message("m5")), null, 0L, 0L));
+        Mockito.when(chat.feed(ArgumentMatchers.anyString(), ArgumentMatchers.eq(ME), ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt())).thenReturn(page(List.of(), null, 0L, 0L));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void closeChatStatic() {
+        if (chatStatic != null) {
+            chatStatic.close();
+            chatStatic = null;
+        }
+    }
+
+    @Test
+    public void anAnonymousCallerIsRefusedWithAJsonBody() {
+        anonymous();
+
+        assertError(resource(new ChatStreamResource()).stream(null, null), 401, ChatErrors.NOT_AUTHENTICATED);
+    }
+
+    @Test
+    public void aFreshStreamStartsAtTheNewestMessageAndReplaysNothing() throws Exception {
+        Mockito.when(chat.feed(ArgumentMatchers.eq(TRIP_A), ArgumentMatchers.eq(ME),
+                ArgumentMatchers.eq(ChatMessage.Id.from("m5")), ArgumentMatchers.anyInt()))
+                .thenReturn(page(List.of(), null, 4L, 2L));
+
+        final String out = run(new ChatStreamResource(Duration.ofMillis(150), Duration.ofMillis(40)), null);
+
+        Assert.assertTrue(out.startsWith("retry: "), out);
+        Assert.assertTrue(out.contains("event: ready\n"), out);
+        Assert.assertTrue(out.contains("\"trip:" + TRIP_A + "\""), "ready lists the channels: " + out);
+        Assert.assertFalse(out.contains("event: message"), "connecting must not replay history: " + out);
+        Assert.assertFalse(out.contains("event: reactions"), "the first counter read is adopted, not announced");
+        Assert.assertTrue(out.contains(": heartbeat\n\n"), "a quiet stream still heartbeats: " + out);
+        Mockito.verify(chat).feed(ArgumentMatchers.eq(TRIP_A), ArgumentMatchers.eq(ME),
+                ArgumentMatchers.eq(ChatMessage.Id.from("m5")), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    public void aResumedStreamSendsWhatMovedSinceItsToken() throws Exception {
+        final Map<String, ChatStreamCursor.Position> before = new LinkedHashMap<>();
+        before.put(TRIP_A, new ChatStreamCursor.Position("m1", 2L, 1L));
+        Mockito.when(chat.feed(ArgumentMatchers.eq(TRIP_A), ArgumentMatchers.eq(ME),
+                ArgumentMatchers.eq(ChatMessage.Id.from("m1")), ArgumentMatchers.anyInt()))
+                .thenReturn(page(List.of(message("m2")), ChatMessage.Id.from("m2"), 3L, 0L));
+
+        final String out = run(new ChatStreamResource(Duration.ofMillis(100), Duration.ofMillis(50)),
+                ChatStreamCursor.encode(before));
+
+        Assert.assertTrue(out.contains("event: message\ndata: {\"channelId\":\"trip:" + TRIP_A + "\""), out);
+        Assert.assertTrue(out.contains("event: reactions\ndata: {\"channelId\":\"trip:" + TRIP_A
+                + "\",\"version\":3}"), out);
+        Assert.assertFalse(out.contains("event: mutations"), "a server zero is 'not reported', never a change");
+        final Map<String, ChatStreamCursor.Position> after = ChatStreamCursor.decode(lastId(out));
+        Assert.assertEquals(after.get(TRIP_A), new ChatStreamCursor.Position("m2", 3L, 1L));
+        Assert.assertEquals(after.get(TRIP_B).since(), "m5", "a channel missing from the token starts at now");
+    }
+
+    @Test
+    public void aNudgeOnAnyChannelWakesTheStream() throws Exception {
+        final CountDownLatch firstRead = new CountDownLatch(1);
+        Mockito.when(chat.feed(ArgumentMatchers.eq(TRIP_B), ArgumentMatchers.eq(ME), ArgumentMatchers.any(),
+                ArgumentMatchers.anyInt()))
+                .thenAnswer(call -> {
+                    firstRead.countDown(); // the read-after-park: nothing yet
+                    return page(List.of(), null, 0L, 0L);
+                })
+                .thenReturn(page(List.of(message("m6")), ChatMessage.Id.from("m6"), 0L, 0L));
+        // Nudged only once that first read has happened, so the nudge cannot be absorbed by it.
+        final CompletableFuture<Void> nudger = new CompletableFuture<>();
+        TripThreads.start(() -> nudgeAfter(firstRead, nudger));
+
+        // The heartbeat is longer than the whole stream, so the only thing that can trigger a second read of
+        // TRIP_B inside it is the nudge.
+        final String out = run(new ChatStreamResource(Duration.ofSeconds(2), Duration.ofMinutes(1)), null);
+
+        nudger.get(PATIENCE.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertTrue(out.contains("event: message\ndata: {\"channelId\":\"trip:" + TRIP_B + "\""), out);
+        Assert.assertEquals(ChatNudgeRegistry.getInstance().parkedCount(channel(TRIP_B)), 0);
+    }
+
+    private static void nudgeAfter(final CountDownLatch firstRead, final CompletableFuture<Void> done) {
+        try {
+            if (!firstRead.await(PATIENCE.toMillis(), TimeUnit.MILLISECONDS)) {
+                done.completeExceptionally(new AssertionError("The stream never read its channels"));
+                return;
+            }
+            ChatNudgeRegistry.getInstance().nudge(channel(TRIP_B), 0L);
+            done.complete(null);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            done.completeExceptionally(ex);
+        }
+    }
+
+    @Test
+    public void aClientThatGoesAwayUnparksEveryChannel() throws Exception {
+        final Response response = resource(new ChatStreamResource()).stream(null, null);
+        final OutputStream gone = new OutputStream() {
+            @Override
+            public void write(final int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // The default ten-minute stream must end at the first failed write, not run out its lifetime.
+        ((StreamingOutput) response.getEntity()).write(gone);
+
+        Assert.assertEquals(ChatNudgeRegistry.getInstance().parkedCount(channel(TRIP_A)), 0);
+        Assert.assertEquals(ChatNudgeRegistry.getInstance().parkedCount(channel(TRIP_B)), 0);
+    }
+
+    @Test
+    public void theCursorRoundTripsAndAnythingElseIsNoPosition() {
+        final Map<String, ChatStreamCursor.Position> positions = new LinkedHashMap<>();
+        positions.put(TRIP_A, new ChatStreamCursor.Position("0001769558400123", 7L, -1L));
+        positions.put(TRIP_B, ChatStreamCursor.Position.unread(null));
+
+        Assert.assertEquals(ChatStreamCursor.decode(ChatStreamCursor.encode(positions)), positions);
+        for (final String junk : Arrays.asList(null, "", "not base64 !", "aGVsbG8", "x".repeat(20_000))) {
+            Assert.assertTrue(ChatStreamCursor.decode(junk).isEmpty(), "junk: " + junk);
+        }
+    }
+
+    @Test
+    public void countersAreAdoptedOnceAndAServerZeroIsNeverAChange() {
+        Assert.assertEquals(ChatStreamResource.nextVersion(-1L, 0L), 0L, "first read adopts even a zero");
+        Assert.assertEquals(ChatStreamResource.nextVersion(4L, 0L), 4L, "a cold cache keeps what we knew");
+        Assert.assertEquals(ChatStreamResource.nextVersion(4L, 2L), 2L, "a rebuilt cache restarts the count");
+        Assert.assertFalse(ChatStreamResource.moved(-1L, 3L), "the adopting read announces nothing");
+        Assert.assertTrue(ChatStreamResource.moved(0L, 1L), "the first reaction on a quiet channel is news");
+        Assert.assertFalse(ChatStreamResource.moved(4L, 4L));
+    }
+
+    private String run(final ChatStreamResource resource, final String lastEventId) throws IOException {
+        final Response response = resource(resource).stream(lastEventId, null);
+        Assert.assertEquals(response.getStatus(), 200);
+        Assert.assertEquals(response.getMediaType().toString(), ChatStreamResource.EVENT_STREAM);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(bytes);
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String lastId(final String out) {
+        final int at = out.lastIndexOf("id: ");
+        return out.substring(at + 4, out.indexOf('\n', at));
+    }
+
+    private static String channel(final String tripId) {
+        return ChatChannel.Id.forTrip(tripId).getValue();
+    }
+
+    private static ChatCommands.ChatSummary summary(final String tripId) {
+        final ChatChannel channel = new ChatChannel(
+                ChatChannel.Id.forTrip(tripId), tripId, ChatChannel.Kind.TRIP, "Test",
+                null, null, ChatSettings.defaults(), Instant.parse("2026-01-01T00:00:00Z"),
+                "admin", null, null);
+        return new ChatCommands.ChatSummary(channel, "Trip " + tripId, 0L, false);
+    }
+
+    private static ChatMessage message(final String id) {
+        return new ChatMessage(ChatMessage.Id.from(id), ChatChannel.Id.forTrip(TRIP_A), ME,
+                Instant.now(), null, "hi", null, null, null, null, null, null, null, null, null);
+    }
+
+    private static ChatPage page(final List<ChatMessage> messages, final ChatMessage.Id cursor, final long rver,
+            final long mver) {
+        return new ChatPage(messages, Map.of(), cursor, rver, mver, false, false, Map.of(), Instant.now());
+    }
+}
@@ -0,0 +1,105 @@
+package org.paulsens.trip.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link ConditionalGetFilter}: If-None-Match parsed once for the resource, and the response-side backstop that
+ * turns a tagged 200 the client already holds into a body-less 304.
+ */
+public class ConditionalGetFilterTest {
+
+    private static ConditionalGetFilter filterWith(final HttpServletRequest request) throws Exception {
+        final ConditionalGetFilter filter = new ConditionalGetFilter();
+        final Field field = ConditionalGetFilter.class.getDeclaredField("request");
+        field.setAccessible(true);
+        field.set(filter, request);
+        return filter;
+    }
+
+    @Test
+    public void ifNoneMatchIsParsedWeaklyAndUnquoted() {
+        Assert.assertEquals(ConditionalGetFilter.parse("\"a\", W/\"b\" ,c,  "), Set.of("a", "b", "c"));
+        Assert.assertEquals(ConditionalGetFilter.parse("*"), Set.of("*"));
+        Assert.assertTrue(ConditionalGetFilter.parse(null).isEmpty());
+    }
+
+    @Test
+    public void aGetWithTagsStampsThemOnBothRequests() throws Exception {
+        final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        final ContainerRequestContext ctx = Mockito.mock(ContainerRequestContext.class);
+        Mockito.when(ctx.getMethod()).thenReturn("GET");
+        Mockito.when(ctx.getHeaderString(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"t1\"");
+
+        filterWith(request).filter(ctx);
+
+        Mockito.verify(ctx).setProperty(ConditionalGetFilter.KNOWN_TAGS_PROP, Set.of("t1"));
+        Mockito.verify(request).setAttribute(ConditionalGetFilter.KNOWN_TAGS_PROP, Set.of("t1"));
+    }
+
+    @Test
+    public void writesAndUntaggedGetsAreLeftAlone() throws Exception {
+        final HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        final ContainerRequestContext put = Mockito.mock(ContainerRequestContext.class);
+        Mockito.when(put.getMethod()).thenReturn("PUT");
+        Mockito.when(put.getHeaderString(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"t1\"");
+        final ContainerRequestContext get = Mockito.mock(ContainerRequestContext.class);
+        Mockito.when(get.getMethod()).thenReturn("GET");
+
+        filterWith(request).filter(put);
+        filterWith(request).filter(get);
+
+        Mockito.verify(put, Mockito.never()).setProperty(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verify(get, Mockito.never()).setProperty(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+        Mockito.verifyNoInteractions(request);
+    }
+
+    @Test
+    public void aTagged200TheClientHoldsGoesOutAs304WithoutABody() throws Exception {
+        final ContainerRequestContext req = Mockito.mock(ContainerRequestContext.class);
+        Mockito.when(req.getProperty(ConditionalGetFilter.KNOWN_TAGS_PROP)).thenReturn(Set.of("t1"));
+        final ContainerResponseContext res = response(200, new EntityTag("t1"));
+
+        filterWith(Mockito.mock(HttpServletRequest.class)).filter(req, res);
+
+        Mockito.verify(res).setStatus(304);
+        Mockito.verify(res).setEntity(null);
+        Assert.assertEquals(res.getHeaders().get(HttpHeaders.CACHE_CONTROL), List.of("private, no-cache"));
+    }
+
+    @Test
+    public void aTagTheClientDoesNotHoldIsServedInFull() throws Exception {
+        final ContainerRequestContext req = Mockito.mock(ContainerRequestContext.class);
+        Mockito.when(req.getProperty(ConditionalGetFilter.KNOWN_TAGS_PROP)).thenReturn(Set.of("old"));
+        final ContainerResponseContext tagged = response(200, new EntityTag("t1"));
+        final ContainerResponseContext untagged = response(200, null);
+
+        filterWith(Mockito.mock(HttpServletRequest.class)).filter(req, tagged);
+        filterWith(Mockito.mock(HttpServletRequest.class)).filter(req, untagged);
+
+        Mockito.verify(tagged, Mockito.never()).setStatus(ArgumentMatchers.anyInt());
+        Assert.assertEquals(tagged.getHeaders().get(HttpHeaders.CACHE_CONTROL), List.of("private, no-cache"));
+        Assert.assertNull(untagged.getHeaders().get(HttpHeaders.CACHE_CONTROL), "untagged responses are untouched");
+    }
+
+    private static ContainerResponseContext response(final int status, final EntityTag tag) {
+        final ContainerResponseContext res = Mockito.mock(ContainerResponseContext.class);
+        final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+        Mockito.when(res.getStatus()).thenReturn(status);
+        Mockito.when(res.getEntityTag()).thenReturn(tag);
+        Mockito.when(res.getHeaders()).thenReturn(headers);
+        return res;
+    }
+}
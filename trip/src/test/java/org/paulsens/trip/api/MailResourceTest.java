@@ -8,6 +8,7 @@ import org.mockito.Mockito;
 import org.paulsens.trip.action.MailCommands;
 import org.paulsens.trip.action.PersonCommands;
 import org.paulsens.trip.audit.AuditActor;
+import org.paulsens.trip.mail.MailJob;
 import org.paulsens.trip.model.Person;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -140,6 +141,9 @@ public class MailResourceTest extends ResourceTestSupport {
         signedInAsSiteAdmin(ADMIN);
         Mockito.when(mail.validateEmail("good@x.org")).thenReturn("good@x.org");
         Mockito.when(mail.validateEmail("bad")).thenReturn(null);
+        Mockito.when(mail.spool(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(AuditActor.class))).thenReturn("job-1");
 
         final Response response = resource.send(CSRF_OK, send(List.of("good@x.org", "bad")));
 
@@ -148,28 +152,44 @@ public class MailResourceTest extends ResourceTestSupport {
         final Map<String, Object> body = (Map<String, Object>) response.getEntity();
         Assert.assertEquals(body.get("accepted"), List.of("good@x.org"));
         Assert.assertEquals(body.get("rejected"), 1);
-        // timeout(): the sends run on spawned virtual threads after the response is already built.
-        Mockito.verify(mail, Mockito.timeout(5000).times(1)).send(
-                ArgumentMatchers.any(), ArgumentMatchers.eq("good@x.org"),
+        Assert.assertEquals(body.get("job"), "job-1");
+        // Only the accepted addresses reach the spool, in one job rather than a send per recipient.
+        Mockito.verify(mail).spool(
+                ArgumentMatchers.any(), ArgumentMatchers.eq(List.of("good@x.org")),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(AuditActor.class));
+        Mockito.verify(mail, Mockito.never()).send(ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.any(AuditActor.class));
     }
 
+    /** With the spool unavailable the mail still goes (MailCommands sends it directly); there is just no job. */
+    @Test
+    public void aSendTheSpoolCouldNotTakeReportsNoJob() {
+        signedInAsSiteAdmin(ADMIN);
+        Mockito.when(mail.validateEmail("a@x.org")).thenReturn("a@x.org");
+
+        final Response response = resource.send(CSRF_OK, send(List.of("a@x.org")));
+
+        assertOk(response);
+        Assert.assertFalse(((Map<?, ?>) response.getEntity()).containsKey("job"));
+    }
+
     @Test
     public void aListWithNoUsableAddressSends422AndNothingElse() {
         signedInAsSiteAdmin(ADMIN);
         Mockito.when(mail.validateEmail(ArgumentMatchers.anyString())).thenReturn(null);
 
         assertError(resource.send(CSRF_OK, send(List.of("bad1", "bad2"))), 422, ApiErrors.VALIDATION_FAILED);
-        Mockito.verify(mail, Mockito.never()).send(ArgumentMatchers.any(), ArgumentMatchers.any(),
+        Mockito.verify(mail, Mockito.never()).spool(ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.any(AuditActor.class));
     }
 
     /**
-     * The actor is captured on the request thread and passed INTO the send.
+     * The actor is captured on the request thread and passed INTO the spool, which stores it with the job.
      *
-     * <p>The sends outlive the request on their own virtual threads, where nothing is bound and
+     * <p>The sends outlive the request on whichever instance drains the spool, where nothing is bound and
      * {@code AuditActor.current()} finds nobody; every EMAIL record went out unattributed for a period
      * because attribution was left to the sending thread.
      */
@@ -181,12 +201,38 @@ public class MailResourceTest extends ResourceTestSupport {
 
         assertOk(resource.send(CSRF_OK, send(List.of("a@x.org"))));
 
-        Mockito.verify(mail, Mockito.timeout(5000)).send(
+        Mockito.verify(mail).spool(
                 ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.argThat((AuditActor actor) -> "admin@example.com".equals(actor.email())));
     }
 
+    @Test
+    public void jobStatusNeedsEmailAdminAndAKnownJob() {
+        signedInAs(ADMIN);
+        assertError(resource(new MailResource()).job("job-1"), 403, ApiErrors.FORBIDDEN);
+
+        signedInAsSiteAdmin(ADMIN);
+        final MailResource admin = resource(new MailResource());
+        assertError(admin.job("nope"), 404, ApiErrors.NOT_FOUND);
+        Mockito.verify(mail).spoolStatus("nope");
+    }
+
+    @Test
+    public void jobStatusReportsProgress() {
+        signedInAsSiteAdmin(ADMIN);
+        Mockito.when(mail.spoolStatus("job-1")).thenReturn(new MailJob("job-1", 10, 6, 1, 42L));
+
+        final Response response = resource.job("job-1");
+
+        assertOk(response);
+        final Map<?, ?> body = (Map<?, ?>) response.getEntity();
+        Assert.assertEquals(body.get("sent"), 6);
+        Assert.assertEquals(body.get("failed"), 1);
+        Assert.assertEquals(body.get("pending"), 3);
+        Assert.assertEquals(body.get("done"), false);
+    }
+
     @Test
     public void theProducedTypeIsTheMailMediaType() {
         Assert.assertEquals(new MailResource().versionedType(), ApiMediaTypes.MAIL_V1);
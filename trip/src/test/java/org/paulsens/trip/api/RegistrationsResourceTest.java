@@ -3,6 +3,7 @@ package org.paulsens.trip.api;
 import jakarta.ws.rs.core.Response;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
@@ -12,6 +13,7 @@ import org.paulsens.trip.action.PersonCommands;
 import org.paulsens.trip.action.RegistrationCommands;
 import org.paulsens.trip.action.TripCommands;
 import org.paulsens.trip.api.dto.RegistrationDto;
+import org.paulsens.trip.cache.Stamped;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Registration;
 import org.paulsens.trip.model.Trip;
@@ -97,6 +99,26 @@ public class RegistrationsResourceTest extends ResourceTestSupport {
         Assert.assertEquals(dto.status(), Registration.Status.CONFIRMED.name());
     }
 
+    /** Staff share one roster view, so a held tag is a 304 and the partition is never parsed or mapped. */
+    @Test
+    public void aHeldRosterTagIsAnsweredNotModified() {
+        signedInAsSiteAdmin(ME);
+        final List<Registration> roster = List.of(registration(OTHER, Registration.Status.CONFIRMED));
+        Mockito.when(registrations.getRegistrationsStamped(ArgumentMatchers.eq(TRIP_ID), ArgumentMatchers.any()))
+                .thenAnswer(call -> call.<Predicate<String>>getArgument(1).test("roster-1")
+                        ? new Stamped<List<Registration>>("roster-1", null) : new Stamped<>("roster-1", roster));
+        final Response first = resource.list(TRIP_ID);
+        assertOk(first);
+        Assert.assertNotNull(first.getEntityTag());
+
+        ifNoneMatch("W/\"" + first.getEntityTag().getValue() + "\"");
+        final Response again = resource.list(TRIP_ID);
+
+        Assert.assertEquals(again.getStatus(), 304);
+        Assert.assertNull(again.getEntity());
+        Mockito.verify(registrations, Mockito.never()).getRegistrations(TRIP_ID);
+    }
+
     @Test
     public void pendingCountAnswersTheNumber() {
         signedInAsSiteAdmin(ME);
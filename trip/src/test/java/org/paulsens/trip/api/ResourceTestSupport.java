@@ -153,6 +153,11 @@ public abstract class ResourceTestSupport {
         Mockito.when(request.getSession(false)).thenReturn(null);
     }
 
+    /** The request's {@code If-None-Match}, as {@link ConditionalGetFilter} would have left it for the resource. */
+    protected void ifNoneMatch(final String header) {
+        requestAttributes.put(ConditionalGetFilter.KNOWN_TAGS_PROP, ConditionalGetFilter.parse(header));
+    }
+
     protected void accepting(final String mediaType) {
         Mockito.when(request.getHeader("Accept")).thenReturn(mediaType);
     }
@@ -2,6 +2,7 @@ package org.paulsens.trip.api;
 
 import jakarta.ws.rs.core.Response;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -11,6 +12,7 @@ import org.paulsens.trip.action.AuditCommands;
 import org.paulsens.trip.action.PersonCommands;
 import org.paulsens.trip.action.TransactionsCommands;
 import org.paulsens.trip.api.dto.TransactionDto;
+import org.paulsens.trip.dynamo.BalanceLedger;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Transaction;
 import org.testng.Assert;
@@ -124,6 +126,50 @@ public class TransactionsResourceTest extends ResourceTestSupport {
         Assert.assertEquals(((List<?>) response.getEntity()).size(), 1);
     }
 
+    @Test
+    public void theTripsBalancesNeedFinanceStaffAndComeWithTheirTotal() {
+        signedInAs(ME);
+        assertError(resource.tripBalances(TRIP_ID), 403, ApiErrors.FORBIDDEN);
+
+        signedInAsSiteAdmin(ME);
+        final Map<Person.Id, Long> balances = new LinkedHashMap<>();
+        balances.put(OTHER, -47500L);
+        balances.put(ME, 1250L);
+        Mockito.when(transactions.getTripBalances(TRIP_ID)).thenReturn(balances);
+
+        final Response response = resource.tripBalances(TRIP_ID);
+
+        assertOk(response);
+        final Map<?, ?> body = (Map<?, ?>) response.getEntity();
+        Assert.assertEquals(body.get("totalCents"), -46250L);
+        Assert.assertEquals(body.get("balanceCents"), Map.of(OTHER.getValue(), -47500L, ME.getValue(), 1250L));
+        Mockito.verify(transactions, Mockito.never()).getTripTransactions(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void reconcilingTheTripsBalancesIsAFinanceAdminWrite() {
+        signedInAsSiteAdmin(ME);
+        assertError(resource.reconcileBalances(TRIP_ID, null), 403, ApiErrors.CSRF);
+        Mockito.when(transactions.reconcileTripBalances(TRIP_ID)).thenReturn(new BalanceLedger.Reconciliation(
+                2, List.of(new BalanceLedger.Drift(OTHER, 5L, -10000L))));
+
+        final Response response = resource.reconcileBalances(TRIP_ID, CSRF_OK);
+
+        assertOk(response);
+        final Map<?, ?> body = (Map<?, ?>) response.getEntity();
+        Assert.assertEquals(body.get("checked"), 2);
+        Assert.assertEquals(body.get("drifted"), List.of(Map.of(
+                "personId", OTHER.getValue(), "ledgerCents", 5L, "sourceCents", -10000L)));
+    }
+
+    @Test
+    public void aFailedReconcileIsAStoreFailure() {
+        signedInAsSiteAdmin(ME);
+        Mockito.when(transactions.reconcileTripBalances(TRIP_ID)).thenReturn(null);
+
+        assertError(resource.reconcileBalances(TRIP_ID, CSRF_OK), 500, ApiErrors.STORE_FAILED);
+    }
+
     @Test
     public void groupMembersNeedsFinanceStaffAndAnswers404OnAMiss() {
         signedInAsSiteAdmin(ME);
@@ -1,16 +1,20 @@
 package org.paulsens.trip.api;
 
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.Response;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.paulsens.trip.action.PersonCommands;
 import org.paulsens.trip.action.TripCommands;
 import org.paulsens.trip.api.dto.TripDto;
 import org.paulsens.trip.api.dto.TripEventDto;
+import org.paulsens.trip.cache.Stamped;
+import org.paulsens.trip.dynamo.DAO;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Trip;
 import org.paulsens.trip.model.TripEvent;
@@ -30,6 +34,8 @@ public class TripsResourceTest extends ResourceTestSupport {
     private static final Person.Id ME = Person.Id.from("trips-me");
     private static final Person.Id OTHER = Person.Id.from("trips-other");
     private static final String TRIP_ID = "trip-1";
+    /** Distinct from other tests' event ids: the tag tests store this one in the shared DAO's cache. */
+    private static final String EVENT_ID = "trips-resource-evt-1";
 
     private TripCommands trips;
     private TripsResource resource;
@@ -37,6 +43,7 @@ public class TripsResourceTest extends ResourceTestSupport {
     @BeforeMethod
     public void bindBeans() {
         trips = bindMock(TripCommands.class);
+        Mockito.when(trips.getTripEventsStamp(ArgumentMatchers.any())).thenCallRealMethod();
         bindMock(PersonCommands.class);
         resource = resource(new TripsResource());
     }
@@ -49,7 +56,7 @@ public class TripsResourceTest extends ResourceTestSupport {
                 .endDate(LocalDateTime.now().plusDays(40))
                 .people(List.of(members))
                 .build();
-        trip.getTripEvents().add(event("evt-1"));
+        trip.getTripEvents().add(event(EVENT_ID));
         return trip;
     }
 
@@ -65,6 +72,18 @@ public class TripsResourceTest extends ResourceTestSupport {
         Mockito.when(trips.getTrip(trip.getId())).thenReturn(trip);
     }
 
+    /** Stores the trip's events as saving them would, so the tag can stamp their cached forms. */
+    private static void eventsStored(final Trip trip) {
+        trip.getTripEvents().forEach(event -> Assert.assertTrue(DAO.getInstance().saveTripEvent(event)));
+    }
+
+    /** The trip behind a cache stamp: withheld, as the cache would, when the caller's predicate accepts it. */
+    private void tripStamped(final Trip trip) {
+        Mockito.when(trips.getTripStamped(ArgumentMatchers.eq(trip.getId()), ArgumentMatchers.any()))
+                .thenAnswer(call -> call.<Predicate<String>>getArgument(1).test("stamp-1")
+                        ? new Stamped<Trip>("stamp-1", null) : new Stamped<>("stamp-1", trip));
+    }
+
     @Test
     public void anUnknownFilterIs400() {
         signedInAs(ME);
@@ -159,8 +178,8 @@ public class TripsResourceTest extends ResourceTestSupport {
 
         assertError(resource.get(TRIP_ID), 403, ApiErrors.FORBIDDEN);
         assertError(resource.events(TRIP_ID), 403, ApiErrors.FORBIDDEN);
-        assertError(resource.event(TRIP_ID, "evt-1"), 403, ApiErrors.FORBIDDEN);
-        assertError(resource.lodging(TRIP_ID, "evt-1"), 403, ApiErrors.FORBIDDEN);
+        assertError(resource.event(TRIP_ID, EVENT_ID), 403, ApiErrors.FORBIDDEN);
+        assertError(resource.lodging(TRIP_ID, EVENT_ID), 403, ApiErrors.FORBIDDEN);
     }
 
     @Test
@@ -213,7 +232,7 @@ public class TripsResourceTest extends ResourceTestSupport {
                 .thenReturn(departure);
         Mockito.when(trips.getLodgingDays(arrival, departure)).thenReturn(7L);
 
-        final Response response = resource.lodging(TRIP_ID, "evt-1");
+        final Response response = resource.lodging(TRIP_ID, EVENT_ID);
 
         assertOk(response);
         @SuppressWarnings("unchecked")
@@ -299,7 +318,7 @@ public class TripsResourceTest extends ResourceTestSupport {
         tripExists(trip(TRIP_ID, ME));
 
         final Response response = resource.setParticipation(TRIP_ID, CSRF_OK, null,
-                Map.of("eventIds", List.of("evt-1", "bogus")));
+                Map.of("eventIds", List.of(EVENT_ID, "bogus")));
 
         assertError(response, 400, ApiErrors.BAD_REQUEST);
         Mockito.verify(trips, Mockito.never()).setEventParticipation(ArgumentMatchers.any(),
@@ -314,7 +333,7 @@ public class TripsResourceTest extends ResourceTestSupport {
         Mockito.when(trips.setEventParticipation(ArgumentMatchers.eq(trip), ArgumentMatchers.anyList(),
                 ArgumentMatchers.eq(ME))).thenReturn(true);
 
-        assertOk(resource.setParticipation(TRIP_ID, CSRF_OK, null, Map.of("eventIds", List.of("evt-1"))));
+        assertOk(resource.setParticipation(TRIP_ID, CSRF_OK, null, Map.of("eventIds", List.of(EVENT_ID))));
     }
 
     /** Changing somebody ELSE's itinerary needs tripMgr; being a fellow member is not enough. */
@@ -324,7 +343,7 @@ public class TripsResourceTest extends ResourceTestSupport {
         tripExists(trip(TRIP_ID, ME, OTHER));
 
         final Response response = resource.setParticipation(TRIP_ID, CSRF_OK, OTHER.getValue(),
-                Map.of("eventIds", List.of("evt-1")));
+                Map.of("eventIds", List.of(EVENT_ID)));
 
         assertError(response, 403, ApiErrors.FORBIDDEN);
     }
@@ -337,7 +356,7 @@ public class TripsResourceTest extends ResourceTestSupport {
         Mockito.when(trips.saveEventNote(ArgumentMatchers.eq(trip), ArgumentMatchers.any(),
                 ArgumentMatchers.eq(ME), ArgumentMatchers.eq("aisle please"))).thenReturn(true);
 
-        assertOk(resource.saveNote(TRIP_ID, "evt-1", CSRF_OK, null, Map.of("note", "aisle please")));
+        assertOk(resource.saveNote(TRIP_ID, EVENT_ID, CSRF_OK, null, Map.of("note", "aisle please")));
     }
 
     @Test
@@ -345,7 +364,7 @@ public class TripsResourceTest extends ResourceTestSupport {
         signedInAs(ME);
         tripExists(trip(TRIP_ID, ME, OTHER));
 
-        assertError(resource.saveNote(TRIP_ID, "evt-1", CSRF_OK, OTHER.getValue(), Map.of("note", "x")),
+        assertError(resource.saveNote(TRIP_ID, EVENT_ID, CSRF_OK, OTHER.getValue(), Map.of("note", "x")),
                 403, ApiErrors.FORBIDDEN);
         Mockito.verify(trips, Mockito.never()).saveEventNote(ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.any(), ArgumentMatchers.anyString());
@@ -358,11 +377,84 @@ public class TripsResourceTest extends ResourceTestSupport {
         Mockito.when(trips.saveEventNote(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
                 ArgumentMatchers.anyString())).thenReturn(false);
 
-        assertError(resource.saveNote(TRIP_ID, "evt-1", CSRF_OK, null, null), 500, ApiErrors.STORE_FAILED);
+        assertError(resource.saveNote(TRIP_ID, EVENT_ID, CSRF_OK, null, null), 500, ApiErrors.STORE_FAILED);
     }
 
     @Test
     public void theProducedTypeIsTheTripsMediaType() {
         Assert.assertEquals(new TripsResource().versionedType(), ApiMediaTypes.TRIPS_V1);
     }
+
+    /** A member's tag earns a 304 while the trip's and its events' stamps hold: no body is mapped or sent. */
+    @Test
+    public void aMembersHeldTagIsAnsweredNotModified() {
+        signedInAs(ME);
+        final Trip trip = trip(TRIP_ID, ME);
+        eventsStored(trip);
+        tripStamped(trip);
+        final Response first = resource.get(TRIP_ID);
+        assertOk(first);
+        final EntityTag tag = first.getEntityTag();
+        Assert.assertNotNull(tag, "a stamped read is tagged");
+
+        ifNoneMatch("\"" + tag.getValue() + "\"");
+        final Response again = resource.get(TRIP_ID);
+
+        Assert.assertEquals(again.getStatus(), 304);
+        Assert.assertNull(again.getEntity());
+        Assert.assertEquals(again.getEntityTag(), tag);
+        assertVaryAccept(again);
+        Assert.assertEquals(resource.events(TRIP_ID).getStatus(), 200, "each view has its own tag");
+    }
+
+    /** Events that are not cached yet cannot be stamped: the view is served untagged rather than tagged wrongly. */
+    @Test
+    public void eventsWithNoCachedFormLeaveTheViewUntagged() {
+        signedInAs(ME);
+        final Trip trip = trip(TRIP_ID, ME);
+        trip.getTripEvents().add(event("trips-resource-never-saved"));
+        tripStamped(trip);
+
+        final Response response = resource.events(TRIP_ID);
+
+        assertOk(response);
+        Assert.assertNull(response.getEntityTag());
+    }
+
+    /** A staff tag outlives nothing: once the privilege is gone the same tag is a 403, not a 304. */
+    @Test
+    public void aStaffTagIsNotHonouredOnceThePrivilegeIsGone() {
+        signedInAsSiteAdmin(ME);
+        final Trip trip = trip(TRIP_ID, OTHER);
+        eventsStored(trip);
+        tripStamped(trip);
+        final EntityTag staffTag = resource.events(TRIP_ID).getEntityTag();
+        Assert.assertNotNull(staffTag);
+
+        signedInAs(ME);
+        ifNoneMatch("\"" + staffTag.getValue() + "\"");
+        assertError(resource(new TripsResource()).events(TRIP_ID), 403, ApiErrors.FORBIDDEN);
+    }
+
+    /** A note is saved to its event and leaves the trip's stamp alone; the held tag must not hide it. */
+    @Test
+    public void anEditedEventNoteIsNotAnsweredNotModified() {
+        signedInAs(ME);
+        final Trip trip = trip(TRIP_ID, ME);
+        eventsStored(trip);
+        tripStamped(trip);
+        final EntityTag tag = resource.events(TRIP_ID).getEntityTag();
+        Assert.assertNotNull(tag);
+
+        trip.getTripEvent(EVENT_ID).getPrivNotes().put(ME, "moved to 14C");
+        eventsStored(trip);
+        ifNoneMatch("\"" + tag.getValue() + "\"");
+        final Response again = resource.events(TRIP_ID);
+
+        Assert.assertEquals(again.getStatus(), 200, "the trip's stamp did not move, but its event did");
+        Assert.assertNotEquals(again.getEntityTag(), tag);
+        @SuppressWarnings("unchecked")
+        final List<TripEventDto> events = (List<TripEventDto>) again.getEntity();
+        Assert.assertEquals(events.get(0).privNote(), "moved to 14C");
+    }
 }
@@ -0,0 +1,94 @@
+package org.paulsens.trip.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link CacheBatch}: the queue is applied in order with the single-command semantics, results line up with
+ * the commands that produced them, and a short answer from the client can never be mistaken for success.
+ */
+public class CacheBatchTest {
+
+    @Test
+    public void commandsApplyInQueueOrderWithOneResultEach() {
+        final InMemoryCacheClient client = new InMemoryCacheClient();
+        final List<Boolean> results = CacheBatch.of(client)
+                .putValue("v", "1", Duration.ofMinutes(1))
+                .putHashField("h", "a", "1")
+                .putHashFields("h", Map.of("b", "2"))
+                .removeHashField("h", "a")
+                .addScoredEntries("z", Map.of("old", 1.0, "mid", 2.0, "new", 3.0))
+                .trimSortedSet("z", 2)
+                .addSortedSetEntries("lex", List.of("x|1", "x|2"))
+                .removeSortedSetEntries("lex", List.of("x|1"))
+                .increment("c", 3)
+                .expire("h", Duration.ofMinutes(1))
+                .execute();
+
+        Assert.assertEquals(results.size(), 10);
+        Assert.assertTrue(results.stream().allMatch(Boolean::booleanValue), results.toString());
+        Assert.assertEquals(client.getValue("v").orElse(null), "1");
+        Assert.assertEquals(client.getHash("h"), Map.of("b", "2"));
+        Assert.assertEquals(client.getRangeByScore("z", 0, 10, false, 0), List.of("mid", "new"));
+        Assert.assertEquals(client.getSortedSetByPrefix("lex", "x", 10), List.of("x|2"));
+        Assert.assertEquals(client.getValue("c").orElse(null), "3");
+    }
+
+    @Test
+    public void anEmptyBatchSendsNothing() {
+        final CacheClient client = Mockito.mock(CacheClient.class);
+        Assert.assertEquals(CacheBatch.of(client).execute(), List.of());
+        Mockito.verifyNoInteractions(client);
+    }
+
+    /** A batch is spent by execute(): a second execute must not replay the first one's writes. */
+    @Test
+    public void executeDrainsTheQueue() {
+        final CacheBatch batch = CacheBatch.of(new InMemoryCacheClient()).putValue("k", "v", null);
+        Assert.assertEquals(batch.size(), 1);
+        Assert.assertEquals(batch.execute(), List.of(true));
+        Assert.assertEquals(batch.size(), 0);
+        Assert.assertEquals(batch.execute(), List.of());
+    }
+
+    /** Missing slots read as failures -- a mocked or misbehaving client must not look like a successful write. */
+    @Test
+    public void aShortAnswerIsPaddedWithFailures() {
+        final CacheClient client = Mockito.mock(CacheClient.class);
+        Mockito.doReturn(List.of(true)).when(client).executeBatch(ArgumentMatchers.anyList());
+
+        Assert.assertEquals(CacheBatch.of(client)
+                .putValue("a", "1", null)
+                .putValue("b", "2", null)
+                .execute(), List.of(true, false));
+    }
+
+    /** Per-command fail-open: one refused command fails its own slot and nothing else. */
+    @Test
+    public void oneFailedCommandDoesNotFailItsNeighbours() {
+        final InMemoryCacheClient real = new InMemoryCacheClient();
+        final CacheClient flaky = new ForwardingCacheClient(real) {
+            @Override
+            public boolean putHashField(final String key, final String field, final String value) {
+                return false;
+            }
+
+            @Override
+            public List<Boolean> executeBatch(final List<CacheBatch.Command> commands) {
+                return commands.stream().map(command -> command.applyTo(this)).toList();
+            }
+        };
+
+        Assert.assertEquals(CacheBatch.of(flaky)
+                .putValue("a", "1", null)
+                .putHashField("h", "f", "v")
+                .putValue("b", "2", null)
+                .execute(), List.of(true, false, true));
+        Assert.assertEquals(real.getValue("b").orElse(null), "2");
+    }
+}
@@ -3,6 +3,7 @@ package org.paulsens.trip.cache;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
@@ -87,6 +88,51 @@ public class CacheInvalidationTest {
         assertEquals(delegate.reads.get(), 1, "the handler must drop the heap entry like handle() does");
     }
 
+    @Test
+    public void aForeignKeyEventDropsExactlyThoseKeysAndAnOwnOneDoesNot() {
+        final CountingCacheClient delegate = new CountingCacheClient();
+        final NearCacheClient near = new NearCacheClient(delegate, null);
+        delegate.putValue("t1:person:p1", "{\"j\":1}", null);
+        delegate.putValue("t1:person:p2", "{\"j\":2}", null);
+        warm(near);
+        NearCacheContext.call(Cached.YES, () -> near.getValue("t1:person:p2"));
+
+        CacheInvalidation.handlerFor(near).accept(CacheKeys.CACHE_KEY_INVAL_CHANNEL,
+                "{\"origin\":\"" + CacheInvalidation.ORIGIN + "\",\"keys\":[\"t1:person:p1\"]}");
+        delegate.reads.set(0);
+        warm(near);
+        assertEquals(delegate.reads.get(), 0, "an own key event must not drop anything");
+
+        CacheInvalidation.handlerFor(near).accept(CacheKeys.CACHE_KEY_INVAL_CHANNEL,
+                "{\"origin\":\"another-jvm\",\"keys\":[\"t1:person:p1\"]}");
+        warm(near);
+        NearCacheContext.call(Cached.YES, () -> near.getValue("t1:person:p2"));
+        assertEquals(delegate.reads.get(), 1, "only the named key refetches; its neighbor stays warm");
+
+        CacheInvalidation.handleKeys(near, "not json at all");
+        CacheInvalidation.handleKeys(near, "{\"origin\":\"x\"}");
+    }
+
+    /** Derived state hears only foreign writes under its prefix, and foreign clears overlapping it. */
+    @Test
+    public void remoteWriteListenersSeeOnlyForeignEventsForTheirPrefix() throws Exception {
+        final InMemoryCacheClient client = new InMemoryCacheClient();
+        final List<String> written = new ArrayList<>();
+        final AtomicInteger cleared = new AtomicInteger();
+        try (AutoCloseable ignored = CacheInvalidation.onRemoteWrites(client, "t1:person:", written::add,
+                cleared::incrementAndGet)) {
+            client.publish(CacheKeys.CACHE_KEY_INVAL_CHANNEL,
+                    "{\"origin\":\"another-jvm\",\"keys\":[\"t1:person:p1\",\"t1:trip:t1\"]}");
+            client.publish(CacheKeys.CACHE_KEY_INVAL_CHANNEL,
+                    "{\"origin\":\"" + CacheInvalidation.ORIGIN + "\",\"keys\":[\"t1:person:p2\"]}");
+            client.publish(CacheKeys.CACHE_KEY_INVAL_CHANNEL, "not json at all");
+            client.publish(CacheKeys.CACHE_INVAL_CHANNEL, "{\"origin\":\"another-jvm\",\"prefixes\":[\"t1:trip:\"]}");
+            client.publish(CacheKeys.CACHE_INVAL_CHANNEL, "{\"origin\":\"another-jvm\",\"prefixes\":[\"t1:\"]}");
+        }
+        assertEquals(written, List.of("t1:person:p1"));
+        assertEquals(cleared.get(), 1, "only the clear covering the prefix");
+    }
+
     private static Optional<String> warm(final NearCacheClient near) {
         return NearCacheContext.call(Cached.YES, () -> near.getValue("t1:person:p1"));
     }
@@ -100,6 +100,8 @@ public class CacheTemplateTailsTest {
         Mockito.doReturn(false)
                 .when(failing).putHashField(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
                         ArgumentMatchers.anyString());
+        // Write-through rides a (write, expire) pipeline: the write's slot fails, the expire's succeeds.
+        Mockito.doReturn(List.of(false, true)).when(failing).executeBatch(ArgumentMatchers.anyList());
         final AtomicLong clock = new AtomicLong(1_000_000L);
         final AtomicInteger loads = new AtomicInteger();
         final PartitionCache<String, String> cache = partition(failing, clock);
@@ -0,0 +1,50 @@
+package org.paulsens.trip.cache;
+
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CacheValueCodecTest {
+
+    private static final String LARGE = "{\"items\":[" + "{\"id\":\"x\",\"title\":\"Day trip\"},".repeat(100) + "{}]}";
+
+    @Test
+    public void largeJsonRoundTripsCompressedAndSmallJsonIsStoredAsIs() {
+        final CacheValueCodec codec = CacheValueCodec.compressingAbove(256);
+
+        final String stored = codec.encode(LARGE);
+        Assert.assertEquals(stored.charAt(0), CacheValueCodec.DEFLATED);
+        Assert.assertTrue(stored.length() < LARGE.length() / 4, "compressed: " + stored.length());
+        Assert.assertEquals(codec.decode(stored), LARGE);
+
+        Assert.assertEquals(codec.encode("{\"id\":\"x\"}"), "{\"id\":\"x\"}");
+        Assert.assertNull(codec.encode(null), "a failed serialize stays a failed serialize");
+    }
+
+    @Test
+    public void everyCodecReadsEveryVersion() {
+        final String stored = CacheValueCodec.compressingAbove(16).encode(LARGE);
+
+        Assert.assertEquals(CacheValueCodec.PLAIN.encode(LARGE), LARGE, "PLAIN never compresses");
+        Assert.assertEquals(CacheValueCodec.PLAIN.decode(stored), LARGE, "but reads what another instance wrote");
+        Assert.assertEquals(CacheValueCodec.PLAIN.decode(LARGE), LARGE, "legacy JSON is version 0");
+        Assert.assertSame(CacheValueCodec.compressingAbove(0), CacheValueCodec.PLAIN);
+    }
+
+    @Test
+    public void incompressibleJsonStaysPlainAndACorruptValueIsUnreadable() {
+        // Random CJK: three UTF-8 bytes a character and no redundancy, so base64 of it is longer than the JSON.
+        final Random random = new Random(7);
+        final StringBuilder noise = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            noise.append((char) (0x4E00 + random.nextInt(0x5000)));
+        }
+        final String dense = "{\"blob\":\"" + noise + "\"}";
+        final CacheValueCodec codec = CacheValueCodec.compressingAbove(16);
+
+        Assert.assertEquals(codec.encode(dense), dense, "never store a value larger than the JSON");
+        Assert.assertNull(codec.decode(CacheValueCodec.DEFLATED + "not base64!"));
+        final String stored = codec.encode(LARGE);
+        Assert.assertNull(codec.decode(stored.substring(0, stored.length() / 2)), "a truncated value is a miss");
+    }
+}
@@ -0,0 +1,45 @@
+package org.paulsens.trip.cache;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/** The histogram arithmetic behind {@code GET /api/cache/stats}: buckets, percentiles and the busiest-first order. */
+public class CommandLatenciesTest {
+
+    @Test
+    public void percentilesAreBucketBoundsCappedAtTheExactMaximum() {
+        final CommandLatencies latencies = new CommandLatencies();
+        for (int i = 0; i < 98; i++) {
+            latencies.record("GET", "fg", TimeUnit.MICROSECONDS.toNanos(300));
+        }
+        latencies.record("GET", "fg", TimeUnit.MILLISECONDS.toNanos(20));
+        latencies.record("GET", "fg", TimeUnit.MILLISECONDS.toNanos(40));
+
+        final CommandLatencies.Summary get = latencies.snapshot().getFirst();
+        Assert.assertEquals(get.count(), 100L);
+        Assert.assertEquals(get.p50Millis(), 0.5d, "300us falls in the le0.5ms bucket");
+        Assert.assertEquals(get.p99Millis(), 25.0d, "the 99th of 100 is the 20ms call, reported as its bucket");
+        Assert.assertEquals(get.maxMillis(), 40.0d);
+        Assert.assertEquals(get.buckets().get("le0.5ms"), 98L);
+        Assert.assertEquals(get.buckets().get("le50.0ms"), 1L);
+    }
+
+    @Test
+    public void eachCommandAndLaneIsItsOwnHistogramBusiestFirst() {
+        final CommandLatencies latencies = new CommandLatencies();
+        latencies.record("HMGET", "bg", 1_000L);
+        latencies.record("HMGET", "fg", 1_000L);
+        latencies.record("HMGET", "fg", 1_000L);
+        latencies.record("EVALSHA", "fg", TimeUnit.SECONDS.toNanos(9));
+
+        final List<CommandLatencies.Summary> snapshot = latencies.snapshot();
+        Assert.assertEquals(snapshot.size(), 3);
+        Assert.assertEquals(snapshot.getFirst().command() + " " + snapshot.getFirst().lane(), "HMGET fg");
+        final CommandLatencies.Summary slow = snapshot.stream()
+                .filter(s -> s.command().equals("EVALSHA")).findFirst().orElseThrow();
+        Assert.assertEquals(slow.buckets().keySet(), java.util.Set.of("+Inf"), "past the last bound is open-ended");
+        Assert.assertEquals(slow.p99Millis(), 9_000.0d, "the open bucket reports the exact maximum");
+    }
+}
@@ -0,0 +1,42 @@
+package org.paulsens.trip.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.testng.Assert.assertTrue;
+
+/** The one harness behind the single-flight tests: many callers released at once onto the same miss. */
+final class Concurrently {
+
+    /**
+     * Starts {@code threads} callers of {@code call} together and waits for all of them. A caller that throws
+     * leaves no answer, so a size check catches it.
+     */
+    static <T> List<T> together(final int threads, final Supplier<T> call) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final List<T> answers = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < threads; i++) {
+            Thread.ofVirtual().start(() -> {
+                try {
+                    start.await();
+                    answers.add(call.get());
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        return answers;
+    }
+
+    private Concurrently() {
+    }
+}
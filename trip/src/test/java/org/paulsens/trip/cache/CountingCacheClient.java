@@ -7,8 +7,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Test helper: an {@link InMemoryCacheClient}-backed client that counts the READ operations the near-cache
- * is supposed to absorb ({@code getValue} / {@code getHash} / {@code getHashFields}). The near-cache tests
- * assert on the count the way {@code RenderPathCacheTest} asserts on persistence reads.
+ * is supposed to absorb ({@code getValue} / {@code getValues} / {@code getHash} / {@code getHashFields}); an
+ * MGET counts as ONE read, which is the point of it. The near-cache tests assert on the count the way
+ * {@code RenderPathCacheTest} asserts on persistence reads.
  *
  * <p>Public (unlike {@link ForwardingCacheClient}) because the DAO-level test in {@code org.paulsens.trip.dynamo}
  * needs it too.
@@ -34,6 +35,13 @@ public class CountingCacheClient extends ForwardingCacheClient {
         return super.getValue(key);
     }
 
+    @Override
+    public Map<String, String> getValues(final Collection<String> keys) {
+        reads.incrementAndGet();
+        readLog.add("getValues " + keys);
+        return super.getValues(keys);
+    }
+
     @Override
     public Map<String, String> getHash(final String key) {
         reads.incrementAndGet();
@@ -24,6 +24,11 @@ abstract class ForwardingCacheClient implements CacheClient {
         return delegate.getValue(key);
     }
 
+    @Override
+    public Map<String, String> getValues(final Collection<String> keys) {
+        return delegate.getValues(keys);
+    }
+
     @Override
     public boolean putValue(final String key, final String value, final Duration ttl) {
         return delegate.putValue(key, value, ttl);
@@ -74,6 +79,11 @@ abstract class ForwardingCacheClient implements CacheClient {
         return delegate.removeSortedSetEntries(key, entries);
     }
 
+    @Override
+    public long removeScoredEntries(final String key, final Collection<String> members) {
+        return delegate.removeScoredEntries(key, members);
+    }
+
     @Override
     public List<String> getSortedSetByPrefix(final String key, final String prefix, final int limit) {
         return delegate.getSortedSetByPrefix(key, prefix, limit);
@@ -125,11 +135,37 @@ abstract class ForwardingCacheClient implements CacheClient {
         return delegate.releaseLock(key);
     }
 
+    @Override
+    public boolean tryAcquireLock(final String key, final String owner, final Duration ttl) {
+        return delegate.tryAcquireLock(key, owner, ttl);
+    }
+
+    @Override
+    public boolean extendLock(final String key, final String owner, final Duration ttl) {
+        return delegate.extendLock(key, owner, ttl);
+    }
+
+    @Override
+    public boolean releaseLock(final String key, final String owner) {
+        return delegate.releaseLock(key, owner);
+    }
+
     @Override
     public boolean clearNamespace(final String prefix) {
         return delegate.clearNamespace(prefix);
     }
 
+    @Override
+    public List<Boolean> executeBatch(final List<CacheBatch.Command> commands) {
+        return delegate.executeBatch(commands);
+    }
+
+    @Override
+    public Optional<List<Object>> runScript(final CacheScript script, final List<String> keys,
+            final List<String> args) {
+        return delegate.runScript(script, keys, args);
+    }
+
     @Override
     public boolean publish(final String channel, final String payload) {
         return delegate.publish(channel, payload);
@@ -0,0 +1,223 @@
+package org.paulsens.trip.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * {@link LocalSearchIndex}, the in-process ranked people search: what counts as a match and how it ranks, and
+ * that the table scan behind it never runs on a searching thread yet loses no write made while it runs.
+ */
+public class LocalSearchIndexTest {
+
+    private AtomicInteger loads;
+    private AtomicLong clock;
+    private Map<String, Set<String>> tokensById;
+    private LocalSearchIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        loads = new AtomicInteger();
+        clock = new AtomicLong(1_000_000L);
+        tokensById = new HashMap<>(Map.of(
+                "p1", Set.of("ken", "paulsen", "ken.paulsen@example.org"),
+                "p2", Set.of("kevin", "paulsen"),
+                "p3", Set.of("kendra", "smith", "555-0100"),
+                "p4", Set.of("old", "renamed")));
+        index = LocalSearchIndex.builder()
+                .loader(() -> {
+                    loads.incrementAndGet();
+                    return Map.copyOf(tokensById);
+                })
+                .refreshAfter(Duration.ofMinutes(5))
+                .clock(clock::get)
+                .build();
+    }
+
+    private List<String> search(final String... words) {
+        return index.searchIds(List.of(words), 10).orElseThrow();
+    }
+
+    @Test
+    public void aColdIndexFallsBackAndBuildsOffTheSearchingThread() throws InterruptedException {
+        final Thread searcher = Thread.currentThread();
+        final AtomicInteger onSearcher = new AtomicInteger();
+        final LocalSearchIndex cold = LocalSearchIndex.builder()
+                .loader(() -> {
+                    if (Thread.currentThread() == searcher) {
+                        onSearcher.incrementAndGet();
+                    }
+                    return Map.of("p1", Set.of("ken"));
+                })
+                .build();
+
+        Assert.assertEquals(cold.searchIds(List.of("ken"), 10), Optional.empty());
+        for (int i = 0; i < 200 && !cold.isReady(); i++) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertTrue(cold.isReady(), "built in the background");
+        Assert.assertEquals(onSearcher.get(), 0, "the scan never runs on the searching thread");
+        Assert.assertEquals(cold.searchIds(List.of("ken"), 10), Optional.of(List.of("p1")));
+    }
+
+    @Test
+    public void theWholeTokenBeatsAPrefixBeatsAPartBeatsATypo() {
+        index.warm();
+
+        Assert.assertEquals(search("ken"), List.of("p1", "p3"), "ken exactly, then kendra");
+        Assert.assertEquals(search("smith"), List.of("p3"));
+        Assert.assertEquals(search("example"), List.of("p1"), "a part of the email");
+        Assert.assertEquals(search("0100"), List.of("p3"), "a part of the cell");
+        Assert.assertEquals(Set.copyOf(search("paulsn")), Set.of("p1", "p2"), "one edit from a prefix");
+    }
+
+    @Test
+    public void everyWordMustMatchAndTheScoresAdd() {
+        index.warm();
+
+        Assert.assertEquals(search("paulsen", "kevin"), List.of("p2"));
+        Assert.assertEquals(search("kevni", "paulsen"), List.of("p2"), "a typo in the shorter word too");
+        Assert.assertEquals(search("paulsen", "smith"), List.of());
+    }
+
+    @Test
+    public void theMiddleOfAWordAndShortTyposAreNotMatches() {
+        index.warm();
+
+        Assert.assertEquals(search("name"), List.of(), "not a prefix of renamed, nor of any part");
+        Assert.assertEquals(search("kan"), List.of(), "three letters are matched exactly");
+        Assert.assertEquals(search("xyzzy"), List.of());
+    }
+
+    @Test
+    public void writeThroughIsVisibleAtOnce() {
+        index.warm();
+
+        index.update("p4", Set.of("old", "renamed"), Set.of("old", "named"));
+        Assert.assertEquals(search("name"), List.of("p4"));
+        Assert.assertEquals(search("renamed"), List.of());
+
+        index.update("p4", Set.of("old", "named"), Set.of());
+        Assert.assertEquals(search("old"), List.of());
+        Assert.assertEquals(loads.get(), 1, "no rescan for either");
+    }
+
+    @Test
+    public void writesDuringTheScanAreReplayedOntoTheNewIndex() {
+        final LocalSearchIndex[] self = new LocalSearchIndex[1];
+        self[0] = LocalSearchIndex.builder()
+                .loader(() -> {
+                    final Map<String, Set<String>> snapshot = Map.of("p1", Set.of("before"));
+                    // Lands after the snapshot was read, as a concurrent save would.
+                    self[0].update("p1", Set.of("before"), Set.of("after"));
+                    self[0].update("p2", Set.of(), Set.of("added"));
+                    return snapshot;
+                })
+                .build();
+
+        self[0].warm();
+
+        Assert.assertEquals(self[0].searchIds(List.of("after"), 10), Optional.of(List.of("p1")));
+        Assert.assertEquals(self[0].searchIds(List.of("before"), 10), Optional.of(List.of()));
+        Assert.assertEquals(self[0].searchIds(List.of("added"), 10), Optional.of(List.of("p2")));
+    }
+
+    /** An invalidate() landing between the ready check and the search falls back instead of failing. */
+    @Test
+    public void anInvalidateMidSearchFallsBack() {
+        final LocalSearchIndex[] self = new LocalSearchIndex[1];
+        final AtomicInteger armed = new AtomicInteger();
+        self[0] = LocalSearchIndex.builder()
+                .loader(() -> Map.of("p1", Set.of("ken")))
+                // The refresh check reads the clock after the ready check: invalidate right there.
+                .clock(() -> {
+                    if (armed.getAndSet(0) == 1) {
+                        self[0].invalidate();
+                    }
+                    return clock.get();
+                })
+                .build();
+        self[0].warm();
+
+        armed.set(1);
+
+        Assert.assertEquals(self[0].searchIds(List.of("ken"), 10), Optional.empty());
+    }
+
+    /** More candidates than are scored: the cut falls on the oldest rows, so a newly added exact match still wins. */
+    @Test
+    public void theNewestExactMatchSurvivesTheCandidateCap() {
+        index.warm();
+        for (int i = 0; i <= LocalSearchIndex.MAX_VERIFY; i++) {
+            index.update("s" + i, Set.of(), Set.of("smithson" + i));
+        }
+        index.update("newest", Set.of(), Set.of("smith"));
+
+        final List<String> found = index.searchIds(List.of("smith"), 3).orElseThrow();
+
+        Assert.assertEquals(found.get(0), "newest", "the whole token beats thousands of prefixes");
+        Assert.assertEquals(found.size(), 3);
+    }
+
+    /** Each update retires a document; enough of them compact in memory, and the answers do not change. */
+    @Test
+    public void manyUpdatesCompactWithoutARescan() {
+        index.warm();
+
+        for (int i = 0; i < 3 * LocalSearchIndex.MAX_VERIFY; i++) {
+            index.update("p2", Set.of(), Set.of("kevin", "paulsen", "rev" + i));
+        }
+
+        Assert.assertEquals(Set.copyOf(search("paulsen")), Set.of("p1", "p2"));
+        Assert.assertEquals(search("rev" + (3 * LocalSearchIndex.MAX_VERIFY - 1)), List.of("p2"));
+        Assert.assertEquals(search("rev"), List.of("p2"), "retired documents never answer");
+        Assert.assertEquals(loads.get(), 1);
+    }
+
+    @Test
+    public void anOldIndexRebuildsInTheBackgroundAndKeepsAnswering() throws InterruptedException {
+        index.warm();
+        tokensById.put("p5", Set.of("newcomer"));
+
+        Assert.assertEquals(search("newcomer"), List.of(), "not written through, so not known yet");
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        Assert.assertEquals(search("ken"), List.of("p1", "p3"), "the old index answers while it rebuilds");
+        for (int i = 0; i < 200 && loads.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        for (int i = 0; i < 200 && search("newcomer").isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertEquals(search("newcomer"), List.of("p5"));
+    }
+
+    @Test
+    public void scoresAndEditBudgets() {
+        Assert.assertEquals(LocalSearchIndex.score("ken", "ken"), LocalSearchIndex.EXACT);
+        Assert.assertEquals(LocalSearchIndex.score("ken", "kendra"), LocalSearchIndex.PREFIX);
+        Assert.assertEquals(LocalSearchIndex.score("smith", "pat.smith@example.com"), LocalSearchIndex.PART);
+        Assert.assertEquals(LocalSearchIndex.score("smoth", "smith"), LocalSearchIndex.FUZZY - 10);
+        Assert.assertEquals(LocalSearchIndex.score("smiht", "smith"), LocalSearchIndex.FUZZY - 10, "smit, plus h");
+        Assert.assertEquals(LocalSearchIndex.score("smihtson", "smithson"), LocalSearchIndex.FUZZY - 20);
+        Assert.assertEquals(LocalSearchIndex.score("name", "renamed"), 0);
+
+        Assert.assertEquals(LocalSearchIndex.maxEdits(3), 0);
+        Assert.assertEquals(LocalSearchIndex.maxEdits(4), 1);
+        Assert.assertEquals(LocalSearchIndex.maxEdits(8), 2);
+        Assert.assertEquals(LocalSearchIndex.prefixDistance("paulsn", "paulsen", 1), 1);
+        Assert.assertEquals(LocalSearchIndex.prefixDistance("zzzz", "paulsen", 1), 2, "stops past the budget");
+        Assert.assertEquals(LocalSearchIndex.score(List.of("ken", "paul"), Set.of("ken", "paulsen")),
+                LocalSearchIndex.EXACT + LocalSearchIndex.PREFIX);
+        Assert.assertEquals(LocalSearchIndex.score(List.of("ken", "smith"), Set.of("ken", "paulsen")), 0);
+    }
+}
@@ -1,10 +1,12 @@
 package org.paulsens.trip.cache;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import org.testng.annotations.Test;
 
@@ -87,6 +89,51 @@ public class NearCacheClientTest {
         assertEquals(yes(() -> near.getValue(KEY)), Optional.of("born"));
     }
 
+    @Test
+    public void multiGetServesHeapHitsAndSendsOnlyTheRestInOneCall() {
+        final CountingCacheClient counting = new CountingCacheClient();
+        final NearCacheClient near = near(counting, new AtomicLong(START));
+        counting.putValue(KEY, "v1", null);
+        counting.putValue("t1:test:two", "v2", null);
+        counting.putValue("chat:x", "c", null);
+        yes(() -> near.getValue(KEY));
+        counting.reads.set(0);
+        counting.readLog.clear();
+
+        final Map<String, String> got =
+                yes(() -> near.getValues(List.of(KEY, "t1:test:two", "t1:test:none", "chat:x")));
+
+        assertEquals(got, Map.of(KEY, "v1", "t1:test:two", "v2", "chat:x", "c"));
+        assertEquals(counting.readLog, List.of("getValues [t1:test:two, t1:test:none, chat:x]"),
+                "the heap hit must not be re-fetched, and the rest must share ONE delegate MGET");
+        assertEquals(yes(() -> near.getValues(List.of(KEY, "t1:test:two", "t1:test:none"))),
+                Map.of(KEY, "v1", "t1:test:two", "v2"));
+        assertEquals(counting.reads.get(), 1, "the MGET seeded the heap, misses included");
+    }
+
+    @Test
+    public void aWriteRacingTheMultiGetIsNotOverwrittenByTheStaleAnswer() {
+        final InMemoryCacheClient store = new InMemoryCacheClient();
+        final AtomicReference<NearCacheClient> nearRef = new AtomicReference<>();
+        final CacheClient racing = new ForwardingCacheClient(store) {
+            @Override
+            public Map<String, String> getValues(final Collection<String> keys) {
+                final Map<String, String> answer = super.getValues(keys);
+                // The MGET has read "old"; a write lands before its answer is seeded into the heap.
+                nearRef.get().putValue(KEY, "new", null);
+                return answer;
+            }
+        };
+        final NearCacheClient near = near(racing, new AtomicLong(START));
+        nearRef.set(near);
+        store.putValue(KEY, "old", null);
+
+        assertEquals(yes(() -> near.getValues(List.of(KEY))), Map.of(KEY, "old"),
+                "the caller still gets what its MGET read");
+        assertEquals(yes(() -> near.getValue(KEY)), Optional.of("new"),
+                "the write's invalidation must win over the in-flight MGET's seed");
+    }
+
     @Test
     public void hashReadsAreCachedPerFieldsTupleAndServedAsCopies() {
         final CountingCacheClient counting = new CountingCacheClient();
@@ -130,7 +177,8 @@ public class NearCacheClientTest {
                 () -> near.addScoredEntries(KEY, Map.of("z", 1.0)),
                 () -> near.trimSortedSet(KEY, 1),
                 () -> near.expire(KEY, Duration.ofMinutes(1)),
-                () -> near.increment(KEY, 1, null));
+                () -> near.increment(KEY, 1, null),
+                () -> CacheBatch.of(near).putValue(KEY, "w", null).execute());
         for (final Runnable write : writes) {
             // Reset through the near-cache: the in-memory store types each key by its first use, so a
             // hash write after a value write would type-clash; removeKey clears both store and heap.
@@ -257,6 +305,123 @@ public class NearCacheClientTest {
         }
     }
 
+    @Test
+    public void theSizeCapSyspropPinsAgainstTheSettingsTable() {
+        System.setProperty(NearCacheClient.MAX_MB_SYSPROP, "2");
+        try {
+            final NearCacheClient near = new NearCacheClient(new CountingCacheClient(),
+                    () -> new long[] {120, 5, 9999}, new AtomicLong(START)::get);
+            near.resyncTuning();
+            assertEquals(near.effectiveTtlMillis(), 120_000L, "the unpinned settings still apply");
+            assertEquals(near.effectiveMaxBytes(), 2L * 1024 * 1024, "a pinned cap must ignore the settings table");
+        } finally {
+            System.clearProperty(NearCacheClient.MAX_MB_SYSPROP);
+        }
+    }
+
+    // --------------------------------------------------------------------- size cap and expiry
+
+    @Test
+    public void evictionKeepsTheWeightUnderTheCapAndTheHotKeyResident() {
+        final CountingCacheClient counting = new CountingCacheClient();
+        final NearCacheClient near = new NearCacheClient(counting, () -> new long[] {3600, 300, 1},
+                new AtomicLong(START)::get);
+        near.resyncTuning();
+        final String big = "x".repeat(50_000);
+        counting.putValue(KEY, big, null);
+        for (int i = 0; i < 10; i++) {
+            yes(() -> near.getValue(KEY));
+        }
+
+        // A scan of one-off reads, together far past the 1 MB cap.
+        for (int i = 0; i < 60; i++) {
+            final String cold = "t1:test:cold:" + i;
+            counting.putValue(cold, big, null);
+            yes(() -> near.getValue(cold));
+            assertTrue(near.stats().weightBytes() <= near.effectiveMaxBytes(), "over the cap after read " + i);
+        }
+
+        counting.reads.set(0);
+        assertEquals(yes(() -> near.getValue(KEY)), Optional.of(big));
+        assertEquals(counting.reads.get(), 0, "the one-off scan must not have flushed the hot key");
+        final NearCacheClient.Stats stats = near.stats();
+        assertTrue(stats.evictions() > 0, "stats: " + stats);
+        assertTrue(stats.entries() < 61, "stats: " + stats);
+    }
+
+    @Test
+    public void theSweeperReclaimsExpiredEntriesWithoutARead() {
+        final CountingCacheClient counting = new CountingCacheClient();
+        final AtomicLong clock = new AtomicLong(START);
+        final NearCacheClient near = near(counting, clock);
+        counting.putValue(KEY, "v1", null);
+        yes(() -> near.getValue(KEY));
+        assertEquals(near.stats().entries(), 1);
+        assertTrue(near.stats().weightBytes() > 0);
+
+        near.sweepExpired();
+        assertEquals(near.stats().entries(), 1, "a live entry must survive the sweep");
+
+        clock.addAndGet(near.effectiveTtlMillis() + 1);
+        near.sweepExpired();
+        final NearCacheClient.Stats stats = near.stats();
+        assertEquals(stats.entries(), 0);
+        assertEquals(stats.expirations(), 1L);
+        assertEquals(stats.weightBytes(), 0L, "a swept entry must refund its whole weight");
+    }
+
+    @Test
+    public void statsCountHitsAndMissesOfCacheableReadsOnly() {
+        final CountingCacheClient counting = new CountingCacheClient();
+        final NearCacheClient near = near(counting, new AtomicLong(START));
+        counting.putValue(KEY, "v1", null);
+
+        yes(() -> near.getValue(KEY));
+        yes(() -> near.getValue(KEY));
+        yes(() -> near.getValue(KEY));
+        NearCacheContext.call(Cached.NO, () -> near.getValue(KEY));
+        yes(() -> near.getValue("chat:x"));
+
+        final NearCacheClient.Stats stats = near.stats();
+        assertEquals(stats.misses(), 1L);
+        assertEquals(stats.hits(), 2L);
+        assertEquals(stats.maxWeightBytes(), NearCacheClient.DEFAULT_MAX_MEGABYTES * 1024 * 1024);
+
+        near.removeKey(KEY);
+        assertEquals(near.stats().weightBytes(), 0L, "an invalidated entry must refund its weight");
+    }
+
+    // --------------------------------------------------------------------- per-key broadcast
+
+    @Test
+    public void writesAnnounceTheirKeysCoalescedAndBatched() throws Exception {
+        final CountingCacheClient counting = new CountingCacheClient();
+        final NearCacheClient near = near(counting, new AtomicLong(START));
+        final List<String> payloads = new java.util.ArrayList<>();
+        try (AutoCloseable ignored = counting.subscribe(List.of(CacheKeys.CACHE_KEY_INVAL_CHANNEL),
+                (channel, payload) -> payloads.add(payload))) {
+            near.putValue(KEY, "v1", null);
+            near.putValue(KEY, "v2", null);
+            near.putHashField(HASH_KEY, "f", "v");
+            near.putValue("chat:x", "v", null);
+            near.flushInvalidations();
+            near.flushInvalidations();
+
+            assertEquals(payloads.size(), 1, "one event per flush, and none for an empty queue");
+            assertTrue(payloads.get(0).contains(KEY) && payloads.get(0).contains(HASH_KEY), payloads.get(0));
+            assertEquals(payloads.get(0).split(KEY, -1).length, 2, "a key written twice is announced once");
+            assertTrue(!payloads.get(0).contains("chat:x"), "only t1: keys are ever near-cached elsewhere");
+            assertTrue(payloads.get(0).contains(CacheInvalidation.ORIGIN), "the event must be origin-stamped");
+
+            payloads.clear();
+            for (int i = 0; i < KeyInvalidationBatcher.MAX_KEYS_PER_EVENT + 1; i++) {
+                near.removeKey("t1:test:bulk:" + i);
+            }
+            near.flushInvalidations();
+            assertEquals(payloads.size(), 2, "a bulk write splits into bounded events");
+        }
+    }
+
     // ------------------------------------------------------------------------ forwarded operations
 
     @Test
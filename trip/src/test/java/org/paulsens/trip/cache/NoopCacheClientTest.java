@@ -47,6 +47,16 @@ public class NoopCacheClientTest {
         Assert.assertTrue(noop.clearNamespace("k"));
     }
 
+    /** A batch answers what its commands would answer one by one: writes succeed, an increment is a miss. */
+    @Test
+    public void aBatchAnswersLikeItsSingleCommands() {
+        Assert.assertEquals(CacheBatch.of(noop)
+                .putHashField("k", "f", "v")
+                .increment("c", 1)
+                .expire("k", Duration.ofMinutes(1))
+                .execute(), List.of(true, false, true));
+    }
+
     /** Rate limiters read empty as "cache down" and fall back to an in-JVM bucket -- not zero, not success. */
     @Test
     public void incrementAnswersEmptySoRateLimitersFallBackLocally() {
@@ -71,6 +81,10 @@ public class NoopCacheClientTest {
     public void locksGrantAndReleaseFreely() {
         Assert.assertTrue(noop.tryAcquireLock("k", Duration.ofMinutes(1)));
         Assert.assertTrue(noop.releaseLock("k"));
+        Assert.assertTrue(noop.tryAcquireLock("k", "owner", Duration.ofMinutes(1)));
+        Assert.assertTrue(noop.extendLock("k", "owner", Duration.ofMinutes(1)));
+        Assert.assertTrue(noop.releaseLock("k", "owner"));
+        Assert.assertEquals(noop.removeScoredEntries("q", List.of("m")), 0L, "nothing stored, nothing claimed");
     }
 
     /** The interface's own default close: an implementation with nothing to release need not override it. */
@@ -1,6 +1,7 @@
 package org.paulsens.trip.cache;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
@@ -138,6 +139,26 @@ public class PartitionCacheTest {
         assertEquals(loads.get(), 2);
     }
 
+    /** A cold partition read by many at once -- after a clear, say -- is queried once. */
+    @Test
+    public void concurrentColdMissesShareOneLoad() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final PartitionCache<String, String> cache = partition(new AtomicLong(1_000_000L));
+        final Supplier<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of("a-db", "b-db");
+        };
+
+        assertEquals(Concurrently.together(8, () -> cache.getAll("p1", loader)),
+                Collections.nCopies(8, List.of("a-db", "b-db")));
+        assertEquals(loads.get(), 1);
+    }
+
     @Test
     public void writeThroughDoesNotResetSoftAge() throws Exception {
         final AtomicInteger loads = new AtomicInteger();
@@ -226,6 +247,35 @@ public class PartitionCacheTest {
         assertEquals(cache.getOne("p1", "c", loader), Optional.of("c-written"));
     }
 
+    /**
+     * A partition's stamp moves with its entity fields -- including write-through, which leaves LOADED_AT alone --
+     * and not with LOADED_AT, which a reload of the same rows rewrites.
+     */
+    @Test
+    public void stampsIgnoreLoadedAtButFollowWriteThrough() {
+        final AtomicLong clock = new AtomicLong(1_000_000L);
+        final PartitionCache<String, String> cache = partition(clock);
+        final Supplier<List<String>> loader = () -> List.of("a-db", "b-db");
+
+        assertEquals(cache.getAllStamped("p1", loader, stamp -> false).stamp(), null, "a cold load is unstamped");
+        final Stamped<List<String>> hit = cache.getAllStamped("p1", loader, stamp -> false);
+        assertEquals(hit.value(), List.of("a-db", "b-db"));
+        assertTrue(cache.getAllStamped("p1", loader, hit.stamp()::equals).unchanged());
+
+        cache.invalidate("p1");
+        clock.addAndGet(5_000L);
+        cache.getAll("p1", loader);
+        assertEquals(cache.getAllStamped("p1", loader, stamp -> false).stamp(), hit.stamp(),
+                "same rows under a newer LOADED_AT, same stamp");
+
+        cache.put("p1", "c-new");
+        final Stamped<List<String>> written = cache.getAllStamped("p1", loader, hit.stamp()::equals);
+        assertEquals(written.value(), List.of("a-db", "b-db", "c-new"));
+        cache.remove("p1", "c");
+        assertEquals(cache.getAllStamped("p1", loader, stamp -> false).stamp(), hit.stamp(),
+                "removing the write-through restores the original content and so its stamp");
+    }
+
     private static PartitionCache<String, String> partition(final AtomicLong clock) {
         return PartitionCache.<String, String>builder()
                 .cache(new InMemoryCacheClient())
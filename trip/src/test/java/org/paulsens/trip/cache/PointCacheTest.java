@@ -1,6 +1,11 @@
 package org.paulsens.trip.cache;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
@@ -8,6 +13,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
@@ -31,6 +37,26 @@ public class PointCacheTest {
         assertEquals(loads.get(), 1);
     }
 
+    /** Each waiter re-reads the cache, so none of them shares the leader's (mutable) instance. */
+    @Test
+    public void concurrentMissesOfOneKeyLoadOnce() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final PointCache<String> cache = point(new AtomicLong(1_000_000L));
+        final Function<String, String> loader = id -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return "val-" + id;
+        };
+
+        assertEquals(Concurrently.together(8, () -> cache.get("e1", loader)),
+                Collections.nCopies(8, Optional.of("val-e1")));
+        assertEquals(loads.get(), 1);
+    }
+
     @Test
     public void softStaleHitReturnsImmediatelyAndReloadsInBackground() throws Exception {
         final AtomicInteger loads = new AtomicInteger();
@@ -189,6 +215,98 @@ public class PointCacheTest {
         assertEquals(client.getValue("te:e1:at"), Optional.empty(), "no :at sibling may be written");
     }
 
+    /** A large value is stored compressed inside the envelope and reads back; a large legacy JSON value still reads. */
+    @Test
+    public void largeValuesAreStoredCompressedAndPlainOnesStillRead() {
+        final AtomicLong clock = new AtomicLong(1_000_000L);
+        final InMemoryCacheClient client = new InMemoryCacheClient();
+        final PointCache<String> cache = PointCache.<String>builder()
+                .cache(client)
+                .keyPrefix("te:")
+                .serializer(v -> v)
+                .deserializer(v -> v)
+                .codec(CacheValueCodec.compressingAbove(64))
+                .clock(clock::get)
+                .build();
+        final String large = "{\"name\":\"" + "abc".repeat(200) + "\"}";
+
+        assertTrue(cache.put("e1", large));
+        final String stored = client.getValue("te:e1").orElseThrow();
+        assertTrue(stored.startsWith("1000000|" + CacheValueCodec.DEFLATED), stored);
+        assertTrue(stored.length() < large.length() / 4, "compressed: " + stored.length());
+        assertEquals(cache.get("e1", id -> null), Optional.of(large));
+
+        client.putValue("te:e2", "1000000|" + large, Duration.ofMinutes(5));
+        assertEquals(cache.get("e2", id -> null), Optional.of(large), "JSON written before the codec still reads");
+    }
+
+    /** One MGET for every id, one bulk load for just the misses, and the misses are written back enveloped. */
+    @Test
+    public void getAllReadsOnceAndBulkLoadsOnlyTheMisses() {
+        final AtomicLong clock = new AtomicLong(1_000_000L);
+        final CountingCacheClient client = new CountingCacheClient();
+        final PointCache<String> cache = point(clock, client);
+        cache.put("e1", "cached-e1");
+        final List<Collection<String>> loaderCalls = new ArrayList<>();
+        final Function<Collection<String>, Map<String, String>> bulk = ids -> {
+            loaderCalls.add(List.copyOf(ids));
+            return ids.stream().filter(id -> !id.equals("gone")).collect(Collectors.toMap(id -> id, id -> "v-" + id));
+        };
+        client.reads.set(0);
+
+        final Map<String, String> got = cache.getAll(List.of("e3", "e1", "gone", "e2", "e3"), bulk);
+
+        assertEquals(new ArrayList<>(got.keySet()), List.of("e3", "e1", "e2"),
+                "found ids come back in the order given, duplicates collapsed, unknown ids absent");
+        assertEquals(got.get("e1"), "cached-e1");
+        assertEquals(loaderCalls, List.of(List.of("e3", "gone", "e2")), "only the misses reach the loader, once");
+        assertEquals(client.reads.get(), 1, "every id shares ONE cache read; saw: " + client.readLog);
+        assertEquals(client.getValue("te:e2"), Optional.of("1000000|v-e2"), "misses write back enveloped");
+
+        assertEquals(cache.getAll(List.of("e1", "e2", "e3"), bulk).size(), 3);
+        assertEquals(loaderCalls.size(), 1, "a warm getAll loads nothing");
+        assertTrue(cache.getAll(List.of(), bulk).isEmpty());
+    }
+
+    /**
+     * The stamp is of the stored JSON, not the envelope: a miss is stamped from what it writes, a hit with the same
+     * stamp, a reload of identical content keeps it, and a held stamp skips the parse.
+     */
+    @Test
+    public void stampsFollowTheStoredJsonAndAHeldStampSkipsTheParse() {
+        final AtomicLong clock = new AtomicLong(1_000_000L);
+        final AtomicInteger parses = new AtomicInteger();
+        final PointCache<String> cache = PointCache.<String>builder()
+                .cache(new InMemoryCacheClient())
+                .keyPrefix("te:")
+                .serializer(v -> v)
+                .deserializer(v -> {
+                    parses.incrementAndGet();
+                    return v;
+                })
+                .clock(clock::get)
+                .build();
+
+        final Stamped<String> loaded = cache.getStamped("e1", id -> "v1", stamp -> false).orElseThrow();
+        assertEquals(loaded.value(), "v1");
+        assertEquals(parses.get(), 0, "a miss answers the loaded value, nothing to parse");
+        final Stamped<String> hit = cache.getStamped("e1", id -> "v1", stamp -> false).orElseThrow();
+        assertEquals(hit.stamp(), loaded.stamp(), "the miss's stamp is the one its write-back produces");
+        assertEquals(parses.get(), 1);
+
+        clock.addAndGet(5_000L);
+        cache.put("e1", "v1");
+        final Stamped<String> held = cache.getStamped("e1", id -> "v1", loaded.stamp()::equals).orElseThrow();
+        assertTrue(held.unchanged(), "same content under a newer loaded-at keeps the stamp");
+        assertEquals(parses.get(), 1, "a held stamp is never parsed");
+
+        cache.put("e1", "v2");
+        final Stamped<String> changed = cache.getStamped("e1", id -> "v2", loaded.stamp()::equals).orElseThrow();
+        assertEquals(changed.value(), "v2");
+        assertTrue(!changed.stamp().equals(loaded.stamp()), "new content, new stamp");
+        assertTrue(cache.getStamped("none", id -> null, stamp -> true).isEmpty());
+    }
+
     /** Jitter bounds: 0.0 makes the effective TTL 0.9x (stale sooner), 1.0 makes it 1.1x (stale later). */
     @Test
     public void ttlJitterWidensAndNarrowsTheStalenessLine() throws Exception {
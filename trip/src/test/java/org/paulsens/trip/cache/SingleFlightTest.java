@@ -0,0 +1,134 @@
+package org.paulsens.trip.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * {@link SingleFlight}: concurrent misses of one key load once, and every way the leader can let its waiters down
+ * -- too slow, failed, nothing written -- ends with them loading for themselves rather than going without.
+ */
+public class SingleFlightTest {
+
+    /** {@link Concurrently#together}, with a caller that threw answering "failed". */
+    private static List<String> together(final int threads, final Supplier<String> call) throws Exception {
+        return Concurrently.together(threads, () -> {
+            try {
+                return call.get();
+            } catch (final RuntimeException ex) {
+                return "failed";
+            }
+        });
+    }
+
+    @Test
+    public void waitersReadWhatTheLeaderWrote() throws Exception {
+        final SingleFlight flights = new SingleFlight();
+        final AtomicInteger loads = new AtomicInteger();
+        final AtomicReference<String> written = new AtomicReference<>();
+        final Supplier<String> load = () -> {
+            loads.incrementAndGet();
+            sleep(200);
+            written.set("loaded");
+            return "loaded";
+        };
+
+        final List<String> answers = together(8,
+                () -> flights.load("k", load, written::get, Duration.ofSeconds(5)));
+
+        assertEquals(answers, Collections.nCopies(8, "loaded"));
+        assertEquals(loads.get(), 1);
+        assertEquals(flights.inFlight(), 0);
+    }
+
+    @Test
+    public void aWaiterThatGivesUpLoadsForItself() throws Exception {
+        final SingleFlight flights = new SingleFlight();
+        final AtomicInteger loads = new AtomicInteger();
+        final Supplier<String> slow = () -> {
+            loads.incrementAndGet();
+            sleep(500);
+            return "slow";
+        };
+
+        final List<String> answers = together(2,
+                () -> flights.load("k", slow, () -> null, Duration.ofMillis(20)));
+
+        assertEquals(answers.size(), 2);
+        assertEquals(loads.get(), 2, "the waiter did not sit out the whole slow load");
+    }
+
+    @Test
+    public void aFailedLeaderLeavesItsWaitersToLoad() throws Exception {
+        final SingleFlight flights = new SingleFlight();
+        final AtomicInteger loads = new AtomicInteger();
+        final Supplier<String> load = () -> {
+            if (loads.incrementAndGet() == 1) {
+                sleep(200);
+                throw new IllegalStateException("table unavailable");
+            }
+            return "retried";
+        };
+
+        final List<String> answers = together(3, () -> flights.load("k", load, () -> null, Duration.ofSeconds(5)));
+
+        assertEquals(answers.stream().filter("failed"::equals).count(), 1L, "only the leader saw its failure");
+        assertEquals(answers.stream().filter("retried"::equals).count(), 2L);
+        assertEquals(flights.inFlight(), 0);
+    }
+
+    @Test
+    public void anotherInstancesLoadIsPolledForThenLoadedAnyway() {
+        final InMemoryCacheClient cache = new InMemoryCacheClient();
+        final AtomicInteger loads = new AtomicInteger();
+        final Supplier<String> load = () -> {
+            loads.incrementAndGet();
+            return "mine";
+        };
+        assertTrue(cache.tryAcquireLock(CacheKeys.loadLockKey("k"), Duration.ofSeconds(10)));
+
+        final AtomicInteger polls = new AtomicInteger();
+        final Supplier<String> theirsOnTheSecondPoll = () -> (polls.incrementAndGet() == 2) ? "theirs" : null;
+        assertEquals(SingleFlight.acrossInstances(cache, "k", load, theirsOnTheSecondPoll), "theirs");
+        assertEquals(loads.get(), 0, "the other instance's result arrived while polling");
+
+        assertEquals(SingleFlight.acrossInstances(cache, "k", load, () -> null), "mine");
+        assertEquals(loads.get(), 1, "it never arrived: load regardless");
+
+        cache.releaseLock(CacheKeys.loadLockKey("k"));
+        assertEquals(SingleFlight.acrossInstances(cache, "k", load, () -> "unused"), "mine");
+        assertTrue(cache.tryAcquireLock(CacheKeys.loadLockKey("k"), Duration.ofSeconds(1)), "released after");
+    }
+
+    /** A load that outlives the lock's TTL must not release the lock another instance has taken since. */
+    @Test
+    public void aLoadThatOutlivedItsLockLeavesTheNextHoldersLockAlone() {
+        final InMemoryCacheClient cache = new InMemoryCacheClient();
+        final String lockKey = CacheKeys.loadLockKey("k");
+        final Supplier<String> slowLoad = () -> {
+            // The TTL runs out mid-load and another instance takes the lock for its own load.
+            cache.releaseLock(lockKey);
+            assertTrue(cache.tryAcquireLock(lockKey, "other-instance", Duration.ofSeconds(10)));
+            return "mine";
+        };
+
+        assertEquals(SingleFlight.acrossInstances(cache, "k", slowLoad, () -> null), "mine");
+
+        assertTrue(cache.releaseLock(lockKey, "other-instance"), "the other instance still holds its lock");
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -75,6 +75,43 @@ public class ValkeyCacheClientTest {
                 "a value written on the background connection is visible on the foreground one");
     }
 
+    /**
+     * A pooled foreground spreads idle-time commands across its connections, every command is timed under its
+     * type and lane, and the background connection stays outside the pool.
+     */
+    @Test
+    public void aPooledForegroundSharesTheLoadAndTimesEveryCommand() {
+        System.setProperty("trip.valkey.fgPoolSize", "2");
+        final ValkeyCacheClient pooled;
+        try {
+            pooled = new ValkeyCacheClient(CacheConfig.resolve());
+        } finally {
+            System.clearProperty("trip.valkey.fgPoolSize");
+        }
+        try {
+            for (int i = 0; i < 4; i++) {
+                Assert.assertTrue(pooled.putValue("pool" + i, "v", null));
+            }
+            org.paulsens.trip.util.CacheLane.runBackground(() -> pooled.getValue("pool0"));
+            pooled.executeBatch(List.of(new CacheBatch.RemoveKey("pool1"), new CacheBatch.RemoveKey("pool2")));
+
+            final ValkeyCacheClient.Stats stats = pooled.stats();
+            final Map<String, ValkeyCacheClient.LaneStats> byName = new java.util.HashMap<>();
+            stats.connections().forEach(lane -> byName.put(lane.name(), lane));
+            Assert.assertEquals(byName.keySet(), Set.of("fg-0", "fg-1", "bg"));
+            Assert.assertTrue(byName.get("fg-0").dispatched() >= 2 && byName.get("fg-1").dispatched() >= 2,
+                    "idle connections take turns: " + stats);
+            Assert.assertEquals(byName.get("bg").dispatched(), 1L, "the pool never serves the background lane");
+            stats.connections().forEach(lane -> Assert.assertEquals(lane.outstanding(), 0, lane.name()));
+
+            final Map<String, Long> counts = new java.util.HashMap<>();
+            stats.commands().forEach(c -> counts.put(c.command() + " " + c.lane(), c.count()));
+            Assert.assertEquals(counts, Map.of("SET fg", 4L, "GET bg", 1L, "BATCH fg", 1L));
+        } finally {
+            pooled.close();
+        }
+    }
+
     @Test
     public void stringsRoundTrip() {
         Assert.assertTrue(client.putValue("k1", "v1", null));
@@ -83,6 +120,42 @@ public class ValkeyCacheClientTest {
         Assert.assertTrue(client.getValue("k1").isEmpty());
     }
 
+    @Test
+    public void multiGetReturnsOnlyThePresentKeys() {
+        Assert.assertTrue(client.putValue("mg1", "a", null));
+        Assert.assertTrue(client.putValue("mg2", "b", null));
+        Assert.assertEquals(client.getValues(List.of("mg1", "mg-missing", "mg2")), Map.of("mg1", "a", "mg2", "b"));
+        Assert.assertTrue(client.getValues(List.of()).isEmpty());
+    }
+
+    /** The first call meets NOSCRIPT and falls back to EVAL, which caches it; the reply keeps its Lua types. */
+    @Test
+    public void scriptsRunByShaAfterOneEval() {
+        final CacheScript script = CacheScript.of("echo", "return {tonumber(ARGV[1]), redis.call('GET', KEYS[1])}");
+        Assert.assertTrue(client.putValue("sc1", "v", null));
+
+        Assert.assertEquals(client.runScript(script, List.of("sc1"), List.of("7")).orElseThrow(), List.of(7L, "v"));
+        Assert.assertEquals(client.runScript(script, List.of("sc1"), List.of("8")).orElseThrow(), List.of(8L, "v"),
+                "the second call runs the cached script by its sha");
+    }
+
+    /** A server-side script error answers empty -- the caller's fallback -- and parks scripting on that client. */
+    @Test
+    public void aFailingScriptAnswersEmptyAndParksScripting() {
+        final ValkeyCacheClient own = new ValkeyCacheClient(CacheConfig.resolve());
+        try {
+            final CacheScript broken = CacheScript.of("broken", "return redis.call('NOSUCHCOMMAND')");
+            final CacheScript fine = CacheScript.of("fine", "return {1}");
+            Assert.assertTrue(own.runScript(broken, List.of("sc2"), List.of()).isEmpty());
+            Assert.assertTrue(own.runScript(fine, List.of("sc2"), List.of()).isEmpty(),
+                    "after a server error no script is even sent until the park expires");
+            Assert.assertEquals(client.runScript(fine, List.of("sc2"), List.of()).orElseThrow(), List.of(1L),
+                    "parking is per client, not per server");
+        } finally {
+            own.close();
+        }
+    }
+
     @Test
     public void stringsHonourTtl() {
         Assert.assertTrue(client.putValue("k2", "v2", Duration.ofSeconds(30)));
@@ -135,6 +208,29 @@ public class ValkeyCacheClientTest {
         Assert.assertTrue(client.tryAcquireLock("lock1", Duration.ofSeconds(30)));
     }
 
+    /** An owned lock answers only its owner: a lapsed holder cannot extend or release its successor's lock. */
+    @Test
+    public void ownedLocksYieldOnlyToTheirOwner() {
+        Assert.assertTrue(client.tryAcquireLock("owned1", "first", Duration.ofSeconds(30)));
+        Assert.assertFalse(client.tryAcquireLock("owned1", "second", Duration.ofSeconds(30)));
+        Assert.assertTrue(client.extendLock("owned1", "first", Duration.ofSeconds(30)));
+        Assert.assertFalse(client.extendLock("owned1", "second", Duration.ofSeconds(30)));
+        Assert.assertFalse(client.releaseLock("owned1", "second"));
+        Assert.assertTrue(client.releaseLock("owned1", "first"));
+        Assert.assertFalse(client.extendLock("owned1", "first", Duration.ofSeconds(30)), "released means lost");
+        Assert.assertTrue(client.tryAcquireLock("owned1", "second", Duration.ofSeconds(30)));
+    }
+
+    /** ZREM's count is the claim: the second remover of one member is told it got nothing. */
+    @Test
+    public void removingAScoredMemberTwiceClaimsItOnce() {
+        client.addScoredEntries("zclaim", Map.of("job#0", 1.0, "job#1", 2.0));
+
+        Assert.assertEquals(client.removeScoredEntries("zclaim", List.of("job#0")), 1L);
+        Assert.assertEquals(client.removeScoredEntries("zclaim", List.of("job#0")), 0L);
+        Assert.assertEquals(client.removeScoredEntries("zclaim", List.of("job#0", "job#1")), 1L);
+    }
+
     @Test
     public void namespaceClearScansAndDeletes() {
         client.putValue("ns:a", "1", null);
@@ -163,6 +259,39 @@ public class ValkeyCacheClientTest {
                 "a non-positive limit means unlimited");
     }
 
+    /** One pipeline, every command applied, one result per command in queue order. */
+    @Test
+    public void batchesPipelineEveryCommandAndAnswerInOrder() {
+        final List<Boolean> results = CacheBatch.of(client)
+                .putValue("b1", "v", Duration.ofSeconds(30))
+                .putHashField("bh", "f1", "a")
+                .putHashFields("bh", Map.of("f2", "b"))
+                .addScoredEntries("bz", Map.of("x", 1.0, "y", 2.0, "z", 3.0))
+                .trimSortedSet("bz", 2)
+                .addSortedSetEntries("bl", List.of("apple", "banana"))
+                .increment("bc", 4)
+                .expire("bh", Duration.ofSeconds(60))
+                .execute();
+
+        Assert.assertEquals(results, java.util.Collections.nCopies(8, true));
+        Assert.assertEquals(client.getValue("b1").orElse(null), "v");
+        Assert.assertEquals(client.getHash("bh"), Map.of("f1", "a", "f2", "b"));
+        Assert.assertEquals(client.getRangeByScore("bz", 0, 10, false, 0), List.of("y", "z"),
+                "the trim queued after the ZADD must see it -- one connection keeps queue order");
+        Assert.assertEquals(client.getSortedSetByPrefix("bl", "ap", 10), List.of("apple"));
+        Assert.assertEquals(client.increment("bc", 0, null).orElse(-1L), 4L);
+    }
+
+    /** Empty entry lists send nothing and, like their single-command forms, answer success. */
+    @Test
+    public void batchedNoOpCommandsSendNothing() {
+        Assert.assertEquals(CacheBatch.of(client)
+                .addSortedSetEntries("bn", List.of())
+                .removeSortedSetEntries("bn", List.of())
+                .trimSortedSet("bn", 0)
+                .execute(), List.of(true, true, true));
+    }
+
     /** A subscriber that throws must be contained by the hand-off, never bounce back into Lettuce/Netty. */
     @Test
     public void aThrowingSubscriberIsContained() throws Exception {
@@ -2,6 +2,9 @@ package org.paulsens.trip.chat;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.cache.NoopCacheClient;
@@ -127,6 +130,71 @@ public class ChatNudgeRegistryTest {
         Assert.assertFalse(registry.isSubscribed(CHANNEL));
     }
 
+    /**
+     * The shared instance's shape: a burst of sends wakes each reader ONCE, with the highest watermark, after one
+     * shared read -- and every nudge retired the previous snapshot on arrival.
+     */
+    @Test
+    public void aBurstOfNudgesIsOneSharedReadAndOneWakePerReader() throws Exception {
+        final RecordingRead shared = new RecordingRead();
+        final ChatNudgeRegistry registry = new ChatNudgeRegistry(new InMemoryCacheClient(), shared, 100L);
+        final List<Long> woken = new CopyOnWriteArrayList<>();
+        final CountDownLatch both = new CountDownLatch(2);
+        final ChatNudgeRegistry.Waiter waiter = upTo -> {
+            woken.add(upTo);
+            both.countDown();
+        };
+        try (AutoCloseable a = registry.park(CHANNEL, waiter);
+             AutoCloseable b = registry.park(CHANNEL, waiter)) {
+            registry.nudge(CHANNEL, 1L);
+            registry.nudge(CHANNEL, 3L);
+            registry.nudge(CHANNEL, 2L);
+
+            Assert.assertTrue(both.await(5, TimeUnit.SECONDS), "the coalesced wake never came");
+            Thread.sleep(200L); // long enough for a second, wrongly uncoalesced wake to show up
+            Assert.assertEquals(woken, List.of(3L, 3L));
+            Assert.assertEquals(shared.refreshes.get(), 1, "one read for everyone");
+            Assert.assertEquals(shared.invalidations.get(), 3, "each nudge retires the snapshot on arrival");
+        }
+        Assert.assertEquals(shared.invalidations.get(), 4, "and so does the last reader leaving");
+    }
+
+    @Test
+    public void aFailingSharedReadStillWakesEveryone() throws Exception {
+        final ChatNudgeRegistry registry = new ChatNudgeRegistry(new InMemoryCacheClient(),
+                new ChatNudgeRegistry.SharedRead() {
+                    @Override
+                    public void invalidate(final String channelId) {
+                        throw new IllegalStateException("cache down");
+                    }
+
+                    @Override
+                    public void refresh(final String channelId) {
+                        throw new IllegalStateException("cache down");
+                    }
+                }, 0L);
+        final AtomicLong woken = new AtomicLong(-1);
+        try (AutoCloseable handle = registry.park(CHANNEL, woken::set)) {
+            registry.nudge(CHANNEL, 8L);
+            Assert.assertEquals(woken.get(), 8L, "the shared read is an optimisation, never a gate");
+        }
+    }
+
+    private static final class RecordingRead implements ChatNudgeRegistry.SharedRead {
+        private final AtomicInteger refreshes = new AtomicInteger();
+        private final AtomicInteger invalidations = new AtomicInteger();
+
+        @Override
+        public void invalidate(final String channelId) {
+            invalidations.incrementAndGet();
+        }
+
+        @Override
+        public void refresh(final String channelId) {
+            refreshes.incrementAndGet();
+        }
+    }
+
     private static void closeQuietly(final AutoCloseable handle) {
         try {
             handle.close();
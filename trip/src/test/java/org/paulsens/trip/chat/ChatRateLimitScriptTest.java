@@ -0,0 +1,240 @@
+package org.paulsens.trip.chat;
+
+import com.github.fppt.jedismock.RedisServer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.paulsens.trip.action.ConfigCommands;
+import org.paulsens.trip.cache.CacheConfig;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.CacheScript;
+import org.paulsens.trip.cache.CountingCacheClient;
+import org.paulsens.trip.cache.ValkeyCacheClient;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.chat.ChatChannel;
+import org.paulsens.trip.model.chat.ChatSettings;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * {@link ChatRateLimitScript} against a real RESP server (jedis-mock, as in {@code ChatPollScriptTest}): a check is
+ * one script call and nothing else, its fixed windows are the command path's windows, and the smoothed mode
+ * spreads an allowance instead of resetting it.
+ */
+public class ChatRateLimitScriptTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    private RedisServer server;
+    private ValkeyCacheClient valkey;
+    private AtomicInteger scripts;
+    private AtomicInteger commands;
+    private CountingCacheClient scripted;
+    private CountingCacheClient unscripted;
+
+    @BeforeClass
+    public void start() throws Exception {
+        server = RedisServer.newRedisServer().start();
+        System.setProperty("trip.cache.mode", "valkey");
+        System.setProperty("trip.valkey.uri", "redis://" + server.getHost() + ":" + server.getBindPort());
+        valkey = new ValkeyCacheClient(CacheConfig.resolve());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stop() throws Exception {
+        System.clearProperty("trip.cache.mode");
+        System.clearProperty("trip.valkey.uri");
+        if (valkey != null) {
+            valkey.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        valkey.clearNamespace(CacheKeys.CHAT_CHANNEL_PREFIX);
+        ChatRateLimiter.clearFallbackBucketsForTest();
+        scripts = new AtomicInteger();
+        commands = new AtomicInteger();
+        scripted = new CountingCacheClient(valkey) {
+            @Override
+            public Optional<List<Object>> runScript(
+                    final CacheScript script, final List<String> keys, final List<String> args) {
+                scripts.incrementAndGet();
+                return super.runScript(script, keys, args);
+            }
+
+            @Override
+            public Optional<Long> increment(final String key, final long delta, final Duration ttl) {
+                commands.incrementAndGet();
+                return super.increment(key, delta, ttl);
+            }
+
+            @Override
+            public boolean tryAcquireLock(final String key, final Duration ttl) {
+                commands.incrementAndGet();
+                return super.tryAcquireLock(key, ttl);
+            }
+        };
+        // Same server, scripting refused: the command-by-command path, as in local mode or with a parked script.
+        unscripted = new CountingCacheClient(valkey) {
+            @Override
+            public Optional<List<Object>> runScript(
+                    final CacheScript script, final List<String> keys, final List<String> args) {
+                return Optional.empty();
+            }
+        };
+    }
+
+    private static ChatChannel channel(final ChatSettings settings) {
+        return new ChatChannel(ChatChannel.Id.forTrip("rl-script"), "rl-script", ChatChannel.Kind.TRIP,
+                "Test", null, null, settings, Instant.EPOCH, "admin", null, null);
+    }
+
+    private static ChatSettings burst(final int limit, final int windowSeconds) {
+        return ChatSettings.defaults().toBuilder()
+                .burstLimit(limit).burstWindowSeconds(windowSeconds)
+                .sustainedLimit(1000).sustainedWindowSeconds(300).build();
+    }
+
+    /**
+     * Every setting at its declared default, without reading the config table -- which would start the DAO while
+     * this class has the cache mode pointed at jedis-mock.
+     */
+    private static ConfigCommands defaults() {
+        return new ConfigCommands() {
+            @Override
+            public String getString(final String name, final String defaultValue) {
+                return defaultValue;
+            }
+        };
+    }
+
+    private static ConfigCommands smooth() {
+        return new ConfigCommands() {
+            @Override
+            public String getString(final String name, final String defaultValue) {
+                return "chat.limits.smooth".equals(name) ? "true" : defaultValue;
+            }
+        };
+    }
+
+    @Test
+    public void aCheckIsOneScriptCallAndNoOtherCommand() {
+        final ChatRateLimiter limiter = new ChatRateLimiter(scripted, defaults());
+        final ChatChannel channel = channel(burst(2, 10));
+        final Person.Id me = Person.Id.from("one-call");
+
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        final ChatRateLimiter.Decision denied = limiter.check(channel, me, NOW);
+
+        Assert.assertFalse(denied.isAllowed());
+        Assert.assertEquals(denied.getReason(), "burst");
+        Assert.assertEquals(denied.getLimit(), 2);
+        Assert.assertEquals(denied.getRetryAfterSeconds(), 5, "half the window, as the command path answers");
+        Assert.assertEquals(scripts.get(), 3);
+        Assert.assertEquals(commands.get(), 0, "every counter and gate went through the script");
+        Assert.assertEquals(scripted.reads.get(), 0);
+    }
+
+    /** A parked script hands over mid-window: the command path must see the script's counts, not start over. */
+    @Test
+    public void fixedWindowsAreTheCommandPathsWindows() {
+        final ChatChannel channel = channel(burst(2, 10));
+        final Person.Id me = Person.Id.from("alternating");
+
+        Assert.assertTrue(new ChatRateLimiter(scripted, defaults()).check(channel, me, NOW).isAllowed());
+        Assert.assertTrue(new ChatRateLimiter(unscripted, defaults()).check(channel, me, NOW).isAllowed());
+        Assert.assertFalse(new ChatRateLimiter(scripted, defaults()).check(channel, me, NOW).isAllowed());
+        Assert.assertFalse(new ChatRateLimiter(unscripted, defaults()).check(channel, me, NOW).isAllowed());
+    }
+
+    @Test
+    public void slowModeIsDecidedInTheScriptToo() {
+        final ChatRateLimiter limiter = new ChatRateLimiter(scripted, defaults());
+        final ChatChannel channel = channel(ChatSettings.defaults().toBuilder().slowModeSeconds(30).build());
+        final Person.Id me = Person.Id.from("slow");
+
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        final ChatRateLimiter.Decision denied = limiter.check(channel, me, NOW);
+
+        Assert.assertEquals(denied.getReason(), "slow_mode");
+        Assert.assertTrue(denied.getRetryAfterSeconds() >= 1 && denied.getRetryAfterSeconds() <= 30);
+        Assert.assertEquals(commands.get(), 0);
+    }
+
+    @Test
+    public void repeatedHitsEarnTheSameMuteThroughTheScript() {
+        final ChatRateLimiter limiter = new ChatRateLimiter(scripted, defaults());
+        final ChatChannel channel = channel(burst(1, 10));
+        final Person.Id me = Person.Id.from("offender");
+
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        Assert.assertNull(limiter.check(channel, me, NOW).getAutoMuteUntil());
+        Assert.assertNull(limiter.check(channel, me, NOW).getAutoMuteUntil());
+        final ChatRateLimiter.Decision muted = limiter.check(channel, me, NOW);
+
+        Assert.assertEquals(muted.getAutoMuteUntil(), NOW.plusSeconds(5 * 60), "tier 1 of the default ladder");
+        limiter.check(channel, me, NOW);
+        limiter.check(channel, me, NOW);
+        Assert.assertEquals(limiter.check(channel, me, NOW).getAutoMuteUntil(), NOW.plusSeconds(30 * 60));
+    }
+
+    /**
+     * Two per ten seconds, smoothed: both at once, then one every five seconds -- and a refused send costs
+     * nothing, so retrying at the stated time works.
+     */
+    @Test
+    public void smoothedLimitsSpreadTheAllowanceAndSayExactlyWhenToRetry() {
+        final ChatRateLimiter limiter = new ChatRateLimiter(scripted, smooth());
+        final ChatChannel channel = channel(burst(2, 10));
+        final Person.Id me = Person.Id.from("smooth");
+
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        final ChatRateLimiter.Decision denied = limiter.check(channel, me, NOW.plusSeconds(1));
+        Assert.assertFalse(denied.isAllowed());
+        Assert.assertEquals(denied.getReason(), "burst");
+        Assert.assertEquals(denied.getRetryAfterSeconds(), 4);
+
+        Assert.assertTrue(limiter.check(channel, me, NOW.plusSeconds(5)).isAllowed());
+        Assert.assertFalse(limiter.check(channel, me, NOW.plusSeconds(6)).isAllowed());
+        Assert.assertTrue(limiter.check(channel, me, NOW.plusSeconds(10)).isAllowed());
+    }
+
+    /** Without the script there is no atomic read-decide-write, so smoothing quietly becomes fixed windows. */
+    @Test
+    public void smoothedLimitsFallBackToWindowsWithoutTheScript() {
+        final ChatRateLimiter limiter = new ChatRateLimiter(unscripted, smooth());
+        final ChatChannel channel = channel(burst(2, 10));
+        final Person.Id me = Person.Id.from("smooth-fallback");
+
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        Assert.assertTrue(limiter.check(channel, me, NOW).isAllowed());
+        Assert.assertFalse(limiter.check(channel, me, NOW).isAllowed());
+    }
+
+    @Test
+    public void malformedRepliesAreNoAnswer() {
+        Assert.assertTrue(ChatRateLimitScript.parse(null).isEmpty());
+        Assert.assertTrue(ChatRateLimitScript.parse(List.of(0L, 0L, 0L)).isEmpty());
+        Assert.assertTrue(ChatRateLimitScript.parse(Arrays.asList(0L, 0L, 0L, 0L, 0L, 0L, null)).isEmpty());
+        Assert.assertTrue(ChatRateLimitScript.parse(List.of(9L, 0L, 0L, 0L, 0L, 0L, 0L)).isEmpty());
+
+        final ChatRateLimitScript.Verdict hit =
+                ChatRateLimitScript.parse(List.of(3L, 7L, 6L, 60L, 30L, 1L, 2L)).orElseThrow();
+        Assert.assertEquals(hit.verdict(), ChatRateLimitScript.SUSTAINED);
+        Assert.assertEquals(hit.count(), 7L);
+        Assert.assertTrue(hit.alarm());
+        Assert.assertEquals(hit.muteTier(), 2);
+    }
+}
@@ -2,9 +2,15 @@ package org.paulsens.trip.dynamo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.paulsens.trip.model.AuditAction;
 import org.paulsens.trip.model.AuditEvent;
 import org.paulsens.trip.model.AuditOutcome;
@@ -12,6 +18,8 @@ import org.paulsens.trip.model.AuditPage;
 import org.paulsens.trip.model.AuditQuery;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
@@ -85,6 +93,56 @@ public class AuditDAOTest {
         assertEquals(persistence.size(), 8, "No record may be lost to a key collision");
     }
 
+    @Test
+    public void aBatchInOneMillisecondIsKeyedUpFrontAndKeepsItsOrder() {
+        // The sink's path: the keys are settled in-process, so a same-millisecond burst costs no rejected writes.
+        final Instant sameMs = Instant.parse("2026-07-26T12:00:00Z");
+        final List<AuditEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            batch.add(event(sameMs, AuditAction.EMAIL, AuditOutcome.SUCCESS, "u" + i + "@x.com"));
+        }
+
+        assertTrue(dao.saveAuditEvents(batch).isEmpty(), "every event should have been stored");
+        assertEquals(persistence.size(), 30, "No record may be lost to a key collision");
+        assertEquals(persistence.getRejectionCount(), 0, "the keys should have been distinct before the write");
+
+        final List<AuditEvent> newestFirst =
+                page(AuditQuery.builder().before(sameMs.plusSeconds(1)).limit(50).build()).getEvents();
+        assertEquals(newestFirst.get(0).getActorEmail(), "u29@x.com", "the later arrival should sort first");
+        assertEquals(newestFirst.get(29).getActorEmail(), "u0@x.com");
+    }
+
+    @Test
+    public void aBatchCollidingWithAnotherWritersRowIsNudgedNotOverwritten() {
+        // A row this DAO never claimed -- another task wrote it -- still has the condition to stop the overwrite.
+        final Instant sameMs = Instant.parse("2026-07-26T12:00:00Z");
+        final AuditDAO otherTask = new AuditDAO(new ObjectMapper().findAndRegisterModules(), persistence);
+        assertTrue(otherTask.saveAuditEvent(event(sameMs, AuditAction.LOGIN, AuditOutcome.SUCCESS, "other@x.com")));
+
+        final List<AuditEvent> unstored = dao.saveAuditEvents(
+                List.of(event(sameMs, AuditAction.LOGIN, AuditOutcome.SUCCESS, "mine@x.com")));
+
+        assertTrue(unstored.isEmpty());
+        assertTrue(persistence.getRejectionCount() > 0, "the batch write should have hit the condition");
+        assertEquals(persistence.size(), 2, "Both records must survive");
+    }
+
+    @Test
+    public void aFailedBatchWriteHandsTheEventsBack() {
+        final AuditDAO brittle = new AuditDAO(new ObjectMapper().findAndRegisterModules(), new Persistence() {
+            @Override
+            public Set<Integer> putItemsIfAbsent(
+                    final String table, final String key, final List<Map<String, AttributeValue>> items) {
+                throw new IllegalStateException("table unreachable");
+            }
+        });
+        final List<AuditEvent> batch = List.of(
+                event(Instant.now(), AuditAction.LOGIN, AuditOutcome.SUCCESS, "a@x.com"),
+                event(Instant.now(), AuditAction.LOGIN, AuditOutcome.SUCCESS, "b@x.com"));
+
+        assertEquals(brittle.saveAuditEvents(batch).size(), 2, "unstored events go back to the sink to print");
+    }
+
     @Test
     public void resultsAreNewestFirstAcrossDays() {
         final Instant now = Instant.parse("2026-07-26T12:00:00Z");
@@ -150,6 +208,112 @@ public class AuditDAOTest {
         assertEquals(found.size(), 1, "An event where bob was the TARGET should show in a search for bob");
     }
 
+    @Test
+    public void theNewestPageFilledByTodayReadsOnlyToday() {
+        // The walk widens its parallel rounds only when a day comes up short; an unfiltered page costs one read.
+        final AtomicInteger reads = new AtomicInteger();
+        final AuditDAO counted = new AuditDAO(new ObjectMapper().findAndRegisterModules(), countingReads(reads));
+        final Instant now = Instant.parse("2026-07-26T12:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            counted.saveAuditEvent(event(now.minusSeconds(i), AuditAction.LOGIN, AuditOutcome.SUCCESS, "u@x"));
+        }
+
+        final AuditPage page = counted.getAuditEvents(AuditQuery.builder().before(now.plusMillis(1)).limit(3).build());
+
+        assertEquals(page.getEvents().size(), 3);
+        assertEquals(reads.get(), 1);
+        assertEquals(page.getSearchedBackTo(), LocalDate.of(2026, 7, 26));
+    }
+
+    @Test
+    public void aSparseFilterWalksDaysInParallelAndKeepsTheOneDayAtATimeAnswer() {
+        final Instant now = Instant.parse("2026-07-26T12:00:00Z");
+        for (int days = 0; days < 40; days += 4) {
+            dao.saveAuditEvent(event(now.minus(days, ChronoUnit.DAYS), AuditAction.EMAIL, AuditOutcome.SUCCESS,
+                    "d" + days + "@x"));
+            dao.saveAuditEvent(event(now.minus(days, ChronoUnit.DAYS).minusSeconds(1), AuditAction.LOGIN,
+                    AuditOutcome.SUCCESS, "noise@x"));
+        }
+
+        final AuditPage page = page(AuditQuery.builder().before(now.plusMillis(1))
+                .action(AuditAction.EMAIL).limit(3).build());
+
+        assertEquals(page.getEvents().stream().map(AuditEvent::getActorEmail).toList(),
+                List.of("d0@x", "d4@x", "d8@x"), "newest first across the days of a parallel round");
+        assertEquals(page.getSearchedBackTo(), LocalDate.of(2026, 7, 18),
+                "the walk stops at the day that filled the page, however far its round read");
+        assertTrue(page.isComplete());
+    }
+
+    @Test
+    public void anIndexedActorSearchReadsItsOwnPartitionNotTheDays() {
+        final AtomicInteger reads = new AtomicInteger();
+        final InMemoryPersistence store = countingReads(reads);
+        final AuditDAO indexed = new AuditDAO(
+                new ObjectMapper().findAndRegisterModules(), store, LocalDate.of(2026, 1, 1));
+        final Instant now = Instant.parse("2026-07-26T12:00:00Z");
+        final List<AuditEvent> batch = new ArrayList<>();
+        for (int days = 0; days < 50; days++) {
+            batch.add(event(now.minus(days, ChronoUnit.DAYS), AuditAction.LOGIN, AuditOutcome.SUCCESS,
+                    days % 10 == 0 ? "Bob@X.com" : "alice@x.com"));
+        }
+        batch.add(new AuditEvent(now.minusSeconds(5), AuditAction.PERSON, AuditOutcome.SUCCESS,
+                "admin@x.com", null, "person", "bob@x.com", null, "Edited", null));
+        assertTrue(indexed.saveAuditEvents(batch).isEmpty());
+
+        final AuditPage page = indexed.getAuditEvents(
+                AuditQuery.builder().before(now.plusMillis(1)).actor("bob@x.com").limit(6).build());
+
+        assertEquals(page.getEvents().size(), 6, "five as the actor, one as the target");
+        assertEquals(page.getEvents().get(0).getActorEmail(), "Bob@X.com");
+        assertEquals(page.getEvents().get(1).getTargetEmail(), "bob@x.com");
+        assertEquals(reads.get(), 0, "no day partition was walked");
+        assertEquals(page.getSearchedBackTo(), LocalDate.of(2026, 6, 16), "the day of the oldest match");
+        assertTrue(page.isComplete());
+    }
+
+    @Test
+    public void anIndexedSearchContinuesOnTheWalkBeforeTheIndexBegins() {
+        final Instant now = Instant.parse("2026-07-26T12:00:00Z");
+        // Written before indexing started: only the main table has it.
+        dao.saveAuditEvent(event(now.minus(10, ChronoUnit.DAYS), AuditAction.EMAIL, AuditOutcome.SUCCESS, "old@x"));
+        final AuditDAO indexed = new AuditDAO(
+                new ObjectMapper().findAndRegisterModules(), persistence, LocalDate.of(2026, 7, 20));
+        indexed.saveAuditEvents(List.of(event(now, AuditAction.EMAIL, AuditOutcome.SUCCESS, "new@x"),
+                event(now.minusSeconds(1), AuditAction.LOGIN, AuditOutcome.SUCCESS, "new@x")));
+
+        final List<AuditEvent> found = indexed.getAuditEvents(
+                AuditQuery.builder().before(now.plusMillis(1)).action(AuditAction.EMAIL).build()).getEvents();
+
+        assertEquals(found.stream().map(AuditEvent::getActorEmail).toList(), List.of("new@x", "old@x"));
+    }
+
+    @Test
+    public void aPartialAddressStillWalksEvenWithTheIndexes() {
+        final AtomicInteger reads = new AtomicInteger();
+        final AuditDAO indexed = new AuditDAO(
+                new ObjectMapper().findAndRegisterModules(), countingReads(reads), LocalDate.of(2026, 1, 1));
+        final Instant now = Instant.parse("2026-07-26T12:00:00Z");
+        indexed.saveAuditEvents(List.of(event(now, AuditAction.LOGIN, AuditOutcome.SUCCESS, "bob@x.com")));
+
+        final AuditPage page = indexed.getAuditEvents(
+                AuditQuery.builder().before(now.plusMillis(1)).actor("bob").build());
+
+        assertEquals(page.getEvents().size(), 1, "a substring is the walk's question, not an index key");
+        assertTrue(reads.get() > 0);
+    }
+
+    /** The in-memory store, counting the day-partition reads (the walk's {@code queryAll}). */
+    private static InMemoryPersistence countingReads(final AtomicInteger reads) {
+        return new InMemoryPersistence() {
+            @Override
+            public List<Map<String, AttributeValue>> queryAll(final Consumer<QueryRequest.Builder> request) {
+                reads.incrementAndGet();
+                return super.queryAll(request);
+            }
+        };
+    }
+
     @Test
     public void boundedWalkReportsHowFarItLooked() {
         // An empty page must be distinguishable from "nothing exists". Without this the UI would report
@@ -235,8 +399,9 @@ public class AuditDAOTest {
         dao.saveAuditEvent(event(now.minusSeconds(5), AuditAction.LOGIN, AuditOutcome.SUCCESS, "first@x"));
         dao.saveAuditEvent(event(now, AuditAction.LOGIN, AuditOutcome.SUCCESS, "second@x"));
 
-        final List<AuditEvent> exported =
-                dao.exportAuditEvents(AuditQuery.builder().before(now.plusMillis(1)).build());
+        final List<AuditEvent> exported = new ArrayList<>();
+        dao.streamAuditEvents(AuditQuery.builder().since(now.minusSeconds(60)).before(now.plusMillis(1)).build(),
+                exported::add);
 
         assertEquals(exported.get(0).getActorEmail(), "first@x");
         assertEquals(exported.get(1).getActorEmail(), "second@x");
@@ -290,6 +455,31 @@ public class AuditDAOTest {
         assertTrue(page.isEmpty(), "A failing query should yield an empty page, not an exception");
     }
 
+    /** The export walk: oldest first, across days, through more than one slice, inside the asked-for range. */
+    @Test
+    public void streamingReadsForwardInSlicesWithinTheRange() {
+        // 600 events on the first day -- more than one slice -- and 100 after midnight.
+        final Instant start = Instant.parse("2026-07-26T23:59:00Z");
+        final List<AuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < 700; i++) {
+            events.add(event(start.plusMillis(i * 100L), AuditAction.LOGIN, AuditOutcome.SUCCESS, "s@x.com"));
+        }
+        assertTrue(dao.saveAuditEvents(events).isEmpty());
+        assertTrue(dao.saveAuditEvent(event(start.minusSeconds(1), AuditAction.LOGIN, AuditOutcome.SUCCESS, "old")));
+
+        final List<Instant> seen = new ArrayList<>();
+        dao.streamAuditEvents(AuditQuery.builder().since(start).before(start.plusMillis(650 * 100L)).build(),
+                event -> seen.add(event.getTimestamp()));
+
+        assertTrue(AuditDAO.EXPORT_SLICE < 600);
+        assertEquals(seen.size(), 650, "everything from since up to, not including, before");
+        assertEquals(seen.get(0), start);
+        assertEquals(seen.get(649), start.plusMillis(649 * 100L));
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i).isAfter(seen.get(i - 1)), "oldest first, across the day boundary");
+        }
+    }
+
     private AuditPage page(final AuditQuery query) {
         return dao.getAuditEvents(query);
     }
@@ -0,0 +1,174 @@
+package org.paulsens.trip.dynamo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.InMemoryCacheClient;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.Transaction;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * {@link BalanceLedger}: balances in exact cents that are read from one hash once computed, and a version stamp
+ * that keeps an out-of-order store from ever being served.
+ */
+public class BalanceLedgerTest {
+
+    private static final Person.Id A = Person.Id.from("ledger-a");
+    private static final Person.Id B = Person.Id.from("ledger-b");
+    private static final Person.Id C = Person.Id.from("ledger-c");
+
+    private InMemoryCacheClient cache;
+    private Map<Person.Id, List<Transaction>> rows;
+    private AtomicInteger loads;
+    private BalanceLedger ledger;
+
+    @BeforeMethod
+    public void setUp() {
+        cache = new InMemoryCacheClient();
+        rows = new HashMap<>();
+        loads = new AtomicInteger();
+        ledger = new BalanceLedger(cache, this::load);
+    }
+
+    private List<Transaction> load(final Person.Id id) {
+        loads.incrementAndGet();
+        return rows.getOrDefault(id, List.of());
+    }
+
+    private static Transaction plain(final Person.Id who, final float amount) {
+        final Transaction tx = new Transaction(who, null, Transaction.Type.Tx);
+        tx.setAmount(amount);
+        return tx;
+    }
+
+    private static Transaction shared(final Person.Id who, final List<Person.Id> members, final float amount) {
+        final Transaction tx = new Transaction(who, "group-1", Transaction.Type.Shared);
+        tx.setGroupPeople(members);
+        tx.setAmount(amount);
+        return tx;
+    }
+
+    private void add(final Transaction tx) {
+        rows.computeIfAbsent(tx.getUserId(), id -> new ArrayList<>()).add(tx);
+    }
+
+    @Test
+    public void aSharedRowSplitsToTheCentAndTheSharesAddBackUp() {
+        final List<Person.Id> members = List.of(A, B, C);
+
+        Assert.assertEquals(BalanceLedger.shareCents(A, shared(A, members, 100f)), 3334L);
+        Assert.assertEquals(BalanceLedger.shareCents(B, shared(B, members, 100f)), 3333L);
+        Assert.assertEquals(BalanceLedger.shareCents(C, shared(C, members, 100f)), 3333L);
+        Assert.assertEquals(BalanceLedger.shareCents(A, shared(A, members, -100f)), -3334L, "owed splits the same");
+        Assert.assertEquals(BalanceLedger.shareCents(C, shared(C, members, -100f)), -3333L);
+        Assert.assertEquals(BalanceLedger.shareCents(A, shared(A, List.of(), -80f)), -8000L, "legacy: all theirs");
+        Assert.assertEquals(BalanceLedger.shareCents(A, plain(A, 475.5f)), 47550L);
+        Assert.assertEquals(BalanceLedger.shareCents(A, new Transaction(A, null, Transaction.Type.Tx)), 0L);
+    }
+
+    @Test
+    public void aComputedBalanceIsReadFromTheLedgerAfterwards() {
+        add(plain(A, -300f));
+        add(plain(A, 100f));
+        add(plain(B, -50f));
+
+        Assert.assertEquals(ledger.balances(List.of(A, B, C)), Map.of(A, -20000L, B, -5000L, C, 0L));
+        Assert.assertEquals(loads.get(), 3);
+
+        Assert.assertEquals(ledger.balances(List.of(B, A)), Map.of(A, -20000L, B, -5000L));
+        Assert.assertEquals(loads.get(), 3, "one hash read, no partitions");
+    }
+
+    @Test
+    public void aWriteMovesTheBalanceToANewVersion() {
+        add(plain(A, -300f));
+        ledger.balances(List.of(A));
+
+        add(plain(A, 100f));
+        ledger.recompute(A);
+        final int afterWrite = loads.get();
+
+        Assert.assertEquals(ledger.balances(List.of(A)), Map.of(A, -20000L));
+        Assert.assertEquals(loads.get(), afterWrite, "the write stored it");
+        Assert.assertEquals(cache.getValue(BalanceLedger.versionKey(A)), Optional.of("1"));
+    }
+
+    /** A slower writer's (or reader's) store lands after a newer one: its version gives it away. */
+    @Test
+    public void aBalanceStoredUnderAnOldVersionIsRecomputedNotServed() {
+        add(plain(A, 100f));
+        ledger.recompute(A);
+        ledger.recompute(A);
+        cache.putHashField(CacheKeys.LEDGER_BALANCES, A.getValue(), "1:999999");
+        final int before = loads.get();
+
+        Assert.assertEquals(ledger.balances(List.of(A)), Map.of(A, 10000L));
+        Assert.assertEquals(loads.get(), before + 1);
+        Assert.assertEquals(ledger.storedCents(List.of(A)), Map.of(A, 10000L));
+    }
+
+    @Test
+    public void withoutACounterTheBalanceIsDroppedForTheNextReadToRecompute() {
+        final BalanceLedger unversioned = new BalanceLedger(new InMemoryCacheClient() {
+            @Override
+            public Optional<Long> increment(final String key, final long delta, final Duration ttl) {
+                return Optional.empty();
+            }
+        }, this::load);
+        add(plain(A, 100f));
+        unversioned.balances(List.of(A));
+        rows.put(A, List.of(plain(A, 40f)));
+
+        unversioned.recompute(A);
+
+        Assert.assertEquals(unversioned.storedCents(List.of(A)), Map.of());
+        Assert.assertEquals(unversioned.balances(List.of(A)), Map.of(A, 4000L));
+    }
+
+    /** A counter that expired would restart at 1 and could match a balance stored under the old 1. */
+    @Test
+    public void theVersionCounterNeverExpires() {
+        final List<Duration> ttls = new ArrayList<>();
+        final BalanceLedger recording = new BalanceLedger(new InMemoryCacheClient() {
+            @Override
+            public Optional<Long> increment(final String key, final long delta, final Duration ttl) {
+                ttls.add(ttl);
+                return super.increment(key, delta, ttl);
+            }
+        }, this::load);
+        add(plain(A, 100f));
+
+        recording.recompute(A);
+        recording.recompute(A);
+
+        Assert.assertEquals(ttls.size(), 2);
+        Assert.assertTrue(ttls.stream().allMatch(ttl -> ttl == null), "the counter must never expire: " + ttls);
+    }
+
+    @Test
+    public void aColdTripFillsEveryMissInParallelRounds() {
+        final List<Person.Id> trip = new ArrayList<>();
+        for (int i = 0; i < 2 * BalanceLedger.FILL_PARALLEL + 3; i++) {
+            final Person.Id id = Person.Id.from("ledger-member-" + i);
+            trip.add(id);
+            add(plain(id, i));
+        }
+
+        final Map<Person.Id, Long> balances = ledger.balances(trip);
+
+        Assert.assertEquals(new ArrayList<>(balances.keySet()), trip, "in the order asked");
+        for (int i = 0; i < trip.size(); i++) {
+            Assert.assertEquals(balances.get(trip.get(i)), Long.valueOf(i * 100L));
+        }
+        Assert.assertEquals(loads.get(), trip.size());
+        Assert.assertTrue(ledger.balances(List.of()).isEmpty());
+    }
+}
@@ -66,6 +66,23 @@ public class ChatDAOTest {
         Assert.assertFalse(cursor < latest, "A cursor at the newest message must not still count as unread");
     }
 
+    /** The page-sized reads answer for the channels asked about and nothing else. */
+    @Test
+    public void activityAndCursorsAreReadForJustTheChannelsAsked() {
+        final ChatMessage saved = dao.saveMessage(draft("hello"), channel, null).orElseThrow();
+        final ChatChannel.Id quiet = ChatChannel.Id.forTrip("t2");
+        cache.putHashField(CacheKeys.CHAT_LAST_ACTIVITY, ChatChannel.Id.forTrip("elsewhere").getValue(), "1");
+        final Person.Id reader = Person.Id.from("reader");
+        Assert.assertTrue(dao.saveCursor(channel.getId(), reader, saved.getId()));
+
+        Assert.assertEquals(dao.lastActivity(List.of(channel.getId(), quiet)),
+                Map.of(channel.getId().getValue(), saved.getId().getValue()));
+        Assert.assertEquals(dao.getCursors(List.of(channel.getId(), quiet), reader),
+                Map.of(channel.getId(), saved.getId()));
+        Assert.assertTrue(dao.getCursors(List.of(channel.getId()), Person.Id.from("someone-else")).isEmpty());
+        Assert.assertTrue(dao.lastActivity(List.of()).isEmpty());
+    }
+
     @Test
     public void saveAndPollRoundTrip() {
         final ChatMessage draft = draft("hello");
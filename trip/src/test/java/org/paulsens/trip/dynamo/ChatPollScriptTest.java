@@ -0,0 +1,156 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.fppt.jedismock.RedisServer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.paulsens.trip.cache.CacheConfig;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.CacheScript;
+import org.paulsens.trip.cache.CountingCacheClient;
+import org.paulsens.trip.cache.ValkeyCacheClient;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.chat.ChatChannel;
+import org.paulsens.trip.model.chat.ChatMessage;
+import org.paulsens.trip.model.chat.ChatPage;
+import org.paulsens.trip.model.chat.ChatSettings;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * {@link ChatPollScript} against a real RESP server (jedis-mock, as in {@code ValkeyCacheClientTest}): the one-call
+ * poll must answer exactly what the multi-command path answers, and an idle poll must be that one call alone.
+ */
+public class ChatPollScriptTest {
+
+    private RedisServer server;
+    private ValkeyCacheClient valkey;
+    private CountingCacheClient scripted;
+    private CountingCacheClient unscripted;
+    private ChatChannel channel;
+
+    @BeforeClass
+    public void start() throws Exception {
+        server = RedisServer.newRedisServer().start();
+        System.setProperty("trip.cache.mode", "valkey");
+        System.setProperty("trip.valkey.uri", "redis://" + server.getHost() + ":" + server.getBindPort());
+        valkey = new ValkeyCacheClient(CacheConfig.resolve());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stop() throws Exception {
+        System.clearProperty("trip.cache.mode");
+        System.clearProperty("trip.valkey.uri");
+        if (valkey != null) {
+            valkey.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        valkey.clearNamespace(CacheKeys.CHAT_CHANNEL_PREFIX);
+        scripted = new CountingCacheClient(valkey);
+        // Same server, scripting refused: the multi-command path, as in local mode or with scripting disabled.
+        unscripted = new CountingCacheClient(valkey) {
+            @Override
+            public Optional<List<Object>> runScript(
+                    final CacheScript script, final List<String> keys, final List<String> args) {
+                return Optional.empty();
+            }
+        };
+        channel = new ChatChannel(
+                ChatChannel.Id.forTrip("t1"), "t1", ChatChannel.Kind.TRIP, "Test",
+                null, null, ChatSettings.defaults(), Instant.parse("2026-01-01T00:00:00Z"),
+                "admin", null, null);
+    }
+
+    @Test
+    public void scriptedPollAnswersWhatTheMultiCommandPathAnswers() {
+        final InMemoryPersistence persistence = new InMemoryPersistence();
+        final ChatDAO viaScript = dao(persistence, scripted);
+        final ChatDAO viaCommands = dao(persistence, unscripted);
+        Assert.assertTrue(viaScript.saveChannel(channel));
+        final ChatMessage a = viaScript.saveMessage(draft("a"), channel, null).orElseThrow();
+        viaScript.saveMessage(draft("b"), channel, null).orElseThrow();
+        final ChatMessage c = viaScript.saveMessage(draft("c"), channel, null).orElseThrow();
+        valkey.increment(CacheKeys.chatMutationsVersionKey(channel.getId().getValue()), 3L, null);
+
+        for (final ChatMessage.Id since : Arrays.asList(null, a.getId(), c.getId())) {
+            final ChatPage fromScript = poll(viaScript, since);
+            final ChatPage fromCommands = poll(viaCommands, since);
+            Assert.assertEquals(bodies(fromScript), bodies(fromCommands), "since " + since);
+            Assert.assertEquals(fromScript.getCursor(), fromCommands.getCursor(), "since " + since);
+            Assert.assertEquals(fromScript.getMutationsVersion(), 3L, "since " + since);
+            Assert.assertEquals(fromScript.getReactionsVersion(), fromCommands.getReactionsVersion());
+        }
+        Assert.assertEquals(bodies(poll(viaScript, a.getId())), List.of("b", "c"));
+    }
+
+    @Test
+    public void anIdlePollIsOneScriptCallAndNoOtherRead() {
+        final ChatDAO dao = dao(new InMemoryPersistence(), scripted);
+        Assert.assertTrue(dao.saveChannel(channel));
+        final ChatMessage only = dao.saveMessage(draft("hello"), channel, null).orElseThrow();
+        scripted.reads.set(0);
+
+        final ChatPage idle = poll(dao, only.getId());
+
+        Assert.assertTrue(idle.getMessages().isEmpty());
+        Assert.assertEquals(scripted.reads.get(), 0, "reads besides the script: " + scripted.readLog);
+    }
+
+    /** A body evicted independently of its log entry still sends the read to DynamoDB rather than losing it. */
+    @Test
+    public void aMissingBufferedBodyFallsBackToTheStore() {
+        final ChatDAO dao = dao(new InMemoryPersistence(), scripted);
+        Assert.assertTrue(dao.saveChannel(channel));
+        final ChatMessage first = dao.saveMessage(draft("first"), channel, null).orElseThrow();
+        final ChatMessage second = dao.saveMessage(draft("second"), channel, null).orElseThrow();
+        valkey.removeHashField(CacheKeys.chatBodyKey(channel.getId().getValue()), second.getId().getValue());
+
+        Assert.assertEquals(bodies(poll(dao, first.getId())), List.of("second"));
+    }
+
+    @Test
+    public void malformedRepliesAreNoAnswer() {
+        Assert.assertTrue(ChatPollScript.parse(null).isEmpty());
+        Assert.assertTrue(ChatPollScript.parse(List.of(1L, "", "")).isEmpty());
+        Assert.assertTrue(ChatPollScript.parse(Arrays.asList("1", "", "", List.of(), List.of())).isEmpty());
+
+        final ChatPollScript.Snapshot gap = ChatPollScript.parse(
+                Arrays.asList(1L, null, "4", List.of("x", "y"), Arrays.asList("{}", null))).orElseThrow();
+        Assert.assertTrue(gap.covered());
+        Assert.assertEquals(gap.ids(), List.of("x", "y"));
+        Assert.assertEquals(gap.bodies().keySet(), java.util.Set.of("x"), "a nil body stays absent");
+        Assert.assertEquals(gap.reactionsVersion(), "");
+        Assert.assertEquals(gap.mutationsVersion(), "4");
+    }
+
+    private static ChatDAO dao(final InMemoryPersistence persistence, final CountingCacheClient cache) {
+        return new ChatDAO(new ObjectMapper().registerModule(new JavaTimeModule()), persistence, cache);
+    }
+
+    private ChatPage poll(final ChatDAO dao, final ChatMessage.Id since) {
+        return dao.getMessagesSince(channel.getId(), since, 50, null, channel, null, Instant.now());
+    }
+
+    private static List<String> bodies(final ChatPage page) {
+        return page.getMessages().stream().map(ChatMessage::getBody).toList();
+    }
+
+    private ChatMessage draft(final String body) {
+        return new ChatMessage(
+                null, channel.getId(), Person.Id.from("p1"), null,
+                ChatMessage.MessageKind.TEXT, body, null, null, null,
+                null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,117 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.CountingCacheClient;
+import org.paulsens.trip.chat.ChatNudgeRegistry;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.chat.ChatChannel;
+import org.paulsens.trip.model.chat.ChatMessage;
+import org.paulsens.trip.model.chat.ChatPage;
+import org.paulsens.trip.model.chat.ChatSettings;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * The shared wake read: one refresh serves every covered reader with no cache reads of its own, answers exactly
+ * what the reader's own read would, and is never served across a nudge.
+ */
+public class ChatWakeSlicesTest {
+
+    private CountingCacheClient cache;
+    private ChatDAO dao;
+    private ChatNudgeRegistry.SharedRead shared;
+    private ChatChannel channel;
+    private String channelId;
+
+    @BeforeMethod
+    public void setUp() {
+        cache = new CountingCacheClient();
+        dao = new ChatDAO(new ObjectMapper().registerModule(new JavaTimeModule()), new InMemoryPersistence(), cache);
+        shared = dao.wakeReads();
+        channel = new ChatChannel(
+                ChatChannel.Id.forTrip("t1"), "t1", ChatChannel.Kind.TRIP, "Test",
+                null, null, ChatSettings.defaults(), Instant.parse("2026-01-01T00:00:00Z"),
+                "admin", null, null);
+        channelId = channel.getId().getValue();
+        Assert.assertTrue(dao.saveChannel(channel));
+    }
+
+    @Test
+    public void aRefreshedSliceServesEveryCoveredReaderWithoutACacheRead() {
+        final ChatMessage a = dao.saveMessage(draft("a"), channel, null).orElseThrow();
+        final ChatMessage b = dao.saveMessage(draft("b"), channel, null).orElseThrow();
+        dao.saveMessage(draft("c"), channel, null).orElseThrow();
+        cache.increment(CacheKeys.chatReactionsVersionKey(channelId), 4L, null);
+        final ChatPage ownRead = poll(a.getId());
+
+        shared.refresh(channelId);
+        cache.reads.set(0);
+        final ChatPage fromA = poll(a.getId());
+        final ChatPage fromB = poll(b.getId());
+
+        Assert.assertEquals(cache.reads.get(), 0, "served from the slice: " + cache.readLog);
+        Assert.assertEquals(bodies(fromA), bodies(ownRead));
+        Assert.assertEquals(fromA.getCursor(), ownRead.getCursor());
+        Assert.assertEquals(fromA.getReactionsVersion(), 4L);
+        Assert.assertEquals(bodies(fromB), List.of("c"));
+    }
+
+    @Test
+    public void aNudgeRetiresTheSliceAndAReadStartedBeforeItIsNeverInstalled() {
+        final ChatMessage a = dao.saveMessage(draft("a"), channel, null).orElseThrow();
+        shared.refresh(channelId);
+        final ChatMessage b = dao.saveMessage(draft("b"), channel, null).orElseThrow();
+        Assert.assertTrue(poll(a.getId()).isEmpty(), "the slice predates b -- which is why a nudge must retire it");
+
+        shared.invalidate(channelId);
+        Assert.assertEquals(bodies(poll(a.getId())), List.of("b"), "after the nudge the reader reads for itself");
+
+        final ChatWakeSlices slices = new ChatWakeSlices();
+        final long seen = slices.generation(channelId);
+        slices.invalidate(channelId);
+        slices.install(channelId, seen, new ChatWakeSlices.Slice(List.of(b), Map.of(), 0L, 0L,
+                System.nanoTime()));
+        Assert.assertNull(slices.fresh(channelId), "a read that raced a nudge must not be served");
+    }
+
+    @Test
+    public void aReaderBehindTheSliceOrOnItsFirstLoadReadsForItself() {
+        final ChatWakeSlices.Slice slice = new ChatWakeSlices.Slice(
+                List.of(message(2_000L), message(3_000L)), Map.of(), 0L, 0L, System.nanoTime());
+
+        Assert.assertTrue(slice.covers(2_000L));
+        Assert.assertTrue(slice.covers(9_000L), "past the newest is covered: nothing is newer");
+        Assert.assertFalse(slice.covers(1_999L), "older than the tail: something may fall in between");
+        Assert.assertFalse(slice.covers(-1L), "an initial load is never a slice");
+        Assert.assertEquals(slice.after(2_000L, 10).size(), 1);
+        Assert.assertEquals(slice.after(0L, 1).size(), 1, "the reader's own limit still applies");
+    }
+
+    private ChatPage poll(final ChatMessage.Id since) {
+        return dao.getMessagesSince(channel.getId(), since, 50, null, channel, null, Instant.now());
+    }
+
+    private static List<String> bodies(final ChatPage page) {
+        return page.getMessages().stream().map(ChatMessage::getBody).toList();
+    }
+
+    private ChatMessage draft(final String body) {
+        return new ChatMessage(
+                null, channel.getId(), Person.Id.from("p1"), null,
+                ChatMessage.MessageKind.TEXT, body, null, null, null,
+                null, null, null, null, null, null);
+    }
+
+    private ChatMessage message(final long millis) {
+        return new ChatMessage(
+                ChatMessage.Id.of(millis), channel.getId(), Person.Id.from("p1"), Instant.ofEpochMilli(millis),
+                ChatMessage.MessageKind.TEXT, "x", null, null, null,
+                null, null, null, null, null, null);
+    }
+}
@@ -22,6 +22,8 @@ import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -303,6 +305,62 @@ public class CredentialsDAOTest {
         assertTrue(puts.isEmpty(), "no credentials should be created on a failed login");
     }
 
+    @Test
+    public void updateLastLoginWritesOnlyTheTimestamp() {
+        final List<UpdateItemRequest> updates = new ArrayList<>();
+        final AtomicInteger putItemCount = new AtomicInteger(0);
+        final Persistence capturing = new Persistence() {
+            @Override
+            public UpdateItemResponse updateItem(Consumer<UpdateItemRequest.Builder> req) {
+                final UpdateItemRequest.Builder b = UpdateItemRequest.builder();
+                req.accept(b);
+                updates.add(b.build());
+                return Persistence.super.updateItem(req);
+            }
+            @Override
+            public PutItemResponse putItem(Consumer<PutItemRequest.Builder> req) {
+                putItemCount.incrementAndGet();
+                return Persistence.super.putItem(req);
+            }
+        };
+        final CredentialsDAO capturingDao = new CredentialsDAO(capturing, personDao, HASHER);
+        final Creds creds = new Creds("Patch@Test.com", Person.Id.newInstance(), "user", "plain", null);
+        capturingDao.updateLastLogin(creds);
+
+        assertEquals(putItemCount.get(), 0, "a login must not rewrite (or re-hash) the whole row");
+        assertEquals(updates.size(), 1);
+        final UpdateItemRequest update = updates.get(0);
+        assertEquals(update.key().get(CredentialsDAO.EMAIL).s(), "patch@test.com");
+        assertEquals(update.updateExpression(), "SET #ll = :ll");
+        assertEquals(update.conditionExpression(), "attribute_exists(#e)");
+        assertEquals(update.expressionAttributeValues().get(":ll").n(), "" + creds.getLastLogin());
+    }
+
+    @Test
+    public void updateLastLoginKeepsAPasswordChangedMeanwhileAndNeverResurrectsARow() {
+        final CredentialsDAO real = new CredentialsDAO(DynamoLocal.persistence(), personDao, HASHER);
+        final String email = DynamoLocal.uniqueId("login") + "@test.com";
+        final Creds stale = new Creds(email, Person.Id.newInstance(), "user", "oldPass", null);
+        assertTrue(real.saveCreds(stale));
+        final Creds changed = new Creds(email, stale.getUserId(), "user", "newPass", null);
+        assertTrue(real.saveCreds(changed));
+
+        real.updateLastLogin(stale);
+        final Creds stored = real.getCredsForCodeLogin(email);
+        assertEquals(stored.getLastLogin(), stale.getLastLogin());
+        assertNotNull(real.getCredsByEmailAndPass(email, "newPass"), "the login put back the old password");
+
+        assertTrue(removeRow(email));
+        real.updateLastLogin(new Creds(email, stale.getUserId(), "user", "newPass", null));
+        assertNull(real.getCredsForCodeLogin(email), "a login racing a removal must not leave a stub row");
+    }
+
+    private static boolean removeRow(final String email) {
+        return DynamoLocal.persistence().deleteItem(b -> b.tableName(CredentialsDAO.PASS_TABLE)
+                .key(Map.of(CredentialsDAO.EMAIL, AttributeValue.builder().s(email.toLowerCase()).build())))
+                .sdkHttpResponse().isSuccessful();
+    }
+
     // Builds a DAO whose getItem always returns a pass-table row with the given stored password (hash or plaintext),
     // capturing any putItem writes so a test can assert whether (and how) the row was rewritten.
     private CredentialsDAO daoOverStoredPass(final String storedPass, final List<Map<String, AttributeValue>> puts) {
@@ -41,14 +41,6 @@ public class DAOFailureTailsTest {
         return failing;
     }
 
-    /** A mapper whose serialization always fails -- the shape of a model/Jackson regression. */
-    private static ObjectMapper brokenMapper() throws Exception {
-        final ObjectMapper broken = Mockito.mock(ObjectMapper.class);
-        Mockito.when(broken.writeValueAsString(ArgumentMatchers.any()))
-                .thenThrow(new com.fasterxml.jackson.databind.JsonMappingException(null, "cannot serialize"));
-        return broken;
-    }
-
     @Test
     public void aFailedWriteMapsToFalseAcrossTheDaos() throws Exception {
         final Persistence failing = failingWrites();
@@ -343,7 +335,7 @@ public class DAOFailureTailsTest {
 
     @Test
     public void anUnserializableModelIsRefusedLoudly() throws Exception {
-        final ObjectMapper broken = brokenMapper();
+        final ObjectMapper broken = JsonFailures.alwaysFailing(mapper);
         final Persistence persistence = DynamoLocal.persistence();
 
         Assert.assertThrows(IllegalStateException.class, () -> new PrivilegesDAO(broken, persistence)
@@ -364,15 +364,16 @@ public class DAOTest {
         try {
             assertTrue(DB_UTILS.saveConfig(new Config(ttl.getName(), " 123 ", Config.Type.INT,
                     null, null, null)));
-            assertEquals(DAO.settingSeconds(ttl), 123L, "A stored value wins, whitespace tolerated");
+            assertEquals(DAO.settingLong(ttl), 123L, "A stored value wins, whitespace tolerated");
             assertTrue(DB_UTILS.saveConfig(new Config(ttl.getName(), "not-a-number", Config.Type.INT,
                     null, null, null)));
-            assertEquals(DAO.settingSeconds(ttl), ttl.longDefault(),
+            assertEquals(DAO.settingLong(ttl), ttl.longDefault(),
                     "Unparseable settings fall back to the declared default, never throw");
             final long[] tuning = DAO.readNearCacheTuning();
-            assertEquals(tuning.length, 2);
+            assertEquals(tuning.length, 3);
             assertEquals(tuning[0], ttl.longDefault());
-            assertEquals(tuning[1], DAO.settingSeconds(KnownSettings.CACHE_NEAR_CHECK_SECONDS));
+            assertEquals(tuning[1], DAO.settingLong(KnownSettings.CACHE_NEAR_CHECK_SECONDS));
+            assertEquals(tuning[2], DAO.settingLong(KnownSettings.CACHE_NEAR_MAX_MEGABYTES));
         } finally {
             // Put the row back so no later test reads this test's garbage.
             DB_UTILS.saveConfig(original.orElse(new Config(ttl.getName(), ttl.getDefaultValue(),
@@ -153,6 +153,9 @@ public final class DynamoLocal {
             // "ts" is epoch millis but AuditDAO writes it with toStrAttr, so the key type is STRING. Getting
             // this wrong is not cosmetic: DynamoDB rejects the write outright on a type mismatch.
             create(admin, "audit", "day", "ts", null);
+            // The optional search indexes (AuditDAO, TRIP_AUDIT_INDEX_SINCE): same sort key, a different partition.
+            create(admin, "audit_by_actor", "actor", "ts", null);
+            create(admin, "audit_by_action", "action", "ts", null);
         }
     }
 
@@ -207,6 +210,6 @@ public final class DynamoLocal {
     public static List<String> tableNames() {
         return List.of("people", "trips", "trip_events", "privs", "config", "media", "pass", "chat_channels",
                 "registrations", "todo_items", "person_data", "transactions", "bindings", "chat_members",
-                "chat_messages", "chat_reactions", "audit");
+                "chat_messages", "chat_reactions", "audit", "audit_by_actor", "audit_by_action");
     }
 }
@@ -0,0 +1,101 @@
+package org.paulsens.trip.dynamo;
+
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+/**
+ * {@code updateItem} in the fake store. It must behave like DynamoDB's where callers rely on it -- only the named
+ * attributes change, an absent key is created unless a condition forbids it, a failed condition writes nothing --
+ * and must refuse what it cannot evaluate rather than approximate it.
+ */
+public class InMemoryPersistenceUpdateTest {
+
+    private static Map<String, AttributeValue> key(final String id) {
+        return Map.of("id", AttributeValue.fromS(id));
+    }
+
+    private static Map<String, AttributeValue> read(final InMemoryPersistence fake, final String id) {
+        return fake.getItem(b -> b.tableName("media").key(key(id))).item();
+    }
+
+    @Test
+    public void setAndRemoveTouchOnlyTheNamedAttributes() {
+        final InMemoryPersistence fake = new InMemoryPersistence();
+        fake.putItem(b -> b.tableName("media").item(Map.of("id", AttributeValue.fromS("m1"),
+                "content", AttributeValue.fromS("{}"), "caption", AttributeValue.fromS("old"))));
+
+        fake.updateItem(b -> b.tableName("media").key(key("m1"))
+                .updateExpression("SET #n = :n, views = :v REMOVE caption")
+                .expressionAttributeNames(Map.of("#n", "name"))
+                .expressionAttributeValues(Map.of(
+                        ":n", AttributeValue.fromS("beach"), ":v", AttributeValue.fromN("3"))));
+
+        final Map<String, AttributeValue> row = read(fake, "m1");
+        Assert.assertEquals(row.get("content").s(), "{}", "attributes not named are left alone");
+        Assert.assertEquals(row.get("name").s(), "beach");
+        Assert.assertEquals(row.get("views").n(), "3");
+        Assert.assertFalse(row.containsKey("caption"));
+    }
+
+    @Test
+    public void anAbsentKeyIsCreatedUnlessTheConditionRequiresTheRow() {
+        final InMemoryPersistence fake = new InMemoryPersistence();
+        fake.updateItem(b -> b.tableName("media").key(key("new"))
+                .updateExpression("SET views = :v")
+                .expressionAttributeValues(Map.of(":v", AttributeValue.fromN("1"))));
+        Assert.assertEquals(read(fake, "new").get("views").n(), "1");
+        Assert.assertEquals(read(fake, "new").get("id").s(), "new", "a created item carries its key");
+
+        Assert.assertThrows(ConditionalCheckFailedException.class, () -> fake.updateItem(b -> b.tableName("media")
+                .key(key("gone"))
+                .updateExpression("SET views = :v")
+                .conditionExpression("attribute_exists(#id)")
+                .expressionAttributeNames(Map.of("#id", "id"))
+                .expressionAttributeValues(Map.of(":v", AttributeValue.fromN("1")))));
+        Assert.assertTrue(read(fake, "gone").isEmpty(), "a failed condition writes nothing");
+        Assert.assertEquals(fake.getRejectionCount(), 1);
+    }
+
+    @Test
+    public void theEqualityGuardIsEnforced() {
+        final InMemoryPersistence fake = new InMemoryPersistence();
+        fake.putItem(b -> b.tableName("media").item(Map.of("id", AttributeValue.fromS("m2"),
+                "v", AttributeValue.fromN("1"))));
+
+        Assert.assertThrows(ConditionalCheckFailedException.class, () -> fake.updateItem(b -> b.tableName("media")
+                .key(key("m2"))
+                .updateExpression("SET #v = :next")
+                .conditionExpression("#v = :expected")
+                .expressionAttributeNames(Map.of("#v", "v"))
+                .expressionAttributeValues(Map.of(":next", AttributeValue.fromN("3"),
+                        ":expected", AttributeValue.fromN("2")))));
+        fake.updateItem(b -> b.tableName("media").key(key("m2"))
+                .updateExpression("SET #v = :next")
+                .conditionExpression("#v = :expected")
+                .expressionAttributeNames(Map.of("#v", "v"))
+                .expressionAttributeValues(Map.of(":next", AttributeValue.fromN("2"),
+                        ":expected", AttributeValue.fromN("1"))));
+        Assert.assertEquals(read(fake, "m2").get("v").n(), "2");
+    }
+
+    @Test
+    public void whatTheFakeCannotEvaluateFailsLoudly() {
+        final InMemoryPersistence fake = new InMemoryPersistence();
+        Assert.assertThrows(IllegalArgumentException.class, () -> fake.updateItem(b -> b.tableName("media")
+                .key(key("m3"))
+                .updateExpression("ADD views :one")
+                .expressionAttributeValues(Map.of(":one", AttributeValue.fromN("1")))));
+        Assert.assertThrows(IllegalArgumentException.class, () -> fake.updateItem(b -> b.tableName("media")
+                .key(key("m3"))
+                .updateExpression("SET id = :other")
+                .expressionAttributeValues(Map.of(":other", AttributeValue.fromS("m4")))));
+        Assert.assertThrows(IllegalArgumentException.class, () -> fake.updateItem(b -> b.tableName("media")
+                .key(key("m3"))
+                .updateExpression("SET #missing = :v")
+                .expressionAttributeValues(Map.of(":v", AttributeValue.fromN("1")))));
+        Assert.assertTrue(read(fake, "m3").isEmpty());
+    }
+}
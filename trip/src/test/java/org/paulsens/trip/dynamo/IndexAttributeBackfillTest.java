@@ -0,0 +1,75 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.paulsens.trip.model.Person;
+import org.paulsens.trip.model.Trip;
+import org.paulsens.trip.util.RandomData;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * {@link IndexAttributeBackfill} against the real engine: a row saved before the index attributes existed gets
+ * exactly the attributes a save would have written, a dry run writes nothing, and a re-run leaves it alone.
+ * The tables are shared with the rest of the suite, so assertions look at this test's own rows only.
+ */
+public class IndexAttributeBackfillTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeClass
+    public void init() {
+        FakeData.initFakeData();
+    }
+
+    private static Map<String, AttributeValue> row(final String table, final String id) {
+        return DynamoLocal.persistence().getItem(b -> b.tableName(table)
+                .key(Map.of("id", AttributeValue.fromS(id)))).item();
+    }
+
+    /** Saves through the DAO, then strips the index attributes: a row as the code before them wrote it. */
+    private Map<String, AttributeValue> legacyTrip(final String tripId) throws Exception {
+        final Persistence store = DynamoLocal.persistence();
+        final TripDAO dao = new TripDAO(mapper, store, new TripEventDAO(mapper, store));
+        Assert.assertTrue(dao.saveTrip(Trip.builder().id(tripId).title("Backfill")
+                .startDate(LocalDateTime.now()).endDate(LocalDateTime.now().plusDays(2))
+                .people(List.of(Person.Id.from("bf-a"), Person.Id.from("bf-b"))).build()));
+        final Map<String, AttributeValue> saved = row(TripDAO.TRIP_TABLE, tripId);
+        final Map<String, AttributeValue> legacy = new HashMap<>(saved);
+        legacy.keySet().removeAll(List.of(IndexAttributes.VERSION_ATTR, TripDAO.END_MILLIS, TripDAO.MEMBERS));
+        store.putItem(b -> b.tableName(TripDAO.TRIP_TABLE).item(legacy));
+        return saved;
+    }
+
+    @Test
+    public void aLegacyRowGetsTheAttributesASaveWouldHaveWritten() throws Exception {
+        final String tripId = "bf-trip-" + RandomData.genAlpha(8);
+        final Map<String, AttributeValue> saved = legacyTrip(tripId);
+        final IndexAttributeBackfill backfill = new IndexAttributeBackfill(mapper, DynamoLocal.persistence());
+
+        final IndexAttributeBackfill.Result dryRun = backfill.run(false, 4);
+        Assert.assertTrue(dryRun.stale.get() >= 1);
+        Assert.assertEquals(dryRun.written.get(), 0);
+        Assert.assertFalse(row(TripDAO.TRIP_TABLE, tripId).containsKey(IndexAttributes.VERSION_ATTR),
+                "a dry run writes nothing");
+
+        final IndexAttributeBackfill.Result applied = backfill.run(true, 4);
+        Assert.assertEquals(applied.failed.get(), 0);
+        final Map<String, AttributeValue> after = row(TripDAO.TRIP_TABLE, tripId);
+        Assert.assertEquals(after.get(TripDAO.END_MILLIS), saved.get(TripDAO.END_MILLIS));
+        Assert.assertEquals(after.keySet(), saved.keySet());
+        Assert.assertEquals(Set.copyOf(after.get(TripDAO.MEMBERS).ss()), Set.of("bf-a", "bf-b"));
+        Assert.assertTrue(IndexAttributes.isCurrent(after));
+        Assert.assertEquals(after.get("content"), saved.get("content"), "the document itself is untouched");
+
+        final IndexAttributeBackfill.Result again = backfill.run(true, 4);
+        Assert.assertTrue(again.current.get() >= 1);
+        Assert.assertEquals(row(TripDAO.TRIP_TABLE, tripId), after, "a re-run leaves a current row alone");
+    }
+}
@@ -2,9 +2,15 @@ package org.paulsens.trip.dynamo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.paulsens.trip.cache.CacheClient;
 import org.paulsens.trip.cache.InMemoryCacheClient;
@@ -75,6 +81,72 @@ public class IndexLoaderDAOTest {
                 "the cold listing must scan-build the trip index");
     }
 
+    /**
+     * The rebuild trusts a saved trip's index attributes and reads only rows that lack them -- which it must still
+     * index, since nothing guarantees the backfill ran.
+     */
+    @Test
+    public void theTripRebuildReadsWholeOnlyTheRowsWithoutIndexAttributes() throws Exception {
+        final TripEventDAO events = new TripEventDAO(mapper, DynamoLocal.persistence());
+        final TripDAO writer = new TripDAO(mapper, DynamoLocal.persistence(), events);
+        final String saved = "idx-attr-" + RandomData.genAlpha(8);
+        final String legacy = "idx-legacy-" + RandomData.genAlpha(8);
+        for (final String id : List.of(saved, legacy)) {
+            Assert.assertTrue(writer.saveTrip(Trip.builder().id(id).title("Attrs")
+                    .startDate(LocalDateTime.now()).endDate(LocalDateTime.now().plusDays(3))
+                    .people(List.of(Person.Id.from("idx-attr-member"))).build()));
+        }
+        final Map<String, AttributeValue> row = new HashMap<>(DynamoLocal.persistence().getItem(b -> b
+                .tableName(TripDAO.TRIP_TABLE).key(Map.of("id", AttributeValue.fromS(legacy)))).item());
+        row.keySet().removeAll(List.of(IndexAttributes.VERSION_ATTR, TripDAO.END_MILLIS, TripDAO.MEMBERS));
+        DynamoLocal.persistence().putItem(b -> b.tableName(TripDAO.TRIP_TABLE).item(row));
+        // Only reads made DURING the scan count: resolving the listed trips afterwards batch-reads them all.
+        final Set<String> readWhole = ConcurrentHashMap.newKeySet();
+        final AtomicBoolean scanning = new AtomicBoolean();
+        final Persistence recording = Mockito.mock(Persistence.class,
+                AdditionalAnswers.delegatesTo(DynamoLocal.persistence()));
+        Mockito.doAnswer(inv -> {
+            scanning.set(true);
+            try {
+                DynamoLocal.persistence().scanPages(inv.getArgument(0), inv.getArgument(1));
+            } finally {
+                scanning.set(false);
+            }
+            return null;
+        }).when(recording).scanPages(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.doAnswer(inv -> {
+            final Collection<Map<String, AttributeValue>> keys = inv.getArgument(1);
+            if (scanning.get()) {
+                keys.forEach(key -> readWhole.add(key.get("id").s()));
+            }
+            return DynamoLocal.persistence().batchGetItems(inv.getArgument(0), keys);
+        }).when(recording).batchGetItems(ArgumentMatchers.eq(TripDAO.TRIP_TABLE), ArgumentMatchers.any());
+
+        final TripDAO reader = new TripDAO(mapper, recording, events, valkeyLike());
+        final List<String> listed = reader.getRecentTrips(1_000).stream().map(Trip::getId).toList();
+
+        Assert.assertTrue(listed.containsAll(List.of(saved, legacy)), "both are indexed: " + listed);
+        Assert.assertTrue(readWhole.contains(legacy), "the legacy row is read whole");
+        Assert.assertFalse(readWhole.contains(saved), "the saved row is indexed from its projected attributes");
+    }
+
+    /** A deleted person is stored as current with no tokens, so the search rebuild skips it without a read. */
+    @Test
+    public void aDeletedPersonIsStoredWithoutSearchTokens() throws Exception {
+        final Person person = new Person();
+        person.setFirst("Gone");
+        person.setLast("Idxdeleted" + RandomData.genAlpha(6));
+        person.delete();
+        Assert.assertTrue(new PersonDAO(mapper, DynamoLocal.persistence()).savePerson(person));
+
+        final Map<String, AttributeValue> stored = DynamoLocal.persistence().getItem(b -> b
+                .tableName(PersonDAO.PERSON_TABLE)
+                .key(Map.of("id", AttributeValue.fromS(person.getId().getValue())))).item();
+
+        Assert.assertTrue(IndexAttributes.isCurrent(stored));
+        Assert.assertFalse(stored.containsKey(PersonDAO.SEARCH_TOKENS));
+    }
+
     /**
      * {@code InMemoryPersistence.scanAll} special-cases the people table so local mode's fake pilgrims are
      * searchable: without it, a cold search index scan-builds from an empty scan and every local search
@@ -0,0 +1,55 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class JsonCodecTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Distinct names per test: the counters are shared by type name for the life of the JVM. */
+    public static final class CodecProbe {
+        public String name;
+    }
+
+    public static class CodecBase {
+        public String name;
+    }
+
+    public static class CodecSub extends CodecBase {
+        public int extra;
+    }
+
+    @Test
+    public void readsAndWritesAreCountedPerType() throws Exception {
+        final JsonCodec<CodecProbe> codec = JsonCodec.of(mapper, CodecProbe.class);
+        final CodecProbe probe = new CodecProbe();
+        probe.name = "x";
+
+        final String json = codec.write(probe);
+        Assert.assertEquals(json, "{\"name\":\"x\"}");
+        Assert.assertEquals(JsonCodec.of(mapper, CodecProbe.class).read(json).name, "x",
+                "a second codec of the same type shares the counters");
+        Assert.assertThrows(JsonProcessingException.class, () -> codec.read("{not json"));
+
+        final JsonCodec.Stats stats = JsonCodec.stats().stream()
+                .filter(s -> s.type().equals("CodecProbe")).findFirst().orElseThrow();
+        Assert.assertEquals(stats.reads(), 1L);
+        Assert.assertEquals(stats.writes(), 1L);
+        Assert.assertEquals(stats.failures(), 1L);
+        Assert.assertEquals(stats.readChars(), json.length());
+    }
+
+    /** A writer typed to a non-final class would write a subclass as its base and drop its fields. */
+    @Test
+    public void aSubclassKeepsItsOwnPropertiesThroughTheBaseCodec() throws Exception {
+        final CodecSub sub = new CodecSub();
+        sub.name = "s";
+        sub.extra = 3;
+        final String json = JsonCodec.of(mapper, CodecBase.class).write(sub);
+
+        Assert.assertTrue(json.contains("\"extra\":3"), json);
+    }
+}
@@ -0,0 +1,46 @@
+package org.paulsens.trip.dynamo;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+/**
+ * Mappers whose serialization fails, for the DAO failure-tail tests. The DAOs serialize through the writers their
+ * {@link JsonCodec}s take from the mapper when they are built, so it is those writers that fail, not
+ * {@code ObjectMapper.writeValueAsString}.
+ */
+final class JsonFailures {
+
+    private JsonFailures() {
+    }
+
+    /** Every serialization fails -- the shape of a model/Jackson regression. Reads still work. */
+    static ObjectMapper alwaysFailing(final ObjectMapper real) {
+        return failingAfter(real, 0);
+    }
+
+    /** The first {@code successes} serializations (across every type) work; every later one fails. */
+    static ObjectMapper failingAfter(final ObjectMapper real, final int successes) {
+        final ObjectWriter delegate = real.writer();
+        final AtomicInteger calls = new AtomicInteger();
+        final ObjectWriter writer = Mockito.mock(ObjectWriter.class);
+        try {
+            Mockito.doAnswer(invocation -> {
+                if (calls.incrementAndGet() > successes) {
+                    throw new JsonMappingException(null, "cannot serialize");
+                }
+                return delegate.writeValueAsString(invocation.getArgument(0));
+            }).when(writer).writeValueAsString(ArgumentMatchers.any());
+        } catch (final com.fasterxml.jackson.core.JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final ObjectMapper mapper = Mockito.mock(ObjectMapper.class, AdditionalAnswers.delegatesTo(real));
+        Mockito.doReturn(writer).when(mapper).writerFor(ArgumentMatchers.any(Class.class));
+        Mockito.doReturn(writer).when(mapper).writer();
+        return mapper;
+    }
+}
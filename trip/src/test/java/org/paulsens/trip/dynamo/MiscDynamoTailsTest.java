@@ -3,7 +3,11 @@ package org.paulsens.trip.dynamo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import org.mockito.AdditionalAnswers;
 import org.mockito.ArgumentMatchers;
 import org.mockito.MockedStatic;
@@ -19,7 +23,7 @@ import org.testng.annotations.Test;
 
 /**
  * The last dynamo-layer tails: the binding-row parser against real rows, point-read error mapping, the
- * explicit endpoint seam, and the fake store's query-shape guards.
+ * explicit endpoint seam, the segmented table scan, and the fake store's query-shape guards.
  */
 public class MiscDynamoTailsTest {
 
@@ -51,6 +55,29 @@ public class MiscDynamoTailsTest {
                 .getTripEvent("never-saved-" + RandomData.genAlpha(6)));
     }
 
+    /** Every segment's pages together are the table, each row exactly once, whatever the segment count. */
+    @Test
+    public void aSegmentedScanSeesEveryRowOnce() {
+        final Persistence store = DynamoLocal.persistence();
+        final String prefix = DynamoLocal.uniqueId("seg") + "-";
+        for (int i = 0; i < 30; i++) {
+            final String id = prefix + i;
+            store.putItem(b -> b.tableName("trip_events").item(Map.of("id", store.toStrAttr(id))));
+        }
+
+        for (final int segments : new int[] {1, 4, 7}) {
+            final Queue<String> seen = new ConcurrentLinkedQueue<>();
+            store.scanPages(b -> b.tableName("trip_events").limit(5), segments, page -> page.stream()
+                    .map(row -> row.get("id").s())
+                    .filter(id -> id.startsWith(prefix))
+                    .forEach(seen::add));
+            Assert.assertEquals(seen.size(), 30, segments + " segments");
+            Assert.assertEquals(Set.copyOf(seen).size(), 30, segments + " segments");
+        }
+        Assert.assertEquals(store.scanAll(b -> b.tableName("trip_events")).stream()
+                .filter(row -> row.get("id").s().startsWith(prefix)).count(), 30L);
+    }
+
     /** A failing point read maps to empty -- the page shows no privilege rather than a 500. */
     @Test
     public void aFailingPrivilegePointReadMapsToEmpty() {
@@ -67,7 +94,7 @@ public class MiscDynamoTailsTest {
     @Test
     public void theDynamoAuditSinkContainsAFailingStoreOnDrain() {
         final DAO failing = Mockito.mock(DAO.class);
-        Mockito.when(failing.saveAuditEvent(ArgumentMatchers.any()))
+        Mockito.when(failing.saveAuditEvents(ArgumentMatchers.any()))
                 .thenThrow(new IllegalStateException("index down"));
         try (MockedStatic<DAO> daoStatic = Mockito.mockStatic(DAO.class)) {
             daoStatic.when(DAO::getInstance).thenReturn(failing);
@@ -88,7 +115,7 @@ public class MiscDynamoTailsTest {
 
         Assert.assertNotNull(fake.query(qb -> qb.tableName("registrations")
                 .keyConditionExpression("tripId = :anything")
-                .expressionAttributeValues(java.util.Map.of(":anything",
+                .expressionAttributeValues(Map.of(":anything",
                         software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
                                 .s("no-such-trip").build()))));
 
@@ -104,7 +131,7 @@ public class MiscDynamoTailsTest {
 
         Assert.assertThrows(() -> fake.query(qb -> qb.tableName("audit")
                 .keyConditionExpression("day = :d")
-                .expressionAttributeValues(java.util.Map.of(":d",
+                .expressionAttributeValues(Map.of(":d",
                         software.amazon.awssdk.services.dynamodb.model.AttributeValue.builder()
                                 .s("2026-01-01").build()))));
     }
@@ -146,14 +173,7 @@ public class MiscDynamoTailsTest {
     @Test
     public void aSerializerFailureAfterTheRowWriteDoesNotPoisonTheCache() throws Exception {
         // Fails from the SECOND serialization on: the row write succeeds, the cache serializer does not.
-        final java.util.concurrent.atomic.AtomicInteger calls = new java.util.concurrent.atomic.AtomicInteger();
-        final ObjectMapper flaky = Mockito.mock(ObjectMapper.class, AdditionalAnswers.delegatesTo(mapper));
-        Mockito.doAnswer(invocation -> {
-            if (calls.incrementAndGet() > 1) {
-                throw new com.fasterxml.jackson.databind.JsonMappingException(null, "flaky");
-            }
-            return mapper.writeValueAsString(invocation.getArgument(0));
-        }).when(flaky).writeValueAsString(ArgumentMatchers.any());
+        final ObjectMapper flaky = JsonFailures.failingAfter(mapper, 1);
 
         final TripEventDAO dao = new TripEventDAO(flaky, DynamoLocal.persistence());
         final org.paulsens.trip.model.TripEvent event = new org.paulsens.trip.model.TripEvent(
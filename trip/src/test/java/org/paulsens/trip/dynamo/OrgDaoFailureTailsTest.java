@@ -89,10 +89,7 @@ public class OrgDaoFailureTailsTest {
         Assert.assertEquals(config.getVersion(), 0L);
 
         // Cache-serializer regression: contained, the row is durable.
-        final ObjectMapper flaky = Mockito.spy(mapper);
-        Mockito.when(flaky.writeValueAsString(ArgumentMatchers.any()))
-                .thenAnswer(inv -> mapper.writeValueAsString(inv.getArgument(0)))
-                .thenThrow(new com.fasterxml.jackson.databind.JsonMappingException(null, "cannot serialize"));
+        final ObjectMapper flaky = JsonFailures.failingAfter(mapper, 1);
         final PaymentProcessorDAO flakyDao =
                 new PaymentProcessorDAO(flaky, new InMemoryPersistence(), new InMemoryCacheClient());
         Assert.assertTrue(flakyDao.saveConfig(org.paulsens.trip.model.PaymentProcessorConfig.builder()
@@ -141,18 +138,12 @@ public class OrgDaoFailureTailsTest {
     public void aCacheSerializerRegressionIsContained() throws Exception {
         // First serialization (the row write) succeeds; the second (the cache write-through) fails. The
         // save itself must still report success -- the row is durable, the cache heals on next load.
-        final ObjectMapper flaky = Mockito.spy(mapper);
-        Mockito.when(flaky.writeValueAsString(ArgumentMatchers.any()))
-                .thenAnswer(inv -> mapper.writeValueAsString(inv.getArgument(0)))
-                .thenThrow(new com.fasterxml.jackson.databind.JsonMappingException(null, "cannot serialize"));
+        final ObjectMapper flaky = JsonFailures.failingAfter(mapper, 1);
         final OrganizationDAO orgDao =
                 new OrganizationDAO(flaky, new InMemoryPersistence(), new InMemoryCacheClient());
         Assert.assertTrue(orgDao.saveOrganization(Organization.builder().name("Flaky").build()));
 
-        final ObjectMapper flaky2 = Mockito.spy(mapper);
-        Mockito.when(flaky2.writeValueAsString(ArgumentMatchers.any()))
-                .thenAnswer(inv -> mapper.writeValueAsString(inv.getArgument(0)))
-                .thenThrow(new com.fasterxml.jackson.databind.JsonMappingException(null, "cannot serialize"));
+        final ObjectMapper flaky2 = JsonFailures.failingAfter(mapper, 1);
         final OrgMemberDAO memberDao =
                 new OrgMemberDAO(flaky2, new InMemoryPersistence(), new InMemoryCacheClient());
         Assert.assertTrue(memberDao.saveMember(
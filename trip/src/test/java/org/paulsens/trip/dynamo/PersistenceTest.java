@@ -12,10 +12,13 @@ import java.util.function.Consumer;
 import org.testng.annotations.Test;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.services.dynamodb.model.ScanRequest;
 import software.amazon.awssdk.services.dynamodb.model.ScanResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 import static org.testng.Assert.*;
 
@@ -29,6 +32,13 @@ public class PersistenceTest {
         assertTrue(resp.sdkHttpResponse().isSuccessful());
     }
 
+    @Test
+    public void updateItemReturns200() {
+        final UpdateItemResponse resp = persistence.updateItem(b -> b.tableName("test"));
+        assertEquals(resp.sdkHttpResponse().statusCode(), 200);
+        assertTrue(resp.sdkHttpResponse().isSuccessful());
+    }
+
     @Test
     public void scanReturnsEmptyItems() {
         final ScanResponse resp = persistence.scan(b -> b.tableName("test"));
@@ -83,6 +93,24 @@ public class PersistenceTest {
         assertEquals(items, List.of(row));
     }
 
+    @Test
+    public void batchGetItemsDefaultsToPointReadsAndSkipsMisses() {
+        final Map<String, AttributeValue> row = Map.of("id", AttributeValue.builder().s("x").build());
+        final Persistence custom = new Persistence() {
+            @Override
+            public GetItemResponse getItem(final Consumer<GetItemRequest.Builder> getItemRequest) {
+                final GetItemRequest.Builder builder = GetItemRequest.builder();
+                getItemRequest.accept(builder);
+                final boolean known = "x".equals(builder.build().key().get("id").s());
+                return known ? GetItemResponse.builder().item(row).build() : GetItemResponse.builder().build();
+            }
+        };
+        final List<Map<String, AttributeValue>> items = custom.batchGetItems("test",
+                List.of(row, Map.of("id", AttributeValue.builder().s("missing").build())));
+        assertEquals(items, List.of(row));
+        assertTrue(persistence.batchGetItems("test", List.of(row)).isEmpty());
+    }
+
     @Test
     public void sortListReturnsSortedCopy() {
         final List<Integer> original = Arrays.asList(3, 1, 4, 1, 5, 9);
@@ -2,6 +2,7 @@ package org.paulsens.trip.dynamo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -11,6 +12,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.util.RandomData;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
@@ -42,6 +45,18 @@ public class PersonDAOTest {
         assertEquals(dao.getPerson(person.getId()), Optional.of(person));
     }
 
+    @Test
+    public void getPeopleResolvesManyInOrderAndSkipsUnknownIds() throws IOException {
+        final Person alice = Person.builder().id(Person.Id.newInstance()).first("Alice").last("Batch").build();
+        final Person bob = Person.builder().id(Person.Id.newInstance()).first("Bob").last("Batch").build();
+        assertTrue(dao.savePerson(alice));
+        assertTrue(dao.savePerson(bob));
+        final PersonDAO cold = new PersonDAO(new ObjectMapper().findAndRegisterModules(), DynamoLocal.persistence());
+
+        assertEquals(cold.getPeople(Arrays.asList(bob.getId(), null, Person.Id.newInstance(), alice.getId())),
+                List.of(bob, alice));
+    }
+
     @Test
     public void getPersonWithNullIdReturnsEmpty() {
         assertEquals(dao.getPerson(null), Optional.empty());
@@ -81,6 +96,47 @@ public class PersonDAOTest {
         assertEquals(dao.searchPeople("paulsen kevin", 10), List.of(b));
     }
 
+    /** Once this process's index is built: a typo still finds the person, and the closer match ranks first. */
+    @Test
+    public void builtSearchToleratesTyposAndRanksTheCloserMatchFirst() throws IOException {
+        final String tag = RandomData.genAlpha(6).toLowerCase();
+        final Person exact = Person.builder().first("Zed").last(tag + "ington").build();
+        final Person longer = Person.builder().first("Aaron").last(tag + "ingtonshire").build();
+        dao.savePerson(exact);
+        dao.savePerson(longer);
+        dao.warmSearch();
+
+        assertEquals(dao.searchPeople(tag + "ington", 10), List.of(exact, longer), "whole name before prefix");
+        assertEquals(dao.searchPeople(tag + "ingtn", 10).size(), 2, "one letter missing");
+        assertEquals(dao.searchPeople("aaron " + tag + "ingtno", 10), List.of(longer));
+    }
+
+    /** Another instance's save and delete reach this process's built index through the per-key broadcast. */
+    @Test
+    public void anotherInstancesWritesReachTheBuiltIndex() throws IOException {
+        final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        final InMemoryCacheClient cache = new InMemoryCacheClient();
+        final PersonDAO here = new PersonDAO(mapper, DynamoLocal.persistence(), cache);
+        here.warmSearch();
+        final String tag = RandomData.genAlpha(6).toLowerCase();
+        final Person person = Person.builder().first("Remote").last(tag + "son").build();
+        new PersonDAO(mapper, DynamoLocal.persistence()).savePerson(person);
+        assertTrue(here.searchPeople(tag + "son", 10).isEmpty(), "built before the save, and nothing announced");
+
+        announceFromElsewhere(cache, person);
+        assertEquals(here.searchPeople(tag + "son", 10), List.of(person));
+
+        person.delete();
+        new PersonDAO(mapper, DynamoLocal.persistence()).savePerson(person);
+        announceFromElsewhere(cache, person);
+        assertTrue(here.searchPeople(tag + "son", 10).isEmpty());
+    }
+
+    private static void announceFromElsewhere(final InMemoryCacheClient cache, final Person person) {
+        cache.publish(CacheKeys.CACHE_KEY_INVAL_CHANNEL, "{\"origin\":\"another-jvm\",\"keys\":[\""
+                + CacheKeys.PERSON_PREFIX + person.getId().getValue() + "\"]}");
+    }
+
     @Test
     public void emptyOrBlankSearchReturnsNothing() {
         assertTrue(dao.searchPeople(null, 10).isEmpty());
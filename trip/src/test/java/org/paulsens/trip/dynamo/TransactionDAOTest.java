@@ -11,6 +11,8 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.InMemoryCacheClient;
 import org.paulsens.trip.model.Person;
 import org.paulsens.trip.model.Transaction;
 import org.paulsens.trip.util.RandomData;
@@ -148,4 +150,44 @@ public class TransactionDAOTest {
 
         assertEquals(dao.getTransactions(userId).size(), 1);
     }
+
+    @Test
+    public void savesKeepTheBalanceLedgerCurrent() throws IOException {
+        final Person.Id userId = Person.Id.newInstance();
+        final Transaction owed = new Transaction(userId, null, Transaction.Type.Tx);
+        owed.setAmount(-475f);
+        dao.saveTransaction(owed);
+        final Transaction paid = new Transaction(userId, null, Transaction.Type.Tx);
+        paid.setAmount(200.25f);
+        dao.saveTransaction(paid);
+        assertEquals(dao.getBalances(List.of(userId)), Map.of(userId, -27475L));
+
+        paid.delete();
+        dao.saveTransaction(paid);
+
+        assertEquals(dao.getBalances(List.of(userId)), Map.of(userId, -47500L));
+    }
+
+    @Test
+    public void reconcileReportsAndRepairsADriftedBalance() throws IOException {
+        final InMemoryCacheClient cacheClient = new InMemoryCacheClient();
+        final TransactionDAO localDao = new TransactionDAO(
+                new ObjectMapper().findAndRegisterModules(), DynamoLocal.persistence(), cacheClient);
+        final Person.Id right = Person.Id.newInstance();
+        final Person.Id wrong = Person.Id.newInstance();
+        final Person.Id unread = Person.Id.newInstance();
+        for (final Person.Id id : List.of(right, wrong, unread)) {
+            final Transaction tx = new Transaction(id, null, Transaction.Type.Tx);
+            tx.setAmount(-100f);
+            localDao.saveTransaction(tx);
+        }
+        cacheClient.putHashField(CacheKeys.LEDGER_BALANCES, wrong.getValue(), "1:5");
+        cacheClient.removeHashField(CacheKeys.LEDGER_BALANCES, unread.getValue());
+
+        final BalanceLedger.Reconciliation found = localDao.reconcileBalances(List.of(right, wrong, unread));
+
+        assertEquals(found.checked(), 3);
+        assertEquals(found.drifted(), List.of(new BalanceLedger.Drift(wrong, 5L, -10000L)));
+        assertEquals(localDao.getBalances(List.of(wrong)), Map.of(wrong, -10000L));
+    }
     }
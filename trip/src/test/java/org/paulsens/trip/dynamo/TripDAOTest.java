@@ -3,6 +3,7 @@ package org.paulsens.trip.dynamo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -200,6 +201,22 @@ public class TripDAOTest {
         assertEquals(getItemCount.get(), 1, "Cached read should not hit the database");
     }
 
+    @Test
+    public void getTripsResolvesManyInTheOrderGiven() throws IOException {
+        final Trip first = Trip.builder().title("Batch A").startDate(LocalDateTime.now().plusDays(3)).build();
+        final Trip second = Trip.builder().title("Batch B").startDate(LocalDateTime.now().plusDays(1)).build();
+        assertTrue(dao.saveTrip(first));
+        assertTrue(dao.saveTrip(second));
+        final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        // A fresh DAO has a cold cache: both trips come from one BatchGetItem against the real engine.
+        final TripDAO cold = new TripDAO(mapper, DynamoLocal.persistence(),
+                new TripEventDAO(mapper, DynamoLocal.persistence()));
+
+        assertEquals(cold.getTrips(Arrays.asList(second.getId(), "", "no-such-trip", null, first.getId())),
+                List.of(second, first));
+        assertTrue(cold.getTrips(List.of()).isEmpty());
+    }
+
     @Test
     public void multipleTripsCanBeStored() throws IOException {
         for (int i = 0; i < 5; i++) {
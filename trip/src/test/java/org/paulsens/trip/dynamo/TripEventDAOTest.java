@@ -2,8 +2,10 @@ package org.paulsens.trip.dynamo;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -13,6 +15,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import org.paulsens.trip.model.Trip;
 import org.paulsens.trip.model.TripEvent;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
 import org.testng.annotations.BeforeMethod;
@@ -82,6 +85,33 @@ public class TripEventDAOTest {
         assertEquals(dao.getTripEvent(te2.getId()), te2);
     }
 
+    /** The real engine's BatchGetItem: one call for every miss, order kept, an unknown id skipped. */
+    @Test
+    public void getTripEventsResolvesManyInOneStoreRead() {
+        final TripEvent te1 = new TripEvent(UUID.randomUUID().toString(), TripEvent.Type.FLIGHT,
+                "Flight 1", "notes", LocalDateTime.now(), null, null, null);
+        final TripEvent te2 = new TripEvent(UUID.randomUUID().toString(), TripEvent.Type.LODGING,
+                "Hotel", "notes", LocalDateTime.now().plusDays(1), null, null, null);
+        assertTrue(dao.saveTripEvent(te1));
+        assertTrue(dao.saveTripEvent(te2));
+        final AtomicInteger batchReads = new AtomicInteger();
+        final Persistence counting = new Persistence() {
+            @Override
+            public List<Map<String, AttributeValue>> batchGetItems(
+                    final String tableName, final Collection<Map<String, AttributeValue>> keys) {
+                batchReads.incrementAndGet();
+                return DynamoLocal.persistence().batchGetItems(tableName, keys);
+            }
+        };
+        // A fresh DAO has a cold cache, so every id is a miss.
+        final TripEventDAO cold = new TripEventDAO(new ObjectMapper().findAndRegisterModules(), counting);
+
+        assertEquals(cold.getTripEvents(List.of(te2.getId(), "no-such-event", te1.getId())), List.of(te2, te1));
+        assertEquals(batchReads.get(), 1);
+        assertEquals(cold.getTripEvents(List.of(te1.getId(), te2.getId())), List.of(te1, te2));
+        assertEquals(batchReads.get(), 1, "the second read is all cache hits");
+    }
+
     @Test
     public void saveAllTripEventsWithEmptyList() {
         final Trip trip = Trip.builder()
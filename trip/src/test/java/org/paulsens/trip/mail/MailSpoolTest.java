@@ -0,0 +1,250 @@
+package org.paulsens.trip.mail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.paulsens.trip.action.MailCommands;
+import org.paulsens.trip.audit.AuditActor;
+import org.paulsens.trip.cache.CacheKeys;
+import org.paulsens.trip.cache.InMemoryCacheClient;
+import org.paulsens.trip.cache.NoopCacheClient;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import software.amazon.awssdk.services.ses.model.SendEmailResponse;
+
+/**
+ * {@link MailSpool}: a job queued once, each recipient sent once, a throttled send retried later rather than
+ * dropped, and progress that adds up. Driven through {@code drain()} on a hand-wound clock, so nothing here waits.
+ */
+public class MailSpoolTest {
+
+    private static final AuditActor ADMIN = new AuditActor("admin@example.org", "admin-1");
+    private static final MailSpool.Envelope ENVELOPE =
+            new MailSpool.Envelope("f@example.org", null, "r@example.org", "Subject", "Body", ADMIN);
+    private static final MailCommands.Attempt SENT =
+            new MailCommands.Attempt(SendEmailResponse.builder().messageId("ok").build(), false);
+    private static final MailCommands.Attempt THROTTLED = new MailCommands.Attempt(null, true);
+    private static final MailCommands.Attempt REFUSED = new MailCommands.Attempt(null, false);
+
+    private AtomicLong clock;
+    private MailCommands mail;
+    private MailSpool spool;
+
+    @BeforeMethod
+    public void setUp() {
+        clock = new AtomicLong(1_000_000L);
+        mail = Mockito.mock(MailCommands.class);
+        spool = MailSpool.forTest(new InMemoryCacheClient(), mail, clock::get);
+    }
+
+    private void answer(final String to, final MailCommands.Attempt first, final MailCommands.Attempt... then) {
+        Mockito.when(mail.attempt(ArgumentMatchers.any(), ArgumentMatchers.eq(to), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(AuditActor.class))).thenReturn(first, then);
+    }
+
+    private void verifyAttempts(final String to, final int times) {
+        Mockito.verify(mail, Mockito.times(times)).attempt(ArgumentMatchers.any(), ArgumentMatchers.eq(to),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(AuditActor.class));
+    }
+
+    @Test
+    public void eachRecipientIsSentOnceUnderTheActorWhoQueuedTheJob() {
+        answer("a@x.org", SENT);
+        answer("b@x.org", SENT);
+        final String job = spool.enqueue(ENVELOPE, List.of("a@x.org", "b@x.org"));
+
+        Assert.assertEquals(spool.status(job).pending(), 2, "nothing moves until the spool drains");
+        spool.drain();
+        spool.drain();
+
+        verifyAttempts("a@x.org", 1);
+        verifyAttempts("b@x.org", 1);
+        Mockito.verify(mail).attempt("f@example.org", "a@x.org", null, "r@example.org", "Subject", "Body", ADMIN);
+        final MailJob status = spool.status(job);
+        Assert.assertEquals(status.sent(), 2);
+        Assert.assertTrue(status.done());
+        Assert.assertEquals(status.createdAt(), 1_000_000L);
+    }
+
+    @Test
+    public void aThrottledSendWaitsForItsRetryInsteadOfFailing() {
+        answer("a@x.org", SENT);
+        answer("b@x.org", THROTTLED, SENT);
+        final String job = spool.enqueue(ENVELOPE, List.of("a@x.org", "b@x.org"));
+
+        spool.drain();
+        Assert.assertEquals(spool.status(job).sent(), 1);
+        Assert.assertEquals(spool.status(job).pending(), 1, "the throttled send is still owed");
+
+        spool.drain();
+        verifyAttempts("b@x.org", 1);
+
+        clock.addAndGet(MailSpool.FIRST_RETRY.toMillis());
+        spool.drain();
+        verifyAttempts("b@x.org", 2);
+        Assert.assertEquals(spool.status(job).sent(), 2);
+        Assert.assertEquals(spool.status(job).failed(), 0);
+    }
+
+    @Test
+    public void aSendThatIsThrottledEveryTimeIsEventuallyGivenUpAndAudited() {
+        answer("a@x.org", THROTTLED);
+        final String job = spool.enqueue(ENVELOPE, List.of("a@x.org"));
+
+        for (int i = 0; i < MailSpool.MAX_ATTEMPTS + 2; i++) {
+            spool.drain();
+            clock.addAndGet(MailSpool.MAX_RETRY.toMillis());
+        }
+
+        verifyAttempts("a@x.org", MailSpool.MAX_ATTEMPTS);
+        Mockito.verify(mail).recordGaveUp(ArgumentMatchers.eq(ADMIN), ArgumentMatchers.eq("a@x.org"),
+                ArgumentMatchers.anyString());
+        Assert.assertEquals(spool.status(job).failed(), 1);
+        Assert.assertTrue(spool.status(job).done());
+    }
+
+    @Test
+    public void aRefusedSendCountsAsFailedAndIsNotRetried() {
+        answer("a@x.org", REFUSED);
+        final String job = spool.enqueue(ENVELOPE, List.of("a@x.org"));
+
+        spool.drain();
+        clock.addAndGet(MailSpool.MAX_RETRY.toMillis());
+        spool.drain();
+
+        verifyAttempts("a@x.org", 1);
+        Assert.assertEquals(spool.status(job).failed(), 1);
+        Mockito.verify(mail, Mockito.never()).recordGaveUp(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any());
+    }
+
+    @Test
+    public void aMergeSendsEachRecipientTheirOwnTextAndFallsBackToTheEnvelopes() {
+        answer("a@x.org", SENT);
+        answer("b@x.org", SENT);
+        final String job = spool.enqueueMessages(ENVELOPE, List.of(
+                new MailSpool.Message("a@x.org", "Subject", "Dear Ann"),
+                new MailSpool.Message("b@x.org", null, null)));
+
+        spool.drain();
+
+        Mockito.verify(mail).attempt("f@example.org", "a@x.org", null, "r@example.org", "Subject", "Dear Ann", ADMIN);
+        Mockito.verify(mail).attempt("f@example.org", "b@x.org", null, "r@example.org", "Subject", "Body", ADMIN);
+        Assert.assertEquals(spool.status(job).sent(), 2);
+    }
+
+    /** With the cache off every write "succeeds" and nothing is kept; the caller must hear that. */
+    /**
+     * A drainer whose lock lapsed mid-batch overlaps the next holder: the ZREM claim still sends each message once,
+     * and the first drainer stops at its next extend instead of prolonging the other's lock.
+     */
+    @Test
+    public void drainersOverlappingAfterALapsedLockSendEachMessageOnce() {
+        final InMemoryCacheClient cache = new InMemoryCacheClient();
+        final MailCommands otherMail = Mockito.mock(MailCommands.class);
+        final MailSpool first = MailSpool.forTest(cache, mail, clock::get);
+        final MailSpool second = MailSpool.forTest(cache, otherMail, clock::get);
+        final Queue<String> sentByFirst = new ConcurrentLinkedQueue<>();
+        final Queue<String> sentBySecond = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean lapsed = new AtomicBoolean();
+        Mockito.when(mail.attempt(ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(AuditActor.class))).thenAnswer(call -> {
+                    if (lapsed.compareAndSet(false, true)) {
+                        // The lock's TTL runs out during a slow send, and another instance starts draining.
+                        cache.releaseLock(CacheKeys.MAIL_DRAIN_LOCK);
+                        second.drain();
+                    }
+                    sentByFirst.add(call.getArgument(1));
+                    return SENT;
+                });
+        Mockito.when(otherMail.attempt(ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(AuditActor.class))).thenAnswer(call -> {
+                    sentBySecond.add(call.getArgument(1));
+                    return SENT;
+                });
+        final List<String> recipients = IntStream.range(0, 40).mapToObj(n -> "r" + n + "@x.org").toList();
+        final String job = first.enqueue(ENVELOPE, recipients);
+
+        first.drain();
+
+        final List<String> sent = new ArrayList<>(sentByFirst);
+        sent.addAll(sentBySecond);
+        Assert.assertEquals(sent.stream().sorted().toList(), recipients.stream().sorted().toList(), "each once");
+        Assert.assertFalse(sentBySecond.isEmpty(), "the second drainer really did overlap the first");
+        Assert.assertEquals(first.status(job).sent(), recipients.size());
+        Assert.assertTrue(cache.tryAcquireLock(CacheKeys.MAIL_DRAIN_LOCK, "next", Duration.ofMinutes(1)),
+                "neither drainer left the lock behind");
+    }
+
+    /** Another instance's drain lock keeps this one out, and is still theirs afterwards. */
+    @Test
+    public void anotherInstancesDrainLockIsLeftAlone() {
+        final InMemoryCacheClient cache = new InMemoryCacheClient();
+        final MailSpool blocked = MailSpool.forTest(cache, mail, clock::get);
+        answer("a@x.org", SENT);
+        blocked.enqueue(ENVELOPE, List.of("a@x.org"));
+        Assert.assertTrue(cache.tryAcquireLock(CacheKeys.MAIL_DRAIN_LOCK, "elsewhere", Duration.ofMinutes(1)));
+
+        blocked.drain();
+
+        verifyAttempts("a@x.org", 0);
+        Assert.assertTrue(cache.releaseLock(CacheKeys.MAIL_DRAIN_LOCK, "elsewhere"), "still the other owner's");
+    }
+
+    /** Sends overlap: every one of {@code SEND_IN_FLIGHT} attempts is running before any of them returns. */
+    @Test
+    public void aDrainKeepsSeveralSendsInFlight() {
+        final CountDownLatch running = new CountDownLatch(MailSpool.SEND_IN_FLIGHT);
+        final AtomicInteger overlapped = new AtomicInteger();
+        Mockito.when(mail.attempt(ArgumentMatchers.any(), ArgumentMatchers.anyString(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(AuditActor.class))).thenAnswer(call -> {
+                    running.countDown();
+                    if (running.await(5, TimeUnit.SECONDS)) {
+                        overlapped.incrementAndGet();
+                    }
+                    return SENT;
+                });
+        spool.enqueue(ENVELOPE, IntStream.range(0, MailSpool.SEND_IN_FLIGHT).mapToObj(n -> n + "@x.org").toList());
+
+        spool.drain();
+
+        Assert.assertEquals(overlapped.get(), MailSpool.SEND_IN_FLIGHT, "one at a time would have timed out");
+    }
+
+    @Test
+    public void aCacheThatKeepsNothingHandsTheJobBack() {
+        final MailSpool offline = MailSpool.forTest(new NoopCacheClient(), mail, clock::get);
+
+        Assert.assertNull(offline.enqueue(ENVELOPE, List.of("a@x.org")));
+    }
+
+    @Test
+    public void onlyIssuedJobIdsHaveAStatus() {
+        Assert.assertNull(spool.status(null));
+        Assert.assertNull(spool.status("../../queue"));
+        Assert.assertNull(spool.status("00000000-0000-0000-0000-000000000000"));
+    }
+
+    @Test
+    public void retriesBackOffToACap() {
+        Assert.assertEquals(MailSpool.retryDelay(1), MailSpool.FIRST_RETRY);
+        Assert.assertEquals(MailSpool.retryDelay(2), MailSpool.FIRST_RETRY.multipliedBy(2));
+        Assert.assertEquals(MailSpool.retryDelay(30), MailSpool.MAX_RETRY);
+    }
+}
@@ -0,0 +1,84 @@
+package org.paulsens.trip.mail;
+
+import org.paulsens.trip.model.Address;
+import org.paulsens.trip.model.Person;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link MergeTemplate}: recipient property paths compile and render without EL, and everything else is refused
+ * so the caller keeps the EL path rather than getting a half-rendered mail.
+ */
+public class MergeTemplateTest {
+
+    private static Person person(final String first, final String email) {
+        return Person.builder().first(first).last("Tester").email(email).build();
+    }
+
+    @Test
+    public void plainTextCompilesToItself() {
+        final MergeTemplate template = MergeTemplate.compile("Trip update");
+        Assert.assertNotNull(template);
+        Assert.assertEquals(template.render(person("Ann", "a@x.org")), "Trip update");
+    }
+
+    @Test
+    public void bothSpellingsOfTheRecipientRender() {
+        final MergeTemplate template = MergeTemplate.compile("Hi #{requestScope.to.first} #{ to.last }!");
+        Assert.assertNotNull(template);
+        Assert.assertEquals(template.render(person("Ann", "a@x.org")), "Hi Ann Tester!");
+    }
+
+    @Test
+    public void valuesAreWrittenUnescapedAsElWritesThem() {
+        final MergeTemplate template = MergeTemplate.compile("#{to.first} booked");
+        Assert.assertEquals(template.render(person("Smith & Co", "t@x.org")), "Smith & Co booked",
+                "the subject is plain text: an escaped &amp; would arrive literally");
+    }
+
+    @Test
+    public void anHtmlTemplateEscapesValuesButNotItsOwnText() {
+        final MergeTemplate template = MergeTemplate.compileHtml("<b>#{to.first}</b> booked");
+        Assert.assertEquals(template.render(person("<i>Smith & Co</i>", "t@x.org")),
+                "<b>&lt;i&gt;Smith &amp; Co&lt;/i&gt;</b> booked");
+        Assert.assertNull(MergeTemplate.compileHtml("#{to.first.concat('!')}"), "refused just as compile refuses");
+    }
+
+    @Test
+    public void aNullAnywhereOnThePathRendersAsNothing() {
+        final MergeTemplate template = MergeTemplate.compile("[#{to.middle}][#{to.address.city}]");
+        Assert.assertNotNull(template);
+        Assert.assertEquals(template.render(person("Ann", "a@x.org")), "[][]");
+    }
+
+    @Test
+    public void nestedPropertiesRender() {
+        final Person to = person("Ann", "a@x.org");
+        to.setAddress(new Address("1 Main", "Springfield", "IL", "62701"));
+        Assert.assertEquals(MergeTemplate.compile("#{to.address.city}, #{to.address.state}").render(to),
+                "Springfield, IL");
+    }
+
+    @Test
+    public void anythingBeyondARecipientPropertyPathIsLeftToEl() {
+        Assert.assertNull(MergeTemplate.compile(null));
+        Assert.assertNull(MergeTemplate.compile("#{requestScope.subject}"), "not the recipient");
+        Assert.assertNull(MergeTemplate.compile("#{to.first.concat('!')}"), "a method call");
+        Assert.assertNull(MergeTemplate.compile("#{empty to.first ? 'friend' : to.first}"), "an operator");
+        Assert.assertNull(MergeTemplate.compile("#{to.noSuchProperty}"), "not a property of Person");
+        Assert.assertNull(MergeTemplate.compile("${to.first}"), "immediate syntax");
+        Assert.assertNull(MergeTemplate.compile("Dear \\#{to.first}"), "an escaped expression");
+        Assert.assertNull(MergeTemplate.compile("Dear #{to.first"), "unclosed");
+    }
+
+    @Test
+    public void aReusedBufferRendersEachRecipientFromScratch() {
+        final MergeTemplate template = MergeTemplate.compile("Dear #{to.first},");
+        final StringBuilder buffer = new StringBuilder();
+        template.renderInto(person("Ann", "a@x.org"), buffer);
+        Assert.assertEquals(buffer.toString(), "Dear Ann,");
+        buffer.setLength(0);
+        template.renderInto(person("Bob", "b@x.org"), buffer);
+        Assert.assertEquals(buffer.toString(), "Dear Bob,");
+    }
+}
@@ -0,0 +1,82 @@
+package org.paulsens.trip.mail;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * {@link SendRateLimiter}, on a hand-wound clock: a second's burst, then one send per 1/rate, and a throttle
+ * that stops everybody for a back-off which doubles until a send gets through.
+ */
+public class SendRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void aSecondsWorthGoesAtOnceThenSendsArePaced() {
+        final AtomicLong clock = new AtomicLong(5 * SECOND);
+        final SendRateLimiter limiter = new SendRateLimiter(2.0, clock::get);
+
+        Assert.assertEquals(limiter.reserve(), 0L);
+        Assert.assertEquals(limiter.reserve(), 0L);
+        Assert.assertEquals(limiter.reserve(), SECOND / 2, "the third send waits for the next half-second token");
+
+        clock.addAndGet(SECOND / 2);
+        Assert.assertEquals(limiter.reserve(), 0L);
+        clock.addAndGet(10 * SECOND);
+        Assert.assertEquals(limiter.reserve(), 0L);
+        Assert.assertEquals(limiter.reserve(), 0L);
+        Assert.assertTrue(limiter.reserve() > 0L, "an idle stretch never banks more than one second of sends");
+    }
+
+    @Test
+    public void aThrottlePausesEverySenderAndBacksOffUntilASendGetsThrough() {
+        final AtomicLong clock = new AtomicLong(SECOND);
+        final SendRateLimiter limiter = new SendRateLimiter(10.0, clock::get);
+
+        Assert.assertEquals(limiter.throttled(), Duration.ofSeconds(1));
+        Assert.assertEquals(limiter.reserve(), SECOND, "paused, whatever was in the bucket");
+        Assert.assertEquals(limiter.throttled(), Duration.ofSeconds(2));
+        Assert.assertEquals(limiter.reserve(), 2 * SECOND);
+
+        clock.addAndGet(2 * SECOND);
+        Assert.assertTrue(limiter.reserve() > 0L, "the bucket refills from the end of the pause, not all at once");
+        limiter.sent();
+        Assert.assertEquals(limiter.throttled(), Duration.ofSeconds(1), "a successful send resets the back-off");
+    }
+
+    @Test
+    public void theBackOffIsCapped() {
+        Assert.assertEquals(SendRateLimiter.pauseFor(0), SendRateLimiter.FIRST_PAUSE);
+        Assert.assertEquals(SendRateLimiter.pauseFor(40), SendRateLimiter.MAX_PAUSE);
+    }
+
+    @Test
+    public void theQuotaIsReadOncePerTtlAndOnlyASaneReadingIsAdopted() {
+        final AtomicLong clock = new AtomicLong(SECOND);
+        final SendRateLimiter limiter = new SendRateLimiter(SendRateLimiter.FALLBACK_RATE, clock::get);
+
+        Assert.assertTrue(limiter.claimQuotaRefresh());
+        Assert.assertFalse(limiter.claimQuotaRefresh(), "a second caller does not read it again");
+        limiter.applyQuota(null);
+        limiter.applyQuota(0.0);
+        Assert.assertEquals(limiter.rate(), SendRateLimiter.FALLBACK_RATE);
+        limiter.applyQuota(14.0);
+        Assert.assertEquals(limiter.rate(), 14.0);
+
+        clock.addAndGet(SendRateLimiter.QUOTA_TTL.toNanos());
+        Assert.assertTrue(limiter.claimQuotaRefresh());
+    }
+
+    @Test
+    public void theUnlimitedBucketNeverWaitsOrAsksForAQuota() {
+        final SendRateLimiter limiter = SendRateLimiter.unlimited();
+        limiter.throttled();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(limiter.reserve(), 0L);
+        }
+        Assert.assertFalse(limiter.claimQuotaRefresh());
+    }
+}
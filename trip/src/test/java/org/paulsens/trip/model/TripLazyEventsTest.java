@@ -3,6 +3,9 @@ package org.paulsens.trip.model;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.paulsens.trip.cache.Cached;
 import org.paulsens.trip.dynamo.DAO;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
@@ -116,6 +119,24 @@ public class TripLazyEventsTest {
         }
     }
 
+    /** The interrupt can also land DURING the read, which then returns normally with events missing. */
+    @Test
+    public void anInterruptDuringTheFetchFailsLoudlyToo() {
+        final Trip trip = Trip.builder().tripEventIds(ids()).build();
+        final DAO dao = Mockito.mock(DAO.class);
+        Mockito.when(dao.getTripEvents(Mockito.anyCollection(), Mockito.eq(Cached.YES))).thenAnswer(call -> {
+            Thread.currentThread().interrupt();
+            return events.subList(0, 1);
+        });
+        try (MockedStatic<DAO> mocked = Mockito.mockStatic(DAO.class)) {
+            mocked.when(DAO::getInstance).thenReturn(dao);
+            Assert.assertThrows(IllegalStateException.class, trip::getTripEvents);
+            Assert.assertNull(trip.getResolvedTripEvents(), "the partial read must not be memoized");
+        } finally {
+            Assert.assertTrue(Thread.interrupted(), "the flag is kept for the owner; clear it for the next test");
+        }
+    }
+
     /** Builder-supplied event objects mean a RESOLVED trip -- FakeData's save path must persist them. */
     @Test
     public void builderEventObjectsMakeAResolvedTrip() {
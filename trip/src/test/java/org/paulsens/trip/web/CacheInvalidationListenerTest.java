@@ -76,5 +76,8 @@ public class CacheInvalidationListenerTest {
                 "the channel must survive clearAllCaches");
         org.testng.Assert.assertFalse(CacheKeys.CACHE_INVAL_CHANNEL.startsWith("chat:"),
                 "the channel must stay out of the chat namespace");
+        assertEquals(CacheKeys.CACHE_KEY_INVAL_CHANNEL, "sys:v1:cache_key_inval");
+        org.testng.Assert.assertFalse(CacheKeys.CACHE_KEY_INVAL_CHANNEL.startsWith(CacheKeys.FORMAT_VERSION),
+                "the per-key channel must survive clearAllCaches too");
     }
 }